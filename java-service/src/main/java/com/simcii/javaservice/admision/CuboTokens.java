@@ -0,0 +1,57 @@
+package com.simcii.javaservice.admision;
+
+/**
+ * Cubo de tokens con recarga perezosa: los tokens se recalculan al consumir a partir del tiempo
+ * transcurrido, sin hilos ni temporizadores. La tasa y la capacidad se reciben en cada llamada
+ * para que los cambios de configuración afecten también a los cubos existentes.
+ */
+public final class CuboTokens {
+
+    private double tokens;
+    private long ultimaRecarga;
+
+    public CuboTokens(double capacidad, long ahoraNanos) {
+        this.tokens = capacidad;
+        this.ultimaRecarga = ahoraNanos;
+    }
+
+    /**
+     * Intenta consumir un token.
+     *
+     * @param tasa Tokens por segundo
+     * @param capacidad Máximo de tokens acumulables (ráfaga)
+     * @param ahoraNanos Instante actual de {@link System#nanoTime()}
+     * @return long 0 si se consumió el token; si no, nanosegundos hasta que haya uno disponible
+     */
+    public synchronized long consumir(double tasa, double capacidad, long ahoraNanos) {
+        recargar(tasa, capacidad, ahoraNanos);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return tasa > 0 ? (long) Math.ceil((1 - tokens) / tasa * 1e9) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Devuelve un token consumido por una petición que finalmente se rechazó.
+     */
+    public synchronized void devolver(double capacidad) {
+        tokens = Math.min(capacidad, tokens + 1);
+    }
+
+    /**
+     * Indica si el cubo está lleno, es decir, si descartarlo no cambia lo que se admite.
+     */
+    public synchronized boolean lleno(double tasa, double capacidad, long ahoraNanos) {
+        recargar(tasa, capacidad, ahoraNanos);
+        return tokens >= capacidad;
+    }
+
+    private void recargar(double tasa, double capacidad, long ahoraNanos) {
+        long transcurrido = ahoraNanos - ultimaRecarga;
+        if (transcurrido > 0) {
+            tokens = Math.min(capacidad, tokens + transcurrido * tasa / 1e9);
+            ultimaRecarga = ahoraNanos;
+        }
+    }
+}
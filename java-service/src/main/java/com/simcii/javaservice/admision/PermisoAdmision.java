@@ -0,0 +1,63 @@
+package com.simcii.javaservice.admision;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resultado de la admisión de una petición de ingesta. Un permiso concedido ocupa una plaza de
+ * peticiones en curso hasta que se cierra; uno rechazado indica el motivo y cuándo reintentar.
+ */
+public final class PermisoAdmision implements AutoCloseable {
+
+    public static final String MOTIVO_CONCURRENCIA = "concurrencia";
+    public static final String MOTIVO_CLIENTE = "cliente";
+    public static final String MOTIVO_DISPOSITIVO = "dispositivo";
+
+    private static final PermisoAdmision SIN_CONTROL = new PermisoAdmision(null, null, 0);
+
+    private final AtomicInteger enCurso;
+    private final String motivo;
+    private final long reintentarEnSegundos;
+    private boolean cerrado;
+
+    private PermisoAdmision(AtomicInteger enCurso, String motivo, long reintentarEnSegundos) {
+        this.enCurso = enCurso;
+        this.motivo = motivo;
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public static PermisoAdmision concedido(AtomicInteger enCurso) {
+        return new PermisoAdmision(enCurso, null, 0);
+    }
+
+    public static PermisoAdmision sinControl() {
+        return SIN_CONTROL;
+    }
+
+    public static PermisoAdmision rechazado(String motivo, long esperaNanos) {
+        long segundos = Math.max(1, (long) Math.ceil(esperaNanos / 1e9));
+        return new PermisoAdmision(null, motivo, Math.min(segundos, 3600));
+    }
+
+    public boolean isConcedido() {
+        return motivo == null;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    /**
+     * Valor de la cabecera Retry-After, en segundos.
+     */
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+
+    @Override
+    public void close() {
+        if (enCurso != null && !cerrado) {
+            cerrado = true;
+            enCurso.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.simcii.javaservice.admision;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Límites de admisión de los endpoints de ingesta (sección "admision" de application.yml).
+ * Los campos son volátiles y se leen en cada petición: los cambios hechos en tiempo de
+ * ejecución (PUT /api/admision) se aplican de inmediato, también a los cubos ya creados.
+ */
+@Component
+@ConfigurationProperties(prefix = "admision")
+public class PropiedadesAdmision {
+
+    private volatile boolean habilitada = true;
+    private volatile int maxEnCurso = 8;
+    private volatile double tasaCliente = 200;
+    private volatile double rafagaCliente = 400;
+    private volatile double tasaDispositivo = 2;
+    private volatile double rafagaDispositivo = 10;
+    private volatile String cabeceraCliente = "X-Client-Id";
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    public void setHabilitada(boolean habilitada) {
+        this.habilitada = habilitada;
+    }
+
+    /**
+     * Peticiones de ingesta procesándose a la vez; el resto se rechaza sin ocupar conexiones de Hikari.
+     */
+    public int getMaxEnCurso() {
+        return maxEnCurso;
+    }
+
+    public void setMaxEnCurso(int maxEnCurso) {
+        this.maxEnCurso = maxEnCurso;
+    }
+
+    /**
+     * Lecturas por segundo admitidas de cada cliente.
+     */
+    public double getTasaCliente() {
+        return tasaCliente;
+    }
+
+    public void setTasaCliente(double tasaCliente) {
+        this.tasaCliente = tasaCliente;
+    }
+
+    public double getRafagaCliente() {
+        return rafagaCliente;
+    }
+
+    public void setRafagaCliente(double rafagaCliente) {
+        this.rafagaCliente = rafagaCliente;
+    }
+
+    /**
+     * Lecturas por segundo admitidas de cada dispositivo, sea cual sea el cliente que las envía.
+     */
+    public double getTasaDispositivo() {
+        return tasaDispositivo;
+    }
+
+    public void setTasaDispositivo(double tasaDispositivo) {
+        this.tasaDispositivo = tasaDispositivo;
+    }
+
+    public double getRafagaDispositivo() {
+        return rafagaDispositivo;
+    }
+
+    public void setRafagaDispositivo(double rafagaDispositivo) {
+        this.rafagaDispositivo = rafagaDispositivo;
+    }
+
+    /**
+     * Cabecera que identifica al cliente; sin ella se usa X-Real-IP o la dirección remota. Ambas
+     * cabeceras se ignoran salvo en peticiones de admision.proxies-confiables.
+     */
+    public String getCabeceraCliente() {
+        return cabeceraCliente;
+    }
+
+    public void setCabeceraCliente(String cabeceraCliente) {
+        this.cabeceraCliente = cabeceraCliente;
+    }
+
+    /**
+     * Copia de los valores actuales, para validar cambios antes de aplicarlos.
+     */
+    public PropiedadesAdmision copia() {
+        PropiedadesAdmision copia = new PropiedadesAdmision();
+        copia.aplicar(this);
+        return copia;
+    }
+
+    public void aplicar(PropiedadesAdmision otras) {
+        this.habilitada = otras.habilitada;
+        this.maxEnCurso = otras.maxEnCurso;
+        this.tasaCliente = otras.tasaCliente;
+        this.rafagaCliente = otras.rafagaCliente;
+        this.tasaDispositivo = otras.tasaDispositivo;
+        this.rafagaDispositivo = otras.rafagaDispositivo;
+        this.cabeceraCliente = otras.cabeceraCliente;
+    }
+}
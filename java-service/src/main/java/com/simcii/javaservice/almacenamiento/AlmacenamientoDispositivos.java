@@ -0,0 +1,146 @@
+package com.simcii.javaservice.almacenamiento;
+
+import com.simcii.javaservice.dto.ComandoActuadorRequest;
+import com.simcii.javaservice.dto.LecturaCompacta;
+import com.simcii.javaservice.dto.ResultadoComandoActuador;
+import com.simcii.javaservice.models.Alerta;
+import com.simcii.javaservice.models.Dispositivo;
+import com.simcii.javaservice.models.Lectura;
+import com.simcii.javaservice.models.Umbral;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Backend de almacenamiento de dispositivos, lecturas, umbrales y alertas.
+ * Los servicios trabajan solo contra esta interfaz; la implementación se elige por perfil:
+ * {@link AlmacenamientoJpa} por defecto y {@link AlmacenamientoMemoria} con el perfil "memoria".
+ */
+public interface AlmacenamientoDispositivos {
+
+    // Dispositivos
+    List<Dispositivo> buscarDispositivos();
+
+    Optional<Dispositivo> buscarDispositivo(Long id);
+
+    List<Dispositivo> buscarDispositivosActivos();
+
+    List<Dispositivo> buscarSensoresActivos();
+
+    /**
+     * Sensores activos cuyo ID cae en la partición indicada (ID módulo particiones).
+     */
+    List<Dispositivo> buscarSensoresActivosPorParticion(int particiones, int particion);
+
+    /**
+     * Sensores activos sin ningún umbral, ordenados por ID, a partir del ID indicado (exclusivo).
+     */
+    List<Dispositivo> buscarSensoresActivosSinUmbral(Long despuesDeId, int limite);
+
+    List<Dispositivo> buscarActuadores();
+
+    Dispositivo guardarDispositivo(Dispositivo dispositivo);
+
+    void eliminarDispositivo(Long id);
+
+    /**
+     * Guarda un lote de dispositivos nuevos y sus umbrales de forma atómica: si falla no queda
+     * guardado ninguno (en JPA, una transacción; en memoria, un único registro del WAL).
+     * Cada umbral referencia a uno de los dispositivos del lote, que recibe su ID aquí.
+     */
+    void provisionarLote(List<Dispositivo> dispositivos, List<Umbral> umbrales);
+
+    /**
+     * Aplica un lote de comandos de actuadores en una transacción. Cada comando incrementa la
+     * versión del actuador; los que no encuentran el actuador o la versión esperada se devuelven
+     * como error sin afectar al resto. El resultado va en el orden de la lista recibida.
+     */
+    List<ResultadoComandoActuador> aplicarComandosActuador(List<ComandoActuadorRequest> comandos);
+
+    // Lecturas
+    /**
+     * Guarda una lectura. Con el índice único de secuencias (JPA), una secuencia ya guardada
+     * para el dispositivo lanza {@link org.springframework.dao.DuplicateKeyException}.
+     */
+    Lectura guardarLectura(Lectura lectura);
+
+    /**
+     * Historial completo de un dispositivo, más recientes primero.
+     */
+    List<Lectura> buscarLecturas(Long dispositivoId);
+
+    /**
+     * Lecturas de un dispositivo en un rango de fechas, más recientes primero.
+     */
+    List<Lectura> buscarLecturasEntre(Long dispositivoId, LocalDateTime inicio, LocalDateTime fin);
+
+    List<Lectura> buscarUltimasLecturas(Long dispositivoId, int cantidad);
+
+    /**
+     * Historial de un dispositivo como lecturas compactas, más recientes primero.
+     */
+    List<LecturaCompacta> buscarLecturasCompactas(Long dispositivoId);
+
+    List<LecturaCompacta> buscarUltimasLecturasCompactas(Long dispositivoId, int cantidad);
+
+    /**
+     * Última lectura de cada uno de los dispositivos, sin una consulta por dispositivo.
+     * Los dispositivos sin lecturas no aparecen en el resultado.
+     */
+    Map<Long, LecturaCompacta> buscarUltimaLecturaPorDispositivo(Collection<Long> dispositivoIds);
+
+    /**
+     * Lecturas compactas de un dispositivo en un rango de fechas, en orden cronológico (para gráficas).
+     */
+    List<LecturaCompacta> buscarLecturasCompactasEntre(Long dispositivoId, LocalDateTime inicio, LocalDateTime fin);
+
+    // Retención de lecturas
+    /**
+     * IDs de los sensores de un tipo (activos o no), ordenados, a partir del ID indicado (exclusivo).
+     */
+    List<Long> buscarIdsSensoresPorTipo(String tipoSensor, Long despuesDeId, int limite);
+
+    /**
+     * Borra como mucho {@code maximo} lecturas de un dispositivo anteriores a {@code limite},
+     * empezando por las más antiguas.
+     *
+     * @return int número de lecturas borradas
+     */
+    int eliminarLecturasAnteriores(Long dispositivoId, LocalDateTime limite, int maximo);
+
+    /**
+     * Último dispositivo terminado por cada política de retención en el ciclo en curso.
+     */
+    Map<String, Long> cargarPuntosControlRetencion();
+
+    void guardarPuntoControlRetencion(String politica, Long ultimoDispositivoId);
+
+    // Umbrales
+    Optional<Umbral> buscarUmbral(Long id);
+
+    List<Umbral> buscarUmbrales(Long dispositivoId);
+
+    List<Umbral> buscarUmbralesActivos(Long dispositivoId);
+
+    Umbral guardarUmbral(Umbral umbral);
+
+    /**
+     * Guarda un lote de umbrales nuevos de dispositivos ya existentes en una sola escritura.
+     */
+    void guardarUmbrales(List<Umbral> umbrales);
+
+    // Alertas
+    Alerta guardarAlerta(Alerta alerta);
+
+    List<Alerta> buscarAlertasActivas();
+
+    List<Alerta> buscarAlertasPorDispositivo(Long dispositivoId);
+
+    /**
+     * Número de alertas activas por ubicación del dispositivo, sin cargar las alertas.
+     */
+    Map<String, Long> contarAlertasActivasPorUbicacion();
+}
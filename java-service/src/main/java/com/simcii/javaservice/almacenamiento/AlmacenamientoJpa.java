@@ -0,0 +1,251 @@
+package com.simcii.javaservice.almacenamiento;
+
+import com.simcii.javaservice.dto.ComandoActuadorRequest;
+import com.simcii.javaservice.dto.LecturaCompacta;
+import com.simcii.javaservice.dto.ResultadoComandoActuador;
+import com.simcii.javaservice.models.Alerta;
+import com.simcii.javaservice.models.Dispositivo;
+import com.simcii.javaservice.models.Lectura;
+import com.simcii.javaservice.models.Umbral;
+import com.simcii.javaservice.repositories.AlertaRepository;
+import com.simcii.javaservice.repositories.DispositivoRepository;
+import com.simcii.javaservice.repositories.LecturaRepository;
+import com.simcii.javaservice.repositories.UmbralRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Almacenamiento sobre PostgreSQL mediante los repositorios JPA. Backend por defecto.
+ */
+@Component
+@Profile("!memoria")
+public class AlmacenamientoJpa implements AlmacenamientoDispositivos {
+
+    private static final String INDICE_SECUENCIA = "ux_lecturas_dispositivo_secuencia";
+    private static final int BLOQUE_IDS = 1000;
+
+    @Autowired
+    private DispositivoRepository dispositivoRepository;
+
+    @Autowired
+    private LecturaRepository lecturaRepository;
+
+    @Autowired
+    private UmbralRepository umbralRepository;
+
+    @Autowired
+    private AlertaRepository alertaRepository;
+
+    @Autowired
+    private ProvisionJdbc provisionJdbc;
+
+    @Autowired
+    private ComandosActuadorJdbc comandosActuadorJdbc;
+
+    @Autowired
+    private RetencionJdbc retencionJdbc;
+
+    @Override
+    public List<Dispositivo> buscarDispositivos() {
+        return dispositivoRepository.findAll();
+    }
+
+    @Override
+    public Optional<Dispositivo> buscarDispositivo(Long id) {
+        return dispositivoRepository.findById(id);
+    }
+
+    @Override
+    public List<Dispositivo> buscarDispositivosActivos() {
+        return dispositivoRepository.findByActivoTrue();
+    }
+
+    @Override
+    public List<Dispositivo> buscarSensoresActivos() {
+        return dispositivoRepository.findSensoresActivos();
+    }
+
+    @Override
+    public List<Dispositivo> buscarSensoresActivosPorParticion(int particiones, int particion) {
+        return dispositivoRepository.findSensoresActivosPorParticion(particiones, particion);
+    }
+
+    @Override
+    public List<Dispositivo> buscarSensoresActivosSinUmbral(Long despuesDeId, int limite) {
+        return dispositivoRepository.findSensoresActivosSinUmbral(despuesDeId, PageRequest.of(0, limite));
+    }
+
+    @Override
+    public List<Dispositivo> buscarActuadores() {
+        return dispositivoRepository.findAllActuadores();
+    }
+
+    @Override
+    public Dispositivo guardarDispositivo(Dispositivo dispositivo) {
+        return dispositivoRepository.save(dispositivo);
+    }
+
+    @Override
+    public void eliminarDispositivo(Long id) {
+        dispositivoRepository.deleteById(id);
+    }
+
+    @Override
+    @Transactional
+    public void provisionarLote(List<Dispositivo> dispositivos, List<Umbral> umbrales) {
+        provisionJdbc.insertar(dispositivos, umbrales);
+    }
+
+    @Override
+    @Transactional
+    public List<ResultadoComandoActuador> aplicarComandosActuador(List<ComandoActuadorRequest> comandos) {
+        return comandosActuadorJdbc.aplicar(comandos);
+    }
+
+    @Override
+    public Lectura guardarLectura(Lectura lectura) {
+        try {
+            return lecturaRepository.save(lectura);
+        } catch (DataIntegrityViolationException e) {
+            if (lectura.getSecuencia() != null && e.getCause() instanceof ConstraintViolationException violacion
+                    && INDICE_SECUENCIA.equalsIgnoreCase(violacion.getConstraintName())) {
+                throw new DuplicateKeyException("Secuencia " + lectura.getSecuencia() + " ya registrada", e);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Lectura> buscarLecturas(Long dispositivoId) {
+        return lecturaRepository.findByDispositivoIdOrderByFechaHoraDesc(dispositivoId);
+    }
+
+    @Override
+    public List<Lectura> buscarLecturasEntre(Long dispositivoId, LocalDateTime inicio, LocalDateTime fin) {
+        return lecturaRepository.findByDispositivoIdAndFechaHoraBetween(dispositivoId, inicio, fin);
+    }
+
+    @Override
+    public List<Lectura> buscarUltimasLecturas(Long dispositivoId, int cantidad) {
+        return lecturaRepository.findUltimasLecturas(dispositivoId, cantidad);
+    }
+
+    @Override
+    public List<LecturaCompacta> buscarLecturasCompactas(Long dispositivoId) {
+        return lecturaRepository.findCompactasByDispositivoId(dispositivoId);
+    }
+
+    @Override
+    public List<LecturaCompacta> buscarUltimasLecturasCompactas(Long dispositivoId, int cantidad) {
+        if (cantidad <= 0) {
+            return List.of();
+        }
+        return lecturaRepository.findUltimasCompactas(dispositivoId, PageRequest.of(0, cantidad));
+    }
+
+    @Override
+    public Map<Long, LecturaCompacta> buscarUltimaLecturaPorDispositivo(Collection<Long> dispositivoIds) {
+        Map<Long, LecturaCompacta> ultimas = new HashMap<>();
+        List<Long> ids = List.copyOf(dispositivoIds);
+        // Por bloques: el protocolo de PostgreSQL admite como mucho 32767 parámetros por sentencia
+        for (int desde = 0; desde < ids.size(); desde += BLOQUE_IDS) {
+            List<Long> bloque = ids.subList(desde, Math.min(desde + BLOQUE_IDS, ids.size()));
+            for (Object[] fila : lecturaRepository.findUltimaLecturaPorDispositivo(bloque)) {
+                ultimas.put((Long) fila[1], new LecturaCompacta((Long) fila[0], (Long) fila[1], (Double) fila[2],
+                        (String) fila[3], fila[4] != null ? ((Timestamp) fila[4]).toLocalDateTime() : null));
+            }
+        }
+        return ultimas;
+    }
+
+    @Override
+    public List<LecturaCompacta> buscarLecturasCompactasEntre(Long dispositivoId, LocalDateTime inicio, LocalDateTime fin) {
+        return lecturaRepository.findCompactasEntre(dispositivoId, inicio, fin);
+    }
+
+    @Override
+    public List<Long> buscarIdsSensoresPorTipo(String tipoSensor, Long despuesDeId, int limite) {
+        return retencionJdbc.buscarIdsSensoresPorTipo(tipoSensor, despuesDeId, limite);
+    }
+
+    @Override
+    public int eliminarLecturasAnteriores(Long dispositivoId, LocalDateTime limite, int maximo) {
+        return retencionJdbc.eliminarLecturasAnteriores(dispositivoId, limite, maximo);
+    }
+
+    @Override
+    public Map<String, Long> cargarPuntosControlRetencion() {
+        return retencionJdbc.cargarPuntosControl();
+    }
+
+    @Override
+    public void guardarPuntoControlRetencion(String politica, Long ultimoDispositivoId) {
+        retencionJdbc.guardarPuntoControl(politica, ultimoDispositivoId);
+    }
+
+    @Override
+    public Optional<Umbral> buscarUmbral(Long id) {
+        return umbralRepository.findById(id);
+    }
+
+    @Override
+    public List<Umbral> buscarUmbrales(Long dispositivoId) {
+        return umbralRepository.findByDispositivoId(dispositivoId);
+    }
+
+    @Override
+    public List<Umbral> buscarUmbralesActivos(Long dispositivoId) {
+        return umbralRepository.findByDispositivoIdAndActivoTrue(dispositivoId);
+    }
+
+    @Override
+    public Umbral guardarUmbral(Umbral umbral) {
+        return umbralRepository.save(umbral);
+    }
+
+    @Override
+    @Transactional
+    public void guardarUmbrales(List<Umbral> umbrales) {
+        provisionJdbc.insertarUmbrales(umbrales);
+    }
+
+    @Override
+    public Alerta guardarAlerta(Alerta alerta) {
+        return alertaRepository.save(alerta);
+    }
+
+    @Override
+    public List<Alerta> buscarAlertasActivas() {
+        return alertaRepository.findByActivaTrue();
+    }
+
+    @Override
+    public List<Alerta> buscarAlertasPorDispositivo(Long dispositivoId) {
+        return alertaRepository.findByDispositivoIdAndActivaTrue(dispositivoId);
+    }
+
+    @Override
+    public Map<String, Long> contarAlertasActivasPorUbicacion() {
+        Map<String, Long> conteos = new HashMap<>();
+        for (Object[] fila : alertaRepository.contarActivasPorUbicacion()) {
+            if (fila[0] != null) {
+                conteos.put((String) fila[0], (Long) fila[1]);
+            }
+        }
+        return conteos;
+    }
+}
@@ -0,0 +1,277 @@
+package com.simcii.javaservice.almacenamiento;
+
+import com.simcii.javaservice.dto.ComandoActuadorRequest;
+import com.simcii.javaservice.dto.LecturaCompacta;
+import com.simcii.javaservice.dto.ResultadoComandoActuador;
+import com.simcii.javaservice.models.Actuador;
+import com.simcii.javaservice.models.Alerta;
+import com.simcii.javaservice.models.Dispositivo;
+import com.simcii.javaservice.models.Lectura;
+import com.simcii.javaservice.models.Sensor;
+import com.simcii.javaservice.models.Umbral;
+import com.simcii.javaservice.services.DispositivoMemoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Almacenamiento en memoria de baja latencia sobre {@link DispositivoMemoryService}.
+ * Se activa con el perfil "memoria"; la durabilidad depende de su snapshot + WAL.
+ */
+@Component
+@Profile("memoria")
+public class AlmacenamientoMemoria implements AlmacenamientoDispositivos {
+
+    private static final Comparator<Lectura> MAS_RECIENTES_PRIMERO =
+            Comparator.comparing(Lectura::getFechaHora).reversed();
+
+    @Autowired
+    private DispositivoMemoryService memoria;
+
+    // Los puntos de control de la retención no se persisten: tras reiniciar el ciclo empieza de nuevo
+    private final Map<String, Long> puntosControlRetencion = new ConcurrentHashMap<>();
+
+    @Override
+    public List<Dispositivo> buscarDispositivos() {
+        return memoria.obtenerTodosDispositivos();
+    }
+
+    @Override
+    public Optional<Dispositivo> buscarDispositivo(Long id) {
+        return memoria.obtenerDispositivoPorId(id);
+    }
+
+    @Override
+    public List<Dispositivo> buscarDispositivosActivos() {
+        return memoria.obtenerTodosDispositivos().stream()
+                .filter(d -> Boolean.TRUE.equals(d.getActivo()))
+                .toList();
+    }
+
+    @Override
+    public List<Dispositivo> buscarSensoresActivos() {
+        return memoria.obtenerTodosDispositivos().stream()
+                .filter(d -> d instanceof Sensor && Boolean.TRUE.equals(d.getActivo()))
+                .toList();
+    }
+
+    @Override
+    public List<Dispositivo> buscarSensoresActivosPorParticion(int particiones, int particion) {
+        return buscarSensoresActivos().stream()
+                .filter(d -> Math.floorMod(d.getId(), (long) particiones) == particion)
+                .toList();
+    }
+
+    @Override
+    public List<Dispositivo> buscarSensoresActivosSinUmbral(Long despuesDeId, int limite) {
+        return buscarSensoresActivos().stream()
+                .filter(d -> d.getId() > despuesDeId && memoria.obtenerUmbralPorDispositivo(d.getId()).isEmpty())
+                .sorted(Comparator.comparing(Dispositivo::getId))
+                .limit(limite)
+                .toList();
+    }
+
+    @Override
+    public List<Dispositivo> buscarActuadores() {
+        return memoria.obtenerTodosDispositivos().stream()
+                .filter(d -> d instanceof Actuador)
+                .toList();
+    }
+
+    @Override
+    public Dispositivo guardarDispositivo(Dispositivo dispositivo) {
+        // Como @Version en JPA: cada actualización de un dispositivo existente avanza su versión
+        if (dispositivo.getId() != null) {
+            dispositivo.setVersion(dispositivo.getVersion() + 1);
+        }
+        return memoria.guardarDispositivo(dispositivo);
+    }
+
+    @Override
+    public void eliminarDispositivo(Long id) {
+        memoria.eliminarDispositivo(id);
+    }
+
+    @Override
+    public void provisionarLote(List<Dispositivo> dispositivos, List<Umbral> umbrales) {
+        memoria.provisionarLote(dispositivos, umbrales);
+    }
+
+    // La versión solo vive en memoria: el snapshot y el WAL no la guardan y se reinicia a 0
+    @Override
+    public List<ResultadoComandoActuador> aplicarComandosActuador(List<ComandoActuadorRequest> comandos) {
+        List<ResultadoComandoActuador> resultados = new ArrayList<>(comandos.size());
+        for (int i = 0; i < comandos.size(); i++) {
+            ComandoActuadorRequest comando = comandos.get(i);
+            Optional<Dispositivo> encontrado = memoria.obtenerDispositivoPorId(comando.getActuadorId());
+            if (encontrado.isEmpty() || !(encontrado.get() instanceof Actuador actuador)) {
+                resultados.add(ResultadoComandoActuador.error(i, comando.getActuadorId(), null,
+                        ResultadoComandoActuador.NO_ENCONTRADO));
+                continue;
+            }
+            synchronized (actuador) {
+                if (comando.getVersion() != null && comando.getVersion() != actuador.getVersion()) {
+                    resultados.add(ResultadoComandoActuador.error(i, actuador.getId(), actuador.getVersion(),
+                            ResultadoComandoActuador.CONFLICTO_VERSION));
+                    continue;
+                }
+                if (comando.getEstado() != null) {
+                    actuador.setEstado(comando.getEstado());
+                }
+                if (comando.getModoOperacion() != null) {
+                    actuador.setModoOperacion(comando.getModoOperacion());
+                }
+                actuador.setFechaActualizacion(LocalDateTime.now());
+                guardarDispositivo(actuador);
+                resultados.add(ResultadoComandoActuador.exito(i, actuador.getId(), actuador.getVersion()));
+            }
+        }
+        return resultados;
+    }
+
+    @Override
+    public Lectura guardarLectura(Lectura lectura) {
+        memoria.agregarLectura(lectura);
+        return lectura;
+    }
+
+    @Override
+    public List<Lectura> buscarLecturas(Long dispositivoId) {
+        List<Lectura> lecturas = memoria.obtenerLecturasPorDispositivo(dispositivoId);
+        lecturas.sort(MAS_RECIENTES_PRIMERO);
+        return lecturas;
+    }
+
+    @Override
+    public List<Lectura> buscarLecturasEntre(Long dispositivoId, LocalDateTime inicio, LocalDateTime fin) {
+        return memoria.obtenerLecturasPorDispositivo(dispositivoId).stream()
+                .filter(l -> !l.getFechaHora().isBefore(inicio) && !l.getFechaHora().isAfter(fin))
+                .sorted(MAS_RECIENTES_PRIMERO)
+                .toList();
+    }
+
+    @Override
+    public List<Lectura> buscarUltimasLecturas(Long dispositivoId, int cantidad) {
+        return memoria.obtenerUltimasLecturas(dispositivoId, cantidad);
+    }
+
+    @Override
+    public List<LecturaCompacta> buscarLecturasCompactas(Long dispositivoId) {
+        return buscarLecturas(dispositivoId).stream().map(LecturaCompacta::de).toList();
+    }
+
+    @Override
+    public List<LecturaCompacta> buscarUltimasLecturasCompactas(Long dispositivoId, int cantidad) {
+        return buscarUltimasLecturas(dispositivoId, cantidad).stream().map(LecturaCompacta::de).toList();
+    }
+
+    @Override
+    public Map<Long, LecturaCompacta> buscarUltimaLecturaPorDispositivo(Collection<Long> dispositivoIds) {
+        Map<Long, LecturaCompacta> ultimas = new HashMap<>();
+        for (Long dispositivoId : dispositivoIds) {
+            List<Lectura> lecturas = memoria.obtenerUltimasLecturas(dispositivoId, 1);
+            if (!lecturas.isEmpty()) {
+                ultimas.put(dispositivoId, LecturaCompacta.de(lecturas.get(0)));
+            }
+        }
+        return ultimas;
+    }
+
+    @Override
+    public List<LecturaCompacta> buscarLecturasCompactasEntre(Long dispositivoId, LocalDateTime inicio, LocalDateTime fin) {
+        return memoria.obtenerLecturasPorDispositivo(dispositivoId).stream()
+                .filter(l -> !l.getFechaHora().isBefore(inicio) && !l.getFechaHora().isAfter(fin))
+                .sorted(Comparator.comparing(Lectura::getFechaHora))
+                .map(LecturaCompacta::de)
+                .toList();
+    }
+
+    @Override
+    public List<Long> buscarIdsSensoresPorTipo(String tipoSensor, Long despuesDeId, int limite) {
+        return memoria.obtenerTodosDispositivos().stream()
+                .filter(d -> d instanceof Sensor sensor && tipoSensor.equalsIgnoreCase(sensor.getTipoSensor()))
+                .map(Dispositivo::getId)
+                .filter(id -> id > despuesDeId)
+                .sorted()
+                .limit(limite)
+                .toList();
+    }
+
+    @Override
+    public int eliminarLecturasAnteriores(Long dispositivoId, LocalDateTime limite, int maximo) {
+        return memoria.eliminarLecturasAnteriores(dispositivoId, limite, maximo);
+    }
+
+    @Override
+    public Map<String, Long> cargarPuntosControlRetencion() {
+        return Map.copyOf(puntosControlRetencion);
+    }
+
+    @Override
+    public void guardarPuntoControlRetencion(String politica, Long ultimoDispositivoId) {
+        puntosControlRetencion.put(politica, ultimoDispositivoId);
+    }
+
+    @Override
+    public Optional<Umbral> buscarUmbral(Long id) {
+        return memoria.obtenerUmbralPorId(id);
+    }
+
+    @Override
+    public List<Umbral> buscarUmbrales(Long dispositivoId) {
+        return memoria.obtenerUmbralPorDispositivo(dispositivoId).stream().toList();
+    }
+
+    @Override
+    public List<Umbral> buscarUmbralesActivos(Long dispositivoId) {
+        return memoria.obtenerUmbralPorDispositivo(dispositivoId).stream()
+                .filter(u -> Boolean.TRUE.equals(u.getActivo()))
+                .toList();
+    }
+
+    @Override
+    public Umbral guardarUmbral(Umbral umbral) {
+        return memoria.guardarUmbral(umbral);
+    }
+
+    @Override
+    public void guardarUmbrales(List<Umbral> umbrales) {
+        umbrales.forEach(memoria::guardarUmbral);
+    }
+
+    @Override
+    public Alerta guardarAlerta(Alerta alerta) {
+        memoria.agregarAlerta(alerta);
+        return alerta;
+    }
+
+    @Override
+    public List<Alerta> buscarAlertasActivas() {
+        return memoria.obtenerAlertasActivas();
+    }
+
+    @Override
+    public List<Alerta> buscarAlertasPorDispositivo(Long dispositivoId) {
+        return memoria.obtenerAlertasPorDispositivo(dispositivoId);
+    }
+
+    @Override
+    public Map<String, Long> contarAlertasActivasPorUbicacion() {
+        return memoria.obtenerAlertasActivas().stream()
+                .map(a -> a.getDispositivo() != null ? a.getDispositivo().getUbicacion() : null)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(u -> u, Collectors.counting()));
+    }
+}
@@ -0,0 +1,111 @@
+package com.simcii.javaservice.almacenamiento;
+
+import com.simcii.javaservice.dto.ComandoActuadorRequest;
+import com.simcii.javaservice.dto.ResultadoComandoActuador;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Aplicación por lotes de comandos de actuadores con UPDATE dirigidos en lugar de
+ * findById + save por actuador. Cada lote son tres sentencias: un batch que incrementa la
+ * versión en dispositivos (comprobando la esperada si se indica), un batch que cambia
+ * estado/modo en actuadores solo para las filas anteriores, y una consulta de versiones.
+ * Los comandos se aplican en orden de ID para que dos lotes concurrentes no se bloqueen
+ * mutuamente. Debe ejecutarse dentro de la transacción del llamador.
+ */
+@Component
+@Profile("!memoria")
+class ComandosActuadorJdbc {
+
+    private static final String ACTUALIZAR_VERSION =
+            "UPDATE dispositivos d SET version = d.version + 1, fecha_actualizacion = ? " +
+            "WHERE d.id = ? AND d.version = COALESCE(?, d.version) " +
+            "AND EXISTS (SELECT 1 FROM actuadores a WHERE a.id = d.id)";
+
+    private static final String ACTUALIZAR_ACTUADOR =
+            "UPDATE actuadores SET estado = COALESCE(?, estado), modo_operacion = COALESCE(?, modo_operacion) " +
+            "WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    List<ResultadoComandoActuador> aplicar(List<ComandoActuadorRequest> comandos) {
+        Integer[] orden = new Integer[comandos.size()];
+        for (int i = 0; i < orden.length; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, Comparator.comparing(i -> comandos.get(i).getActuadorId()));
+        List<ComandoActuadorRequest> ordenados = Arrays.stream(orden).map(comandos::get).toList();
+
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        int[][] versiones = jdbcTemplate.batchUpdate(ACTUALIZAR_VERSION, ordenados, ordenados.size(), (ps, c) -> {
+            ps.setTimestamp(1, ahora);
+            ps.setLong(2, c.getActuadorId());
+            if (c.getVersion() != null) {
+                ps.setLong(3, c.getVersion());
+            } else {
+                ps.setNull(3, Types.BIGINT);
+            }
+        });
+
+        List<ComandoActuadorRequest> aplicables = new ArrayList<>();
+        boolean[] aplicado = new boolean[ordenados.size()];
+        for (int k = 0; k < ordenados.size(); k++) {
+            aplicado[k] = versiones[0][k] > 0;
+            if (aplicado[k]) {
+                aplicables.add(ordenados.get(k));
+            }
+        }
+        if (!aplicables.isEmpty()) {
+            jdbcTemplate.batchUpdate(ACTUALIZAR_ACTUADOR, aplicables, aplicables.size(), (ps, c) -> {
+                if (c.getEstado() != null) {
+                    ps.setBoolean(1, c.getEstado());
+                } else {
+                    ps.setNull(1, Types.BOOLEAN);
+                }
+                ps.setString(2, c.getModoOperacion());
+                ps.setLong(3, c.getActuadorId());
+            });
+        }
+
+        Map<Long, Long> actuales = new HashMap<>();
+        Long[] ids = ordenados.stream().map(ComandoActuadorRequest::getActuadorId).distinct().toArray(Long[]::new);
+        jdbcTemplate.query("SELECT d.id, d.version FROM dispositivos d JOIN actuadores a ON a.id = d.id " +
+                        "WHERE d.id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)),
+                rs -> {
+                    actuales.put(rs.getLong(1), rs.getLong(2));
+                });
+
+        // Con varios comandos sobre el mismo actuador, cada uno avanza la versión en uno
+        Map<Long, Long> pendientes = new HashMap<>();
+        for (int k = 0; k < ordenados.size(); k++) {
+            if (aplicado[k]) {
+                pendientes.merge(ordenados.get(k).getActuadorId(), 1L, Long::sum);
+            }
+        }
+
+        ResultadoComandoActuador[] resultados = new ResultadoComandoActuador[comandos.size()];
+        for (int k = 0; k < ordenados.size(); k++) {
+            int indice = orden[k];
+            Long id = ordenados.get(k).getActuadorId();
+            Long actual = actuales.get(id);
+            if (aplicado[k]) {
+                long restantes = pendientes.merge(id, -1L, Long::sum);
+                resultados[indice] = ResultadoComandoActuador.exito(indice, id, actual - restantes);
+            } else if (actual == null) {
+                resultados[indice] = ResultadoComandoActuador.error(indice, id, null, ResultadoComandoActuador.NO_ENCONTRADO);
+            } else {
+                resultados[indice] = ResultadoComandoActuador.error(indice, id, actual, ResultadoComandoActuador.CONFLICTO_VERSION);
+            }
+        }
+        return Arrays.asList(resultados);
+    }
+}
@@ -0,0 +1,93 @@
+package com.simcii.javaservice.almacenamiento;
+
+import com.simcii.javaservice.models.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserción masiva de dispositivos con JDBC por lotes sobre la jerarquía JOINED.
+ * Los IDs se reservan de una vez desde la secuencia de dispositivos, de modo que cada
+ * tabla (dispositivos, sensores, subtipos, actuadores, umbrales) se escribe con un único
+ * batch en lugar de un INSERT por fila y tabla como hace el persist de Hibernate con IDENTITY.
+ * Debe ejecutarse dentro de la transacción del llamador.
+ */
+@Component
+@Profile("!memoria")
+class ProvisionJdbc {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    void insertar(List<Dispositivo> dispositivos, List<Umbral> umbrales) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence('dispositivos', 'id')) FROM generate_series(1, ?)",
+                Long.class, dispositivos.size());
+        for (int i = 0; i < dispositivos.size(); i++) {
+            dispositivos.get(i).setId(ids.get(i));
+        }
+
+        List<Object[]> filasDispositivos = new ArrayList<>();
+        List<Object[]> filasSensores = new ArrayList<>();
+        List<Object[]> filasTemperatura = new ArrayList<>();
+        List<Object[]> filasHumedad = new ArrayList<>();
+        List<Object[]> filasLuz = new ArrayList<>();
+        List<Object[]> filasActuadores = new ArrayList<>();
+
+        for (Dispositivo d : dispositivos) {
+            filasDispositivos.add(new Object[] {
+                    d.getId(), d.getNombre(), d.getDescripcion(), d.getUbicacion(), d.getActivo(),
+                    timestamp(d.getFechaCreacion()), timestamp(d.getFechaActualizacion())});
+            if (d instanceof Sensor s) {
+                filasSensores.add(new Object[] {s.getId(), s.getTipoSensor(), s.getUnidadMedida()});
+            }
+            if (d instanceof SensorTemperatura t) {
+                filasTemperatura.add(new Object[] {t.getId(), t.getRangoMin(), t.getRangoMax()});
+            } else if (d instanceof SensorHumedad h) {
+                filasHumedad.add(new Object[] {h.getId()});
+            } else if (d instanceof SensorLuz l) {
+                filasLuz.add(new Object[] {l.getId(), l.getTipoLuz()});
+            } else if (d instanceof Actuador a) {
+                filasActuadores.add(new Object[] {a.getId(), a.getTipoActuador(), a.getEstado(), a.getModoOperacion()});
+            }
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO dispositivos (id, nombre, descripcion, ubicacion, activo, " +
+                "fecha_creacion, fecha_actualizacion) VALUES (?, ?, ?, ?, ?, ?, ?)", filasDispositivos);
+        batch("INSERT INTO sensores (id, tipo_sensor, unidad_medida) VALUES (?, ?, ?)", filasSensores);
+        batch("INSERT INTO sensores_temperatura (id, rango_min, rango_max) VALUES (?, ?, ?)", filasTemperatura);
+        batch("INSERT INTO sensores_humedad (id) VALUES (?)", filasHumedad);
+        batch("INSERT INTO sensores_luz (id, tipo_luz) VALUES (?, ?)", filasLuz);
+        batch("INSERT INTO actuadores (id, tipo_actuador, estado, modo_operacion) VALUES (?, ?, ?, ?)", filasActuadores);
+
+        insertarUmbrales(umbrales);
+    }
+
+    /**
+     * Inserta umbrales de dispositivos que ya tienen ID con un único batch.
+     */
+    void insertarUmbrales(List<Umbral> umbrales) {
+        List<Object[]> filasUmbrales = umbrales.stream()
+                .map(u -> new Object[] {u.getDispositivo().getId(), u.getValorMin(), u.getValorMax(),
+                        u.getTipoAlerta(), u.getActivo(), timestamp(u.getFechaCreacion())})
+                .toList();
+        batch("INSERT INTO umbrales (dispositivo_id, valor_min, valor_max, tipo_alerta, activo, fecha_creacion) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", filasUmbrales);
+    }
+
+    private void batch(String sql, List<Object[]> filas) {
+        if (!filas.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, filas);
+        }
+    }
+
+    private static Timestamp timestamp(LocalDateTime fecha) {
+        return fecha != null ? Timestamp.valueOf(fecha) : null;
+    }
+}
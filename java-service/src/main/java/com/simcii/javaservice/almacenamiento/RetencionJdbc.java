@@ -0,0 +1,56 @@
+package com.simcii.javaservice.almacenamiento;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Purga de lecturas por lotes para la retención. Cada lote es una sentencia con su propia
+ * transacción que borra como mucho {@code maximo} lecturas de un dispositivo, recorriendo
+ * idx_lecturas_dispositivo_fecha desde las más antiguas; así los bloqueos y el WAL de cada
+ * sentencia quedan acotados y autovacuum puede reutilizar el espacio sin esperar a un DELETE masivo.
+ */
+@Component
+@Profile("!memoria")
+public class RetencionJdbc {
+
+    // Público para que PlanesConsultaIT compruebe su plan
+    public static final String ELIMINAR_LECTURAS_ANTERIORES = "DELETE FROM lecturas WHERE id IN (SELECT id FROM lecturas " +
+            "WHERE dispositivo_id = ? AND fecha_hora < ? ORDER BY fecha_hora LIMIT ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    List<Long> buscarIdsSensoresPorTipo(String tipoSensor, Long despuesDeId, int limite) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM sensores WHERE tipo_sensor = ? AND id > ? ORDER BY id LIMIT ?",
+                Long.class, tipoSensor, despuesDeId, limite);
+    }
+
+    int eliminarLecturasAnteriores(Long dispositivoId, LocalDateTime limite, int maximo) {
+        return jdbcTemplate.update(ELIMINAR_LECTURAS_ANTERIORES, dispositivoId, Timestamp.valueOf(limite), maximo);
+    }
+
+    Map<String, Long> cargarPuntosControl() {
+        Map<String, Long> puntos = new HashMap<>();
+        jdbcTemplate.query("SELECT politica, ultimo_dispositivo_id FROM retencion_progreso",
+                rs -> {
+                    puntos.put(rs.getString(1), rs.getLong(2));
+                });
+        return puntos;
+    }
+
+    void guardarPuntoControl(String politica, Long ultimoDispositivoId) {
+        jdbcTemplate.update("INSERT INTO retencion_progreso (politica, ultimo_dispositivo_id, actualizado_en) " +
+                        "VALUES (?, ?, ?) ON CONFLICT (politica) DO UPDATE SET " +
+                        "ultimo_dispositivo_id = EXCLUDED.ultimo_dispositivo_id, actualizado_en = EXCLUDED.actualizado_en",
+                politica, ultimoDispositivoId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,538 @@
+package com.simcii.javaservice.busqueda;
+
+import com.simcii.javaservice.dto.PaginaDispositivos;
+import com.simcii.javaservice.dto.ResumenDispositivo;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria del catálogo de dispositivos para los listados filtrados y paginados.
+ *
+ * Cada dispositivo ocupa un hueco (entero denso que se reutiliza tras una baja). Cada término de
+ * nombre y descripción, cada ubicación y cada tipo tienen la lista ordenada de sus huecos, y
+ * {@code activo} es un BitSet. Una consulta parte de la lista más selectiva y descarta los
+ * huecos que no están en las demás; la página se extrae de un orden precalculado por campo.
+ * Una escritura recoloca el dispositivo en los órdenes ya calculados (O(n) en copias de arrays,
+ * sin comparar más que O(log n) claves); un lote grande los descarta y se recalculan una vez.
+ *
+ * Los textos se comparan sin distinguir mayúsculas ni acentos; los términos de la búsqueda libre
+ * se tratan como prefijos. Las consultas pueden ejecutarse en paralelo entre sí, pero no con una
+ * escritura: la sincronización corresponde al llamador.
+ */
+public final class IndiceDispositivos {
+
+    public enum Orden {
+        ID, NOMBRE, UBICACION, TIPO
+    }
+
+    /**
+     * Filtros (null = sin filtro), orden y página de un listado.
+     */
+    public record Consulta(String texto, String ubicacion, String tipo, Boolean activo,
+                           Orden orden, boolean descendente, int pagina, int tamano) {
+    }
+
+    private static final Pattern SEPARADOR = Pattern.compile("[^\\p{Alnum}]+");
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    // Con menos resultados que catálogo / FRACCION_ORDENAR se ordenan los resultados en lugar de recorrer el orden completo
+    private static final int FRACCION_ORDENAR = 16;
+    // A partir de este tamaño de lote sale más barato reordenar que recolocar uno a uno
+    private static final int LOTE_REORDENAR = 256;
+
+    private record Entrada(ResumenDispositivo resumen, String[] terminos, String nombre, String ubicacion, String tipo) {
+    }
+
+    private record Ordenacion(int[] huecos, int[] rangos) {
+    }
+
+    private Entrada[] entradas = new Entrada[64];
+    private final Map<Long, Integer> huecos = new HashMap<>();
+    private final BitSet ocupados = new BitSet();
+    private final BitSet activos = new BitSet();
+    private final TreeMap<String, ListaHuecos> terminos = new TreeMap<>();
+    private final Map<String, ListaHuecos> ubicaciones = new HashMap<>();
+    private final Map<String, ListaHuecos> tipos = new HashMap<>();
+    private final ConcurrentHashMap<Orden, Ordenacion> ordenes = new ConcurrentHashMap<>();
+    private int[] libres = new int[16];
+    private int numLibres;
+    private int siguienteHueco;
+
+    /**
+     * Añade un dispositivo o sustituye su versión anterior.
+     */
+    public void indexar(ResumenDispositivo resumen) {
+        Entrada nueva = entrada(resumen);
+        Integer hueco = huecos.get(resumen.getId());
+        if (hueco == null) {
+            hueco = reservarHueco();
+            huecos.put(resumen.getId(), hueco);
+            ocupados.set(hueco);
+            anadirListas(hueco, nueva);
+            entradas[hueco] = nueva;
+            recolocar(hueco, false, true);
+        } else {
+            Entrada anterior = entradas[hueco];
+            if (!Arrays.equals(anterior.terminos, nueva.terminos) || !anterior.ubicacion.equals(nueva.ubicacion)
+                    || !anterior.tipo.equals(nueva.tipo)) {
+                quitarListas(hueco, anterior);
+                anadirListas(hueco, nueva);
+            }
+            entradas[hueco] = nueva;
+            if (!anterior.nombre.equals(nueva.nombre) || !anterior.ubicacion.equals(nueva.ubicacion)
+                    || !anterior.tipo.equals(nueva.tipo)) {
+                recolocar(hueco, true, true);
+            }
+        }
+        activos.set(hueco, Boolean.TRUE.equals(resumen.getActivo()));
+    }
+
+    /**
+     * Como {@link #indexar(ResumenDispositivo)} para varios dispositivos.
+     */
+    public void indexarLote(Collection<ResumenDispositivo> resumenes) {
+        if (resumenes.size() >= LOTE_REORDENAR) {
+            ordenes.clear();
+        }
+        resumenes.forEach(this::indexar);
+    }
+
+    /**
+     * Calcula de antemano los órdenes de todos los campos, p. ej. antes de publicar un índice nuevo.
+     */
+    public void prepararOrdenes() {
+        for (Orden orden : Orden.values()) {
+            ordenes.computeIfAbsent(orden, this::ordenar);
+        }
+    }
+
+    /**
+     * Quita un dispositivo del índice, si estaba.
+     */
+    public void eliminar(Long id) {
+        Integer hueco = huecos.remove(id);
+        if (hueco == null) {
+            return;
+        }
+        quitarListas(hueco, entradas[hueco]);
+        recolocar(hueco, true, false);
+        entradas[hueco] = null;
+        ocupados.clear(hueco);
+        activos.clear(hueco);
+        if (numLibres == libres.length) {
+            libres = Arrays.copyOf(libres, libres.length * 2);
+        }
+        libres[numLibres++] = hueco;
+    }
+
+    public int tamano() {
+        return huecos.size();
+    }
+
+    /**
+     * Página de los dispositivos que cumplen todos los filtros de la consulta.
+     */
+    public PaginaDispositivos buscar(Consulta consulta) {
+        List<Clausula> clausulas = new ArrayList<>();
+        if (consulta.ubicacion() != null) {
+            ListaHuecos lista = ubicaciones.get(normalizar(consulta.ubicacion()));
+            if (lista == null) {
+                return vacia(consulta);
+            }
+            clausulas.add(new Clausula(List.of(lista)));
+        }
+        if (consulta.tipo() != null) {
+            ListaHuecos lista = tipos.get(normalizar(consulta.tipo()));
+            if (lista == null) {
+                return vacia(consulta);
+            }
+            clausulas.add(new Clausula(List.of(lista)));
+        }
+        if (consulta.texto() != null) {
+            for (String termino : terminos(consulta.texto())) {
+                Collection<ListaHuecos> listas = terminos.subMap(termino, termino + Character.MAX_VALUE).values();
+                if (listas.isEmpty()) {
+                    return vacia(consulta);
+                }
+                clausulas.add(new Clausula(new ArrayList<>(listas)));
+            }
+        }
+
+        BitSet candidatos = filtrar(clausulas);
+        if (consulta.activo() != null) {
+            if (consulta.activo()) {
+                candidatos.and(activos);
+            } else {
+                candidatos.andNot(activos);
+            }
+        }
+        return paginar(candidatos, consulta);
+    }
+
+    private BitSet filtrar(List<Clausula> clausulas) {
+        if (clausulas.isEmpty()) {
+            return (BitSet) ocupados.clone();
+        }
+        clausulas.sort(Comparator.comparingInt(Clausula::tamano));
+        BitSet candidatos = clausulas.get(0).comoBitSet(siguienteHueco);
+        for (int i = 1; i < clausulas.size() && !candidatos.isEmpty(); i++) {
+            clausulas.get(i).intersectar(candidatos, siguienteHueco);
+        }
+        return candidatos;
+    }
+
+    private PaginaDispositivos paginar(BitSet candidatos, Consulta consulta) {
+        int total = candidatos.cardinality();
+        long desde = (long) consulta.pagina() * consulta.tamano();
+        if (desde >= total) {
+            return new PaginaDispositivos(total, consulta.pagina(), consulta.tamano(), List.of());
+        }
+        int hasta = (int) Math.min(desde + consulta.tamano(), total);
+        List<ResumenDispositivo> pagina = new ArrayList<>(hasta - (int) desde);
+        Ordenacion ordenacion = ordenes.computeIfAbsent(consulta.orden(), this::ordenar);
+
+        if ((long) total * FRACCION_ORDENAR < huecos.size()) {
+            // Pocos resultados: se ordenan por su posición en el orden del campo
+            long[] claves = new long[total];
+            int n = 0;
+            for (int h = candidatos.nextSetBit(0); h >= 0; h = candidatos.nextSetBit(h + 1)) {
+                claves[n++] = ((long) ordenacion.rangos[h] << 32) | h;
+            }
+            Arrays.sort(claves);
+            for (int i = (int) desde; i < hasta; i++) {
+                long clave = claves[consulta.descendente() ? total - 1 - i : i];
+                pagina.add(entradas[(int) clave].resumen);
+            }
+        } else {
+            // Muchos resultados: se recorre el orden completo hasta completar la página
+            int[] orden = ordenacion.huecos;
+            int vistos = 0;
+            for (int i = 0; i < orden.length && vistos < hasta; i++) {
+                int h = orden[consulta.descendente() ? orden.length - 1 - i : i];
+                if (candidatos.get(h) && vistos++ >= desde) {
+                    pagina.add(entradas[h].resumen);
+                }
+            }
+        }
+        return new PaginaDispositivos(total, consulta.pagina(), consulta.tamano(), pagina);
+    }
+
+    private static PaginaDispositivos vacia(Consulta consulta) {
+        return new PaginaDispositivos(0, consulta.pagina(), consulta.tamano(), List.of());
+    }
+
+    private Comparator<Integer> comparador(Orden orden) {
+        Comparator<Integer> porId = Comparator.comparing(h -> entradas[h].resumen.getId());
+        Comparator<Integer> porNombre = Comparator.<Integer, String>comparing(h -> entradas[h].nombre).thenComparing(porId);
+        return switch (orden) {
+            case ID -> porId;
+            case NOMBRE -> porNombre;
+            case UBICACION -> Comparator.<Integer, String>comparing(h -> entradas[h].ubicacion).thenComparing(porNombre);
+            case TIPO -> Comparator.<Integer, String>comparing(h -> entradas[h].tipo).thenComparing(porNombre);
+        };
+    }
+
+    private Ordenacion ordenar(Orden orden) {
+        Comparator<Integer> comparador = comparador(orden);
+        Integer[] ordenados = new Integer[huecos.size()];
+        int n = 0;
+        for (int h = ocupados.nextSetBit(0); h >= 0; h = ocupados.nextSetBit(h + 1)) {
+            ordenados[n++] = h;
+        }
+        Arrays.sort(ordenados, comparador);
+
+        int[] secuencia = new int[ordenados.length];
+        int[] rangos = new int[siguienteHueco];
+        for (int i = 0; i < ordenados.length; i++) {
+            secuencia[i] = ordenados[i];
+            rangos[ordenados[i]] = i;
+        }
+        return new Ordenacion(secuencia, rangos);
+    }
+
+    /**
+     * Actualiza los órdenes ya calculados tras un cambio en el hueco: lo quita de su posición
+     * anterior ({@code estaba}) y lo inserta según su entrada actual ({@code esta}). Un cambio de
+     * clave desplaza solo el tramo entre la posición anterior y la nueva.
+     */
+    private void recolocar(int hueco, boolean estaba, boolean esta) {
+        for (Map.Entry<Orden, Ordenacion> orden : ordenes.entrySet()) {
+            int[] secuencia = orden.getValue().huecos;
+            int[] rangos = orden.getValue().rangos;
+            if (rangos.length < siguienteHueco) {
+                rangos = Arrays.copyOf(rangos, Math.max(siguienteHueco, rangos.length * 2));
+            }
+            int n = secuencia.length;
+            int quitado = estaba ? rangos[hueco] : -1;
+            int desde;
+            int hasta;
+            if (!esta) {
+                int[] nueva = new int[n - 1];
+                System.arraycopy(secuencia, 0, nueva, 0, quitado);
+                System.arraycopy(secuencia, quitado + 1, nueva, quitado, n - quitado - 1);
+                secuencia = nueva;
+                desde = quitado;
+                hasta = nueva.length;
+            } else {
+                int posicion = posicion(secuencia, quitado, hueco, comparador(orden.getKey()));
+                if (!estaba) {
+                    int[] nueva = new int[n + 1];
+                    System.arraycopy(secuencia, 0, nueva, 0, posicion);
+                    System.arraycopy(secuencia, posicion, nueva, posicion + 1, n - posicion);
+                    secuencia = nueva;
+                    desde = posicion;
+                    hasta = nueva.length;
+                } else if (posicion < quitado) {
+                    System.arraycopy(secuencia, posicion, secuencia, posicion + 1, quitado - posicion);
+                    desde = posicion;
+                    hasta = quitado + 1;
+                } else {
+                    System.arraycopy(secuencia, quitado + 1, secuencia, quitado, posicion - quitado);
+                    desde = quitado;
+                    hasta = posicion + 1;
+                }
+                secuencia[posicion] = hueco;
+            }
+            for (int i = desde; i < hasta; i++) {
+                rangos[secuencia[i]] = i;
+            }
+            orden.setValue(new Ordenacion(secuencia, rangos));
+        }
+    }
+
+    // Posición de inserción del hueco en la secuencia sin el elemento "excluido" (-1 si ninguno)
+    private static int posicion(int[] secuencia, int excluido, int hueco, Comparator<Integer> comparador) {
+        int bajo = 0;
+        int alto = excluido >= 0 ? secuencia.length - 1 : secuencia.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            int elemento = secuencia[excluido >= 0 && medio >= excluido ? medio + 1 : medio];
+            if (comparador.compare(elemento, hueco) < 0) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    private int reservarHueco() {
+        if (numLibres > 0) {
+            return libres[--numLibres];
+        }
+        if (siguienteHueco == entradas.length) {
+            entradas = Arrays.copyOf(entradas, entradas.length * 2);
+        }
+        return siguienteHueco++;
+    }
+
+    private void anadirListas(int hueco, Entrada entrada) {
+        for (String termino : entrada.terminos) {
+            terminos.computeIfAbsent(termino, t -> new ListaHuecos()).anadir(hueco);
+        }
+        ubicaciones.computeIfAbsent(entrada.ubicacion, u -> new ListaHuecos()).anadir(hueco);
+        tipos.computeIfAbsent(entrada.tipo, t -> new ListaHuecos()).anadir(hueco);
+    }
+
+    private void quitarListas(int hueco, Entrada entrada) {
+        for (String termino : entrada.terminos) {
+            quitar(terminos, termino, hueco);
+        }
+        quitar(ubicaciones, entrada.ubicacion, hueco);
+        quitar(tipos, entrada.tipo, hueco);
+    }
+
+    private static void quitar(Map<String, ListaHuecos> listas, String clave, int hueco) {
+        ListaHuecos lista = listas.get(clave);
+        if (lista != null && lista.quitar(hueco) && lista.tamano == 0) {
+            listas.remove(clave);
+        }
+    }
+
+    private static Entrada entrada(ResumenDispositivo resumen) {
+        Set<String> terminos = new LinkedHashSet<>();
+        terminos.addAll(terminos(resumen.getNombre()));
+        terminos.addAll(terminos(resumen.getDescripcion()));
+        return new Entrada(resumen, terminos.toArray(new String[0]), normalizar(resumen.getNombre()),
+                normalizar(resumen.getUbicacion()), normalizar(resumen.getTipo()));
+    }
+
+    private static List<String> terminos(String texto) {
+        List<String> resultado = new ArrayList<>();
+        for (String termino : SEPARADOR.split(normalizar(texto))) {
+            if (!termino.isEmpty()) {
+                resultado.add(termino);
+            }
+        }
+        return resultado;
+    }
+
+    private static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        if (ascii(texto)) {
+            return texto.trim().toLowerCase(Locale.ROOT);
+        }
+        String sinAcentos = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinAcentos.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean ascii(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Unión de listas de huecos: una para un filtro exacto, varias para un prefijo.
+     */
+    private static final class Clausula {
+        final List<ListaHuecos> listas;
+        final int tamano;
+
+        Clausula(List<ListaHuecos> listas) {
+            this.listas = listas;
+            int suma = 0;
+            for (ListaHuecos lista : listas) {
+                suma += lista.tamano;
+            }
+            this.tamano = suma;
+        }
+
+        int tamano() {
+            return tamano;
+        }
+
+        BitSet comoBitSet(int totalHuecos) {
+            BitSet resultado = new BitSet(totalHuecos);
+            for (ListaHuecos lista : listas) {
+                BitSet densa = lista.densa(totalHuecos);
+                if (densa != null) {
+                    resultado.or(densa);
+                } else {
+                    for (int i = 0; i < lista.tamano; i++) {
+                        resultado.set(lista.huecos[i]);
+                    }
+                }
+            }
+            return resultado;
+        }
+
+        void intersectar(BitSet candidatos, int totalHuecos) {
+            if (listas.size() == 1) {
+                listas.get(0).intersectar(candidatos, totalHuecos);
+            } else {
+                candidatos.and(comoBitSet(totalHuecos));
+            }
+        }
+    }
+
+    /**
+     * Lista ordenada de huecos sin repetidos sobre un array primitivo. Las listas que cubren una
+     * fracción apreciable del catálogo (términos y tipos muy comunes) mantienen además una copia
+     * en BitSet, creada en la primera consulta que la necesita, para intersectar palabra a palabra.
+     * Cada dispositivo aporta pocos términos, así que pocas listas pueden superar el umbral a la vez.
+     */
+    private static final class ListaHuecos {
+        private static final int FRACCION_DENSA = 32;
+
+        int[] huecos = new int[2];
+        int tamano;
+        // Solo se asigna durante las consultas (concurrentes entre sí); las escrituras la mantienen
+        private volatile BitSet densa;
+
+        void anadir(int hueco) {
+            int posicion = Arrays.binarySearch(huecos, 0, tamano, hueco);
+            if (posicion >= 0) {
+                return;
+            }
+            posicion = -posicion - 1;
+            if (tamano == huecos.length) {
+                huecos = Arrays.copyOf(huecos, huecos.length * 2);
+            }
+            System.arraycopy(huecos, posicion, huecos, posicion + 1, tamano - posicion);
+            huecos[posicion] = hueco;
+            tamano++;
+            if (densa != null) {
+                densa.set(hueco);
+            }
+        }
+
+        boolean quitar(int hueco) {
+            int posicion = Arrays.binarySearch(huecos, 0, tamano, hueco);
+            if (posicion < 0) {
+                return false;
+            }
+            System.arraycopy(huecos, posicion + 1, huecos, posicion, tamano - posicion - 1);
+            tamano--;
+            if (densa != null) {
+                densa.clear(hueco);
+            }
+            return true;
+        }
+
+        BitSet densa(int totalHuecos) {
+            BitSet actual = densa;
+            if (actual == null && (long) tamano * FRACCION_DENSA >= totalHuecos) {
+                actual = new BitSet(totalHuecos);
+                for (int i = 0; i < tamano; i++) {
+                    actual.set(huecos[i]);
+                }
+                densa = actual;
+            }
+            return actual;
+        }
+
+        /**
+         * Deja en {@code candidatos} solo los huecos de la lista, recorriendo el menor de los dos.
+         */
+        void intersectar(BitSet candidatos, int totalHuecos) {
+            BitSet copia = densa(totalHuecos);
+            if (copia != null) {
+                candidatos.and(copia);
+                return;
+            }
+            if (tamano < candidatos.cardinality()) {
+                BitSet comunes = new BitSet(totalHuecos);
+                for (int i = 0; i < tamano; i++) {
+                    if (candidatos.get(huecos[i])) {
+                        comunes.set(huecos[i]);
+                    }
+                }
+                candidatos.and(comunes);
+                return;
+            }
+            // Búsqueda exponencial desde la posición anterior: O(c log(n / c)) para c candidatos
+            int posicion = 0;
+            for (int h = candidatos.nextSetBit(0); h >= 0; h = candidatos.nextSetBit(h + 1)) {
+                posicion = siguiente(posicion, h);
+                if (posicion == tamano) {
+                    candidatos.clear(h, candidatos.length());
+                    return;
+                }
+                if (huecos[posicion] != h) {
+                    candidatos.clear(h);
+                }
+            }
+        }
+
+        // Primera posición desde "desde" con un hueco >= "hueco"
+        private int siguiente(int desde, int hueco) {
+            int hasta = desde;
+            int salto = 1;
+            while (hasta < tamano && huecos[hasta] < hueco) {
+                desde = hasta + 1;
+                hasta += salto;
+                salto <<= 1;
+            }
+            int posicion = Arrays.binarySearch(huecos, desde, Math.min(hasta + 1, tamano), hueco);
+            return posicion >= 0 ? posicion : -posicion - 1;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.simcii.javaservice.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+@Configuration
+public class FlywayConfig {
+
+    // Con el bloqueo transaccional por defecto, CREATE INDEX CONCURRENTLY espera
+    // indefinidamente a la transacción que mantiene el propio bloqueo de Flyway
+    @Bean
+    public FlywayConfigurationCustomizer flywayBloqueoNoTransaccional() {
+        return configuracion -> configuracion.configuration(Map.of("flyway.postgresql.transactional.lock", "false"));
+    }
+}
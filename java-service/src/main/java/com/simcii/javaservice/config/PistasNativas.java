@@ -0,0 +1,69 @@
+package com.simcii.javaservice.config;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.simcii.javaservice.control.EstadoControl;
+import com.simcii.javaservice.control.ReglaControl;
+import com.simcii.javaservice.dto.*;
+import com.simcii.javaservice.models.*;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pistas de reflexión y recursos para la imagen nativa (perfil Maven "native").
+ *
+ * Spring AOT infiere los tipos de los controladores a partir de sus firmas, pero no ve los
+ * subtipos declarados con {@code @JsonSubTypes} en {@link Dispositivo}, los cuerpos de
+ * {@code ResponseEntity<?>} u {@code Object}, ni los DTO que Hibernate instancia con
+ * {@code SELECT new}. Los subtipos se leen de la propia anotación para que un tipo nuevo de
+ * dispositivo no requiera tocar esta clase. En la JVM estas pistas no tienen efecto.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(PistasNativas.Registrar.class)
+public class PistasNativas {
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar enlace = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Jerarquía JOINED de Hibernate y tipos polimórficos de Jackson
+            List<Class<?>> modelo = new ArrayList<>(List.of(Dispositivo.class, Lectura.class, Umbral.class,
+                    Alerta.class, InstanciaServicio.class, LeaseParticion.class));
+            for (JsonSubTypes.Type subtipo : Dispositivo.class.getAnnotation(JsonSubTypes.class).value()) {
+                modelo.add(subtipo.value());
+            }
+            for (Class<?> tipo : modelo) {
+                hints.reflection().registerType(tipo, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_PUBLIC_METHODS);
+                enlace.registerReflectionHints(hints.reflection(), tipo);
+            }
+
+            // Cuerpos de respuesta y peticiones que AOT no deduce de las firmas
+            enlace.registerReflectionHints(hints.reflection(),
+                    ComandoActuadorRequest.class, ResultadoComandoActuador.class, ResultadoLoteComandos.class,
+                    ProvisionDispositivoRequest.class, ResultadoProvision.class, ResultadoLoteProvision.class,
+                    EstadisticasDispositivo.class, EstadisticasVentana.class, ResumenZona.class,
+                    UltimaLecturaZona.class, EstadoActuadorZona.class, SerieLecturas.class,
+                    EstadoControl.class, ReglaControl.class, NotificacionAlerta.class,
+                    PaginaDispositivos.class, ResumenDispositivo.class);
+
+            // Proyecciones JPQL "SELECT new ..."
+            hints.reflection().registerType(LecturaCompacta.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            // Migraciones de Flyway y configuración por perfil
+            hints.resources().registerPattern("db/migration/*.sql");
+            hints.resources().registerPattern("application*.yml");
+            hints.resources().registerPattern("application*.properties");
+            hints.resources().registerPattern("logback-spring.xml");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.simcii.javaservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simcii.javaservice.trazas.ExportadorSpansArchivo;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Exportadores de spans (sección "trazas" de application.yml). Spring Boot recoge todos los
+ * SpanExporter en un procesador por lotes; la propagación (W3C traceparent) y el muestreo se
+ * configuran en management.tracing. Sin exportador habilitado las trazas solo se propagan y
+ * aparecen en los logs (traceId/spanId).
+ */
+@Configuration
+public class TrazasConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "trazas.archivo", name = "habilitado", havingValue = "true")
+    public ExportadorSpansArchivo exportadorSpansArchivo(@Value("${trazas.archivo.ruta:./data/trazas.jsonl}") String ruta,
+                                                         ObjectMapper objectMapper) {
+        return new ExportadorSpansArchivo(Path.of(ruta), objectMapper);
+    }
+
+    // Sustituye al de OtlpAutoConfiguration (excluida), que se crearía siempre y sin colector
+    // registraría un error de exportación en cada lote
+    @Bean
+    @ConditionalOnProperty(prefix = "trazas.otlp", name = "endpoint")
+    public OtlpHttpSpanExporter exportadorSpansOtlp(@Value("${trazas.otlp.endpoint}") String endpoint,
+                                                    @Value("${trazas.otlp.timeout-ms:10000}") long timeoutMs) {
+        return OtlpHttpSpanExporter.builder()
+                .setEndpoint(endpoint)
+                .setTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+    }
+}
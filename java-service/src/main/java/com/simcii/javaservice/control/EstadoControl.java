@@ -0,0 +1,72 @@
+package com.simcii.javaservice.control;
+
+/**
+ * Estado de una regla de control en una zona: si sus actuadores están encendidos, desde cuándo
+ * se cumple la condición de cambio (antirrebote) y cuándo fue la última transición (tiempos
+ * mínimos de encendido y apagado). Evaluar una lectura es O(1) y no reserva memoria.
+ */
+public final class EstadoControl {
+
+    public static final int SIN_CAMBIO = 0;
+    public static final int ENCENDER = 1;
+    public static final int APAGAR = -1;
+
+    private final ReglaControl regla;
+    private final String zona;
+    private boolean encendido;
+    private long candidatoDesde = -1;
+    private long ultimoCambio;
+
+    public EstadoControl(ReglaControl regla, String zona, boolean encendido) {
+        this.regla = regla;
+        this.zona = zona;
+        this.encendido = encendido;
+    }
+
+    /**
+     * Evalúa una lectura. El cambio de estado solo se produce si la condición se mantiene durante
+     * el retardo de la regla y ha pasado el tiempo mínimo desde la transición anterior.
+     *
+     * @return int ENCENDER, APAGAR o SIN_CAMBIO
+     */
+    public synchronized int evaluar(double valor, long ahora) {
+        boolean objetivo = regla.objetivo(valor, encendido);
+        if (objetivo == encendido) {
+            candidatoDesde = -1;
+            return SIN_CAMBIO;
+        }
+        if (candidatoDesde < 0) {
+            candidatoDesde = ahora;
+        }
+        long minimo = encendido ? regla.getMinimoEncendidoMs() : regla.getMinimoApagadoMs();
+        if (ahora - candidatoDesde < regla.getRetardoMs() || ahora - ultimoCambio < minimo) {
+            return SIN_CAMBIO;
+        }
+        encendido = objetivo;
+        ultimoCambio = ahora;
+        candidatoDesde = -1;
+        return objetivo ? ENCENDER : APAGAR;
+    }
+
+    /**
+     * Adopta el estado almacenado de los actuadores (p. ej. tras un cambio manual),
+     * salvo que haya un cambio pendiente de confirmar.
+     */
+    public synchronized void sincronizar(boolean encendido) {
+        if (candidatoDesde < 0) {
+            this.encendido = encendido;
+        }
+    }
+
+    public ReglaControl getRegla() {
+        return regla;
+    }
+
+    public String getZona() {
+        return zona;
+    }
+
+    public synchronized boolean isEncendido() {
+        return encendido;
+    }
+}
@@ -0,0 +1,122 @@
+package com.simcii.javaservice.control;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuración del control automático de actuadores (sección "control" de application.yml).
+ */
+@Component
+@ConfigurationProperties(prefix = "control")
+public class PropiedadesControl {
+
+    private boolean habilitado = true;
+    private List<DefinicionRegla> reglas = new ArrayList<>();
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public List<DefinicionRegla> getReglas() {
+        return reglas;
+    }
+
+    public void setReglas(List<DefinicionRegla> reglas) {
+        this.reglas = reglas;
+    }
+
+    /**
+     * Regla tal como se escribe en la configuración, p. ej. sensor TEMPERATURA, encender-si "> 28",
+     * apagar-si "< 26", actuador VENTILACION.
+     */
+    public static class DefinicionRegla {
+        private String nombre;
+        private String sensor;
+        private String zona;
+        private String encenderSi;
+        private String apagarSi;
+        private String actuador;
+        private long retardoMs = 20000;
+        private long minimoEncendidoMs = 60000;
+        private long minimoApagadoMs = 60000;
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public void setNombre(String nombre) {
+            this.nombre = nombre;
+        }
+
+        public String getSensor() {
+            return sensor;
+        }
+
+        public void setSensor(String sensor) {
+            this.sensor = sensor;
+        }
+
+        public String getZona() {
+            return zona;
+        }
+
+        public void setZona(String zona) {
+            this.zona = zona;
+        }
+
+        public String getEncenderSi() {
+            return encenderSi;
+        }
+
+        public void setEncenderSi(String encenderSi) {
+            this.encenderSi = encenderSi;
+        }
+
+        public String getApagarSi() {
+            return apagarSi;
+        }
+
+        public void setApagarSi(String apagarSi) {
+            this.apagarSi = apagarSi;
+        }
+
+        public String getActuador() {
+            return actuador;
+        }
+
+        public void setActuador(String actuador) {
+            this.actuador = actuador;
+        }
+
+        public long getRetardoMs() {
+            return retardoMs;
+        }
+
+        public void setRetardoMs(long retardoMs) {
+            this.retardoMs = retardoMs;
+        }
+
+        public long getMinimoEncendidoMs() {
+            return minimoEncendidoMs;
+        }
+
+        public void setMinimoEncendidoMs(long minimoEncendidoMs) {
+            this.minimoEncendidoMs = minimoEncendidoMs;
+        }
+
+        public long getMinimoApagadoMs() {
+            return minimoApagadoMs;
+        }
+
+        public void setMinimoApagadoMs(long minimoApagadoMs) {
+            this.minimoApagadoMs = minimoApagadoMs;
+        }
+    }
+}
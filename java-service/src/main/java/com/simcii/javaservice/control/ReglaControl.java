@@ -0,0 +1,108 @@
+package com.simcii.javaservice.control;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Regla de control compilada: enciende los actuadores de un tipo cuando la lectura de un tipo de
+ * sensor cruza {@code umbralEncendido} y los apaga cuando cruza {@code umbralApagado} en sentido
+ * contrario (histéresis). Inmutable; el estado de cada zona vive en {@link EstadoControl}.
+ */
+public final class ReglaControl {
+
+    private static final Pattern CONDICION = Pattern.compile("\\s*([<>])\\s*(-?\\d+(?:\\.\\d+)?)\\s*");
+
+    private final String nombre;
+    private final String tipoSensor;
+    private final String zona;
+    private final String tipoActuador;
+    private final boolean porEncima;
+    private final double umbralEncendido;
+    private final double umbralApagado;
+    private final long retardoMs;
+    private final long minimoEncendidoMs;
+    private final long minimoApagadoMs;
+
+    private ReglaControl(PropiedadesControl.DefinicionRegla definicion, boolean porEncima,
+                         double umbralEncendido, double umbralApagado) {
+        this.nombre = definicion.getNombre() != null ? definicion.getNombre()
+                : definicion.getSensor() + " " + definicion.getEncenderSi() + " -> " + definicion.getActuador();
+        this.tipoSensor = definicion.getSensor();
+        this.zona = definicion.getZona() == null || definicion.getZona().isBlank() ? null : definicion.getZona();
+        this.tipoActuador = definicion.getActuador();
+        this.porEncima = porEncima;
+        this.umbralEncendido = umbralEncendido;
+        this.umbralApagado = umbralApagado;
+        this.retardoMs = definicion.getRetardoMs();
+        this.minimoEncendidoMs = definicion.getMinimoEncendidoMs();
+        this.minimoApagadoMs = definicion.getMinimoApagadoMs();
+    }
+
+    /**
+     * Valida y compila una definición de la configuración.
+     *
+     * @throws IllegalArgumentException si la definición está incompleta o las condiciones no son coherentes
+     */
+    public static ReglaControl compilar(PropiedadesControl.DefinicionRegla definicion) {
+        if (definicion.getSensor() == null || definicion.getActuador() == null || definicion.getEncenderSi() == null) {
+            throw new IllegalArgumentException("Regla de control incompleta: se requieren sensor, actuador y encender-si");
+        }
+        Matcher encender = condicion(definicion.getEncenderSi());
+        boolean porEncima = encender.group(1).equals(">");
+        double umbralEncendido = Double.parseDouble(encender.group(2));
+        double umbralApagado = umbralEncendido;
+        if (definicion.getApagarSi() != null && !definicion.getApagarSi().isBlank()) {
+            Matcher apagar = condicion(definicion.getApagarSi());
+            umbralApagado = Double.parseDouble(apagar.group(2));
+            boolean apagarPorDebajo = apagar.group(1).equals("<");
+            if (apagarPorDebajo != porEncima
+                    || (porEncima ? umbralApagado > umbralEncendido : umbralApagado < umbralEncendido)) {
+                throw new IllegalArgumentException("Regla de control '" + definicion.getNombre() +
+                        "': apagar-si debe ser la condición contraria a encender-si, con histéresis no negativa");
+            }
+        }
+        return new ReglaControl(definicion, porEncima, umbralEncendido, umbralApagado);
+    }
+
+    private static Matcher condicion(String texto) {
+        Matcher matcher = CONDICION.matcher(texto);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Condición de control no válida: '" + texto + "' (se espera p. ej. \"> 28\")");
+        }
+        return matcher;
+    }
+
+    public boolean aplica(String tipoSensor, String zona) {
+        return this.tipoSensor.equalsIgnoreCase(tipoSensor) && (this.zona == null || this.zona.equalsIgnoreCase(zona));
+    }
+
+    /**
+     * Estado deseado de los actuadores para un valor, dado su estado actual.
+     */
+    public boolean objetivo(double valor, boolean encendido) {
+        if (encendido) {
+            return porEncima ? valor >= umbralApagado : valor <= umbralApagado;
+        }
+        return porEncima ? valor > umbralEncendido : valor < umbralEncendido;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getTipoActuador() {
+        return tipoActuador;
+    }
+
+    public long getRetardoMs() {
+        return retardoMs;
+    }
+
+    public long getMinimoEncendidoMs() {
+        return minimoEncendidoMs;
+    }
+
+    public long getMinimoApagadoMs() {
+        return minimoApagadoMs;
+    }
+}
@@ -1,12 +1,19 @@
 package com.simcii.javaservice.controllers;
 
+import com.simcii.javaservice.control.EstadoControl;
+import com.simcii.javaservice.dto.ComandoActuadorRequest;
+import com.simcii.javaservice.dto.ResultadoLoteComandos;
 import com.simcii.javaservice.models.Actuador;
 import com.simcii.javaservice.services.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/actuadores")
@@ -16,45 +23,88 @@ public class ActuadorController {
     @Autowired
     private ActuadorService actuadorService;
     
+    @Autowired
+    private MotorControlService motorControlService;
+    
+    @Autowired
+    private VersionesRecursosService versionesRecursos;
+    
     @GetMapping
-    public List<Actuador> getAllActuadores() {
+    public List<Actuador> getAllActuadores(WebRequest request) {
+        // null con la respuesta ya marcada como 304 Not Modified
+        if (versionesRecursos.catalogoNoModificado(request)) {
+            return null;
+        }
         return actuadorService.findAllActuadores();
     }
     
+    @GetMapping("/control")
+    public List<EstadoControl> getEstadoControl() {
+        return motorControlService.obtenerEstados();
+    }
+    
     @GetMapping("/{id}")
-    public ResponseEntity<Actuador> getActuadorById(@PathVariable Long id) {
+    public ResponseEntity<Actuador> getActuadorById(@PathVariable Long id, WebRequest request) {
+        if (versionesRecursos.catalogoNoModificado(request)) {
+            return null;
+        }
         return actuadorService.findActuadorById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @PostMapping("/{id}/activar")
-    public ResponseEntity<Actuador> activarActuador(@PathVariable Long id) {
+    public ResponseEntity<?> activarActuador(@PathVariable Long id) {
         try {
             Actuador actuador = actuadorService.activarActuador(id);
             return ResponseEntity.ok(actuador);
-        } catch (RuntimeException e) {
+        } catch (NoSuchElementException e) {
             return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return conflictoDeVersion();
         }
     }
     
     @PostMapping("/{id}/desactivar")
-    public ResponseEntity<Actuador> desactivarActuador(@PathVariable Long id) {
+    public ResponseEntity<?> desactivarActuador(@PathVariable Long id) {
         try {
             Actuador actuador = actuadorService.desactivarActuador(id);
             return ResponseEntity.ok(actuador);
-        } catch (RuntimeException e) {
+        } catch (NoSuchElementException e) {
             return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return conflictoDeVersion();
         }
     }
     
+    @PostMapping("/comandos")
+    public ResponseEntity<?> aplicarComandos(@RequestBody List<ComandoActuadorRequest> comandos) {
+        if (comandos == null || comandos.isEmpty()) {
+            return ResponseEntity.badRequest().body("{\"message\": \"El lote está vacío\"}");
+        }
+        if (comandos.size() > actuadorService.getMaxComandos()) {
+            return ResponseEntity.badRequest()
+                    .body("{\"message\": \"El lote supera el máximo de " + actuadorService.getMaxComandos() + " comandos\"}");
+        }
+        ResultadoLoteComandos resultado = actuadorService.aplicarComandos(comandos);
+        return ResponseEntity.ok(resultado);
+    }
+    
     @PutMapping("/{id}/modo")
-    public ResponseEntity<Actuador> cambiarModoOperacion(@PathVariable Long id, @RequestBody String modo) {
+    public ResponseEntity<?> cambiarModoOperacion(@PathVariable Long id, @RequestBody String modo) {
         try {
             Actuador actuador = actuadorService.cambiarModoOperacion(id, modo);
             return ResponseEntity.ok(actuador);
-        } catch (RuntimeException e) {
+        } catch (NoSuchElementException e) {
             return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return conflictoDeVersion();
         }
     }
+    
+    // Otra escritura (motor de control, lote de comandos) cambió el actuador entre la lectura y el guardado
+    private static ResponseEntity<String> conflictoDeVersion() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("{\"message\": \"El actuador se modificó a la vez; vuelva a intentarlo\"}");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.simcii.javaservice.controllers;
+
+import com.simcii.javaservice.admision.PropiedadesAdmision;
+import com.simcii.javaservice.services.ControlAdmisionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admision")
+public class AdmisionController {
+    
+    @Autowired
+    private ControlAdmisionService controlAdmision;
+    
+    @GetMapping
+    public PropiedadesAdmision getLimites() {
+        return controlAdmision.obtenerLimites();
+    }
+    
+    // Cambio en caliente; los campos omitidos conservan su valor
+    @PutMapping
+    public ResponseEntity<?> actualizarLimites(@RequestBody Map<String, Object> cambios) {
+        try {
+            return ResponseEntity.ok(controlAdmision.actualizarLimites(cambios));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("{\"message\": \"" + e.getMessage() + "\"}");
+        }
+    }
+}
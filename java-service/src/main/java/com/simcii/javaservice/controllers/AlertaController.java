@@ -1,5 +1,6 @@
 package com.simcii.javaservice.controllers;
 
+import com.simcii.javaservice.models.Alerta;
 import com.simcii.javaservice.models.Umbral;
 import com.simcii.javaservice.services.AlertaService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +16,16 @@ public class AlertaController {
     @Autowired
     private AlertaService alertaService;
     
+    @GetMapping
+    public List<Alerta> getAlertasActivas() {
+        return alertaService.obtenerAlertasActivas();
+    }
+    
+    @GetMapping("/dispositivo/{dispositivoId}")
+    public List<Alerta> getAlertasPorDispositivo(@PathVariable Long dispositivoId) {
+        return alertaService.obtenerAlertasPorDispositivo(dispositivoId);
+    }
+    
     @PostMapping("/umbrales")
     public Umbral configurarUmbral(@RequestBody Umbral umbral) {
         return alertaService.configurarUmbral(umbral);
@@ -1,10 +1,12 @@
 package com.simcii.javaservice.controllers;
 
+import com.simcii.javaservice.dto.LecturaCompacta;
 import com.simcii.javaservice.models.Dispositivo;
-import com.simcii.javaservice.models.Lectura;
-import com.simcii.javaservice.repositories.DispositivoRepository;
-import com.simcii.javaservice.repositories.LecturaRepository;
+import com.simcii.javaservice.services.DispositivoService;
 import com.simcii.javaservice.services.LecturaService;
+import com.simcii.javaservice.services.PlanificadorLecturasService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,15 +17,17 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/debug")
 public class DebugController {
     
-    @Autowired
-    private DispositivoRepository dispositivoRepository;
+    private static final Logger logger = LoggerFactory.getLogger(DebugController.class);
     
     @Autowired
-    private LecturaRepository lecturaRepository;
+    private DispositivoService dispositivoService;
     
     @Autowired
     private LecturaService lecturaService;
     
+    @Autowired
+    private PlanificadorLecturasService planificadorLecturasService;
+    
     @GetMapping("/test")
     public String test() {
         return "DebugController funcionando - " + java.time.LocalDateTime.now();
@@ -31,22 +35,19 @@ public class DebugController {
     
     @GetMapping("/sensores")
     public List<Dispositivo> listarSensores() {
-        List<Dispositivo> todos = dispositivoRepository.findAll();
+        List<Dispositivo> todos = dispositivoService.findAll();
         List<Dispositivo> sensores = todos.stream()
             .filter(d -> d.getClass().getSimpleName().contains("Sensor"))
             .collect(Collectors.toList());
             
-        System.out.println("🔍 Sensores encontrados: " + sensores.size());
-        for (Dispositivo s : sensores) {
-            System.out.println(" - " + s.getNombre() + " | Tipo: " + s.getClass().getSimpleName() + " | ID: " + s.getId());
-        }
+        logger.debug("Sensores encontrados: {}", sensores.size());
         return sensores;
     }
     
     @GetMapping("/estado")
     public String estado() {
-        long totalDispositivos = dispositivoRepository.count();
-        List<Dispositivo> todos = dispositivoRepository.findAll();
+        List<Dispositivo> todos = dispositivoService.findAll();
+        long totalDispositivos = todos.size();
         long sensores = todos.stream()
             .filter(d -> d.getClass().getSimpleName().contains("Sensor"))
             .count();
@@ -64,25 +65,25 @@ public class DebugController {
     @PostMapping("/forzar-lecturas")
     public String forzarLecturas() {
         try {
-            System.out.println("EJECUTANDO LECTURAS MANUALMENTE...");
-            lecturaService.registrarLecturasAutomaticas();
-            return "Lecturas forzadas exitosamente - Revisa los logs";
+            logger.info("Ejecutando lecturas manualmente");
+            long registradas = planificadorLecturasService.ejecutarTodasLasParticiones();
+            return "Lecturas forzadas exitosamente (" + registradas + " lecturas) - Revisa los logs";
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Error forzando lecturas", e);
             return "Error: " + e.getMessage();
         }
     }
     
     @GetMapping("/lecturas/{dispositivoId}")
-    public List<Lectura> getLecturas(@PathVariable Long dispositivoId) {
-        List<Lectura> lecturas = lecturaRepository.findByDispositivoIdOrderByFechaHoraDesc(dispositivoId);
-        System.out.println("Lecturas para dispositivo " + dispositivoId + ": " + lecturas.size());
+    public List<LecturaCompacta> getLecturas(@PathVariable Long dispositivoId) {
+        List<LecturaCompacta> lecturas = lecturaService.obtenerHistorialCompacto(dispositivoId);
+        logger.debug("Lecturas para dispositivo {}: {}", dispositivoId, lecturas.size());
         return lecturas;
     }
     
     @GetMapping("/logs-sensores")
     public String logsSensores() {
-        List<Dispositivo> todos = dispositivoRepository.findAll();
+        List<Dispositivo> todos = dispositivoService.findAll();
         List<Dispositivo> sensores = todos.stream()
             .filter(d -> d.getClass().getSimpleName().contains("Sensor"))
             .filter(Dispositivo::getActivo)
@@ -91,7 +92,7 @@ public class DebugController {
         StringBuilder log = new StringBuilder();
         log.append("SENSORES ACTIVOS:\n");
         for (Dispositivo sensor : sensores) {
-            long countLecturas = lecturaRepository.findByDispositivoIdOrderByFechaHoraDesc(sensor.getId()).size();
+            long countLecturas = lecturaService.obtenerHistorialCompacto(sensor.getId()).size();
             log.append(" - ").append(sensor.getNombre())
                .append(" (ID: ").append(sensor.getId())
                .append(") | Lecturas: ").append(countLecturas)
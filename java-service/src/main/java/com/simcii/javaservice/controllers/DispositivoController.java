@@ -1,17 +1,25 @@
 package com.simcii.javaservice.controllers;
 
+import com.simcii.javaservice.busqueda.IndiceDispositivos;
+import com.simcii.javaservice.dto.ProvisionDispositivoRequest;
+import com.simcii.javaservice.dto.ResultadoLoteProvision;
 import com.simcii.javaservice.models.Dispositivo;
+import com.simcii.javaservice.services.BusquedaDispositivosService;
 import com.simcii.javaservice.services.DispositivoService;
+import com.simcii.javaservice.services.ProvisionDispositivosService;
+import com.simcii.javaservice.services.VersionesRecursosService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
@@ -25,14 +33,67 @@ public class DispositivoController {
     @Autowired
     private DispositivoService dispositivoService;
     
+    @Autowired
+    private ProvisionDispositivosService provisionService;
+    
+    @Autowired
+    private VersionesRecursosService versionesRecursos;
+    
+    @Autowired
+    private BusquedaDispositivosService busquedaDispositivos;
+    
     @GetMapping
-    public List<Dispositivo> getAllDispositivos() {
+    public List<Dispositivo> getAllDispositivos(WebRequest request) {
+        // null con la respuesta ya marcada como 304 Not Modified
+        if (versionesRecursos.catalogoNoModificado(request)) {
+            return null;
+        }
         logger.info("Obteniendo todos los dispositivos");
         return dispositivoService.findAll();
     }
     
+    // Listado filtrado desde el índice en memoria:
+    // ?q=texto&ubicacion=&tipo=&activo=&orden=id|nombre|ubicacion|tipo&direccion=asc|desc&pagina=0&tamano=50
+    @GetMapping("/buscar")
+    public ResponseEntity<?> buscarDispositivos(@RequestParam(required = false) String q,
+                                                @RequestParam(required = false) String ubicacion,
+                                                @RequestParam(required = false) String tipo,
+                                                @RequestParam(required = false) Boolean activo,
+                                                @RequestParam(defaultValue = "nombre") String orden,
+                                                @RequestParam(defaultValue = "asc") String direccion,
+                                                @RequestParam(defaultValue = "0") int pagina,
+                                                @RequestParam(defaultValue = "50") int tamano) {
+        IndiceDispositivos.Orden campo;
+        try {
+            campo = IndiceDispositivos.Orden.valueOf(orden.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("{\"message\": \"orden debe ser id, nombre, ubicacion o tipo\"}");
+        }
+        if (!"asc".equalsIgnoreCase(direccion) && !"desc".equalsIgnoreCase(direccion)) {
+            return ResponseEntity.badRequest().body("{\"message\": \"direccion debe ser asc o desc\"}");
+        }
+        if (pagina < 0 || tamano < 1 || tamano > busquedaDispositivos.getMaxTamano()) {
+            return ResponseEntity.badRequest().body("{\"message\": \"pagina no puede ser negativa y tamano debe estar entre 1 y "
+                    + busquedaDispositivos.getMaxTamano() + "\"}");
+        }
+        
+        IndiceDispositivos.Consulta consulta = new IndiceDispositivos.Consulta(vacioANulo(q), vacioANulo(ubicacion),
+                vacioANulo(tipo), activo, campo, "desc".equalsIgnoreCase(direccion), pagina, tamano);
+        return busquedaDispositivos.buscar(consulta)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body("{\"message\": \"El índice de dispositivos se está cargando\"}"));
+    }
+    
+    private static String vacioANulo(String valor) {
+        return valor == null || valor.isBlank() ? null : valor;
+    }
+    
     @GetMapping("/{id}")
-    public ResponseEntity<Dispositivo> getDispositivoById(@PathVariable Long id) {
+    public ResponseEntity<Dispositivo> getDispositivoById(@PathVariable Long id, WebRequest request) {
+        if (versionesRecursos.catalogoNoModificado(request)) {
+            return null;
+        }
         Optional<Dispositivo> dispositivo = dispositivoService.findById(id);
         return dispositivo.map(ResponseEntity::ok)
                          .orElse(ResponseEntity.notFound().build());
@@ -72,6 +133,21 @@ public class DispositivoController {
         }
     }
     
+    @PostMapping("/lote")
+    public ResponseEntity<?> provisionarLote(@RequestBody List<ProvisionDispositivoRequest> elementos) {
+        if (elementos == null || elementos.isEmpty()) {
+            return ResponseEntity.badRequest().body("{\"message\": \"El lote está vacío\"}");
+        }
+        if (elementos.size() > provisionService.getMaxElementos()) {
+            return ResponseEntity.badRequest()
+                    .body("{\"message\": \"El lote supera el máximo de " + provisionService.getMaxElementos() + " dispositivos\"}");
+        }
+        
+        logger.info("Aprovisionamiento masivo de {} dispositivos", elementos.size());
+        ResultadoLoteProvision resultado = provisionService.provisionar(elementos);
+        return ResponseEntity.ok(resultado);
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<?> updateDispositivo(@PathVariable Long id, @RequestBody Map<String, Object> updates) {
         try {
@@ -1,11 +1,28 @@
 package com.simcii.javaservice.controllers;
 
-import com.simcii.javaservice.models.Lectura;
+import com.simcii.javaservice.dto.EstadisticasDispositivo;
+import com.simcii.javaservice.admision.PermisoAdmision;
+import com.simcii.javaservice.dto.LecturaCompacta;
+import com.simcii.javaservice.dto.LecturaRequest;
+import com.simcii.javaservice.dto.SerieLecturas;
+import com.simcii.javaservice.services.ConsultaLecturasService;
+import com.simcii.javaservice.services.ControlAdmisionService;
 import com.simcii.javaservice.services.LecturaService;
+import com.simcii.javaservice.services.VersionesRecursosService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/lecturas")
@@ -15,13 +32,130 @@ public class LecturaController {
     @Autowired
     private LecturaService lecturaService;
     
+    @Autowired
+    private VersionesRecursosService versionesRecursos;
+    
+    @Autowired
+    private ControlAdmisionService controlAdmision;
+    
+    @Autowired
+    private ConsultaLecturasService consultaLecturas;
+    
+    // Ingesta desde gateways: 429 con Retry-After si se superan los límites de admisión
+    @PostMapping
+    public ResponseEntity<?> registrarLectura(@RequestBody LecturaRequest lectura, HttpServletRequest request) {
+        if (lectura.getDispositivoId() == null || lectura.getValor() == null) {
+            return ResponseEntity.badRequest().body("{\"message\": \"dispositivoId y valor son obligatorios\"}");
+        }
+        if (lectura.getSecuencia() != null && lectura.getSecuencia() < 0) {
+            return ResponseEntity.badRequest().body("{\"message\": \"La secuencia no puede ser negativa\"}");
+        }
+        try (PermisoAdmision permiso = controlAdmision.admitir(
+                controlAdmision.identificarCliente(request), lectura.getDispositivoId())) {
+            if (!permiso.isConcedido()) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(permiso.getReintentarEnSegundos()))
+                        .body("{\"message\": \"Límite de ingesta superado (" + permiso.getMotivo() + ")\"}");
+            }
+            LecturaService.LecturaRecibida resultado = lecturaService.registrarLecturaRecibida(lectura);
+            if (resultado == LecturaService.LecturaRecibida.NO_ENCONTRADO) {
+                return ResponseEntity.notFound().build();
+            }
+            // Un reintento de una lectura ya guardada es un éxito sin efecto
+            if (resultado == LecturaService.LecturaRecibida.DUPLICADA) {
+                return ResponseEntity.ok("{\"message\": \"Lectura duplicada, ya registrada\"}");
+            }
+            // Otra petición está guardando la misma secuencia: aún no se sabe si quedará registrada
+            if (resultado == LecturaService.LecturaRecibida.EN_CURSO) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body("{\"message\": \"La lectura con esa secuencia se está registrando, reintente\"}");
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(LecturaCompacta.de(resultado.lectura()));
+        }
+    }
+    
+    // formato=columnas devuelve {timestamps: [], values: []} en lugar de una lista de lecturas;
+    // maxPoints reduce la serie con LTTB a los puntos que una gráfica puede dibujar
     @GetMapping("/dispositivo/{dispositivoId}")
-    public List<Lectura> getHistorialPorDispositivo(@PathVariable Long dispositivoId) {
-        return lecturaService.obtenerHistorialPorDispositivo(dispositivoId);
+    public Object getHistorialPorDispositivo(@PathVariable Long dispositivoId,
+                                             @RequestParam(defaultValue = "filas") String formato,
+                                             @RequestParam(name = "maxPoints", required = false) Integer maxPuntos,
+                                             WebRequest request) {
+        if (!maxPuntosValido(maxPuntos)) {
+            return maxPuntosNoValido();
+        }
+        // null con la respuesta ya marcada como 304 Not Modified
+        if (versionesRecursos.lecturasNoModificadas(dispositivoId, request)) {
+            return null;
+        }
+        return formatear(dispositivoId, lecturaService.obtenerHistorialCompacto(dispositivoId), formato, maxPuntos);
     }
     
     @GetMapping("/dispositivo/{dispositivoId}/ultimas/{cantidad}")
-    public List<Lectura> getUltimasLecturas(@PathVariable Long dispositivoId, @PathVariable int cantidad) {
-        return lecturaService.obtenerUltimasLecturas(dispositivoId, cantidad);
+    public Object getUltimasLecturas(@PathVariable Long dispositivoId, @PathVariable int cantidad,
+                                     @RequestParam(defaultValue = "filas") String formato,
+                                     @RequestParam(name = "maxPoints", required = false) Integer maxPuntos,
+                                     WebRequest request) {
+        if (!maxPuntosValido(maxPuntos)) {
+            return maxPuntosNoValido();
+        }
+        if (versionesRecursos.lecturasNoModificadas(dispositivoId, request)) {
+            return null;
+        }
+        return formatear(dispositivoId, lecturaService.obtenerUltimasCompactas(dispositivoId, cantidad), formato, maxPuntos);
+    }
+    
+    // Gráficas comparativas: ?ids=1,2,3&desde=...&hasta=... (ISO-8601), agrupado por dispositivo
+    @GetMapping("/dispositivos")
+    public ResponseEntity<?> getRangoDispositivos(@RequestParam List<Long> ids,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+                                                  @RequestParam(defaultValue = "filas") String formato,
+                                                  @RequestParam(name = "maxPoints", required = false) Integer maxPuntos) {
+        LocalDateTime fin = hasta != null ? hasta : LocalDateTime.now();
+        if (ids.isEmpty() || ids.size() > consultaLecturas.getMaxDispositivos()) {
+            return ResponseEntity.badRequest()
+                    .body("{\"message\": \"Se requieren entre 1 y " + consultaLecturas.getMaxDispositivos() + " dispositivos\"}");
+        }
+        if (!desde.isBefore(fin)) {
+            return ResponseEntity.badRequest().body("{\"message\": \"desde debe ser anterior a hasta\"}");
+        }
+        if (!maxPuntosValido(maxPuntos)) {
+            return maxPuntosNoValido();
+        }
+        try {
+            Map<Long, Object> porDispositivo = new LinkedHashMap<>();
+            consultaLecturas.obtenerRango(ids, desde, fin)
+                    .forEach((dispositivoId, lecturas) -> porDispositivo.put(dispositivoId, formatear(dispositivoId, lecturas, formato, maxPuntos)));
+            return ResponseEntity.ok(porDispositivo);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                    .body("{\"message\": \"La consulta de lecturas superó el tiempo máximo\"}");
+        }
+    }
+    
+    private static Object formatear(Long dispositivoId, List<LecturaCompacta> lecturas, String formato, Integer maxPuntos) {
+        if ("columnas".equalsIgnoreCase(formato)) {
+            SerieLecturas serie = SerieLecturas.de(dispositivoId, lecturas);
+            return maxPuntos != null ? serie.submuestrear(maxPuntos) : serie;
+        }
+        return maxPuntos != null ? LecturaCompacta.submuestrear(lecturas, maxPuntos) : lecturas;
+    }
+    
+    // LTTB conserva siempre el primer y el último punto: por debajo de 3 no queda nada que elegir
+    private static boolean maxPuntosValido(Integer maxPuntos) {
+        return maxPuntos == null || maxPuntos >= 3;
+    }
+    
+    private static ResponseEntity<String> maxPuntosNoValido() {
+        return ResponseEntity.badRequest().body("{\"message\": \"maxPoints debe ser al menos 3\"}");
+    }
+    
+    @GetMapping("/dispositivo/{dispositivoId}/estadisticas")
+    public ResponseEntity<EstadisticasDispositivo> getEstadisticas(@PathVariable Long dispositivoId) {
+        return lecturaService.obtenerEstadisticas(dispositivoId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.simcii.javaservice.controllers;
+
+import com.simcii.javaservice.dto.ResumenZona;
+import com.simcii.javaservice.services.ResumenZonasService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Collection;
+
+@RestController
+@RequestMapping("/api/zonas")
+@CrossOrigin(origins = "*")
+public class ZonaController {
+    
+    @Autowired
+    private ResumenZonasService resumenZonasService;
+    
+    @GetMapping("/resumen")
+    public Collection<ResumenZona> getResumenZonas() {
+        return resumenZonasService.obtenerResumenes();
+    }
+    
+    @GetMapping("/resumen/{zona}")
+    public ResponseEntity<ResumenZona> getResumenZona(@PathVariable String zona) {
+        return resumenZonasService.obtenerResumen(zona)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,45 @@
+package com.simcii.javaservice.dto;
+
+/**
+ * Elemento de un lote de comandos de actuadores: estado y/o modo de operación a aplicar.
+ * Los campos nulos no se modifican. Si se indica {@code version}, el comando solo se aplica
+ * cuando coincide con la versión almacenada del actuador (bloqueo optimista).
+ */
+public class ComandoActuadorRequest {
+    private Long actuadorId;
+    private Boolean estado;
+    private String modoOperacion;
+    private Long version;
+    
+    public Long getActuadorId() {
+        return actuadorId;
+    }
+    
+    public void setActuadorId(Long actuadorId) {
+        this.actuadorId = actuadorId;
+    }
+    
+    public Boolean getEstado() {
+        return estado;
+    }
+    
+    public void setEstado(Boolean estado) {
+        this.estado = estado;
+    }
+    
+    public String getModoOperacion() {
+        return modoOperacion;
+    }
+    
+    public void setModoOperacion(String modoOperacion) {
+        this.modoOperacion = modoOperacion;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
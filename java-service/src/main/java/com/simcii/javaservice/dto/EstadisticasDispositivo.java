@@ -0,0 +1,38 @@
+package com.simcii.javaservice.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Estadísticas deslizantes de las lecturas de un dispositivo (1 min, 15 min y 1 h).
+ */
+public class EstadisticasDispositivo {
+    private final Long dispositivoId;
+    private final String unidad;
+    private final LocalDateTime calculadoEn;
+    private final List<EstadisticasVentana> ventanas;
+
+    public EstadisticasDispositivo(Long dispositivoId, String unidad, LocalDateTime calculadoEn,
+                                   List<EstadisticasVentana> ventanas) {
+        this.dispositivoId = dispositivoId;
+        this.unidad = unidad;
+        this.calculadoEn = calculadoEn;
+        this.ventanas = ventanas;
+    }
+
+    public Long getDispositivoId() {
+        return dispositivoId;
+    }
+
+    public String getUnidad() {
+        return unidad;
+    }
+
+    public LocalDateTime getCalculadoEn() {
+        return calculadoEn;
+    }
+
+    public List<EstadisticasVentana> getVentanas() {
+        return ventanas;
+    }
+}
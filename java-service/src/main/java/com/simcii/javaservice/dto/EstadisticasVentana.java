@@ -0,0 +1,89 @@
+package com.simcii.javaservice.dto;
+
+import com.simcii.javaservice.estadisticas.AcumuladorEstadisticas;
+
+/**
+ * Estadísticas de las lecturas de un dispositivo en una ventana deslizante.
+ * Los valores son nulos si la ventana no tiene lecturas; los percentiles son aproximados.
+ */
+public class EstadisticasVentana {
+    private String ventana;
+    private long segundos;
+    private long conteo;
+    private Double media;
+    private Double varianza;
+    private Double desviacion;
+    private Double minimo;
+    private Double maximo;
+    private Double p50;
+    private Double p90;
+    private Double p95;
+    private Double p99;
+
+    public static EstadisticasVentana de(String ventana, long segundos, AcumuladorEstadisticas acumulador) {
+        EstadisticasVentana estadisticas = new EstadisticasVentana();
+        estadisticas.ventana = ventana;
+        estadisticas.segundos = segundos;
+        estadisticas.conteo = acumulador.getConteo();
+        if (acumulador.getConteo() > 0) {
+            estadisticas.media = acumulador.getMedia();
+            estadisticas.varianza = acumulador.getVarianza();
+            estadisticas.desviacion = Math.sqrt(acumulador.getVarianza());
+            estadisticas.minimo = acumulador.getMinimo();
+            estadisticas.maximo = acumulador.getMaximo();
+            estadisticas.p50 = acumulador.cuantil(0.50);
+            estadisticas.p90 = acumulador.cuantil(0.90);
+            estadisticas.p95 = acumulador.cuantil(0.95);
+            estadisticas.p99 = acumulador.cuantil(0.99);
+        }
+        return estadisticas;
+    }
+
+    public String getVentana() {
+        return ventana;
+    }
+
+    public long getSegundos() {
+        return segundos;
+    }
+
+    public long getConteo() {
+        return conteo;
+    }
+
+    public Double getMedia() {
+        return media;
+    }
+
+    public Double getVarianza() {
+        return varianza;
+    }
+
+    public Double getDesviacion() {
+        return desviacion;
+    }
+
+    public Double getMinimo() {
+        return minimo;
+    }
+
+    public Double getMaximo() {
+        return maximo;
+    }
+
+    public Double getP50() {
+        return p50;
+    }
+
+    public Double getP90() {
+        return p90;
+    }
+
+    public Double getP95() {
+        return p95;
+    }
+
+    public Double getP99() {
+        return p99;
+    }
+}
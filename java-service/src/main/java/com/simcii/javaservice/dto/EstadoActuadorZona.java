@@ -0,0 +1,46 @@
+package com.simcii.javaservice.dto;
+
+/**
+ * Estado de un actuador dentro del resumen de su zona. Inmutable.
+ */
+public class EstadoActuadorZona {
+    private final Long id;
+    private final String nombre;
+    private final String tipoActuador;
+    private final Boolean estado;
+    private final String modoOperacion;
+
+    public EstadoActuadorZona(Long id, String nombre, String tipoActuador, Boolean estado, String modoOperacion) {
+        this.id = id;
+        this.nombre = nombre;
+        this.tipoActuador = tipoActuador;
+        this.estado = estado;
+        this.modoOperacion = modoOperacion;
+    }
+
+    public EstadoActuadorZona con(Boolean estado, String modoOperacion) {
+        return new EstadoActuadorZona(id, nombre, tipoActuador,
+                estado != null ? estado : this.estado,
+                modoOperacion != null ? modoOperacion : this.modoOperacion);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getTipoActuador() {
+        return tipoActuador;
+    }
+
+    public Boolean getEstado() {
+        return estado;
+    }
+
+    public String getModoOperacion() {
+        return modoOperacion;
+    }
+}
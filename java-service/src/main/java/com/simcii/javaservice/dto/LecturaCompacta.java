@@ -0,0 +1,87 @@
+package com.simcii.javaservice.dto;
+
+import com.simcii.javaservice.estadisticas.SubmuestreoLttb;
+import com.simcii.javaservice.models.Lectura;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lectura plana para las respuestas de la API: el dispositivo va solo por su ID en lugar del
+ * dispositivo polimórfico completo. Con JPA se obtiene por proyección, sin cargar entidades.
+ */
+public class LecturaCompacta {
+    private final Long id;
+    private final Long dispositivoId;
+    private final Double valor;
+    private final String unidad;
+    private final LocalDateTime fechaHora;
+
+    public LecturaCompacta(Long id, Long dispositivoId, Double valor, String unidad, LocalDateTime fechaHora) {
+        this.id = id;
+        this.dispositivoId = dispositivoId;
+        this.valor = valor;
+        this.unidad = unidad;
+        this.fechaHora = fechaHora;
+    }
+
+    public static LecturaCompacta de(Lectura lectura) {
+        return new LecturaCompacta(lectura.getId(),
+                lectura.getDispositivo() != null ? lectura.getDispositivo().getId() : null,
+                lectura.getValor(), lectura.getUnidad(), lectura.getFechaHora());
+    }
+
+    /**
+     * Reduce una lista de lecturas (en orden cronológico o inverso) a como mucho {@code maxPuntos}
+     * con LTTB. Las lecturas sin valor o sin fecha no se dibujan y se descartan.
+     *
+     * @see SubmuestreoLttb
+     */
+    public static List<LecturaCompacta> submuestrear(List<LecturaCompacta> lecturas, int maxPuntos) {
+        if (lecturas.size() <= maxPuntos) {
+            return lecturas;
+        }
+        long[] x = new long[lecturas.size()];
+        double[] y = new double[lecturas.size()];
+        int[] posiciones = new int[lecturas.size()];
+        int n = 0;
+        for (int i = 0; i < lecturas.size(); i++) {
+            LecturaCompacta lectura = lecturas.get(i);
+            if (lectura.valor == null || lectura.fechaHora == null) {
+                continue;
+            }
+            // Solo importa el espaciado entre puntos: basta una zona fija
+            x[n] = lectura.fechaHora.toInstant(ZoneOffset.UTC).toEpochMilli();
+            y[n] = lectura.valor;
+            posiciones[n++] = i;
+        }
+        int[] indices = SubmuestreoLttb.seleccionar(x, y, n, maxPuntos);
+        List<LecturaCompacta> resultado = new ArrayList<>(indices.length);
+        for (int indice : indices) {
+            resultado.add(lecturas.get(posiciones[indice]));
+        }
+        return resultado;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getDispositivoId() {
+        return dispositivoId;
+    }
+
+    public Double getValor() {
+        return valor;
+    }
+
+    public String getUnidad() {
+        return unidad;
+    }
+
+    public LocalDateTime getFechaHora() {
+        return fechaHora;
+    }
+}
@@ -0,0 +1,57 @@
+package com.simcii.javaservice.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lectura enviada por un gateway o dispositivo externo (POST /api/lecturas).
+ * Si no se indica {@code unidad} se usa la unidad de medida del sensor.
+ * {@code fechaHora} es el instante de la medida en origen (por defecto, el de recepción) y
+ * {@code secuencia}, un contador del emisor por dispositivo que hace seguros los reintentos.
+ */
+public class LecturaRequest {
+    private Long dispositivoId;
+    private Double valor;
+    private String unidad;
+    private LocalDateTime fechaHora;
+    private Long secuencia;
+    
+    public Long getDispositivoId() {
+        return dispositivoId;
+    }
+    
+    public void setDispositivoId(Long dispositivoId) {
+        this.dispositivoId = dispositivoId;
+    }
+    
+    public Double getValor() {
+        return valor;
+    }
+    
+    public void setValor(Double valor) {
+        this.valor = valor;
+    }
+    
+    public String getUnidad() {
+        return unidad;
+    }
+    
+    public void setUnidad(String unidad) {
+        this.unidad = unidad;
+    }
+    
+    public LocalDateTime getFechaHora() {
+        return fechaHora;
+    }
+    
+    public void setFechaHora(LocalDateTime fechaHora) {
+        this.fechaHora = fechaHora;
+    }
+    
+    public Long getSecuencia() {
+        return secuencia;
+    }
+    
+    public void setSecuencia(Long secuencia) {
+        this.secuencia = secuencia;
+    }
+}
@@ -0,0 +1,74 @@
+package com.simcii.javaservice.dto;
+
+import com.simcii.javaservice.models.Alerta;
+import com.simcii.javaservice.models.Dispositivo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Alerta tal como se envía a los canales de notificación. Inmutable y sin referencias a
+ * entidades, para poder encolarla y serializarla fuera de la sesión de persistencia.
+ */
+public class NotificacionAlerta {
+    public static final String TIPO_ANOMALIA = "ANOMALIA";
+
+    private final Long alertaId;
+    private final Long dispositivoId;
+    private final String dispositivo;
+    private final String ubicacion;
+    private final String tipo;
+    private final Double valor;
+    private final String mensaje;
+    private final LocalDateTime fechaHora;
+
+    public NotificacionAlerta(Long alertaId, Long dispositivoId, String dispositivo, String ubicacion,
+                              String tipo, Double valor, String mensaje, LocalDateTime fechaHora) {
+        this.alertaId = alertaId;
+        this.dispositivoId = dispositivoId;
+        this.dispositivo = dispositivo;
+        this.ubicacion = ubicacion;
+        this.tipo = tipo;
+        this.valor = valor;
+        this.mensaje = mensaje;
+        this.fechaHora = fechaHora;
+    }
+
+    public static NotificacionAlerta de(Alerta alerta) {
+        Dispositivo d = alerta.getDispositivo();
+        String tipo = alerta.getUmbral() != null ? alerta.getUmbral().getTipoAlerta() : TIPO_ANOMALIA;
+        return new NotificacionAlerta(alerta.getId(), d.getId(), d.getNombre(), d.getUbicacion(), tipo,
+                alerta.getValorActual(), alerta.getMensaje(), alerta.getFechaCreacion());
+    }
+
+    public Long getAlertaId() {
+        return alertaId;
+    }
+
+    public Long getDispositivoId() {
+        return dispositivoId;
+    }
+
+    public String getDispositivo() {
+        return dispositivo;
+    }
+
+    public String getUbicacion() {
+        return ubicacion;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public Double getValor() {
+        return valor;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public LocalDateTime getFechaHora() {
+        return fechaHora;
+    }
+}
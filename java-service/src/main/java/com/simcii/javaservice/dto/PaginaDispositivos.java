@@ -0,0 +1,37 @@
+package com.simcii.javaservice.dto;
+
+import java.util.List;
+
+/**
+ * Página de un listado filtrado del catálogo: {@code total} es el número de dispositivos que
+ * cumplen el filtro, no el de la página.
+ */
+public class PaginaDispositivos {
+    private final int total;
+    private final int pagina;
+    private final int tamano;
+    private final List<ResumenDispositivo> dispositivos;
+
+    public PaginaDispositivos(int total, int pagina, int tamano, List<ResumenDispositivo> dispositivos) {
+        this.total = total;
+        this.pagina = pagina;
+        this.tamano = tamano;
+        this.dispositivos = dispositivos;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getPagina() {
+        return pagina;
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    public List<ResumenDispositivo> getDispositivos() {
+        return dispositivos;
+    }
+}
@@ -0,0 +1,33 @@
+package com.simcii.javaservice.dto;
+
+import com.simcii.javaservice.models.Dispositivo;
+import com.simcii.javaservice.models.Umbral;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Elemento de una petición de aprovisionamiento masivo: un dispositivo (polimórfico,
+ * según su campo "tipo") y sus umbrales. Si un sensor llega sin umbrales se le crean
+ * los umbrales por defecto de su tipo.
+ */
+public class ProvisionDispositivoRequest {
+    private Dispositivo dispositivo;
+    private List<Umbral> umbrales = new ArrayList<>();
+    
+    public Dispositivo getDispositivo() {
+        return dispositivo;
+    }
+    
+    public void setDispositivo(Dispositivo dispositivo) {
+        this.dispositivo = dispositivo;
+    }
+    
+    public List<Umbral> getUmbrales() {
+        return umbrales;
+    }
+    
+    public void setUmbrales(List<Umbral> umbrales) {
+        this.umbrales = umbrales != null ? umbrales : new ArrayList<>();
+    }
+}
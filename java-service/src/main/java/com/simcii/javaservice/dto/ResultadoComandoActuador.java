@@ -0,0 +1,56 @@
+package com.simcii.javaservice.dto;
+
+/**
+ * Resultado de un comando de actuador, identificado por su posición en la petición.
+ * En caso de éxito incluye la nueva versión del actuador; en caso de conflicto, la versión actual.
+ */
+public class ResultadoComandoActuador {
+    
+    public static final String NO_ENCONTRADO = "Actuador no encontrado";
+    public static final String CONFLICTO_VERSION = "Conflicto de versión";
+    
+    private int indice;
+    private Long actuadorId;
+    private boolean exito;
+    private Long version;
+    private String error;
+    
+    public static ResultadoComandoActuador exito(int indice, Long actuadorId, long version) {
+        ResultadoComandoActuador resultado = new ResultadoComandoActuador();
+        resultado.indice = indice;
+        resultado.actuadorId = actuadorId;
+        resultado.exito = true;
+        resultado.version = version;
+        return resultado;
+    }
+    
+    public static ResultadoComandoActuador error(int indice, Long actuadorId, Long version, String error) {
+        ResultadoComandoActuador resultado = new ResultadoComandoActuador();
+        resultado.indice = indice;
+        resultado.actuadorId = actuadorId;
+        resultado.exito = false;
+        resultado.version = version;
+        resultado.error = error;
+        return resultado;
+    }
+    
+    public int getIndice() {
+        return indice;
+    }
+    
+    public Long getActuadorId() {
+        return actuadorId;
+    }
+    
+    public boolean isExito() {
+        return exito;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public String getError() {
+        return error;
+    }
+}
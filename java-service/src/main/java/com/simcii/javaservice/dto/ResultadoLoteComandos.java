@@ -0,0 +1,36 @@
+package com.simcii.javaservice.dto;
+
+import java.util.List;
+
+/**
+ * Resumen de un lote de comandos de actuadores con el resultado de cada comando.
+ */
+public class ResultadoLoteComandos {
+    private final int total;
+    private final long aplicados;
+    private final long errores;
+    private final List<ResultadoComandoActuador> resultados;
+    
+    public ResultadoLoteComandos(List<ResultadoComandoActuador> resultados) {
+        this.resultados = resultados;
+        this.total = resultados.size();
+        this.aplicados = resultados.stream().filter(ResultadoComandoActuador::isExito).count();
+        this.errores = total - aplicados;
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    public long getAplicados() {
+        return aplicados;
+    }
+    
+    public long getErrores() {
+        return errores;
+    }
+    
+    public List<ResultadoComandoActuador> getResultados() {
+        return resultados;
+    }
+}
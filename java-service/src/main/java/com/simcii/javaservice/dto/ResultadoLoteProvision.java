@@ -0,0 +1,36 @@
+package com.simcii.javaservice.dto;
+
+import java.util.List;
+
+/**
+ * Resumen de un aprovisionamiento masivo con el resultado de cada elemento.
+ */
+public class ResultadoLoteProvision {
+    private final int total;
+    private final long creados;
+    private final long errores;
+    private final List<ResultadoProvision> resultados;
+    
+    public ResultadoLoteProvision(List<ResultadoProvision> resultados) {
+        this.resultados = resultados;
+        this.total = resultados.size();
+        this.creados = resultados.stream().filter(ResultadoProvision::isExito).count();
+        this.errores = total - creados;
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    public long getCreados() {
+        return creados;
+    }
+    
+    public long getErrores() {
+        return errores;
+    }
+    
+    public List<ResultadoProvision> getResultados() {
+        return resultados;
+    }
+}
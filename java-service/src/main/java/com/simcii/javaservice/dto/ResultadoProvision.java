@@ -0,0 +1,43 @@
+package com.simcii.javaservice.dto;
+
+/**
+ * Resultado del aprovisionamiento de un elemento, identificado por su posición en la petición.
+ */
+public class ResultadoProvision {
+    private int indice;
+    private Long id;
+    private boolean exito;
+    private String error;
+    
+    public static ResultadoProvision exito(int indice, Long id) {
+        ResultadoProvision resultado = new ResultadoProvision();
+        resultado.indice = indice;
+        resultado.id = id;
+        resultado.exito = true;
+        return resultado;
+    }
+    
+    public static ResultadoProvision error(int indice, String error) {
+        ResultadoProvision resultado = new ResultadoProvision();
+        resultado.indice = indice;
+        resultado.exito = false;
+        resultado.error = error;
+        return resultado;
+    }
+    
+    public int getIndice() {
+        return indice;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public boolean isExito() {
+        return exito;
+    }
+    
+    public String getError() {
+        return error;
+    }
+}
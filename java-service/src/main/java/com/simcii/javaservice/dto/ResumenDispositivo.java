@@ -0,0 +1,54 @@
+package com.simcii.javaservice.dto;
+
+import com.simcii.javaservice.models.Dispositivo;
+
+/**
+ * Dispositivo plano para los listados del catálogo: solo los campos por los que se filtra y
+ * ordena. El detalle completo (estado de actuadores, tipo de sensor, fechas) se obtiene por ID.
+ */
+public class ResumenDispositivo {
+    private final Long id;
+    private final String tipo;
+    private final String nombre;
+    private final String descripcion;
+    private final String ubicacion;
+    private final Boolean activo;
+
+    public ResumenDispositivo(Long id, String tipo, String nombre, String descripcion, String ubicacion, Boolean activo) {
+        this.id = id;
+        this.tipo = tipo;
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+        this.ubicacion = ubicacion;
+        this.activo = activo;
+    }
+
+    public static ResumenDispositivo de(Dispositivo dispositivo) {
+        return new ResumenDispositivo(dispositivo.getId(), dispositivo.getTipo(), dispositivo.getNombre(),
+                dispositivo.getDescripcion(), dispositivo.getUbicacion(), dispositivo.getActivo());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public String getUbicacion() {
+        return ubicacion;
+    }
+
+    public Boolean getActivo() {
+        return activo;
+    }
+}
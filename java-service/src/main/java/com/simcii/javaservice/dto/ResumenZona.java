@@ -0,0 +1,70 @@
+package com.simcii.javaservice.dto;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Resumen en vivo de una zona (ubicación) para el panel: última lectura por tipo de sensor,
+ * estado de los actuadores y número de alertas abiertas. Inmutable: cada cambio produce una
+ * copia con los métodos {@code con*}, de modo que puede leerse sin sincronización.
+ */
+public class ResumenZona {
+    private final String zona;
+    private final int sensores;
+    private final Map<String, UltimaLecturaZona> ultimasLecturas;
+    private final List<EstadoActuadorZona> actuadores;
+    private final long alertasAbiertas;
+    private final LocalDateTime actualizadoEn;
+
+    public ResumenZona(String zona, int sensores, Map<String, UltimaLecturaZona> ultimasLecturas,
+                       List<EstadoActuadorZona> actuadores, long alertasAbiertas, LocalDateTime actualizadoEn) {
+        this.zona = zona;
+        this.sensores = sensores;
+        this.ultimasLecturas = Collections.unmodifiableMap(new TreeMap<>(ultimasLecturas));
+        this.actuadores = List.copyOf(actuadores);
+        this.alertasAbiertas = alertasAbiertas;
+        this.actualizadoEn = actualizadoEn;
+    }
+
+    public ResumenZona conLectura(String tipoSensor, UltimaLecturaZona lectura) {
+        Map<String, UltimaLecturaZona> lecturas = new HashMap<>(ultimasLecturas);
+        lecturas.put(tipoSensor, lectura);
+        return new ResumenZona(zona, sensores, lecturas, actuadores, alertasAbiertas, LocalDateTime.now());
+    }
+
+    public ResumenZona conActuador(Long id, Boolean estado, String modoOperacion) {
+        List<EstadoActuadorZona> nuevos = new ArrayList<>(actuadores.size());
+        for (EstadoActuadorZona actuador : actuadores) {
+            nuevos.add(actuador.getId().equals(id) ? actuador.con(estado, modoOperacion) : actuador);
+        }
+        return new ResumenZona(zona, sensores, ultimasLecturas, nuevos, alertasAbiertas, LocalDateTime.now());
+    }
+
+    public ResumenZona conAlertasAbiertas(long alertasAbiertas) {
+        return new ResumenZona(zona, sensores, ultimasLecturas, actuadores, alertasAbiertas, LocalDateTime.now());
+    }
+
+    public String getZona() {
+        return zona;
+    }
+
+    public int getSensores() {
+        return sensores;
+    }
+
+    public Map<String, UltimaLecturaZona> getUltimasLecturas() {
+        return ultimasLecturas;
+    }
+
+    public List<EstadoActuadorZona> getActuadores() {
+        return actuadores;
+    }
+
+    public long getAlertasAbiertas() {
+        return alertasAbiertas;
+    }
+
+    public LocalDateTime getActualizadoEn() {
+        return actualizadoEn;
+    }
+}
@@ -0,0 +1,84 @@
+package com.simcii.javaservice.dto;
+
+import com.simcii.javaservice.estadisticas.SubmuestreoLttb;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lecturas de un dispositivo en formato de columnas: {@code timestamps} (epoch en milisegundos)
+ * y {@code values} en arrays paralelos, en el mismo orden que la lista original. La unidad y el
+ * dispositivo se indican una sola vez; las lecturas sin valor se omiten.
+ */
+public class SerieLecturas {
+    private final Long dispositivoId;
+    private final String unidad;
+    private final long[] timestamps;
+    private final double[] values;
+
+    public SerieLecturas(Long dispositivoId, String unidad, long[] timestamps, double[] values) {
+        this.dispositivoId = dispositivoId;
+        this.unidad = unidad;
+        this.timestamps = timestamps;
+        this.values = values;
+    }
+
+    public static SerieLecturas de(Long dispositivoId, List<LecturaCompacta> lecturas) {
+        ZoneId zona = ZoneId.systemDefault();
+        long[] timestamps = new long[lecturas.size()];
+        double[] values = new double[lecturas.size()];
+        String unidad = null;
+        int n = 0;
+        for (LecturaCompacta lectura : lecturas) {
+            if (lectura.getValor() == null || lectura.getFechaHora() == null) {
+                continue;
+            }
+            timestamps[n] = lectura.getFechaHora().atZone(zona).toInstant().toEpochMilli();
+            values[n++] = lectura.getValor();
+            if (unidad == null) {
+                unidad = lectura.getUnidad();
+            }
+        }
+        if (n < lecturas.size()) {
+            timestamps = Arrays.copyOf(timestamps, n);
+            values = Arrays.copyOf(values, n);
+        }
+        return new SerieLecturas(dispositivoId, unidad, timestamps, values);
+    }
+
+    /**
+     * Serie reducida a como mucho {@code maxPuntos} puntos con LTTB.
+     *
+     * @see SubmuestreoLttb
+     */
+    public SerieLecturas submuestrear(int maxPuntos) {
+        if (timestamps.length <= maxPuntos) {
+            return this;
+        }
+        int[] indices = SubmuestreoLttb.seleccionar(timestamps, values, timestamps.length, maxPuntos);
+        long[] t = new long[indices.length];
+        double[] v = new double[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            t[i] = timestamps[indices[i]];
+            v[i] = values[indices[i]];
+        }
+        return new SerieLecturas(dispositivoId, unidad, t, v);
+    }
+
+    public Long getDispositivoId() {
+        return dispositivoId;
+    }
+
+    public String getUnidad() {
+        return unidad;
+    }
+
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public double[] getValues() {
+        return values;
+    }
+}
@@ -0,0 +1,43 @@
+package com.simcii.javaservice.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Última lectura de un tipo de sensor en una zona. Inmutable.
+ */
+public class UltimaLecturaZona {
+    private final Long dispositivoId;
+    private final String dispositivo;
+    private final Double valor;
+    private final String unidad;
+    private final LocalDateTime fechaHora;
+
+    public UltimaLecturaZona(Long dispositivoId, String dispositivo, Double valor, String unidad,
+                             LocalDateTime fechaHora) {
+        this.dispositivoId = dispositivoId;
+        this.dispositivo = dispositivo;
+        this.valor = valor;
+        this.unidad = unidad;
+        this.fechaHora = fechaHora;
+    }
+
+    public Long getDispositivoId() {
+        return dispositivoId;
+    }
+
+    public String getDispositivo() {
+        return dispositivo;
+    }
+
+    public Double getValor() {
+        return valor;
+    }
+
+    public String getUnidad() {
+        return unidad;
+    }
+
+    public LocalDateTime getFechaHora() {
+        return fechaHora;
+    }
+}
@@ -0,0 +1,82 @@
+package com.simcii.javaservice.estadisticas;
+
+/**
+ * Acumulador de conteo, media, varianza (Welford), mínimo, máximo y cuantiles de un conjunto de valores.
+ * Añadir un valor es O(1); dos acumuladores se combinan con la fórmula de Chan para la varianza.
+ */
+public final class AcumuladorEstadisticas {
+
+    private long conteo;
+    private double media;
+    private double m2;
+    private double minimo = Double.POSITIVE_INFINITY;
+    private double maximo = Double.NEGATIVE_INFINITY;
+    private final SketchCuantiles sketch;
+
+    public AcumuladorEstadisticas(double precisionCuantiles, int maxBins) {
+        this.sketch = new SketchCuantiles(precisionCuantiles, maxBins);
+    }
+
+    public void anadir(double valor) {
+        conteo++;
+        double delta = valor - media;
+        media += delta / conteo;
+        m2 += delta * (valor - media);
+        minimo = Math.min(minimo, valor);
+        maximo = Math.max(maximo, valor);
+        sketch.anadir(valor);
+    }
+
+    public void combinar(AcumuladorEstadisticas otro) {
+        if (otro.conteo == 0) {
+            return;
+        }
+        long total = conteo + otro.conteo;
+        double delta = otro.media - media;
+        media += delta * otro.conteo / total;
+        m2 += otro.m2 + delta * delta * conteo * otro.conteo / total;
+        conteo = total;
+        minimo = Math.min(minimo, otro.minimo);
+        maximo = Math.max(maximo, otro.maximo);
+        sketch.combinar(otro.sketch);
+    }
+
+    public void reiniciar() {
+        conteo = 0;
+        media = 0;
+        m2 = 0;
+        minimo = Double.POSITIVE_INFINITY;
+        maximo = Double.NEGATIVE_INFINITY;
+        sketch.reiniciar();
+    }
+
+    public long getConteo() {
+        return conteo;
+    }
+
+    public double getMedia() {
+        return media;
+    }
+
+    /**
+     * Varianza muestral (n - 1); 0 con menos de dos valores.
+     */
+    public double getVarianza() {
+        return conteo > 1 ? m2 / (conteo - 1) : 0;
+    }
+
+    public double getMinimo() {
+        return minimo;
+    }
+
+    public double getMaximo() {
+        return maximo;
+    }
+
+    /**
+     * Cuantil aproximado, acotado al mínimo y máximo exactos.
+     */
+    public double cuantil(double q) {
+        return Math.max(minimo, Math.min(maximo, sketch.cuantil(q)));
+    }
+}
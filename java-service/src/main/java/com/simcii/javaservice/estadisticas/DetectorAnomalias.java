@@ -0,0 +1,116 @@
+package com.simcii.javaservice.estadisticas;
+
+/**
+ * Detector de anomalías en streaming para la serie de lecturas de un dispositivo.
+ *
+ * Mantiene una media y una varianza exponencialmente ponderadas (EWMA) y puntúa cada lectura
+ * con su desviación tipificada z respecto a ellas:
+ * <ul>
+ *   <li>SALTO: |z| supera {@code umbralSalto}, un cambio brusco aunque siga dentro del umbral.</li>
+ *   <li>DERIVA: una CUSUM bilateral sobre z supera {@code umbralDeriva}, un desplazamiento
+ *       sostenido y lento que la banda min/max no detecta.</li>
+ * </ul>
+ * El estado son solo campos primitivos y evaluar una lectura no reserva memoria. Tras una detección
+ * se silencian las siguientes del mismo dispositivo durante {@code silencioMs}. No es thread-safe:
+ * el llamador sincroniza el acceso por dispositivo.
+ */
+public final class DetectorAnomalias {
+
+    public enum TipoAnomalia {
+        SALTO, DERIVA
+    }
+
+    /**
+     * Parámetros compartidos por los detectores de todos los dispositivos.
+     */
+    public record Parametros(double alfa, double umbralSalto, double holguraDeriva, double umbralDeriva,
+                             int calentamiento, long silencioMs) {
+    }
+
+    private final Parametros parametros;
+    private long muestras;
+    private double media;
+    private double varianza;
+    private double cusumPositiva;
+    private double cusumNegativa;
+    private long silencioHasta;
+    private double ultimaPuntuacion;
+    private double ultimaReferencia;
+
+    public DetectorAnomalias(Parametros parametros) {
+        this.parametros = parametros;
+    }
+
+    /**
+     * Puntúa una lectura y actualiza el estado.
+     *
+     * @param valor Valor de la lectura
+     * @param instanteMs Instante de la lectura, usado para el silencio tras una detección
+     * @return TipoAnomalia detectada, o null si la lectura es normal o la detección está silenciada
+     */
+    public TipoAnomalia evaluar(double valor, long instanteMs) {
+        if (muestras++ == 0) {
+            media = valor;
+            return null;
+        }
+        double desviacion = Math.sqrt(varianza);
+        double diferencia = valor - media;
+        TipoAnomalia anomalia = null;
+
+        if (muestras > parametros.calentamiento() && desviacion > 0) {
+            double z = diferencia / desviacion;
+            cusumPositiva = Math.max(0, cusumPositiva + z - parametros.holguraDeriva());
+            cusumNegativa = Math.max(0, cusumNegativa - z - parametros.holguraDeriva());
+            if (Math.abs(z) > parametros.umbralSalto()) {
+                anomalia = TipoAnomalia.SALTO;
+                // Un salto solo desplaza la referencia como uno de umbralSalto desviaciones,
+                // para que un valor aislado no infle la varianza y oculte los siguientes
+                diferencia = Math.copySign(parametros.umbralSalto() * desviacion, diferencia);
+            } else if (cusumPositiva > parametros.umbralDeriva() || cusumNegativa > parametros.umbralDeriva()) {
+                anomalia = TipoAnomalia.DERIVA;
+            }
+            ultimaPuntuacion = z;
+            ultimaReferencia = media;
+        }
+
+        // Con pocas muestras el peso 1/n da la media y varianza acumuladas, sin el sesgo
+        // hacia el primer valor que tendría la EWMA pura
+        double peso = Math.max(parametros.alfa(), 1.0 / muestras);
+        double incremento = peso * diferencia;
+        media += incremento;
+        varianza = (1 - peso) * (varianza + diferencia * incremento);
+
+        if (anomalia == null) {
+            return null;
+        }
+        cusumPositiva = 0;
+        cusumNegativa = 0;
+        if (instanteMs < silencioHasta) {
+            return null;
+        }
+        silencioHasta = instanteMs + parametros.silencioMs();
+        return anomalia;
+    }
+
+    /**
+     * Desviación tipificada de la última lectura evaluada tras el calentamiento.
+     */
+    public double getUltimaPuntuacion() {
+        return ultimaPuntuacion;
+    }
+
+    /**
+     * Media de referencia con la que se puntuó la última lectura.
+     */
+    public double getUltimaReferencia() {
+        return ultimaReferencia;
+    }
+
+    public double getMedia() {
+        return media;
+    }
+
+    public double getDesviacion() {
+        return Math.sqrt(varianza);
+    }
+}
@@ -0,0 +1,195 @@
+package com.simcii.javaservice.estadisticas;
+
+import java.util.Arrays;
+
+/**
+ * Sketch de cuantiles con error relativo acotado (estilo DDSketch).
+ *
+ * Cada valor se cuenta en el bin logarítmico ceil(log_gamma(|v|)), con gamma = (1 + a) / (1 - a),
+ * de modo que el cuantil estimado está a menos de un factor a del valor real. Añadir un valor es O(1)
+ * y los sketches se combinan sumando bins, lo que permite fusionar los intervalos de una ventana.
+ * Los bins ocupados de cada signo se guardan en un array contiguo que solo crece cuando aparece
+ * un valor fuera del rango visto; si supera {@code maxBins} se pliegan los bins de menor magnitud.
+ */
+public final class SketchCuantiles {
+
+    private static final double MINIMO_INDEXABLE = 1e-9;
+
+    private final double gamma;
+    private final double logGamma;
+    private final Bins positivos;
+    private final Bins negativos;
+    private long ceros;
+
+    public SketchCuantiles(double precisionRelativa, int maxBins) {
+        this.gamma = (1 + precisionRelativa) / (1 - precisionRelativa);
+        this.logGamma = Math.log(gamma);
+        this.positivos = new Bins(maxBins);
+        this.negativos = new Bins(maxBins);
+    }
+
+    public void anadir(double valor) {
+        if (valor > MINIMO_INDEXABLE) {
+            positivos.anadir(indice(valor), 1);
+        } else if (valor < -MINIMO_INDEXABLE) {
+            negativos.anadir(indice(-valor), 1);
+        } else {
+            ceros++;
+        }
+    }
+
+    /**
+     * Suma los conteos de otro sketch con la misma precisión.
+     */
+    public void combinar(SketchCuantiles otro) {
+        positivos.combinar(otro.positivos);
+        negativos.combinar(otro.negativos);
+        ceros += otro.ceros;
+    }
+
+    public long getTotal() {
+        return positivos.total + negativos.total + ceros;
+    }
+
+    /**
+     * Estima el cuantil {@code q} (entre 0 y 1).
+     *
+     * @return double valor estimado, o NaN si el sketch está vacío
+     */
+    public double cuantil(double q) {
+        long total = getTotal();
+        if (total == 0) {
+            return Double.NaN;
+        }
+        long rango = (long) (Math.max(0, Math.min(1, q)) * (total - 1));
+        if (rango < negativos.total) {
+            // Los negativos de mayor magnitud son los menores
+            return -valor(negativos.indiceDescendente(rango));
+        }
+        rango -= negativos.total;
+        if (rango < ceros) {
+            return 0;
+        }
+        return valor(positivos.indiceAscendente(rango - ceros));
+    }
+
+    /**
+     * Vacía el sketch conservando los arrays de bins para reutilizarlos.
+     */
+    public void reiniciar() {
+        positivos.reiniciar();
+        negativos.reiniciar();
+        ceros = 0;
+    }
+
+    private int indice(double magnitud) {
+        return (int) Math.ceil(Math.log(magnitud) / logGamma);
+    }
+
+    private double valor(int indice) {
+        return 2 * Math.pow(gamma, indice) / (gamma + 1);
+    }
+
+    /**
+     * Conteos de un rango contiguo de índices de bin [minimo, maximo].
+     */
+    private static final class Bins {
+
+        private static final int HOLGURA = 8;
+
+        private final int maxBins;
+        private int[] conteos = new int[0];
+        private int desplazamiento;
+        private int minimo;
+        private int maximo;
+        private long total;
+
+        Bins(int maxBins) {
+            this.maxBins = maxBins;
+        }
+
+        void anadir(int indice, int n) {
+            int bajo;
+            int alto;
+            if (total == 0) {
+                bajo = indice;
+                alto = indice;
+            } else {
+                if (indice < minimo) {
+                    indice = Math.max(indice, maximo - maxBins + 1);
+                }
+                bajo = Math.min(minimo, indice);
+                alto = Math.max(maximo, indice);
+                if (alto - bajo + 1 > maxBins) {
+                    bajo = alto - maxBins + 1;
+                }
+            }
+            if (bajo < desplazamiento || alto >= desplazamiento + conteos.length || (total > 0 && bajo > minimo)) {
+                reubicar(bajo, alto);
+            }
+            minimo = bajo;
+            maximo = alto;
+            conteos[indice - desplazamiento] += n;
+            total += n;
+        }
+
+        /**
+         * Copia los bins ocupados a un array que cubre [bajo, alto]; los inferiores a {@code bajo}
+         * se acumulan en él.
+         */
+        private void reubicar(int bajo, int alto) {
+            int amplitud = alto - bajo + 1;
+            int longitud = Math.min(maxBins, amplitud + HOLGURA);
+            int nuevoDesplazamiento = bajo - (longitud - amplitud) / 2;
+            int[] nuevos = new int[longitud];
+            if (total > 0) {
+                for (int i = minimo; i <= maximo; i++) {
+                    nuevos[Math.max(i, bajo) - nuevoDesplazamiento] += conteos[i - desplazamiento];
+                }
+            }
+            conteos = nuevos;
+            desplazamiento = nuevoDesplazamiento;
+        }
+
+        void combinar(Bins otro) {
+            if (otro.total == 0) {
+                return;
+            }
+            for (int i = otro.minimo; i <= otro.maximo; i++) {
+                int n = otro.conteos[i - otro.desplazamiento];
+                if (n > 0) {
+                    anadir(i, n);
+                }
+            }
+        }
+
+        int indiceAscendente(long rango) {
+            long acumulado = 0;
+            for (int i = minimo; i <= maximo; i++) {
+                acumulado += conteos[i - desplazamiento];
+                if (acumulado > rango) {
+                    return i;
+                }
+            }
+            return maximo;
+        }
+
+        int indiceDescendente(long rango) {
+            long acumulado = 0;
+            for (int i = maximo; i >= minimo; i--) {
+                acumulado += conteos[i - desplazamiento];
+                if (acumulado > rango) {
+                    return i;
+                }
+            }
+            return minimo;
+        }
+
+        void reiniciar() {
+            if (total > 0) {
+                Arrays.fill(conteos, minimo - desplazamiento, maximo - desplazamiento + 1, 0);
+                total = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.simcii.javaservice.estadisticas;
+
+/**
+ * Submuestreo Largest-Triangle-Three-Buckets para gráficas: reduce una serie a un número fijo de
+ * puntos conservando su forma visual (picos y valles). Se conservan el primero y el último; el
+ * resto se reparte en cubos y de cada uno se elige el punto que forma el triángulo de mayor área
+ * con el punto elegido en el cubo anterior y la media del cubo siguiente.
+ *
+ * Una sola pasada sobre arrays primitivos: cada punto se lee dos veces (en la media del cubo
+ * siguiente y como candidato) y solo se reserva el array de índices resultante.
+ */
+public final class SubmuestreoLttb {
+
+    private SubmuestreoLttb() {
+    }
+
+    /**
+     * Índices de los puntos a conservar, en orden creciente.
+     *
+     * @param x abscisas monótonas (p. ej. epoch en milisegundos); se usan las {@code n} primeras
+     * @param y ordenadas
+     * @param n número de puntos de la serie
+     * @param maxPuntos puntos a conservar; con {@code n <= maxPuntos} se conservan todos
+     * @return int[] índices de {@code min(n, maxPuntos)} puntos
+     */
+    public static int[] seleccionar(long[] x, double[] y, int n, int maxPuntos) {
+        if (n <= maxPuntos || n <= 2) {
+            int[] todos = new int[n];
+            for (int i = 0; i < n; i++) {
+                todos[i] = i;
+            }
+            return todos;
+        }
+        if (maxPuntos <= 2) {
+            return maxPuntos == 2 ? new int[]{0, n - 1} : new int[]{0};
+        }
+
+        int[] indices = new int[maxPuntos];
+        // Cubos de igual tamaño entre el primer y el último punto
+        double ancho = (double) (n - 2) / (maxPuntos - 2);
+        int elegido = 0;
+        for (int cubo = 0; cubo < maxPuntos - 2; cubo++) {
+            int inicio = (int) (cubo * ancho) + 1;
+            int fin = (int) ((cubo + 1) * ancho) + 1;
+            int finSiguiente = Math.min((int) ((cubo + 2) * ancho) + 1, n);
+
+            // Media del cubo siguiente (en el último cubo, el último punto); x relativa al punto elegido
+            long origen = x[elegido];
+            double mediaX = 0;
+            double mediaY = 0;
+            for (int j = fin; j < finSiguiente; j++) {
+                mediaX += x[j] - origen;
+                mediaY += y[j];
+            }
+            int cuenta = finSiguiente - fin;
+            mediaX /= cuenta;
+            mediaY /= cuenta;
+
+            double yElegido = y[elegido];
+            double areaMaxima = -1;
+            int candidatoMaximo = inicio;
+            for (int j = inicio; j < fin; j++) {
+                // Doble del área del triángulo (elegido, j, media), sin el factor 1/2
+                double area = Math.abs((x[j] - origen) * (mediaY - yElegido) - mediaX * (y[j] - yElegido));
+                if (area > areaMaxima) {
+                    areaMaxima = area;
+                    candidatoMaximo = j;
+                }
+            }
+            indices[cubo + 1] = candidatoMaximo;
+            elegido = candidatoMaximo;
+        }
+        indices[maxPuntos - 1] = n - 1;
+        return indices;
+    }
+}
@@ -0,0 +1,58 @@
+package com.simcii.javaservice.estadisticas;
+
+/**
+ * Ventana deslizante en el tiempo formada por un anillo de intervalos de duración fija.
+ * Cada valor se acumula en el intervalo de su instante (O(1)); un intervalo se reinicia y
+ * reutiliza cuando el anillo da la vuelta. Las estadísticas de los últimos N intervalos se
+ * obtienen combinando sus acumuladores, por lo que la ventana avanza de intervalo en intervalo.
+ */
+public final class VentanaDeslizante {
+
+    private final long duracionIntervaloMs;
+    private final AcumuladorEstadisticas[] intervalos;
+    private final long[] numeroIntervalo;
+
+    public VentanaDeslizante(long duracionIntervaloMs, int intervalos, double precisionCuantiles, int maxBins) {
+        this.duracionIntervaloMs = duracionIntervaloMs;
+        this.intervalos = new AcumuladorEstadisticas[intervalos];
+        this.numeroIntervalo = new long[intervalos];
+        for (int i = 0; i < intervalos; i++) {
+            this.intervalos[i] = new AcumuladorEstadisticas(precisionCuantiles, maxBins);
+            this.numeroIntervalo[i] = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Acumula un valor en el intervalo de {@code instanteMs}. Los valores más antiguos que el
+     * anillo completo se descartan.
+     */
+    public void anadir(long instanteMs, double valor) {
+        long numero = Math.floorDiv(instanteMs, duracionIntervaloMs);
+        int posicion = (int) Math.floorMod(numero, (long) intervalos.length);
+        if (numeroIntervalo[posicion] != numero) {
+            if (numeroIntervalo[posicion] > numero) {
+                return;
+            }
+            intervalos[posicion].reiniciar();
+            numeroIntervalo[posicion] = numero;
+        }
+        intervalos[posicion].anadir(valor);
+    }
+
+    /**
+     * Combina en {@code destino} los {@code n} intervalos que terminan en el de {@code ahoraMs}.
+     */
+    public void resumir(long ahoraMs, int n, AcumuladorEstadisticas destino) {
+        long actual = Math.floorDiv(ahoraMs, duracionIntervaloMs);
+        long desde = actual - Math.min(n, intervalos.length) + 1;
+        for (int i = 0; i < intervalos.length; i++) {
+            if (numeroIntervalo[i] >= desde && numeroIntervalo[i] <= actual) {
+                destino.combinar(intervalos[i]);
+            }
+        }
+    }
+
+    public long getDuracionIntervaloMs() {
+        return duracionIntervaloMs;
+    }
+}
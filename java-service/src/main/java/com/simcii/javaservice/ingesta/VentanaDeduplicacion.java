@@ -0,0 +1,115 @@
+package com.simcii.javaservice.ingesta;
+
+import java.util.Arrays;
+
+/**
+ * Ventana deslizante de números de secuencia ya vistos de un dispositivo, como la ventana
+ * anti-repetición de IPsec: la secuencia máxima recibida y dos mapas de bits con las
+ * {@code tamano} anteriores, uno de secuencias guardadas y otro de secuencias en curso (admitidas
+ * pero cuyo guardado aún no ha terminado). Una secuencia solo cuenta como vista tras
+ * {@link #confirmar(long)}; así un reintento concurrente no se da por guardado antes de tiempo.
+ * Admite llegadas desordenadas dentro de la ventana y ocupa {@code tamano / 4} bytes por
+ * dispositivo, sin consultar el almacenamiento.
+ */
+public final class VentanaDeduplicacion {
+
+    public static final int NUEVA = 0;
+    public static final int DUPLICADA = 1;
+    /** Más antigua que la ventana: no se puede decidir en memoria. */
+    public static final int FUERA_DE_VENTANA = 2;
+    /** Admitida en otra petición cuyo guardado no ha terminado: el reintento debe esperar. */
+    public static final int EN_CURSO = 3;
+
+    private final long[] vistas;
+    private final long[] enCurso;
+    private final int tamano;
+    private long maxima = -1;
+
+    /**
+     * @param tamano Secuencias recordadas; múltiplo de 64
+     */
+    public VentanaDeduplicacion(int tamano) {
+        if (tamano <= 0 || tamano % 64 != 0) {
+            throw new IllegalArgumentException("El tamaño de la ventana debe ser un múltiplo positivo de 64");
+        }
+        this.tamano = tamano;
+        this.vistas = new long[tamano / 64];
+        this.enCurso = new long[tamano / 64];
+    }
+
+    /**
+     * Comprueba una secuencia y, si es nueva, la marca como en curso. El llamador debe terminar
+     * con {@link #confirmar(long)} si la lectura se guardó o {@link #olvidar(long)} si no.
+     *
+     * @param secuencia Número de secuencia no negativo
+     * @return int NUEVA, DUPLICADA, EN_CURSO o FUERA_DE_VENTANA
+     */
+    public synchronized int registrar(long secuencia) {
+        if (secuencia > maxima) {
+            long avance = maxima < 0 ? tamano : secuencia - maxima;
+            if (avance >= tamano) {
+                Arrays.fill(vistas, 0L);
+                Arrays.fill(enCurso, 0L);
+            } else {
+                // Las posiciones que entran en la ventana aún no se han visto
+                for (long s = maxima + 1; s < secuencia; s++) {
+                    limpiar(vistas, s);
+                    limpiar(enCurso, s);
+                }
+            }
+            maxima = secuencia;
+            limpiar(vistas, secuencia);
+            marcar(enCurso, secuencia);
+            return NUEVA;
+        }
+        if (maxima - secuencia >= tamano) {
+            return FUERA_DE_VENTANA;
+        }
+        if (marcada(vistas, secuencia)) {
+            return DUPLICADA;
+        }
+        if (marcada(enCurso, secuencia)) {
+            return EN_CURSO;
+        }
+        marcar(enCurso, secuencia);
+        return NUEVA;
+    }
+
+    /**
+     * Marca como vista una secuencia cuya lectura ya está guardada.
+     */
+    public synchronized void confirmar(long secuencia) {
+        if (enVentana(secuencia)) {
+            limpiar(enCurso, secuencia);
+            marcar(vistas, secuencia);
+        }
+    }
+
+    /**
+     * Libera una secuencia cuya lectura no llegó a guardarse, para que su reintento se admita.
+     */
+    public synchronized void olvidar(long secuencia) {
+        if (enVentana(secuencia)) {
+            limpiar(enCurso, secuencia);
+        }
+    }
+
+    private boolean enVentana(long secuencia) {
+        return secuencia <= maxima && maxima - secuencia < tamano;
+    }
+
+    private void marcar(long[] bits, long secuencia) {
+        int posicion = (int) Math.floorMod(secuencia, (long) tamano);
+        bits[posicion >>> 6] |= 1L << posicion;
+    }
+
+    private void limpiar(long[] bits, long secuencia) {
+        int posicion = (int) Math.floorMod(secuencia, (long) tamano);
+        bits[posicion >>> 6] &= ~(1L << posicion);
+    }
+
+    private boolean marcada(long[] bits, long secuencia) {
+        int posicion = (int) Math.floorMod(secuencia, (long) tamano);
+        return (bits[posicion >>> 6] & (1L << posicion)) != 0;
+    }
+}
\ No newline at end of file
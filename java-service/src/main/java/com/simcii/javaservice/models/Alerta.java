@@ -1,11 +1,23 @@
 package com.simcii.javaservice.models;
 
+import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
+@Entity
+@Table(name = "alertas")
 public class Alerta {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    
+    @ManyToOne
+    @JoinColumn(name = "dispositivo_id")
     private Dispositivo dispositivo;
+    
+    @ManyToOne
+    @JoinColumn(name = "umbral_id")
     private Umbral umbral;
+    
     private Double valorActual;
     private String mensaje;
     private Boolean activa;
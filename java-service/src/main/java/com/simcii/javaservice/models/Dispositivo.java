@@ -32,6 +32,10 @@ public abstract class Dispositivo {
     @Column(name = "fecha_actualizacion")
     private LocalDateTime fechaActualizacion;
     
+    // Bloqueo optimista: lo incrementan Hibernate y los comandos por lotes de actuadores
+    @Version
+    private long version;
+    
     // Método abstracto para obtener el tipo - ¡ESTO ES LO QUE FALTA!
     public abstract String getTipo();
     
@@ -97,4 +101,12 @@ public abstract class Dispositivo {
     public void setFechaActualizacion(LocalDateTime fechaActualizacion) {
         this.fechaActualizacion = fechaActualizacion;
     }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.simcii.javaservice.models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "instancias_servicio")
+public class InstanciaServicio {
+    @Id
+    private String id;
+    
+    @Column(name = "ultimo_latido")
+    private LocalDateTime ultimoLatido;
+    
+    // Constructores
+    public InstanciaServicio() {
+    }
+    
+    public InstanciaServicio(String id, LocalDateTime ultimoLatido) {
+        this.id = id;
+        this.ultimoLatido = ultimoLatido;
+    }
+    
+    // Getters y setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public LocalDateTime getUltimoLatido() {
+        return ultimoLatido;
+    }
+    
+    public void setUltimoLatido(LocalDateTime ultimoLatido) {
+        this.ultimoLatido = ultimoLatido;
+    }
+}
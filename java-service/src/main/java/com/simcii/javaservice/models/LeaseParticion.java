@@ -0,0 +1,45 @@
+package com.simcii.javaservice.models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "leases_particion")
+public class LeaseParticion {
+    @Id
+    private Integer particion;
+    
+    private String propietario;
+    
+    @Column(name = "expira_en")
+    private LocalDateTime expiraEn;
+    
+    // Constructores
+    public LeaseParticion() {
+    }
+    
+    // Getters y setters
+    public Integer getParticion() {
+        return particion;
+    }
+    
+    public void setParticion(Integer particion) {
+        this.particion = particion;
+    }
+    
+    public String getPropietario() {
+        return propietario;
+    }
+    
+    public void setPropietario(String propietario) {
+        this.propietario = propietario;
+    }
+    
+    public LocalDateTime getExpiraEn() {
+        return expiraEn;
+    }
+    
+    public void setExpiraEn(LocalDateTime expiraEn) {
+        this.expiraEn = expiraEn;
+    }
+}
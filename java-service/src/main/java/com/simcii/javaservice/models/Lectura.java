@@ -10,7 +10,7 @@ public class Lectura {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "dispositivo_id")
     private Dispositivo dispositivo;
     
@@ -18,6 +18,9 @@ public class Lectura {
     private LocalDateTime fechaHora;
     private String unidad;
     
+    // Secuencia asignada por el gateway; única por dispositivo cuando no es nula
+    private Long secuencia;
+    
     // Constructores
     public Lectura() {
         this.fechaHora = LocalDateTime.now();
@@ -77,4 +80,12 @@ public class Lectura {
     public void setUnidad(String unidad) {
         this.unidad = unidad;
     }
+    
+    public Long getSecuencia() {
+        return secuencia;
+    }
+    
+    public void setSecuencia(Long secuencia) {
+        this.secuencia = secuencia;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.simcii.javaservice.notificaciones;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simcii.javaservice.dto.NotificacionAlerta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Añade cada notificación como una línea JSON al archivo configurado. El archivo se abre en
+ * cada lote, así que admite rotación externa (logrotate) y puede leerlo un agente de syslog.
+ */
+@Component
+public class CanalArchivo implements CanalNotificacion {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Path ruta;
+
+    @Override
+    public String getNombre() {
+        return "archivo";
+    }
+
+    @Override
+    public void configurar(PropiedadesNotificaciones.DefinicionCanal definicion) {
+        ruta = Path.of(definicion.getDestino() != null ? definicion.getDestino() : "./data/alertas.jsonl");
+    }
+
+    @Override
+    public void enviar(List<NotificacionAlerta> lote) throws IOException {
+        if (ruta.getParent() != null) {
+            Files.createDirectories(ruta.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(ruta, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (NotificacionAlerta notificacion : lote) {
+                writer.write(objectMapper.writeValueAsString(notificacion));
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.simcii.javaservice.notificaciones;
+
+import com.simcii.javaservice.dto.NotificacionAlerta;
+
+import java.util.List;
+
+/**
+ * Destino de las notificaciones de alertas. Cada implementación registrada como bean se activa
+ * con la entrada de su nombre en "notificaciones.canales" y recibe los lotes desde su propio hilo,
+ * de modo que un canal lento no retrasa a los demás.
+ *
+ * @see com.simcii.javaservice.services.NotificacionesService
+ */
+public interface CanalNotificacion {
+
+    /**
+     * Nombre del canal; clave de su configuración en "notificaciones.canales".
+     */
+    String getNombre();
+
+    /**
+     * Prepara el canal con su configuración antes del primer envío.
+     */
+    default void configurar(PropiedadesNotificaciones.DefinicionCanal definicion) {
+    }
+
+    /**
+     * Entrega un lote. Si lanza una excepción, el lote se reintenta; el canal puede quitar
+     * antes de la lista las notificaciones ya entregadas para no repetirlas.
+     */
+    void enviar(List<NotificacionAlerta> lote) throws Exception;
+}
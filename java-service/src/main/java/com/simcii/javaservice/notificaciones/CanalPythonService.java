@@ -0,0 +1,66 @@
+package com.simcii.javaservice.notificaciones;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simcii.javaservice.dto.NotificacionAlerta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Envía las alertas al servicio Python con el mismo formato de evento que {@code EventoService}
+ * (tipo NUEVA_ALERTA) a su ruta POST /api/v1/eventos, que las agrega a sus alertas y descarta los
+ * ids ya recibidos. El servicio no admite lotes, así que cada notificación es un POST;
+ * si uno falla, el lote se reintenta desde esa notificación.
+ */
+@Component
+public class CanalPythonService implements CanalNotificacion {
+
+    @Value("${python.service.url:http://python-service:8000}")
+    private String pythonServiceUrl;
+
+    @Autowired
+    private RestTemplateBuilder restTemplateBuilder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private RestTemplate restTemplate;
+    private String url;
+
+    @Override
+    public String getNombre() {
+        return "python";
+    }
+
+    @Override
+    public void configurar(PropiedadesNotificaciones.DefinicionCanal definicion) {
+        url = definicion.getDestino() != null ? definicion.getDestino() : pythonServiceUrl + "/api/v1/eventos";
+        restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(definicion.getTimeoutMs()))
+                .setReadTimeout(Duration.ofMillis(definicion.getTimeoutMs()))
+                .build();
+    }
+
+    @Override
+    public void enviar(List<NotificacionAlerta> lote) {
+        Iterator<NotificacionAlerta> it = lote.iterator();
+        while (it.hasNext()) {
+            NotificacionAlerta notificacion = it.next();
+            // El ID de alerta hace idempotentes los reintentos para el receptor
+            Map<String, Object> evento = Map.of(
+                    "id", "alerta-" + notificacion.getAlertaId(),
+                    "tipo", "NUEVA_ALERTA",
+                    "datos", objectMapper.convertValue(notificacion, new TypeReference<Map<String, Object>>() {}));
+            restTemplate.postForEntity(url, evento, Void.class);
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.simcii.javaservice.notificaciones;
+
+import com.simcii.javaservice.dto.NotificacionAlerta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Envía cada lote como un array JSON en un único POST a la URL configurada.
+ */
+@Component
+public class CanalWebhook implements CanalNotificacion {
+
+    @Autowired
+    private RestTemplateBuilder restTemplateBuilder;
+
+    private RestTemplate restTemplate;
+    private String url;
+
+    @Override
+    public String getNombre() {
+        return "webhook";
+    }
+
+    @Override
+    public void configurar(PropiedadesNotificaciones.DefinicionCanal definicion) {
+        if (definicion.getDestino() == null || definicion.getDestino().isBlank()) {
+            throw new IllegalArgumentException("El canal webhook requiere notificaciones.canales.webhook.destino");
+        }
+        url = definicion.getDestino();
+        restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(definicion.getTimeoutMs()))
+                .setReadTimeout(Duration.ofMillis(definicion.getTimeoutMs()))
+                .build();
+    }
+
+    @Override
+    public void enviar(List<NotificacionAlerta> lote) {
+        restTemplate.postForEntity(url, lote, Void.class);
+    }
+}
@@ -0,0 +1,154 @@
+package com.simcii.javaservice.notificaciones;
+
+import com.simcii.javaservice.admision.CuboTokens;
+import com.simcii.javaservice.dto.NotificacionAlerta;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cola acotada y hilo de envío de un canal de notificación. Encolar nunca bloquea: si la cola
+ * está llena la notificación se descarta y se cuenta. El hilo agrupa en lotes lo encolado,
+ * respeta el límite de lotes por segundo del canal y reintenta con espera exponencial.
+ */
+public final class DespachadorCanal {
+
+    private static final Logger logger = LoggerFactory.getLogger(DespachadorCanal.class);
+    private static final long ESPERA_REINTENTO_MAXIMA_MS = 60000;
+
+    private final CanalNotificacion canal;
+    private final PropiedadesNotificaciones.DefinicionCanal definicion;
+    private final ArrayBlockingQueue<NotificacionAlerta> cola;
+    private final CuboTokens cubo;
+    private final Counter enviadas;
+    private final Counter descartadas;
+    private final Counter fallidas;
+    private final Thread hilo;
+    private volatile boolean activo = true;
+
+    public DespachadorCanal(CanalNotificacion canal, PropiedadesNotificaciones.DefinicionCanal definicion,
+                            MeterRegistry meterRegistry) {
+        this.canal = canal;
+        this.definicion = definicion;
+        this.cola = new ArrayBlockingQueue<>(definicion.getCapacidadCola());
+        this.cubo = new CuboTokens(1, System.nanoTime());
+        this.enviadas = contador(meterRegistry, "simcii.notificaciones.enviadas", "Notificaciones entregadas");
+        this.descartadas = contador(meterRegistry, "simcii.notificaciones.descartadas", "Notificaciones descartadas con la cola llena");
+        this.fallidas = contador(meterRegistry, "simcii.notificaciones.fallidas", "Notificaciones no entregadas tras agotar los reintentos");
+        Gauge.builder("simcii.notificaciones.pendientes", cola, ArrayBlockingQueue::size)
+                .description("Notificaciones en cola")
+                .tag("canal", canal.getNombre())
+                .register(meterRegistry);
+        this.hilo = new Thread(this::ejecutar, "notificaciones-" + canal.getNombre());
+        this.hilo.setDaemon(true);
+    }
+
+    private Counter contador(MeterRegistry meterRegistry, String nombre, String descripcion) {
+        return Counter.builder(nombre).description(descripcion).tag("canal", canal.getNombre()).register(meterRegistry);
+    }
+
+    public void iniciar() {
+        hilo.start();
+    }
+
+    /**
+     * Detiene el hilo; las notificaciones aún en cola se pierden.
+     */
+    public void detener() {
+        activo = false;
+        hilo.interrupt();
+    }
+
+    /**
+     * Encola una notificación sin bloquear.
+     *
+     * @return boolean false si se descartó por tener la cola llena
+     */
+    public boolean encolar(NotificacionAlerta notificacion) {
+        if (cola.offer(notificacion)) {
+            return true;
+        }
+        descartadas.increment();
+        return false;
+    }
+
+    private void ejecutar() {
+        List<NotificacionAlerta> lote = new ArrayList<>(definicion.getTamanoLote());
+        try {
+            while (activo) {
+                NotificacionAlerta primera = cola.poll(1, TimeUnit.SECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                completarLote(lote);
+                esperarTurno();
+                entregar(lote);
+                lote.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Espera hasta esperaLoteMs desde la primera notificación a que el lote se llene
+    private void completarLote(List<NotificacionAlerta> lote) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(definicion.getEsperaLoteMs());
+        while (lote.size() < definicion.getTamanoLote()) {
+            cola.drainTo(lote, definicion.getTamanoLote() - lote.size());
+            long restante = limite - System.nanoTime();
+            if (lote.size() >= definicion.getTamanoLote() || restante <= 0) {
+                return;
+            }
+            NotificacionAlerta siguiente = cola.poll(restante, TimeUnit.NANOSECONDS);
+            if (siguiente == null) {
+                return;
+            }
+            lote.add(siguiente);
+        }
+    }
+
+    private void esperarTurno() throws InterruptedException {
+        double tasa = definicion.getLotesPorSegundo();
+        if (tasa <= 0) {
+            return;
+        }
+        long espera;
+        while ((espera = cubo.consumir(tasa, 1, System.nanoTime())) > 0) {
+            TimeUnit.NANOSECONDS.sleep(espera);
+        }
+    }
+
+    private void entregar(List<NotificacionAlerta> lote) throws InterruptedException {
+        int total = lote.size();
+        long espera = definicion.getEsperaReintentoMs();
+        for (int intento = 0; ; intento++) {
+            try {
+                canal.enviar(lote);
+                enviadas.increment(total);
+                return;
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                if (intento >= definicion.getMaxReintentos()) {
+                    enviadas.increment(total - lote.size());
+                    fallidas.increment(lote.size());
+                    logger.warn("Canal {}: {} notificaciones descartadas tras {} reintentos: {}",
+                            canal.getNombre(), lote.size(), intento, e.getMessage());
+                    return;
+                }
+                logger.debug("Canal {}: envío fallido (intento {}), reintento en {} ms: {}",
+                        canal.getNombre(), intento + 1, espera, e.getMessage());
+                Thread.sleep(espera);
+                espera = Math.min(espera * 2, ESPERA_REINTENTO_MAXIMA_MS);
+            }
+        }
+    }
+}
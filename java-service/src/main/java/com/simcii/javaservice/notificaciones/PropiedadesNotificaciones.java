@@ -0,0 +1,130 @@
+package com.simcii.javaservice.notificaciones;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuración de las notificaciones de alertas (sección "notificaciones" de application.yml).
+ */
+@Component
+@ConfigurationProperties(prefix = "notificaciones")
+public class PropiedadesNotificaciones {
+
+    private boolean habilitadas = true;
+    private Map<String, DefinicionCanal> canales = new LinkedHashMap<>();
+
+    public boolean isHabilitadas() {
+        return habilitadas;
+    }
+
+    public void setHabilitadas(boolean habilitadas) {
+        this.habilitadas = habilitadas;
+    }
+
+    public Map<String, DefinicionCanal> getCanales() {
+        return canales;
+    }
+
+    public void setCanales(Map<String, DefinicionCanal> canales) {
+        this.canales = canales;
+    }
+
+    /**
+     * Configuración de un canal: destino, cola, lotes, reintentos y límite de envíos.
+     */
+    public static class DefinicionCanal {
+        private boolean habilitado;
+        private String destino;
+        private int capacidadCola = 10000;
+        private int tamanoLote = 50;
+        private long esperaLoteMs = 1000;
+        private int maxReintentos = 5;
+        private long esperaReintentoMs = 1000;
+        private double lotesPorSegundo = 5;
+        private int timeoutMs = 5000;
+
+        public boolean isHabilitado() {
+            return habilitado;
+        }
+
+        public void setHabilitado(boolean habilitado) {
+            this.habilitado = habilitado;
+        }
+
+        /**
+         * URL del webhook o del servicio, o ruta del archivo, según el canal.
+         */
+        public String getDestino() {
+            return destino;
+        }
+
+        public void setDestino(String destino) {
+            this.destino = destino;
+        }
+
+        public int getCapacidadCola() {
+            return capacidadCola;
+        }
+
+        public void setCapacidadCola(int capacidadCola) {
+            this.capacidadCola = capacidadCola;
+        }
+
+        public int getTamanoLote() {
+            return tamanoLote;
+        }
+
+        public void setTamanoLote(int tamanoLote) {
+            this.tamanoLote = tamanoLote;
+        }
+
+        /**
+         * Tiempo máximo que se espera a completar un lote tras la primera notificación.
+         */
+        public long getEsperaLoteMs() {
+            return esperaLoteMs;
+        }
+
+        public void setEsperaLoteMs(long esperaLoteMs) {
+            this.esperaLoteMs = esperaLoteMs;
+        }
+
+        public int getMaxReintentos() {
+            return maxReintentos;
+        }
+
+        public void setMaxReintentos(int maxReintentos) {
+            this.maxReintentos = maxReintentos;
+        }
+
+        /**
+         * Espera antes del primer reintento; se duplica en cada uno.
+         */
+        public long getEsperaReintentoMs() {
+            return esperaReintentoMs;
+        }
+
+        public void setEsperaReintentoMs(long esperaReintentoMs) {
+            this.esperaReintentoMs = esperaReintentoMs;
+        }
+
+        public double getLotesPorSegundo() {
+            return lotesPorSegundo;
+        }
+
+        public void setLotesPorSegundo(double lotesPorSegundo) {
+            this.lotesPorSegundo = lotesPorSegundo;
+        }
+
+        public int getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(int timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+    }
+}
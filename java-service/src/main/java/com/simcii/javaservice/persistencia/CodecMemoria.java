@@ -0,0 +1,222 @@
+package com.simcii.javaservice.persistencia;
+
+import com.simcii.javaservice.models.*;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Codificación binaria compacta de los modelos para snapshot y WAL.
+ * Las relaciones se guardan por ID del dispositivo y se resuelven al decodificar.
+ */
+final class CodecMemoria {
+
+    static final byte SENSOR_TEMPERATURA = 1;
+    static final byte SENSOR_HUMEDAD = 2;
+    static final byte SENSOR_LUZ = 3;
+    static final byte ACTUADOR = 4;
+
+    private CodecMemoria() {
+    }
+
+    static void escribirDispositivo(DataOutput out, Dispositivo d) throws IOException {
+        if (d instanceof SensorTemperatura t) {
+            out.writeByte(SENSOR_TEMPERATURA);
+            escribirComunes(out, d);
+            escribirDouble(out, t.getRangoMin());
+            escribirDouble(out, t.getRangoMax());
+        } else if (d instanceof SensorHumedad) {
+            out.writeByte(SENSOR_HUMEDAD);
+            escribirComunes(out, d);
+        } else if (d instanceof SensorLuz l) {
+            out.writeByte(SENSOR_LUZ);
+            escribirComunes(out, d);
+            escribirTexto(out, l.getTipoLuz());
+        } else if (d instanceof Actuador a) {
+            out.writeByte(ACTUADOR);
+            escribirComunes(out, d);
+            escribirTexto(out, a.getTipoActuador());
+            escribirBoolean(out, a.getEstado());
+            escribirTexto(out, a.getModoOperacion());
+        } else {
+            throw new IOException("Tipo de dispositivo no soportado: " + d.getClass().getSimpleName());
+        }
+    }
+
+    static Dispositivo leerDispositivo(DataInput in) throws IOException {
+        byte tipo = in.readByte();
+        switch (tipo) {
+            case SENSOR_TEMPERATURA -> {
+                SensorTemperatura t = new SensorTemperatura();
+                leerComunes(in, t);
+                t.setRangoMin(leerDouble(in));
+                t.setRangoMax(leerDouble(in));
+                return t;
+            }
+            case SENSOR_HUMEDAD -> {
+                SensorHumedad h = new SensorHumedad();
+                leerComunes(in, h);
+                return h;
+            }
+            case SENSOR_LUZ -> {
+                SensorLuz l = new SensorLuz();
+                leerComunes(in, l);
+                l.setTipoLuz(leerTexto(in));
+                return l;
+            }
+            case ACTUADOR -> {
+                Actuador a = new Actuador();
+                leerComunes(in, a);
+                a.setTipoActuador(leerTexto(in));
+                a.setEstado(leerBoolean(in));
+                a.setModoOperacion(leerTexto(in));
+                return a;
+            }
+            default -> throw new IOException("Tipo de dispositivo desconocido: " + tipo);
+        }
+    }
+
+    private static void escribirComunes(DataOutput out, Dispositivo d) throws IOException {
+        out.writeLong(d.getId());
+        escribirTexto(out, d.getNombre());
+        escribirTexto(out, d.getDescripcion());
+        escribirTexto(out, d.getUbicacion());
+        escribirBoolean(out, d.getActivo());
+        escribirFecha(out, d.getFechaCreacion());
+        escribirFecha(out, d.getFechaActualizacion());
+        if (d instanceof Sensor s) {
+            escribirTexto(out, s.getTipoSensor());
+            escribirTexto(out, s.getUnidadMedida());
+        }
+    }
+
+    private static void leerComunes(DataInput in, Dispositivo d) throws IOException {
+        d.setId(in.readLong());
+        d.setNombre(leerTexto(in));
+        d.setDescripcion(leerTexto(in));
+        d.setUbicacion(leerTexto(in));
+        d.setActivo(leerBoolean(in));
+        d.setFechaCreacion(leerFecha(in));
+        d.setFechaActualizacion(leerFecha(in));
+        if (d instanceof Sensor s) {
+            s.setTipoSensor(leerTexto(in));
+            s.setUnidadMedida(leerTexto(in));
+        }
+    }
+
+    static void escribirLectura(DataOutput out, Lectura l) throws IOException {
+        out.writeLong(l.getId() != null ? l.getId() : 0L);
+        escribirDouble(out, l.getValor());
+        escribirFecha(out, l.getFechaHora());
+        escribirTexto(out, l.getUnidad());
+    }
+
+    static Lectura leerLectura(DataInput in, Dispositivo dispositivo) throws IOException {
+        Lectura l = new Lectura();
+        long id = in.readLong();
+        l.setId(id != 0L ? id : null);
+        l.setDispositivo(dispositivo);
+        l.setValor(leerDouble(in));
+        l.setFechaHora(leerFecha(in));
+        l.setUnidad(leerTexto(in));
+        return l;
+    }
+
+    static void escribirUmbral(DataOutput out, Umbral u) throws IOException {
+        out.writeLong(u.getId() != null ? u.getId() : 0L);
+        escribirDouble(out, u.getValorMin());
+        escribirDouble(out, u.getValorMax());
+        escribirTexto(out, u.getTipoAlerta());
+        escribirBoolean(out, u.getActivo());
+        escribirFecha(out, u.getFechaCreacion());
+    }
+
+    static Umbral leerUmbral(DataInput in, Dispositivo dispositivo) throws IOException {
+        Umbral u = new Umbral();
+        long id = in.readLong();
+        u.setId(id != 0L ? id : null);
+        u.setDispositivo(dispositivo);
+        u.setValorMin(leerDouble(in));
+        u.setValorMax(leerDouble(in));
+        u.setTipoAlerta(leerTexto(in));
+        u.setActivo(leerBoolean(in));
+        u.setFechaCreacion(leerFecha(in));
+        return u;
+    }
+
+    static void escribirAlerta(DataOutput out, Alerta a) throws IOException {
+        out.writeLong(a.getId() != null ? a.getId() : 0L);
+        out.writeBoolean(a.getUmbral() != null);
+        escribirDouble(out, a.getValorActual());
+        escribirTexto(out, a.getMensaje());
+        escribirBoolean(out, a.getActiva());
+        escribirFecha(out, a.getFechaCreacion());
+    }
+
+    // El umbral de la alerta es el umbral vigente del dispositivo, si lo tenía
+    static Alerta leerAlerta(DataInput in, Dispositivo dispositivo, Umbral umbral) throws IOException {
+        Alerta a = new Alerta();
+        long id = in.readLong();
+        a.setId(id != 0L ? id : null);
+        a.setDispositivo(dispositivo);
+        a.setUmbral(in.readBoolean() ? umbral : null);
+        a.setValorActual(leerDouble(in));
+        a.setMensaje(leerTexto(in));
+        a.setActiva(leerBoolean(in));
+        a.setFechaCreacion(leerFecha(in));
+        return a;
+    }
+
+    private static void escribirTexto(DataOutput out, String valor) throws IOException {
+        out.writeBoolean(valor != null);
+        if (valor != null) {
+            out.writeUTF(valor);
+        }
+    }
+
+    private static String leerTexto(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void escribirDouble(DataOutput out, Double valor) throws IOException {
+        out.writeBoolean(valor != null);
+        if (valor != null) {
+            out.writeDouble(valor);
+        }
+    }
+
+    private static Double leerDouble(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readDouble() : null;
+    }
+
+    // 0 = null, 1 = false, 2 = true
+    private static void escribirBoolean(DataOutput out, Boolean valor) throws IOException {
+        out.writeByte(valor == null ? 0 : (valor ? 2 : 1));
+    }
+
+    private static Boolean leerBoolean(DataInput in) throws IOException {
+        byte b = in.readByte();
+        return b == 0 ? null : b == 2;
+    }
+
+    // Microsegundos desde epoch (UTC); Long.MIN_VALUE representa null
+    static void escribirFecha(DataOutput out, LocalDateTime fecha) throws IOException {
+        if (fecha == null) {
+            out.writeLong(Long.MIN_VALUE);
+        } else {
+            out.writeLong(fecha.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + fecha.getNano() / 1_000);
+        }
+    }
+
+    static LocalDateTime leerFecha(DataInput in) throws IOException {
+        long micros = in.readLong();
+        if (micros == Long.MIN_VALUE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
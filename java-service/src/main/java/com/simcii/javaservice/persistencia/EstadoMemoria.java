@@ -0,0 +1,50 @@
+package com.simcii.javaservice.persistencia;
+
+import com.simcii.javaservice.models.Alerta;
+import com.simcii.javaservice.models.Dispositivo;
+import com.simcii.javaservice.models.Lectura;
+import com.simcii.javaservice.models.Umbral;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Contenido de los mapas de DispositivoMemoryService que se guarda en snapshot
+ * y se reconstruye al arrancar.
+ */
+public class EstadoMemoria {
+    private final Map<Long, Dispositivo> dispositivos = new ConcurrentHashMap<>();
+    private final Map<Long, List<Lectura>> lecturas = new ConcurrentHashMap<>();
+    private final Map<Long, List<Alerta>> alertas = new ConcurrentHashMap<>();
+    private final Map<Long, Umbral> umbrales = new ConcurrentHashMap<>();
+    private long siguienteId = 1L;
+    
+    public Map<Long, Dispositivo> getDispositivos() {
+        return dispositivos;
+    }
+    
+    public Map<Long, List<Lectura>> getLecturas() {
+        return lecturas;
+    }
+    
+    public Map<Long, List<Alerta>> getAlertas() {
+        return alertas;
+    }
+    
+    public Map<Long, Umbral> getUmbrales() {
+        return umbrales;
+    }
+    
+    public long getSiguienteId() {
+        return siguienteId;
+    }
+    
+    public void setSiguienteId(long siguienteId) {
+        this.siguienteId = siguienteId;
+    }
+    
+    public boolean isVacio() {
+        return dispositivos.isEmpty();
+    }
+}
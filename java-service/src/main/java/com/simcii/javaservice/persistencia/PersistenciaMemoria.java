@@ -0,0 +1,214 @@
+package com.simcii.javaservice.persistencia;
+
+import com.simcii.javaservice.models.Alerta;
+import com.simcii.javaservice.models.Dispositivo;
+import com.simcii.javaservice.models.Lectura;
+import com.simcii.javaservice.models.Umbral;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Persistencia del servicio en memoria mediante snapshots periódicos más WAL.
+ * Recuperar = cargar el último snapshot y reproducir los segmentos WAL posteriores.
+ *
+ * Se habilita con {@code memoria.persistencia.habilitada=true}; deshabilitada, todas
+ * las operaciones de registro son no-op y el servicio se comporta como antes.
+ *
+ * @see com.simcii.javaservice.services.DispositivoMemoryService
+ */
+@Component
+public class PersistenciaMemoria {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistenciaMemoria.class);
+    private static final String ARCHIVO_SNAPSHOT = "snapshot.bin";
+
+    @Value("${memoria.persistencia.habilitada:false}")
+    private boolean habilitada;
+
+    @Value("${memoria.persistencia.directorio:./data/memoria}")
+    private String directorio;
+
+    @Value("${memoria.persistencia.fsync-por-escritura:false}")
+    private boolean fsyncPorEscritura;
+
+    private WalMemoria wal;
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    /**
+     * Reconstruye el estado desde disco y abre un segmento WAL nuevo para las escrituras.
+     *
+     * @return EstadoMemoria recuperado (vacío si no había datos persistidos)
+     */
+    public EstadoMemoria recuperar() throws IOException {
+        Path base = Paths.get(directorio);
+        Files.createDirectories(base);
+        wal = new WalMemoria(base, fsyncPorEscritura);
+
+        long inicio = System.nanoTime();
+        Path rutaSnapshot = base.resolve(ARCHIVO_SNAPSHOT);
+        EstadoMemoria estado;
+        long desdeSegmento = 0;
+        if (Files.exists(rutaSnapshot)) {
+            SnapshotMemoria.Cargado cargado = SnapshotMemoria.leer(rutaSnapshot);
+            estado = cargado.estado();
+            desdeSegmento = cargado.segmentoWal();
+        } else {
+            estado = new EstadoMemoria();
+        }
+        long registros = wal.reproducir(estado, desdeSegmento);
+        wal.abrir();
+
+        logger.info("Estado en memoria recuperado en {} ms: {} dispositivos, {} registros WAL reproducidos",
+                (System.nanoTime() - inicio) / 1_000_000, estado.getDispositivos().size(), registros);
+        return estado;
+    }
+
+    /**
+     * Rota el WAL. Debe invocarse con las escrituras bloqueadas, justo al copiar el estado
+     * que se va a guardar, para que el snapshot y el segmento nuevo no se solapen.
+     *
+     * @return long segmento WAL a partir del cual reproducir tras este snapshot
+     */
+    public long rotarWal() {
+        try {
+            return wal.rotar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Escribe un snapshot y elimina los segmentos WAL que ya cubre.
+     *
+     * @param estado Copia consistente del estado
+     * @param segmentoWal Segmento devuelto por {@link #rotarWal()}
+     */
+    public void guardarSnapshot(EstadoMemoria estado, long segmentoWal) throws IOException {
+        long inicio = System.nanoTime();
+        SnapshotMemoria.escribir(estado, segmentoWal, Paths.get(directorio).resolve(ARCHIVO_SNAPSHOT));
+        wal.purgarAnteriores(segmentoWal);
+        logger.debug("Snapshot en memoria guardado en {} ms ({} dispositivos)",
+                (System.nanoTime() - inicio) / 1_000_000, estado.getDispositivos().size());
+    }
+
+    public void registrarDispositivo(Dispositivo dispositivo) {
+        if (habilitada) {
+            try {
+                wal.registrarDispositivo(dispositivo);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public void registrarLectura(Lectura lectura) {
+        if (habilitada) {
+            try {
+                wal.registrarLectura(lectura);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public void registrarAlerta(Alerta alerta) {
+        if (habilitada) {
+            try {
+                wal.registrarAlerta(alerta);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public void registrarUmbral(Long dispositivoId, Umbral umbral) {
+        if (habilitada) {
+            try {
+                wal.registrarUmbral(dispositivoId, umbral);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public void registrarEliminacion(Long dispositivoId) {
+        if (habilitada) {
+            try {
+                wal.registrarEliminacion(dispositivoId);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public void registrarLote(List<Dispositivo> dispositivos, List<Umbral> umbrales) {
+        if (habilitada) {
+            try {
+                wal.registrarLote(dispositivos, umbrales);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Elimina de una lista, en orden y en una sola pasada, hasta {@code maximo} lecturas anteriores
+     * al límite. Es el mismo borrado que reproduce el WAL, así que ambos eliminan las mismas.
+     *
+     * @return int número de lecturas eliminadas
+     */
+    public static int purgarLecturas(List<Lectura> lecturas, LocalDateTime limite, int maximo) {
+        int tamano = lecturas.size();
+        int escritura = 0;
+        int eliminadas = 0;
+        for (int i = 0; i < tamano; i++) {
+            Lectura lectura = lecturas.get(i);
+            LocalDateTime fecha = lectura.getFechaHora();
+            if (eliminadas < maximo && fecha != null && fecha.isBefore(limite)) {
+                eliminadas++;
+            } else {
+                if (escritura != i) {
+                    lecturas.set(escritura, lectura);
+                }
+                escritura++;
+            }
+        }
+        lecturas.subList(escritura, tamano).clear();
+        return eliminadas;
+    }
+
+    public void registrarPurga(Long dispositivoId, LocalDateTime limite, int maximo) {
+        if (habilitada) {
+            try {
+                wal.registrarPurga(dispositivoId, limite, maximo);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        if (wal != null) {
+            try {
+                wal.close();
+            } catch (IOException e) {
+                logger.warn("Error cerrando el WAL: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.simcii.javaservice.persistencia;
+
+import com.simcii.javaservice.models.Alerta;
+import com.simcii.javaservice.models.Dispositivo;
+import com.simcii.javaservice.models.Lectura;
+import com.simcii.javaservice.models.Umbral;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot binario compacto del estado en memoria.
+ *
+ * Formato: cabecera (magic, versión, siguiente ID, segmento WAL), dispositivos, umbrales
+ * y un bloque de longitud conocida por dispositivo con sus lecturas y alertas, terminado
+ * con un CRC32 de todo el contenido. Los bloques se codifican y decodifican en paralelo,
+ * que es donde se concentra el volumen de datos.
+ */
+final class SnapshotMemoria {
+
+    private static final int MAGIC = 0x53494D4D; // "SIMM"
+    private static final short VERSION = 1;
+
+    record Cargado(EstadoMemoria estado, long segmentoWal) {
+    }
+
+    private SnapshotMemoria() {
+    }
+
+    /**
+     * Escribe el snapshot en un fichero temporal y lo sustituye de forma atómica.
+     */
+    static void escribir(EstadoMemoria estado, long segmentoWal, Path ruta) throws IOException {
+        List<Long> ids = new ArrayList<>(estado.getDispositivos().keySet());
+        byte[][] bloques = new byte[ids.size()][];
+        IntStream.range(0, ids.size()).parallel().forEach(i -> {
+            Long id = ids.get(i);
+            bloques[i] = codificarBloque(estado.getLecturas().getOrDefault(id, List.of()),
+                    estado.getAlertas().getOrDefault(id, List.of()));
+        });
+
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (FileOutputStream archivo = new FileOutputStream(temporal.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(archivo, 256 * 1024))) {
+            CRC32 crc = new CRC32();
+            ByteArrayOutputStream cabecera = new ByteArrayOutputStream();
+            DataOutputStream cab = new DataOutputStream(cabecera);
+            cab.writeInt(MAGIC);
+            cab.writeShort(VERSION);
+            cab.writeLong(estado.getSiguienteId());
+            cab.writeLong(segmentoWal);
+
+            cab.writeInt(ids.size());
+            for (Long id : ids) {
+                CodecMemoria.escribirDispositivo(cab, estado.getDispositivos().get(id));
+            }
+            cab.writeInt(estado.getUmbrales().size());
+            for (Map.Entry<Long, Umbral> entrada : estado.getUmbrales().entrySet()) {
+                cab.writeLong(entrada.getKey());
+                CodecMemoria.escribirUmbral(cab, entrada.getValue());
+            }
+            cab.writeInt(ids.size());
+            byte[] bytesCabecera = cabecera.toByteArray();
+            crc.update(bytesCabecera);
+            out.write(bytesCabecera);
+
+            for (int i = 0; i < ids.size(); i++) {
+                ByteBuffer prefijo = ByteBuffer.allocate(12).putLong(ids.get(i)).putInt(bloques[i].length);
+                crc.update(prefijo.array());
+                crc.update(bloques[i]);
+                out.write(prefijo.array());
+                out.write(bloques[i]);
+            }
+            out.writeInt((int) crc.getValue());
+            out.flush();
+            archivo.getChannel().force(true);
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Carga un snapshot verificando su CRC. Los bloques por dispositivo se decodifican en paralelo.
+     */
+    static Cargado leer(Path ruta) throws IOException {
+        byte[] datos = Files.readAllBytes(ruta);
+        if (datos.length < 4) {
+            throw new IOException("Snapshot truncado: " + ruta);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(datos, 0, datos.length - 4);
+        if ((int) crc.getValue() != ByteBuffer.wrap(datos, datos.length - 4, 4).getInt()) {
+            throw new IOException("CRC inválido en snapshot: " + ruta);
+        }
+
+        ByteArrayInputStream entrada = new ByteArrayInputStream(datos, 0, datos.length - 4);
+        DataInputStream in = new DataInputStream(entrada);
+        if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+            throw new IOException("Formato de snapshot no reconocido: " + ruta);
+        }
+
+        EstadoMemoria estado = new EstadoMemoria();
+        estado.setSiguienteId(in.readLong());
+        long segmentoWal = in.readLong();
+
+        int nDispositivos = in.readInt();
+        for (int i = 0; i < nDispositivos; i++) {
+            Dispositivo d = CodecMemoria.leerDispositivo(in);
+            estado.getDispositivos().put(d.getId(), d);
+        }
+        int nUmbrales = in.readInt();
+        for (int i = 0; i < nUmbrales; i++) {
+            long dispositivoId = in.readLong();
+            estado.getUmbrales().put(dispositivoId, CodecMemoria.leerUmbral(in, estado.getDispositivos().get(dispositivoId)));
+        }
+
+        // Índice de bloques: posición y longitud de cada uno, sin decodificarlos todavía
+        int nBloques = in.readInt();
+        long[] idsBloque = new long[nBloques];
+        int[] inicios = new int[nBloques];
+        int[] longitudes = new int[nBloques];
+        int posicion = datos.length - 4 - entrada.available();
+        for (int i = 0; i < nBloques; i++) {
+            ByteBuffer prefijo = ByteBuffer.wrap(datos, posicion, 12);
+            idsBloque[i] = prefijo.getLong();
+            longitudes[i] = prefijo.getInt();
+            inicios[i] = posicion + 12;
+            posicion = inicios[i] + longitudes[i];
+        }
+
+        IntStream.range(0, nBloques).parallel().forEach(i -> {
+            Dispositivo d = estado.getDispositivos().get(idsBloque[i]);
+            decodificarBloque(estado, d, new DataInputStream(new ByteArrayInputStream(datos, inicios[i], longitudes[i])));
+        });
+
+        return new Cargado(estado, segmentoWal);
+    }
+
+    private static byte[] codificarBloque(List<Lectura> lecturas, List<Alerta> alertas) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(16 + lecturas.size() * 32);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeInt(lecturas.size());
+            for (Lectura l : lecturas) {
+                CodecMemoria.escribirLectura(out, l);
+            }
+            out.writeInt(alertas.size());
+            for (Alerta a : alertas) {
+                CodecMemoria.escribirAlerta(out, a);
+            }
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void decodificarBloque(EstadoMemoria estado, Dispositivo d, DataInputStream in) {
+        try {
+            int nLecturas = in.readInt();
+            List<Lectura> lecturas = new ArrayList<>(Math.max(nLecturas, 16));
+            for (int j = 0; j < nLecturas; j++) {
+                lecturas.add(CodecMemoria.leerLectura(in, d));
+            }
+            int nAlertas = in.readInt();
+            List<Alerta> alertas = new ArrayList<>(nAlertas);
+            Umbral umbral = estado.getUmbrales().get(d.getId());
+            for (int j = 0; j < nAlertas; j++) {
+                alertas.add(CodecMemoria.leerAlerta(in, d, umbral));
+            }
+            estado.getLecturas().put(d.getId(), lecturas);
+            if (!alertas.isEmpty()) {
+                estado.getAlertas().put(d.getId(), alertas);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
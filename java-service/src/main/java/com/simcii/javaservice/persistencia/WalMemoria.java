@@ -0,0 +1,344 @@
+package com.simcii.javaservice.persistencia;
+
+import com.simcii.javaservice.models.Alerta;
+import com.simcii.javaservice.models.Dispositivo;
+import com.simcii.javaservice.models.Lectura;
+import com.simcii.javaservice.models.Umbral;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Registro de escritura anticipada (WAL) de las mutaciones del servicio en memoria.
+ * Cada registro se guarda como [longitud][tipo + datos][crc32] en segmentos numerados
+ * (wal-00000001.log, ...). Al hacer snapshot se rota a un segmento nuevo y los anteriores
+ * se eliminan una vez el snapshot es durable. Un registro incompleto o corrupto (escritura
+ * interrumpida: longitud fuera de rango, datos truncados o CRC que no coincide) marca el final
+ * de la reproducción del segmento.
+ */
+class WalMemoria implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalMemoria.class);
+    private static final Pattern NOMBRE_SEGMENTO = Pattern.compile("wal-(\\d+)\\.log");
+    // Muy por encima de cualquier registro real; una longitud mayor solo puede ser un prefijo dañado
+    static final int MAX_REGISTRO = 1 << 20;
+
+    static final byte DISPOSITIVO = 1;
+    static final byte LECTURA = 2;
+    static final byte ALERTA = 3;
+    static final byte UMBRAL = 4;
+    static final byte ELIMINACION = 5;
+    static final byte PURGA = 6;
+    static final byte LOTE = 7;
+
+    private final Path directorio;
+    private final boolean fsyncPorEscritura;
+
+    private long segmento;
+    private FileOutputStream archivo;
+    private DataOutputStream salida;
+
+    WalMemoria(Path directorio, boolean fsyncPorEscritura) {
+        this.directorio = directorio;
+        this.fsyncPorEscritura = fsyncPorEscritura;
+    }
+
+    /**
+     * Abre un segmento nuevo posterior a todos los existentes.
+     * Nunca se añade a un segmento previo, que puede terminar en un registro truncado.
+     */
+    synchronized void abrir() throws IOException {
+        List<Long> existentes = segmentos();
+        long siguiente = existentes.isEmpty() ? 1 : existentes.get(existentes.size() - 1) + 1;
+        abrirSegmento(siguiente);
+    }
+
+    synchronized long getSegmento() {
+        return segmento;
+    }
+
+    /**
+     * Cierra el segmento actual y abre el siguiente.
+     *
+     * @return long número del segmento nuevo
+     */
+    synchronized long rotar() throws IOException {
+        cerrarSegmento();
+        abrirSegmento(segmento + 1);
+        return segmento;
+    }
+
+    void registrarDispositivo(Dispositivo d) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeByte(DISPOSITIVO);
+        CodecMemoria.escribirDispositivo(out, d);
+        escribir(buffer.toByteArray());
+    }
+
+    void registrarLectura(Lectura l) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(48);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeByte(LECTURA);
+        out.writeLong(l.getDispositivo().getId());
+        CodecMemoria.escribirLectura(out, l);
+        escribir(buffer.toByteArray());
+    }
+
+    void registrarAlerta(Alerta a) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(96);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeByte(ALERTA);
+        out.writeLong(a.getDispositivo().getId());
+        CodecMemoria.escribirAlerta(out, a);
+        escribir(buffer.toByteArray());
+    }
+
+    void registrarUmbral(Long dispositivoId, Umbral u) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeByte(UMBRAL);
+        out.writeLong(dispositivoId);
+        CodecMemoria.escribirUmbral(out, u);
+        escribir(buffer.toByteArray());
+    }
+
+    void registrarEliminacion(Long dispositivoId) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(9);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeByte(ELIMINACION);
+        out.writeLong(dispositivoId);
+        escribir(buffer.toByteArray());
+    }
+
+    // Borrado por retención: se reproduce con los mismos parámetros sobre la misma lista
+    void registrarPurga(Long dispositivoId, LocalDateTime limite, int maximo) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(21);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeByte(PURGA);
+        out.writeLong(dispositivoId);
+        CodecMemoria.escribirFecha(out, limite);
+        out.writeInt(maximo);
+        escribir(buffer.toByteArray());
+    }
+
+    // Alta de un lote de dispositivos con sus umbrales en un único registro: o se reproduce entero
+    // o, si la escritura quedó a medias, nada
+    void registrarLote(List<Dispositivo> dispositivos, List<Umbral> umbrales) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(128 * (dispositivos.size() + umbrales.size()) + 9);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeByte(LOTE);
+        out.writeInt(dispositivos.size());
+        for (Dispositivo d : dispositivos) {
+            CodecMemoria.escribirDispositivo(out, d);
+        }
+        out.writeInt(umbrales.size());
+        for (Umbral u : umbrales) {
+            out.writeLong(u.getDispositivo().getId());
+            CodecMemoria.escribirUmbral(out, u);
+        }
+        escribir(buffer.toByteArray());
+    }
+
+    private synchronized void escribir(byte[] registro) throws IOException {
+        // La reproducción toma un registro mayor por una longitud corrupta y se detendría en él
+        if (registro.length > MAX_REGISTRO) {
+            throw new IOException("Registro WAL de " + registro.length + " bytes; el máximo es " + MAX_REGISTRO);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(registro);
+        salida.writeInt(registro.length);
+        salida.write(registro);
+        salida.writeInt((int) crc.getValue());
+        salida.flush();
+        if (fsyncPorEscritura) {
+            archivo.getChannel().force(false);
+        }
+    }
+
+    synchronized void sincronizar() throws IOException {
+        if (salida != null) {
+            salida.flush();
+            archivo.getChannel().force(false);
+        }
+    }
+
+    /**
+     * Aplica sobre el estado todos los registros de los segmentos desde {@code desde} en adelante.
+     *
+     * @return long número de registros aplicados
+     */
+    long reproducir(EstadoMemoria estado, long desde) throws IOException {
+        long aplicados = 0;
+        for (Long numero : segmentos()) {
+            if (numero < desde) {
+                continue;
+            }
+            Path ruta = rutaSegmento(numero);
+            long restantes = Files.size(ruta);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(ruta)))) {
+                while (true) {
+                    byte[] registro;
+                    try {
+                        int longitud = in.readInt();
+                        // [longitud][registro][crc]: el registro y su CRC deben caber en lo que queda del segmento
+                        if (longitud <= 0 || longitud > MAX_REGISTRO || longitud + 8L > restantes) {
+                            logger.warn("Longitud de registro no válida ({}) en {}; se detiene la reproducción del segmento",
+                                    longitud, ruta);
+                            break;
+                        }
+                        restantes -= longitud + 8L;
+                        registro = new byte[longitud];
+                        in.readFully(registro);
+                        int esperado = in.readInt();
+                        CRC32 crc = new CRC32();
+                        crc.update(registro);
+                        if ((int) crc.getValue() != esperado) {
+                            logger.warn("Registro corrupto en {}; se detiene la reproducción del segmento", ruta);
+                            break;
+                        }
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    aplicar(estado, new DataInputStream(new ByteArrayInputStream(registro)));
+                    aplicados++;
+                }
+            }
+        }
+        return aplicados;
+    }
+
+    private void aplicar(EstadoMemoria estado, DataInputStream in) throws IOException {
+        byte tipo = in.readByte();
+        switch (tipo) {
+            case DISPOSITIVO -> {
+                Dispositivo d = CodecMemoria.leerDispositivo(in);
+                estado.getDispositivos().put(d.getId(), d);
+                actualizarSiguienteId(estado, d.getId());
+            }
+            case LECTURA -> {
+                Dispositivo d = estado.getDispositivos().get(in.readLong());
+                if (d != null) {
+                    Lectura l = CodecMemoria.leerLectura(in, d);
+                    estado.getLecturas().computeIfAbsent(d.getId(), k -> new ArrayList<>()).add(l);
+                    actualizarSiguienteId(estado, l.getId());
+                }
+            }
+            case ALERTA -> {
+                Dispositivo d = estado.getDispositivos().get(in.readLong());
+                if (d != null) {
+                    Alerta a = CodecMemoria.leerAlerta(in, d, estado.getUmbrales().get(d.getId()));
+                    estado.getAlertas().computeIfAbsent(d.getId(), k -> new ArrayList<>()).add(a);
+                    actualizarSiguienteId(estado, a.getId());
+                }
+            }
+            case UMBRAL -> {
+                Dispositivo d = estado.getDispositivos().get(in.readLong());
+                if (d != null) {
+                    Umbral u = CodecMemoria.leerUmbral(in, d);
+                    estado.getUmbrales().put(d.getId(), u);
+                    actualizarSiguienteId(estado, u.getId());
+                }
+            }
+            case ELIMINACION -> {
+                long id = in.readLong();
+                estado.getDispositivos().remove(id);
+                estado.getLecturas().remove(id);
+                estado.getAlertas().remove(id);
+                estado.getUmbrales().remove(id);
+            }
+            case LOTE -> {
+                int dispositivos = in.readInt();
+                for (int i = 0; i < dispositivos; i++) {
+                    Dispositivo d = CodecMemoria.leerDispositivo(in);
+                    estado.getDispositivos().put(d.getId(), d);
+                    actualizarSiguienteId(estado, d.getId());
+                }
+                int umbrales = in.readInt();
+                for (int i = 0; i < umbrales; i++) {
+                    Dispositivo d = estado.getDispositivos().get(in.readLong());
+                    Umbral u = CodecMemoria.leerUmbral(in, d);
+                    if (d != null) {
+                        estado.getUmbrales().put(d.getId(), u);
+                        actualizarSiguienteId(estado, u.getId());
+                    }
+                }
+            }
+            case PURGA -> {
+                List<Lectura> lecturas = estado.getLecturas().get(in.readLong());
+                LocalDateTime limite = CodecMemoria.leerFecha(in);
+                int maximo = in.readInt();
+                if (lecturas != null) {
+                    PersistenciaMemoria.purgarLecturas(lecturas, limite, maximo);
+                }
+            }
+            default -> throw new IOException("Tipo de registro WAL desconocido: " + tipo);
+        }
+    }
+
+    private static void actualizarSiguienteId(EstadoMemoria estado, Long id) {
+        if (id != null) {
+            estado.setSiguienteId(Math.max(estado.getSiguienteId(), id + 1));
+        }
+    }
+
+    /**
+     * Elimina los segmentos anteriores a {@code segmento}, ya cubiertos por un snapshot.
+     */
+    void purgarAnteriores(long segmento) throws IOException {
+        for (Long numero : segmentos()) {
+            if (numero < segmento) {
+                Files.deleteIfExists(rutaSegmento(numero));
+            }
+        }
+    }
+
+    List<Long> segmentos() throws IOException {
+        if (!Files.isDirectory(directorio)) {
+            return List.of();
+        }
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos
+                    .map(p -> NOMBRE_SEGMENTO.matcher(p.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(m -> Long.parseLong(m.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path rutaSegmento(long numero) {
+        return directorio.resolve(String.format("wal-%08d.log", numero));
+    }
+
+    private void abrirSegmento(long numero) throws IOException {
+        Files.createDirectories(directorio);
+        segmento = numero;
+        archivo = new FileOutputStream(rutaSegmento(numero).toFile(), true);
+        salida = new DataOutputStream(new BufferedOutputStream(archivo, 64 * 1024));
+    }
+
+    private void cerrarSegmento() throws IOException {
+        if (salida != null) {
+            salida.flush();
+            archivo.getChannel().force(false);
+            salida.close();
+            salida = null;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        cerrarSegmento();
+    }
+}
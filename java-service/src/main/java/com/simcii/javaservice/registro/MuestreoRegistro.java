@@ -0,0 +1,54 @@
+package com.simcii.javaservice.registro;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limita las trazas de un punto caliente (una por lectura, una por alerta...) a un máximo por
+ * segundo. Las que no pasan se cuentan y la siguiente traza emitida informa cuántas se omitieron.
+ * Comprobar si se permite una traza no reserva memoria ni toma cerrojos.
+ */
+public final class MuestreoRegistro {
+
+    private static final long SEGUNDO_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int maximoPorSegundo;
+    private final AtomicLong inicioSegundo = new AtomicLong(System.nanoTime());
+    private final AtomicInteger emitidas = new AtomicInteger();
+    private final LongAdder omitidas = new LongAdder();
+
+    /**
+     * @param maximoPorSegundo trazas permitidas por segundo; 0 las omite todas, negativo las permite todas
+     */
+    public MuestreoRegistro(int maximoPorSegundo) {
+        this.maximoPorSegundo = maximoPorSegundo;
+    }
+
+    /**
+     * Indica si la traza debe emitirse; si no, la cuenta como omitida.
+     */
+    public boolean permitir() {
+        if (maximoPorSegundo < 0) {
+            return true;
+        }
+        long ahora = System.nanoTime();
+        long inicio = inicioSegundo.get();
+        if (ahora - inicio >= SEGUNDO_NANOS && inicioSegundo.compareAndSet(inicio, ahora)) {
+            emitidas.set(0);
+        }
+        if (emitidas.incrementAndGet() <= maximoPorSegundo) {
+            return true;
+        }
+        omitidas.increment();
+        return false;
+    }
+
+    /**
+     * Trazas omitidas desde la última llamada, para incluirlas en la traza emitida.
+     */
+    public long tomarOmitidas() {
+        return omitidas.sumThenReset();
+    }
+}
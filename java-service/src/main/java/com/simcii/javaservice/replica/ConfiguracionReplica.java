@@ -0,0 +1,75 @@
+package com.simcii.javaservice.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Enrutamiento de lectura/escritura (replica.habilitada=true). Sustituye el DataSource de
+ * Spring Boot por uno que envía las transacciones {@code @Transactional(readOnly = true)} de los
+ * servicios (replica.paquetes) a la réplica indicada en replica.datasource y el resto (escrituras,
+ * Flyway, planificador, repositorios usados directamente) a la primaria de spring.datasource.
+ *
+ * @see EnrutadorDataSource
+ * @see MonitorRetrasoReplica
+ */
+@Configuration
+@ConditionalOnProperty(name = "replica.habilitada", havingValue = "true")
+public class ConfiguracionReplica {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimaria(DataSourceProperties propiedades) {
+        HikariDataSource dataSource = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primaria");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource dataSourceReplica(DataSourceProperties propiedades,
+                                              @Value("${replica.datasource.url}") String url,
+                                              @Value("${replica.datasource.username:}") String usuario,
+                                              @Value("${replica.datasource.password:}") String clave,
+                                              @Value("${replica.datasource.maximum-pool-size:10}") int maximoConexiones) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(usuario.isEmpty() ? propiedades.determineUsername() : usuario);
+        dataSource.setPassword(clave.isEmpty() ? propiedades.determinePassword() : clave);
+        dataSource.setDriverClassName(propiedades.determineDriverClassName());
+        dataSource.setMaximumPoolSize(maximoConexiones);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public MonitorRetrasoReplica monitorRetrasoReplica(@Qualifier("dataSourceReplica") DataSource replica,
+                                                       @Value("${replica.retraso-maximo-ms:5000}") long retrasoMaximoMs,
+                                                       MeterRegistry meterRegistry) {
+        MonitorRetrasoReplica monitor = new MonitorRetrasoReplica(replica, retrasoMaximoMs, meterRegistry);
+        monitor.comprobar();
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrimaria") DataSource primaria,
+                                 @Qualifier("dataSourceReplica") DataSource replica,
+                                 MonitorRetrasoReplica monitor,
+                                 @Value("${replica.paquetes:com.simcii.javaservice.services.}") String[] paquetes,
+                                 MeterRegistry meterRegistry) {
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(primaria, replica, monitor, paquetes, meterRegistry);
+        enrutador.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(enrutador);
+    }
+}
@@ -0,0 +1,72 @@
+package com.simcii.javaservice.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * DataSource que envía las conexiones de transacciones {@code readOnly} declaradas en los
+ * servicios a la réplica de lectura mientras {@link MonitorRetrasoReplica} la considere al día,
+ * y todo lo demás a la primaria. Las transacciones de solo lectura que Spring Data abre por
+ * defecto en cada método de repositorio no se enrutan: incluyen las búsquedas previas a una
+ * modificación, que deben leer de la primaria.
+ *
+ * Debe usarse detrás de un {@code LazyConnectionDataSourceProxy}: la conexión real se pide en la
+ * primera sentencia, cuando la marca de solo lectura de la transacción ya está establecida.
+ */
+public class EnrutadorDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARIA = "primaria";
+    static final String REPLICA = "replica";
+
+    private final MonitorRetrasoReplica monitor;
+    private final String[] paquetes;
+    private final Counter haciaReplica;
+    private final Counter haciaPrimaria;
+
+    public EnrutadorDataSource(DataSource primaria, DataSource replica, MonitorRetrasoReplica monitor,
+                               String[] paquetes, MeterRegistry meterRegistry) {
+        this.monitor = monitor;
+        this.paquetes = paquetes;
+        setTargetDataSources(Map.of(PRIMARIA, primaria, REPLICA, replica));
+        setDefaultTargetDataSource(primaria);
+        this.haciaReplica = contador(meterRegistry, REPLICA);
+        this.haciaPrimaria = contador(meterRegistry, PRIMARIA);
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String destino) {
+        return Counter.builder("simcii.datasource.conexiones")
+                .description("Conexiones obtenidas por el enrutador de lectura/escritura según su destino")
+                .tag("destino", destino)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && declaradaEnServicio()
+                && monitor.isDisponible()) {
+            haciaReplica.increment();
+            return REPLICA;
+        }
+        haciaPrimaria.increment();
+        return PRIMARIA;
+    }
+
+    // El nombre de la transacción es el método que la declaró, p. ej. ...services.LecturaService.obtenerHistorialCompacto
+    private boolean declaradaEnServicio() {
+        String nombre = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (nombre == null) {
+            return false;
+        }
+        for (String paquete : paquetes) {
+            if (nombre.startsWith(paquete)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
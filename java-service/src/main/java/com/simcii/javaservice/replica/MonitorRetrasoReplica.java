@@ -0,0 +1,69 @@
+package com.simcii.javaservice.replica;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Mide periódicamente el retraso de replicación de la réplica de lectura y decide si puede
+ * atender lecturas. Si el retraso supera el máximo o la réplica no responde, las transacciones
+ * de solo lectura vuelven a la primaria hasta la siguiente comprobación correcta.
+ */
+public class MonitorRetrasoReplica {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonitorRetrasoReplica.class);
+
+    // Sin WAL pendiente de aplicar el retraso es 0 aunque la última transacción replicada sea antigua
+    private static final String CONSULTA_RETRASO =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long retrasoMaximoMs;
+    private volatile boolean disponible;
+    private volatile double retrasoMs = Double.NaN;
+
+    public MonitorRetrasoReplica(DataSource replica, long retrasoMaximoMs, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(replica);
+        this.retrasoMaximoMs = retrasoMaximoMs;
+        Gauge.builder("simcii.replica.retraso", this, m -> m.retrasoMs)
+                .description("Retraso de replicación de la réplica de lectura en milisegundos (NaN si no responde)")
+                .register(meterRegistry);
+        Gauge.builder("simcii.replica.disponible", this, m -> m.disponible ? 1 : 0)
+                .description("1 si las lecturas se envían a la réplica, 0 si vuelven a la primaria")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${replica.comprobacion-ms:2000}")
+    public void comprobar() {
+        boolean anterior = disponible;
+        try {
+            Double retraso = jdbcTemplate.queryForObject(CONSULTA_RETRASO, Double.class);
+            retrasoMs = retraso != null ? retraso : 0.0;
+            disponible = retrasoMs <= retrasoMaximoMs;
+        } catch (Exception e) {
+            retrasoMs = Double.NaN;
+            disponible = false;
+            if (anterior) {
+                logger.warn("Réplica de lectura sin respuesta: {}", e.getMessage());
+            }
+        }
+        if (anterior != disponible) {
+            logger.info("Réplica de lectura {} (retraso {} ms, máximo {} ms)",
+                    disponible ? "en uso" : "descartada, lecturas a la primaria", retrasoMs, retrasoMaximoMs);
+        }
+    }
+
+    public boolean isDisponible() {
+        return disponible;
+    }
+
+    public double getRetrasoMs() {
+        return retrasoMs;
+    }
+}
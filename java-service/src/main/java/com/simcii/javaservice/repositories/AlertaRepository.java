@@ -0,0 +1,17 @@
+package com.simcii.javaservice.repositories;
+
+import com.simcii.javaservice.models.Alerta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AlertaRepository extends JpaRepository<Alerta, Long> {
+    List<Alerta> findByActivaTrue();
+    List<Alerta> findByDispositivoIdAndActivaTrue(Long dispositivoId);
+    
+    @Query("SELECT a.dispositivo.ubicacion, COUNT(a) FROM Alerta a WHERE a.activa = true GROUP BY a.dispositivo.ubicacion")
+    List<Object[]> contarActivasPorUbicacion();
+}
@@ -1,6 +1,7 @@
 package com.simcii.javaservice.repositories;
 
 import com.simcii.javaservice.models.Dispositivo;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -16,4 +17,17 @@ public interface DispositivoRepository extends JpaRepository<Dispositivo, Long>
     
     @Query("SELECT d FROM Dispositivo d WHERE TYPE(d) = Actuador")
     List<Dispositivo> findAllActuadores();
+    
+    @Query("SELECT d FROM Dispositivo d WHERE TYPE(d) IN (SensorTemperatura, SensorHumedad, SensorLuz) AND d.activo = true")
+    List<Dispositivo> findSensoresActivos();
+    
+    @Query("SELECT d FROM Dispositivo d WHERE TYPE(d) IN (SensorTemperatura, SensorHumedad, SensorLuz) AND d.activo = true AND MOD(d.id, :particiones) = :particion")
+    List<Dispositivo> findSensoresActivosPorParticion(int particiones, int particion);
+
+    // Paginación por clave: cada página continúa tras el último ID de la anterior. Sobre Sensor y no
+    // con TYPE(d) IN (...): el filtro por tipo es un CASE sobre los LEFT JOIN de toda la jerarquía que
+    // ningún índice resuelve, y cada página recorría las tablas completas
+    @Query("SELECT s FROM Sensor s WHERE s.activo = true AND s.id > :despuesDeId " +
+           "AND NOT EXISTS (SELECT u.id FROM Umbral u WHERE u.dispositivo = s) ORDER BY s.id")
+    List<Dispositivo> findSensoresActivosSinUmbral(Long despuesDeId, Pageable pagina);
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.simcii.javaservice.repositories;
+
+import com.simcii.javaservice.models.InstanciaServicio;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Las marcas de tiempo usan el reloj de la base de datos (now() en UTC), común a todas las réplicas
+@Repository
+public interface InstanciaServicioRepository extends JpaRepository<InstanciaServicio, String> {
+    @Query(value = "SELECT id FROM instancias_servicio " +
+                   "WHERE ultimo_latido > (now() AT TIME ZONE 'UTC') - make_interval(secs => :ttlMs / 1000.0)", nativeQuery = true)
+    List<String> findIdsVivas(long ttlMs);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO instancias_servicio (id, ultimo_latido) VALUES (:id, now() AT TIME ZONE 'UTC') " +
+                   "ON CONFLICT (id) DO UPDATE SET ultimo_latido = EXCLUDED.ultimo_latido", nativeQuery = true)
+    int registrarLatido(String id);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM instancias_servicio " +
+                   "WHERE ultimo_latido < (now() AT TIME ZONE 'UTC') - make_interval(secs => :inactividadMs / 1000.0)", nativeQuery = true)
+    int eliminarInactivas(long inactividadMs);
+}
@@ -0,0 +1,33 @@
+package com.simcii.javaservice.repositories;
+
+import com.simcii.javaservice.models.LeaseParticion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface LeaseParticionRepository extends JpaRepository<LeaseParticion, Integer> {
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO leases_particion (particion, propietario, expira_en) VALUES (:particion, NULL, NULL) " +
+                   "ON CONFLICT (particion) DO NOTHING", nativeQuery = true)
+    int crearSiNoExiste(int particion);
+    
+    // Adquiere o renueva el lease solo si es propio, está libre o ha expirado. La expiración se calcula
+    // y se compara con el reloj de la base de datos: el desfase entre relojes de las réplicas no cuenta
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE leases_particion SET propietario = :instancia, " +
+                   "expira_en = (now() AT TIME ZONE 'UTC') + make_interval(secs => :ttlMs / 1000.0) " +
+                   "WHERE particion = :particion " +
+                   "AND (propietario = :instancia OR propietario IS NULL OR expira_en < now() AT TIME ZONE 'UTC')", nativeQuery = true)
+    int adquirir(int particion, String instancia, long ttlMs);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE LeaseParticion l SET l.propietario = NULL, l.expiraEn = NULL " +
+           "WHERE l.particion = :particion AND l.propietario = :instancia")
+    int liberar(int particion, String instancia);
+}
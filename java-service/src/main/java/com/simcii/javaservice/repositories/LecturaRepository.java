@@ -1,15 +1,18 @@
 package com.simcii.javaservice.repositories;
 
+import com.simcii.javaservice.dto.LecturaCompacta;
 import com.simcii.javaservice.models.Lectura;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface LecturaRepository extends JpaRepository<Lectura, Long> {
+public interface LecturaRepository extends JpaRepository<Lectura, Long>, LecturaRepositoryConsultas {
     List<Lectura> findByDispositivoIdOrderByFechaHoraDesc(Long dispositivoId);
     
     @Query("SELECT l FROM Lectura l WHERE l.dispositivo.id = :dispositivoId AND l.fechaHora BETWEEN :inicio AND :fin ORDER BY l.fechaHora DESC")
@@ -17,4 +20,21 @@ public interface LecturaRepository extends JpaRepository<Lectura, Long> {
     
     @Query(value = "SELECT * FROM lecturas WHERE dispositivo_id = :dispositivoId ORDER BY fecha_hora DESC LIMIT :limit", nativeQuery = true)
     List<Lectura> findUltimasLecturas(Long dispositivoId, int limit);
+    
+    // Proyección sobre el índice (dispositivo_id, fecha_hora) INCLUDE (id, valor, unidad): sin join ni entidades
+    @Query("SELECT new com.simcii.javaservice.dto.LecturaCompacta(l.id, l.dispositivo.id, l.valor, l.unidad, l.fechaHora) " +
+           "FROM Lectura l WHERE l.dispositivo.id = :dispositivoId ORDER BY l.fechaHora DESC")
+    List<LecturaCompacta> findCompactasByDispositivoId(Long dispositivoId);
+    
+    @Query("SELECT new com.simcii.javaservice.dto.LecturaCompacta(l.id, l.dispositivo.id, l.valor, l.unidad, l.fechaHora) " +
+           "FROM Lectura l WHERE l.dispositivo.id = :dispositivoId ORDER BY l.fechaHora DESC")
+    List<LecturaCompacta> findUltimasCompactas(Long dispositivoId, Pageable pageable);
+    
+    // Última lectura de cada dispositivo: un index-only scan de (dispositivo_id, fecha_hora DESC) LIMIT 1 por
+    // dispositivo, en lugar de una consulta por dispositivo. Filas: id, dispositivo_id, valor, unidad, fecha_hora
+    @Query(value = "SELECT u.id, d.id AS dispositivo_id, u.valor, u.unidad, u.fecha_hora FROM dispositivos d " +
+                   "CROSS JOIN LATERAL (SELECT l.id, l.valor, l.unidad, l.fecha_hora FROM lecturas l " +
+                   "WHERE l.dispositivo_id = d.id ORDER BY l.fecha_hora DESC LIMIT 1) u " +
+                   "WHERE d.id IN (:dispositivoIds)", nativeQuery = true)
+    List<Object[]> findUltimaLecturaPorDispositivo(Collection<Long> dispositivoIds);
 }
\ No newline at end of file
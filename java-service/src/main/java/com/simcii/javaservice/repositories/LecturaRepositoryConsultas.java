@@ -0,0 +1,18 @@
+package com.simcii.javaservice.repositories;
+
+import com.simcii.javaservice.dto.LecturaCompacta;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consultas de lecturas que necesitan opciones fijadas por configuración (no admitidas en @Query).
+ */
+public interface LecturaRepositoryConsultas {
+
+    /**
+     * Lecturas de un dispositivo en el rango, en orden cronológico, con el tiempo máximo de
+     * sentencia de lecturas.consulta.timeout-ms: PostgreSQL cancela la consulta si lo supera.
+     */
+    List<LecturaCompacta> findCompactasEntre(Long dispositivoId, LocalDateTime inicio, LocalDateTime fin);
+}
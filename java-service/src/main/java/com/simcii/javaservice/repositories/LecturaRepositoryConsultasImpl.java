@@ -0,0 +1,39 @@
+package com.simcii.javaservice.repositories;
+
+import com.simcii.javaservice.dto.LecturaCompacta;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+class LecturaRepositoryConsultasImpl implements LecturaRepositoryConsultas {
+
+    private static final String HINT_TIMEOUT = "jakarta.persistence.query.timeout";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${lecturas.consulta.timeout-ms:10000}")
+    private long timeoutMs;
+
+    @Override
+    public List<LecturaCompacta> findCompactasEntre(Long dispositivoId, LocalDateTime inicio, LocalDateTime fin) {
+        return entityManager.createQuery(
+                        "SELECT new com.simcii.javaservice.dto.LecturaCompacta(l.id, l.dispositivo.id, l.valor, l.unidad, l.fechaHora) " +
+                        "FROM Lectura l WHERE l.dispositivo.id = :dispositivoId AND l.fechaHora BETWEEN :inicio AND :fin ORDER BY l.fechaHora",
+                        LecturaCompacta.class)
+                .setParameter("dispositivoId", dispositivoId)
+                .setParameter("inicio", inicio)
+                .setParameter("fin", fin)
+                .setHint(HINT_TIMEOUT, timeoutSentenciaMs())
+                .getResultList();
+    }
+
+    // JDBC fija el tiempo máximo en segundos enteros y Hibernate redondea: por debajo de 500 ms
+    // quedaría en 0, sin límite
+    private int timeoutSentenciaMs() {
+        return (int) Math.max(1, (timeoutMs + 999) / 1000) * 1000;
+    }
+}
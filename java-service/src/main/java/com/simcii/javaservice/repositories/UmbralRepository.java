@@ -12,4 +12,5 @@ public interface UmbralRepository extends JpaRepository<Umbral, Long> {
      List<Umbral> findByDispositivo(Dispositivo dispositivo);
     List<Umbral> findByDispositivoAndActivoTrue(Dispositivo dispositivo);
     List<Umbral> findByDispositivoId(Long dispositivoId); // MÉTODO FALTANTE
+    List<Umbral> findByDispositivoIdAndActivoTrue(Long dispositivoId);
 }
@@ -0,0 +1,95 @@
+package com.simcii.javaservice.retencion;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuración de la retención de lecturas (sección "retencion" de application.yml).
+ * Las políticas van por tipo de sensor; los tipos sin política conservan sus lecturas.
+ */
+@Component
+@ConfigurationProperties(prefix = "retencion")
+public class PropiedadesRetencion {
+
+    private boolean habilitada = true;
+    private Map<String, Integer> dias = new LinkedHashMap<>();
+    private int tamanoLote = 1000;
+    private long pausaMs = 50;
+    private long duracionMaximaMs = 60000;
+    private long intervaloMs = 300000;
+    private long retardoInicialMs = 60000;
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    public void setHabilitada(boolean habilitada) {
+        this.habilitada = habilitada;
+    }
+
+    /**
+     * Días que se conservan las lecturas de cada tipo de sensor (TEMPERATURA, HUMEDAD, LUZ...).
+     */
+    public Map<String, Integer> getDias() {
+        return dias;
+    }
+
+    public void setDias(Map<String, Integer> dias) {
+        this.dias = dias;
+    }
+
+    /**
+     * Lecturas borradas por sentencia.
+     */
+    public int getTamanoLote() {
+        return tamanoLote;
+    }
+
+    public void setTamanoLote(int tamanoLote) {
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Espera entre lotes para ceder E/S y bloqueos a la ingesta.
+     */
+    public long getPausaMs() {
+        return pausaMs;
+    }
+
+    public void setPausaMs(long pausaMs) {
+        this.pausaMs = pausaMs;
+    }
+
+    /**
+     * Tiempo máximo de cada ciclo; lo pendiente continúa en el siguiente desde el punto de control.
+     */
+    public long getDuracionMaximaMs() {
+        return duracionMaximaMs;
+    }
+
+    public void setDuracionMaximaMs(long duracionMaximaMs) {
+        this.duracionMaximaMs = duracionMaximaMs;
+    }
+
+    /**
+     * Espera entre el final de un ciclo y el inicio del siguiente.
+     */
+    public long getIntervaloMs() {
+        return intervaloMs;
+    }
+
+    public void setIntervaloMs(long intervaloMs) {
+        this.intervaloMs = intervaloMs;
+    }
+
+    public long getRetardoInicialMs() {
+        return retardoInicialMs;
+    }
+
+    public void setRetardoInicialMs(long retardoInicialMs) {
+        this.retardoInicialMs = retardoInicialMs;
+    }
+}
@@ -1,27 +1,46 @@
 package com.simcii.javaservice.services;
 
+import com.simcii.javaservice.dto.ComandoActuadorRequest;
+import com.simcii.javaservice.dto.ResultadoComandoActuador;
+import com.simcii.javaservice.dto.ResultadoLoteComandos;
 import com.simcii.javaservice.models.Actuador;
-import com.simcii.javaservice.repositories.DispositivoRepository;
+import com.simcii.javaservice.almacenamiento.AlmacenamientoDispositivos;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 @Service
 public class ActuadorService {
     
     @Autowired
-    private DispositivoRepository dispositivoRepository;
+    private AlmacenamientoDispositivos almacenamiento;
+    
+    @Autowired
+    private ResumenZonasService resumenZonasService;
+    
+    @Autowired
+    private VersionesRecursosService versionesRecursos;
+    
+    @Value("${actuadores.comandos.max-elementos:1000}")
+    private int maxComandos;
+    
+    public int getMaxComandos() {
+        return maxComandos;
+    }
     
     public List<Actuador> findAllActuadores() {
-        return dispositivoRepository.findAllActuadores().stream()
+        return almacenamiento.buscarActuadores().stream()
                 .map(dispositivo -> (Actuador) dispositivo)
                 .toList();
     }
     
     public Optional<Actuador> findActuadorById(Long id) {
-        return dispositivoRepository.findById(id)
+        return almacenamiento.buscarDispositivo(id)
                 .filter(dispositivo -> dispositivo instanceof Actuador)
                 .map(dispositivo -> (Actuador) dispositivo);
     }
@@ -38,17 +57,75 @@ public class ActuadorService {
         return findActuadorById(id)
                 .map(actuador -> {
                     actuador.setEstado(estado);
-                    return (Actuador) dispositivoRepository.save(actuador);
+                    Actuador guardado = (Actuador) almacenamiento.guardarDispositivo(actuador);
+                    resumenZonasService.registrarActuador(id, estado, null);
+                    versionesRecursos.catalogoModificado();
+                    return guardado;
                 })
-                .orElseThrow(() -> new RuntimeException("Actuador no encontrado"));
+                .orElseThrow(() -> new NoSuchElementException("Actuador no encontrado"));
+    }
+    
+    // Usado por el motor de control: solo escribe si el actuador sigue en modo automático
+    // y su estado cambia, de modo que cada transición es una única escritura
+    public boolean aplicarEstadoAutomatico(Long id, boolean estado) {
+        return findActuadorById(id)
+                .filter(actuador -> "AUTOMATICO".equalsIgnoreCase(actuador.getModoOperacion()))
+                .filter(actuador -> !Boolean.valueOf(estado).equals(actuador.getEstado()))
+                .map(actuador -> {
+                    actuador.setEstado(estado);
+                    almacenamiento.guardarDispositivo(actuador);
+                    resumenZonasService.registrarActuador(id, estado, null);
+                    versionesRecursos.catalogoModificado();
+                    return true;
+                })
+                .orElse(false);
+    }
+    
+    // Aplica varios cambios de estado/modo en una sola transacción con resultado por comando;
+    // los comandos sin actuador o sin ningún cambio se rechazan sin llegar al almacenamiento
+    public ResultadoLoteComandos aplicarComandos(List<ComandoActuadorRequest> comandos) {
+        ResultadoComandoActuador[] resultados = new ResultadoComandoActuador[comandos.size()];
+        List<ComandoActuadorRequest> validos = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < comandos.size(); i++) {
+            ComandoActuadorRequest comando = comandos.get(i);
+            if (comando == null || comando.getActuadorId() == null) {
+                resultados[i] = ResultadoComandoActuador.error(i, null, null, "actuadorId es obligatorio");
+            } else if (comando.getEstado() == null && comando.getModoOperacion() == null) {
+                resultados[i] = ResultadoComandoActuador.error(i, comando.getActuadorId(), comando.getVersion(),
+                        "El comando debe indicar estado o modoOperacion");
+            } else {
+                validos.add(comando);
+                indices.add(i);
+            }
+        }
+        if (!validos.isEmpty()) {
+            List<ResultadoComandoActuador> aplicados = almacenamiento.aplicarComandosActuador(validos);
+            versionesRecursos.catalogoModificado();
+            for (int k = 0; k < aplicados.size(); k++) {
+                ResultadoComandoActuador r = aplicados.get(k);
+                int i = indices.get(k);
+                if (r.isExito()) {
+                    resumenZonasService.registrarActuador(r.getActuadorId(), validos.get(k).getEstado(),
+                            validos.get(k).getModoOperacion());
+                }
+                resultados[i] = r.isExito()
+                        ? ResultadoComandoActuador.exito(i, r.getActuadorId(), r.getVersion())
+                        : ResultadoComandoActuador.error(i, r.getActuadorId(), r.getVersion(), r.getError());
+            }
+        }
+        return new ResultadoLoteComandos(List.of(resultados));
     }
     
     public Actuador cambiarModoOperacion(Long id, String modo) {
         return findActuadorById(id)
                 .map(actuador -> {
                     actuador.setModoOperacion(modo);
-                    return (Actuador) dispositivoRepository.save(actuador);
+                    Actuador guardado = (Actuador) almacenamiento.guardarDispositivo(actuador);
+                    resumenZonasService.registrarActuador(id, null, modo);
+                    versionesRecursos.catalogoModificado();
+                    return guardado;
                 })
-                .orElseThrow(() -> new RuntimeException("Actuador no encontrado"));
+                .orElseThrow(() -> new NoSuchElementException("Actuador no encontrado"));
     }
 }
\ No newline at end of file
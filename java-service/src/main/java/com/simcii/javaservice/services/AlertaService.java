@@ -1,9 +1,15 @@
 package com.simcii.javaservice.services;
 
+import com.simcii.javaservice.almacenamiento.AlmacenamientoDispositivos;
+import com.simcii.javaservice.models.Alerta;
 import com.simcii.javaservice.models.Dispositivo;
 import com.simcii.javaservice.models.Umbral;
-import com.simcii.javaservice.repositories.UmbralRepository;
+import com.simcii.javaservice.registro.MuestreoRegistro;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -19,17 +25,47 @@ import java.util.List;
  * @Service
  * @see Umbral
  * @see Dispositivo
- * @see UmbralRepository
+ * @see AlmacenamientoDispositivos
  */
 @Service
 public class AlertaService {
     
+    private static final Logger logger = LoggerFactory.getLogger(AlertaService.class);
+    
     /**
-     * Repositorio para acceso a datos de umbrales.
+     * Backend de almacenamiento de umbrales y alertas (JPA o memoria según el perfil).
      * Utilizado para consultar y gestionar la configuración de umbrales de alerta.
      */
     @Autowired
-    private UmbralRepository umbralRepository;
+    private AlmacenamientoDispositivos almacenamiento;
+    
+    /**
+     * Resumen en vivo por zona.
+     * Utilizado para contar cada alerta nueva en la zona de su dispositivo.
+     */
+    @Autowired
+    private ResumenZonasService resumenZonasService;
+    
+    /**
+     * Notificación asíncrona de alertas.
+     * Utilizado para encolar cada alerta generada en los canales de notificación habilitados.
+     */
+    @Autowired
+    private NotificacionesService notificacionesService;
+    
+    /**
+     * Trazas por segundo de las alertas generadas; el resto se cuentan como omitidas.
+     * Las alertas quedan igualmente guardadas y notificadas.
+     */
+    @Value("${registro.muestreo.por-segundo:5}")
+    private int trazasPorSegundo;
+    
+    private MuestreoRegistro muestreoAlertas;
+    
+    @PostConstruct
+    public void inicializar() {
+        muestreoAlertas = new MuestreoRegistro(trazasPorSegundo);
+    }
     
     /**
      * Verifica si una lectura de dispositivo viola alguno de sus umbrales activos.
@@ -38,10 +74,10 @@ public class AlertaService {
      * 
      * @param dispositivo Dispositivo que generó la lectura
      * @param valor Valor numérico de la lectura a verificar
-     * @see UmbralRepository#findByDispositivoAndActivoTrue(Dispositivo)
+     * @see AlmacenamientoDispositivos#buscarUmbralesActivos(Long)
      */
     public void verificarUmbrales(Dispositivo dispositivo, Double valor) {
-        List<Umbral> umbrales = umbralRepository.findByDispositivoAndActivoTrue(dispositivo);
+        List<Umbral> umbrales = almacenamiento.buscarUmbralesActivos(dispositivo.getId());
         
         for (Umbral umbral : umbrales) {
             if (valor < umbral.getValorMin() || valor > umbral.getValorMax()) {
@@ -52,18 +88,43 @@ public class AlertaService {
     
     /**
      * Genera una alerta cuando se detecta una violación de umbral.
-     * Actualmente implementa logging en consola, pero puede extenderse para
-     * notificaciones por email, SMS, o integración con sistemas externos.
+     * La alerta queda registrada en el almacenamiento y se encola para los canales
+     * de notificación habilitados (webhook, archivo, servicio Python).
      * 
      * @param dispositivo Dispositivo que generó la alerta
      * @param valor Valor de lectura que violó el umbral
      * @param umbral Umbral específico que fue violado
-     * @implNote Actualmente solo realiza logging - puede extenderse para notificaciones
+     * @see NotificacionesService#notificar(Alerta)
      */
     private void generarAlerta(Dispositivo dispositivo, Double valor, Umbral umbral) {
-        System.out.println("ALERTA: Dispositivo " + dispositivo.getNombre() + 
-                          " valor " + valor + " fuera de rango [" + 
-                          umbral.getValorMin() + " - " + umbral.getValorMax() + "]");
+        String mensaje = "Valor " + valor + " fuera de rango [" +
+                         umbral.getValorMin() + " - " + umbral.getValorMax() + "]";
+        Alerta alerta = almacenamiento.guardarAlerta(new Alerta(dispositivo, umbral, valor, mensaje));
+        resumenZonasService.registrarAlerta(dispositivo);
+        notificacionesService.notificar(alerta);
+        registrarTraza(dispositivo, mensaje);
+    }
+    
+    /**
+     * Genera una alerta por una lectura anómala que no viola ningún umbral concreto
+     * (saltos o derivas detectados por {@link DeteccionAnomaliasService}).
+     * 
+     * @param dispositivo Dispositivo que generó la alerta
+     * @param valor Valor de lectura anómalo
+     * @param mensaje Descripción de la anomalía detectada
+     */
+    public void generarAlertaAnomalia(Dispositivo dispositivo, Double valor, String mensaje) {
+        Alerta alerta = almacenamiento.guardarAlerta(new Alerta(dispositivo, null, valor, mensaje));
+        resumenZonasService.registrarAlerta(dispositivo);
+        notificacionesService.notificar(alerta);
+        registrarTraza(dispositivo, mensaje);
+    }
+    
+    private void registrarTraza(Dispositivo dispositivo, String mensaje) {
+        if (logger.isInfoEnabled() && muestreoAlertas.permitir()) {
+            logger.info("ALERTA: Dispositivo {} {} (+{} omitidas)", dispositivo.getNombre(), mensaje,
+                    muestreoAlertas.tomarOmitidas());
+        }
     }
     
     /**
@@ -72,10 +133,10 @@ public class AlertaService {
      * 
      * @param umbral Objeto Umbral con la configuración completa
      * @return Umbral el umbral guardado con su ID asignado
-     * @see UmbralRepository#save(Object)
+     * @see AlmacenamientoDispositivos#guardarUmbral(Umbral)
      */
     public Umbral configurarUmbral(Umbral umbral) {
-        return umbralRepository.save(umbral);
+        return almacenamiento.guardarUmbral(umbral);
     }
     
     /**
@@ -83,9 +144,30 @@ public class AlertaService {
      * 
      * @param dispositivoId Identificador único del dispositivo a consultar
      * @return List<Umbral> con todos los umbrales del dispositivo
-     * @see UmbralRepository#findByDispositivoId(Long)
+     * @see AlmacenamientoDispositivos#buscarUmbrales(Long)
      */
     public List<Umbral> obtenerUmbralesPorDispositivo(Long dispositivoId) {
-        return umbralRepository.findByDispositivoId(dispositivoId);
+        return almacenamiento.buscarUmbrales(dispositivoId);
+    }
+    
+    /**
+     * Obtiene todas las alertas activas del sistema.
+     * 
+     * @return List<Alerta> con las alertas activas
+     * @see AlmacenamientoDispositivos#buscarAlertasActivas()
+     */
+    public List<Alerta> obtenerAlertasActivas() {
+        return almacenamiento.buscarAlertasActivas();
+    }
+    
+    /**
+     * Obtiene las alertas activas de un dispositivo específico.
+     * 
+     * @param dispositivoId Identificador único del dispositivo a consultar
+     * @return List<Alerta> con las alertas activas del dispositivo
+     * @see AlmacenamientoDispositivos#buscarAlertasPorDispositivo(Long)
+     */
+    public List<Alerta> obtenerAlertasPorDispositivo(Long dispositivoId) {
+        return almacenamiento.buscarAlertasPorDispositivo(dispositivoId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.simcii.javaservice.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Anillo de hash consistente con nodos virtuales.
+ * Al entrar o salir una instancia solo se reasignan las claves de los tramos
+ * del anillo que le corresponden, el resto mantiene su propietario.
+ */
+public class AnilloHashConsistente {
+
+    private final TreeMap<Long, String> anillo = new TreeMap<>();
+
+    public AnilloHashConsistente(Collection<String> instancias, int nodosVirtuales) {
+        for (String instancia : instancias) {
+            for (int v = 0; v < nodosVirtuales; v++) {
+                anillo.put(hash(instancia + "#" + v), instancia);
+            }
+        }
+    }
+
+    /**
+     * Obtiene la instancia propietaria de una clave.
+     *
+     * @param clave Clave a ubicar en el anillo
+     * @return String identificador de la instancia, o null si el anillo está vacío
+     */
+    public String propietario(String clave) {
+        if (anillo.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entrada = anillo.ceilingEntry(hash(clave));
+        return entrada != null ? entrada.getValue() : anillo.firstEntry().getValue();
+    }
+
+    // Hash estable entre JVMs: primeros 8 bytes del MD5
+    private static long hash(String clave) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(clave.getBytes(StandardCharsets.UTF_8));
+            long h = 0;
+            for (int i = 0; i < 8; i++) {
+                h = (h << 8) | (digest[i] & 0xFF);
+            }
+            return h;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.simcii.javaservice.services;
+
+import com.simcii.javaservice.almacenamiento.AlmacenamientoDispositivos;
+import com.simcii.javaservice.busqueda.IndiceDispositivos;
+import com.simcii.javaservice.dto.PaginaDispositivos;
+import com.simcii.javaservice.dto.ResumenDispositivo;
+import com.simcii.javaservice.models.Dispositivo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Listados filtrados, ordenados y paginados del catálogo de dispositivos sobre un
+ * {@link IndiceDispositivos} en memoria, sin acceso al almacenamiento.
+ *
+ * Las escrituras de dispositivos de esta instancia actualizan el índice al momento. Además se
+ * reconstruye periódicamente desde el almacenamiento para recoger las escrituras de otras réplicas;
+ * la carga se hace fuera del bloqueo y los cambios locales producidos mientras tanto se aplican
+ * de nuevo sobre el índice reconstruido antes de publicarlo.
+ */
+@Service
+public class BusquedaDispositivosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusquedaDispositivosService.class);
+
+    // resumen null = baja
+    private record Cambio(Long id, ResumenDispositivo resumen) {
+    }
+
+    @Autowired
+    private AlmacenamientoDispositivos almacenamiento;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${dispositivos.busqueda.max-tamano:500}")
+    private int maxTamano;
+
+    private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+    // null hasta la primera carga
+    private IndiceDispositivos indice;
+    // Cambios locales durante una reconstrucción; null si no hay ninguna en curso
+    private List<Cambio> pendientes;
+
+    @PostConstruct
+    public void inicializar() {
+        Gauge.builder("simcii.dispositivos.indice.tamano", this, BusquedaDispositivosService::tamano)
+                .description("Dispositivos en el índice de búsqueda del catálogo")
+                .register(meterRegistry);
+    }
+
+    public int getMaxTamano() {
+        return maxTamano;
+    }
+
+    /**
+     * Página de dispositivos que cumplen la consulta, o vacío si el índice aún no se ha cargado.
+     */
+    public Optional<PaginaDispositivos> buscar(IndiceDispositivos.Consulta consulta) {
+        bloqueo.readLock().lock();
+        try {
+            return indice == null ? Optional.empty() : Optional.of(indice.buscar(consulta));
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Registra el alta o la modificación de un dispositivo ya guardado.
+     */
+    public void indexar(Dispositivo dispositivo) {
+        if (dispositivo == null || dispositivo.getId() == null) {
+            return;
+        }
+        aplicar(new Cambio(dispositivo.getId(), ResumenDispositivo.de(dispositivo)));
+    }
+
+    /**
+     * Registra el alta o la modificación de varios dispositivos ya guardados.
+     */
+    public void indexarLote(Collection<? extends Dispositivo> dispositivos) {
+        List<ResumenDispositivo> resumenes = new ArrayList<>(dispositivos.size());
+        for (Dispositivo dispositivo : dispositivos) {
+            if (dispositivo.getId() != null) {
+                resumenes.add(ResumenDispositivo.de(dispositivo));
+            }
+        }
+        bloqueo.writeLock().lock();
+        try {
+            if (indice != null) {
+                indice.indexarLote(resumenes);
+            }
+            if (pendientes != null) {
+                resumenes.forEach(resumen -> pendientes.add(new Cambio(resumen.getId(), resumen)));
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Registra la baja de un dispositivo.
+     */
+    public void eliminar(Long id) {
+        aplicar(new Cambio(id, null));
+    }
+
+    private void aplicar(Cambio cambio) {
+        bloqueo.writeLock().lock();
+        try {
+            if (indice != null) {
+                aplicar(indice, cambio);
+            }
+            if (pendientes != null) {
+                pendientes.add(cambio);
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    private static void aplicar(IndiceDispositivos destino, Cambio cambio) {
+        if (cambio.resumen() != null) {
+            destino.indexar(cambio.resumen());
+        } else {
+            destino.eliminar(cambio.id());
+        }
+    }
+
+    /**
+     * Reconstruye el índice con el catálogo completo del almacenamiento.
+     */
+    @Scheduled(fixedDelayString = "${dispositivos.indice.recarga-ms:300000}")
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        bloqueo.writeLock().lock();
+        try {
+            pendientes = new ArrayList<>();
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+
+        IndiceDispositivos nuevo = null;
+        try {
+            nuevo = new IndiceDispositivos();
+            for (Dispositivo dispositivo : almacenamiento.buscarDispositivos()) {
+                nuevo.indexar(ResumenDispositivo.de(dispositivo));
+            }
+            // Fuera del bloqueo: las consultas sobre el índice nuevo no tendrán que ordenar
+            nuevo.prepararOrdenes();
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo reconstruir el índice de dispositivos: {}", e.getMessage());
+            nuevo = null;
+        }
+
+        int aplicados;
+        bloqueo.writeLock().lock();
+        try {
+            aplicados = pendientes.size();
+            if (nuevo != null) {
+                for (Cambio cambio : pendientes) {
+                    aplicar(nuevo, cambio);
+                }
+                indice = nuevo;
+            }
+            pendientes = null;
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+        if (nuevo != null) {
+            logger.debug("Índice de dispositivos reconstruido: {} dispositivos ({} cambios durante la carga) en {} ms",
+                    nuevo.tamano(), aplicados, (System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+
+    private double tamano() {
+        bloqueo.readLock().lock();
+        try {
+            return indice == null ? 0 : indice.tamano();
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.simcii.javaservice.services;
+
+import com.simcii.javaservice.almacenamiento.AlmacenamientoDispositivos;
+import com.simcii.javaservice.dto.LecturaCompacta;
+import com.simcii.javaservice.trazas.Trazador;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Consultas de rango sobre varios dispositivos a la vez (gráficas comparativas).
+ * Cada dispositivo se consulta en paralelo en un pool acotado, de modo que la latencia sigue a la
+ * consulta más lenta y no a la suma de todas. El pool queda por debajo del de conexiones de Hikari
+ * y, con la cola llena, la consulta se ejecuta en el hilo de la petición en lugar de rechazarse.
+ * Al vencer el plazo se cancelan las tareas: las que siguen en cola no llegan a ejecutarse y las
+ * que ya están en marcha reciben la interrupción, pero una consulta JDBC no la atiende; a esas las
+ * corta el tiempo máximo de sentencia de la propia consulta (mismo lecturas.consulta.timeout-ms).
+ */
+@Service
+public class ConsultaLecturasService {
+
+    @Autowired
+    private AlmacenamientoDispositivos almacenamiento;
+
+    @Autowired
+    private Trazador trazador;
+
+    @Value("${lecturas.consulta.hilos:4}")
+    private int hilos;
+
+    @Value("${lecturas.consulta.capacidad-cola:200}")
+    private int capacidadCola;
+
+    @Value("${lecturas.consulta.max-dispositivos:50}")
+    private int maxDispositivos;
+
+    @Value("${lecturas.consulta.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private ThreadPoolTaskExecutor ejecutor;
+
+    @PostConstruct
+    public void inicializar() {
+        ejecutor = new ThreadPoolTaskExecutor();
+        ejecutor.setCorePoolSize(hilos);
+        ejecutor.setMaxPoolSize(hilos);
+        ejecutor.setQueueCapacity(capacidadCola);
+        ejecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        ejecutor.setThreadNamePrefix("lecturas-consulta-");
+        ejecutor.initialize();
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutor.shutdown();
+    }
+
+    public int getMaxDispositivos() {
+        return maxDispositivos;
+    }
+
+    /**
+     * Lecturas de cada dispositivo en el rango, en orden cronológico, agrupadas por dispositivo
+     * en el orden de la petición (los IDs repetidos se consultan una vez).
+     *
+     * @throws TimeoutException si alguna consulta no termina en lecturas.consulta.timeout-ms
+     */
+    public Map<Long, List<LecturaCompacta>> obtenerRango(Collection<Long> dispositivoIds, LocalDateTime desde,
+                                                         LocalDateTime hasta) throws TimeoutException {
+        // submit y no CompletableFuture.supplyAsync: cancel(true) de un CompletableFuture no
+        // interrumpe la tarea, el de la FutureTask del pool sí
+        Map<Long, Future<List<LecturaCompacta>>> consultas = new LinkedHashMap<>();
+        for (Long dispositivoId : new LinkedHashSet<>(dispositivoIds)) {
+            Supplier<List<LecturaCompacta>> consulta = trazador.enContexto(
+                    () -> almacenamiento.buscarLecturasCompactasEntre(dispositivoId, desde, hasta));
+            consultas.put(dispositivoId, ejecutor.submit(consulta::get));
+        }
+        long plazo = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        Map<Long, List<LecturaCompacta>> resultado = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<Long, Future<List<LecturaCompacta>>> consulta : consultas.entrySet()) {
+                resultado.put(consulta.getKey(),
+                        consulta.getValue().get(plazo - System.nanoTime(), TimeUnit.NANOSECONDS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelar(consultas.values());
+            throw new IllegalStateException("Consulta de lecturas interrumpida", e);
+        } catch (TimeoutException e) {
+            cancelar(consultas.values());
+            throw e;
+        } catch (ExecutionException e) {
+            cancelar(consultas.values());
+            throw e.getCause() instanceof RuntimeException causa ? causa : new IllegalStateException(e.getCause());
+        }
+        return resultado;
+    }
+
+    private static void cancelar(Collection<Future<List<LecturaCompacta>>> consultas) {
+        consultas.forEach(consulta -> consulta.cancel(true));
+    }
+}
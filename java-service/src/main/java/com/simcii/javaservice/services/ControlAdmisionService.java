@@ -0,0 +1,237 @@
+package com.simcii.javaservice.services;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simcii.javaservice.admision.CuboTokens;
+import com.simcii.javaservice.admision.PermisoAdmision;
+import com.simcii.javaservice.admision.PropiedadesAdmision;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Control de admisión de los endpoints de ingesta: limita las peticiones en curso y aplica un
+ * cubo de tokens por cliente y otro por dispositivo. Lo que excede los límites se rechaza al
+ * entrar, antes de tocar el almacenamiento, para que una avalancha de un gateway no agote el
+ * pool de Tomcat ni las conexiones de Hikari que comparten las consultas del dashboard.
+ *
+ * @see PropiedadesAdmision
+ */
+@Service
+public class ControlAdmisionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ControlAdmisionService.class);
+
+    @Autowired
+    private PropiedadesAdmision propiedades;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, CuboTokens> cubosCliente = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, CuboTokens> cubosDispositivo = new ConcurrentHashMap<>();
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private final Map<String, Counter> rechazos = new HashMap<>();
+    private Counter admitidas;
+
+    // Direcciones o redes CIDR (10.0.0.0/8) de los proxies que fijan la cabecera de cliente y X-Real-IP.
+    // Fuera de PropiedadesAdmision: PUT /api/admision no debe poder ampliarla
+    @Value("${admision.proxies-confiables:}")
+    private List<String> proxiesConfiablesConfigurados;
+
+    private List<RedConfiable> proxiesConfiables;
+
+    @PostConstruct
+    public void inicializar() {
+        proxiesConfiables = proxiesConfiablesConfigurados.stream()
+                .filter(red -> !red.isBlank())
+                .map(RedConfiable::de)
+                .toList();
+        for (String motivo : new String[] {PermisoAdmision.MOTIVO_CONCURRENCIA,
+                PermisoAdmision.MOTIVO_CLIENTE, PermisoAdmision.MOTIVO_DISPOSITIVO}) {
+            rechazos.put(motivo, Counter.builder("simcii.admision.rechazadas")
+                    .description("Peticiones de ingesta rechazadas con 429")
+                    .tag("motivo", motivo)
+                    .register(meterRegistry));
+        }
+        admitidas = Counter.builder("simcii.admision.admitidas")
+                .description("Peticiones de ingesta admitidas")
+                .register(meterRegistry);
+        Gauge.builder("simcii.admision.en_curso", enCurso, AtomicInteger::get)
+                .description("Peticiones de ingesta en curso")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Decide si se admite una lectura. El permiso concedido debe cerrarse al terminar la petición.
+     *
+     * @param cliente Identificador del cliente (ver {@link #identificarCliente(HttpServletRequest)})
+     * @param dispositivoId Dispositivo de la lectura
+     * @return PermisoAdmision concedido o rechazado con el tiempo de espera sugerido
+     */
+    public PermisoAdmision admitir(String cliente, Long dispositivoId) {
+        if (!propiedades.isHabilitada()) {
+            return PermisoAdmision.sinControl();
+        }
+        if (enCurso.incrementAndGet() > propiedades.getMaxEnCurso()) {
+            enCurso.decrementAndGet();
+            return rechazar(PermisoAdmision.MOTIVO_CONCURRENCIA, 1_000_000_000L);
+        }
+
+        long ahora = System.nanoTime();
+        CuboTokens cuboCliente = cubo(cubosCliente, cliente, propiedades.getRafagaCliente(), ahora);
+        long espera = cuboCliente.consumir(propiedades.getTasaCliente(), propiedades.getRafagaCliente(), ahora);
+        if (espera > 0) {
+            enCurso.decrementAndGet();
+            return rechazar(PermisoAdmision.MOTIVO_CLIENTE, espera);
+        }
+        CuboTokens cuboDispositivo = cubo(cubosDispositivo, dispositivoId, propiedades.getRafagaDispositivo(), ahora);
+        espera = cuboDispositivo.consumir(propiedades.getTasaDispositivo(), propiedades.getRafagaDispositivo(), ahora);
+        if (espera > 0) {
+            // El dispositivo saturado no consume el cupo del resto de dispositivos del cliente
+            cuboCliente.devolver(propiedades.getRafagaCliente());
+            enCurso.decrementAndGet();
+            return rechazar(PermisoAdmision.MOTIVO_DISPOSITIVO, espera);
+        }
+        admitidas.increment();
+        return PermisoAdmision.concedido(enCurso);
+    }
+
+    private static <K> CuboTokens cubo(ConcurrentHashMap<K, CuboTokens> cubos, K clave, double capacidad, long ahora) {
+        CuboTokens cubo = cubos.get(clave);
+        return cubo != null ? cubo : cubos.computeIfAbsent(clave, k -> new CuboTokens(capacidad, ahora));
+    }
+
+    private PermisoAdmision rechazar(String motivo, long esperaNanos) {
+        rechazos.get(motivo).increment();
+        return PermisoAdmision.rechazado(motivo, esperaNanos);
+    }
+
+    /**
+     * Cliente de una petición: la cabecera configurada, X-Real-IP (nginx) o la dirección remota.
+     * Las cabeceras solo se aceptan si la petición llega desde uno de admision.proxies-confiables;
+     * de cualquier otro origen bastaría con cambiarlas en cada petición para esquivar el límite.
+     */
+    public String identificarCliente(HttpServletRequest request) {
+        String remota = request.getRemoteAddr();
+        if (!desdeProxyConfiable(remota)) {
+            return remota;
+        }
+        String cliente = request.getHeader(propiedades.getCabeceraCliente());
+        if (cliente == null || cliente.isBlank()) {
+            cliente = request.getHeader("X-Real-IP");
+        }
+        return cliente == null || cliente.isBlank() ? remota : cliente;
+    }
+
+    private boolean desdeProxyConfiable(String direccion) {
+        if (proxiesConfiables.isEmpty()) {
+            return false;
+        }
+        byte[] bytes;
+        try {
+            // La dirección remota es siempre numérica: no se resuelve DNS
+            bytes = InetAddress.getByName(direccion).getAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+        for (RedConfiable red : proxiesConfiables) {
+            if (red.contiene(bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Descarta los cubos llenos: equivalen a uno nuevo y así los mapas no crecen con clientes
+     * o dispositivos que ya no envían lecturas.
+     */
+    @Scheduled(fixedDelayString = "${admision.limpieza-ms:60000}")
+    public void descartarCubosLlenos() {
+        long ahora = System.nanoTime();
+        cubosCliente.values().removeIf(c -> c.lleno(propiedades.getTasaCliente(), propiedades.getRafagaCliente(), ahora));
+        cubosDispositivo.values().removeIf(c -> c.lleno(propiedades.getTasaDispositivo(), propiedades.getRafagaDispositivo(), ahora));
+    }
+
+    public PropiedadesAdmision obtenerLimites() {
+        return propiedades.copia();
+    }
+
+    /**
+     * Aplica en caliente los límites indicados; los campos omitidos conservan su valor.
+     *
+     * @throws IllegalArgumentException si algún valor no es válido
+     */
+    public PropiedadesAdmision actualizarLimites(Map<String, Object> cambios) {
+        PropiedadesAdmision nuevas = propiedades.copia();
+        try {
+            objectMapper.updateValue(nuevas, cambios);
+        } catch (JsonMappingException e) {
+            throw new IllegalArgumentException("Límites de admisión no válidos: " + e.getOriginalMessage());
+        }
+        if (nuevas.getMaxEnCurso() < 1 || nuevas.getTasaCliente() < 0 || nuevas.getTasaDispositivo() < 0
+                || nuevas.getRafagaCliente() < 1 || nuevas.getRafagaDispositivo() < 1) {
+            throw new IllegalArgumentException("maxEnCurso y las ráfagas deben ser al menos 1 y las tasas no negativas");
+        }
+        propiedades.aplicar(nuevas);
+        logger.info("Límites de admisión actualizados: en curso {}, cliente {}/s (ráfaga {}), dispositivo {}/s (ráfaga {})",
+                nuevas.getMaxEnCurso(), nuevas.getTasaCliente(), nuevas.getRafagaCliente(),
+                nuevas.getTasaDispositivo(), nuevas.getRafagaDispositivo());
+        return nuevas;
+    }
+
+    record RedConfiable(byte[] red, int prefijo) {
+
+        static RedConfiable de(String valor) {
+            String[] partes = valor.trim().split("/", 2);
+            try {
+                byte[] red = InetAddress.getByName(partes[0]).getAddress();
+                int prefijo = partes.length > 1 ? Integer.parseInt(partes[1]) : red.length * 8;
+                if (prefijo < 0 || prefijo > red.length * 8) {
+                    throw new IllegalArgumentException("Prefijo fuera de rango en admision.proxies-confiables: " + valor);
+                }
+                return new RedConfiable(red, prefijo);
+            } catch (UnknownHostException | NumberFormatException e) {
+                throw new IllegalArgumentException("Proxy no válido en admision.proxies-confiables: " + valor, e);
+            }
+        }
+
+        boolean contiene(byte[] direccion) {
+            if (direccion.length != red.length) {
+                return false;
+            }
+            int completos = prefijo / 8;
+            for (int i = 0; i < completos; i++) {
+                if (direccion[i] != red[i]) {
+                    return false;
+                }
+            }
+            int resto = prefijo % 8;
+            if (resto == 0) {
+                return true;
+            }
+            int mascara = 0xFF << (8 - resto) & 0xFF;
+            return (direccion[completos] & mascara) == (red[completos] & mascara);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,222 @@
+package com.simcii.javaservice.services;
+
+import com.simcii.javaservice.repositories.InstanciaServicioRepository;
+import com.simcii.javaservice.repositories.LeaseParticionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Coordina qué particiones de sensores procesa cada réplica de java-service.
+ * Cada instancia publica un latido en base de datos; con las instancias vivas se construye
+ * un anillo de hash consistente que decide el propietario deseado de cada partición, y la
+ * propiedad efectiva se materializa con leases con expiración en la tabla leases_particion.
+ * Una partición solo cambia de manos cuando su propietario la libera o deja de renovarla,
+ * por lo que nunca hay dos instancias escribiendo lecturas del mismo sensor.
+ *
+ * Los latidos tienen su propio hilo, para que ninguna tarea @Scheduled los retrase más allá del
+ * margen de renovación. La expiración de los leases se calcula con el reloj de la base de datos; la
+ * validez local, con un reloj monótono medido antes de renovar, así que el desfase entre relojes
+ * de las réplicas no puede dar dos propietarios.
+ *
+ * Con sharding deshabilitado (por defecto) la instancia es propietaria de todas las particiones.
+ * El perfil "memoria" no configura la base de datos, así que no admite sharding.
+ *
+ * @see AnilloHashConsistente
+ * @see ParticionadorSensores
+ */
+@Service
+public class CoordinadorParticiones {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoordinadorParticiones.class);
+
+    // Ausentes con el perfil "memoria", que no configura la base de datos
+    @Autowired(required = false)
+    private InstanciaServicioRepository instanciaRepository;
+
+    @Autowired(required = false)
+    private LeaseParticionRepository leaseRepository;
+
+    @Autowired
+    private ParticionadorSensores particionadorSensores;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${sharding.habilitado:false}")
+    private boolean habilitado;
+
+    @Value("${sharding.instancia-id:}")
+    private String instanciaId;
+
+    @Value("${sharding.latido-ms:5000}")
+    private long latidoMs;
+
+    @Value("${sharding.ttl-ms:15000}")
+    private long ttlMs;
+
+    @Value("${sharding.nodos-virtuales:64}")
+    private int nodosVirtuales;
+
+    // Origen del reloj monótono local: los instantes se miden en ms desde aquí (+1, nunca 0)
+    private static final long ORIGEN_NANOS = System.nanoTime();
+
+    // Validez local (reloj monótono, ver relojMs) de cada lease propio; 0 = no propio
+    private volatile long[] expiraciones = new long[0];
+
+    private boolean leasesCreados = false;
+
+    private ThreadPoolTaskScheduler scheduler;
+
+    @PostConstruct
+    public void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        if (instanciaRepository == null || leaseRepository == null) {
+            throw new IllegalStateException("sharding.habilitado requiere la base de datos de leases, "
+                    + "que no se configura con el perfil memoria");
+        }
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("sharding-latido-");
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::latido, Duration.ofMillis(latidoMs));
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public String getInstanciaId() {
+        if (instanciaId == null || instanciaId.isBlank()) {
+            instanciaId = UUID.randomUUID().toString();
+        }
+        return instanciaId;
+    }
+
+    /**
+     * Indica si esta instancia puede procesar una partición.
+     * Se considera propia mientras no pase la validez local del lease (reloj monótono).
+     *
+     * @param particion Índice de la partición
+     * @return boolean true si la partición pertenece a esta instancia
+     */
+    public boolean esPropietario(int particion) {
+        if (!habilitado) {
+            return true;
+        }
+        long[] actuales = expiraciones;
+        return particion < actuales.length && actuales[particion] > relojMs();
+    }
+
+    /**
+     * Obtiene las particiones que esta instancia tiene asignadas actualmente.
+     *
+     * @return Set<Integer> con los índices de partición propios
+     */
+    public Set<Integer> particionesPropias() {
+        Set<Integer> propias = new HashSet<>();
+        for (int p = 0; p < particionadorSensores.getParticiones(); p++) {
+            if (esPropietario(p)) {
+                propias.add(p);
+            }
+        }
+        return propias;
+    }
+
+    /**
+     * Publica el latido de la instancia y reequilibra los leases.
+     * El periodo (sharding.latido-ms) debe ser claramente inferior al TTL para renovar a tiempo.
+     */
+    void latido() {
+        try {
+            int particiones = particionadorSensores.getParticiones();
+            // Medido antes de renovar: la base de datos fija la expiración después de este instante
+            long inicio = relojMs();
+            instanciaRepository.registrarLatido(getInstanciaId());
+
+            if (!leasesCreados) {
+                for (int p = 0; p < particiones; p++) {
+                    leaseRepository.crearSiNoExiste(p);
+                }
+                leasesCreados = true;
+            }
+
+            List<String> vivas = instanciaRepository.findIdsVivas(ttlMs);
+            AnilloHashConsistente anillo = new AnilloHashConsistente(vivas, nodosVirtuales);
+
+            Set<Integer> anteriores = particionesPropias();
+            long[] nuevas = new long[particiones];
+            // Margen de seguridad: se deja de procesar antes de que otra instancia pueda tomar el lease
+            long validoHasta = inicio + ttlMs * 2 / 3;
+
+            for (int p = 0; p < particiones; p++) {
+                boolean deseada = getInstanciaId().equals(anillo.propietario("particion-" + p));
+                if (deseada) {
+                    if (leaseRepository.adquirir(p, getInstanciaId(), ttlMs) > 0) {
+                        nuevas[p] = validoHasta;
+                    }
+                } else if (anteriores.contains(p)) {
+                    leaseRepository.liberar(p, getInstanciaId());
+                }
+            }
+            expiraciones = nuevas;
+
+            Set<Integer> actuales = particionesPropias();
+            if (!actuales.equals(anteriores)) {
+                logger.info("Instancia {} ({} vivas) posee {} de {} particiones",
+                        getInstanciaId(), vivas.size(), actuales.size(), particiones);
+            }
+            Set<Integer> adquiridas = new HashSet<>(actuales);
+            adquiridas.removeAll(anteriores);
+            if (!adquiridas.isEmpty()) {
+                eventPublisher.publishEvent(new ParticionesAsignadasEvent(adquiridas));
+            }
+
+            instanciaRepository.eliminarInactivas(ttlMs * 4);
+
+        } catch (Exception e) {
+            // Sin acceso a la base de datos los leases caducan solos al no renovarse
+            logger.error("Error en el latido de sharding: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Libera los leases propios al apagar la instancia para acelerar el reequilibrio.
+     */
+    @PreDestroy
+    public void liberarTodo() {
+        if (!habilitado) {
+            return;
+        }
+        // Sin latidos en curso que vuelvan a adquirir lo que se libera
+        scheduler.shutdown();
+        try {
+            for (Integer p : particionesPropias()) {
+                leaseRepository.liberar(p, getInstanciaId());
+            }
+            instanciaRepository.deleteById(getInstanciaId());
+        } catch (Exception e) {
+            logger.warn("No se pudieron liberar los leases al detener: {}", e.getMessage());
+        } finally {
+            expiraciones = new long[0];
+        }
+    }
+
+    private static long relojMs() {
+        return (System.nanoTime() - ORIGEN_NANOS) / 1_000_000 + 1;
+    }
+}
@@ -0,0 +1,108 @@
+package com.simcii.javaservice.services;
+
+import com.simcii.javaservice.ingesta.VentanaDeduplicacion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deduplicación de lecturas recibidas por número de secuencia del gateway.
+ * Cada sensor activo que envía secuencias tiene su {@link VentanaDeduplicacion}; los reintentos
+ * dentro de la ventana se descartan sin guardar nada, y los de una lectura cuyo guardado aún no
+ * ha terminado se rechazan para que se repitan más tarde. Las secuencias anteriores a la ventana
+ * (o todas tras un reinicio) se guardan y las rechaza el índice único
+ * ux_lecturas_dispositivo_secuencia.
+ *
+ * @see LecturaService#registrarLecturaRecibida(com.simcii.javaservice.dto.LecturaRequest)
+ */
+@Service
+public class DeduplicacionLecturasService {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ingesta.deduplicacion.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${ingesta.deduplicacion.ventana:1024}")
+    private int tamanoVentana;
+
+    private final ConcurrentHashMap<Long, VentanaDeduplicacion> ventanas = new ConcurrentHashMap<>();
+    private Counter duplicadasVentana;
+    private Counter duplicadasIndice;
+
+    @PostConstruct
+    public void inicializar() {
+        // Valida el tamaño al arrancar en lugar de en la primera lectura
+        new VentanaDeduplicacion(tamanoVentana);
+        duplicadasVentana = Counter.builder("simcii.ingesta.duplicadas")
+                .description("Lecturas recibidas descartadas por duplicadas")
+                .tag("origen", "ventana")
+                .register(meterRegistry);
+        duplicadasIndice = Counter.builder("simcii.ingesta.duplicadas")
+                .description("Lecturas recibidas descartadas por duplicadas")
+                .tag("origen", "indice")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Comprueba la secuencia de una lectura recibida y, si es nueva, la marca como en curso.
+     * Solo debe llamarse para sensores activos ya comprobados: crea la ventana del dispositivo.
+     * Termina con {@link #confirmar(Long, long)} o {@link #olvidar(Long, long)}.
+     *
+     * @return int {@link VentanaDeduplicacion#NUEVA}, {@code DUPLICADA}, {@code EN_CURSO} o {@code FUERA_DE_VENTANA}
+     */
+    public int registrar(Long dispositivoId, long secuencia) {
+        if (!habilitada) {
+            return VentanaDeduplicacion.FUERA_DE_VENTANA;
+        }
+        VentanaDeduplicacion ventana = ventanas.get(dispositivoId);
+        if (ventana == null) {
+            ventana = ventanas.computeIfAbsent(dispositivoId, id -> new VentanaDeduplicacion(tamanoVentana));
+        }
+        int resultado = ventana.registrar(secuencia);
+        if (resultado == VentanaDeduplicacion.DUPLICADA) {
+            duplicadasVentana.increment();
+        }
+        return resultado;
+    }
+
+    /**
+     * Marca como vista una secuencia cuya lectura ya está guardada.
+     */
+    public void confirmar(Long dispositivoId, long secuencia) {
+        VentanaDeduplicacion ventana = ventanas.get(dispositivoId);
+        if (ventana != null) {
+            ventana.confirmar(secuencia);
+        }
+    }
+
+    /**
+     * Deshace el marcado de una secuencia cuya lectura no se guardó.
+     */
+    public void olvidar(Long dispositivoId, long secuencia) {
+        VentanaDeduplicacion ventana = ventanas.get(dispositivoId);
+        if (ventana != null) {
+            ventana.olvidar(secuencia);
+        }
+    }
+
+    /**
+     * Cuenta un duplicado detectado por el índice único.
+     */
+    public void registrarDuplicadaPorIndice() {
+        duplicadasIndice.increment();
+    }
+
+    /**
+     * Elimina la ventana de un dispositivo borrado.
+     */
+    public void descartar(Long dispositivoId) {
+        ventanas.remove(dispositivoId);
+    }
+}
@@ -0,0 +1,111 @@
+package com.simcii.javaservice.services;
+
+import com.simcii.javaservice.estadisticas.DetectorAnomalias;
+import com.simcii.javaservice.estadisticas.DetectorAnomalias.TipoAnomalia;
+import com.simcii.javaservice.models.Dispositivo;
+import com.simcii.javaservice.models.Lectura;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio de detección de anomalías en línea sobre las lecturas registradas.
+ * Cada dispositivo tiene su {@link DetectorAnomalias} (EWMA + z-score para saltos y CUSUM para
+ * derivas) que se evalúa al registrar la lectura; las detecciones generan una alerta por el
+ * mismo flujo que las violaciones de umbral. Evaluar una lectura normal no reserva memoria.
+ *
+ * @see AlertaService#generarAlertaAnomalia(Dispositivo, Double, String)
+ */
+@Service
+public class DeteccionAnomaliasService {
+
+    @Autowired
+    private AlertaService alertaService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${anomalias.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${anomalias.alfa:0.01}")
+    private double alfa;
+
+    @Value("${anomalias.umbral-salto:4.0}")
+    private double umbralSalto;
+
+    @Value("${anomalias.holgura-deriva:0.5}")
+    private double holguraDeriva;
+
+    @Value("${anomalias.umbral-deriva:10.0}")
+    private double umbralDeriva;
+
+    @Value("${anomalias.calentamiento:30}")
+    private int calentamiento;
+
+    @Value("${anomalias.silencio-ms:300000}")
+    private long silencioMs;
+
+    private final ConcurrentHashMap<Long, DetectorAnomalias> detectores = new ConcurrentHashMap<>();
+    private final Map<TipoAnomalia, Counter> detecciones = new EnumMap<>(TipoAnomalia.class);
+    private DetectorAnomalias.Parametros parametros;
+
+    @PostConstruct
+    public void inicializar() {
+        parametros = new DetectorAnomalias.Parametros(alfa, umbralSalto, holguraDeriva, umbralDeriva,
+                calentamiento, silencioMs);
+        for (TipoAnomalia tipo : TipoAnomalia.values()) {
+            detecciones.put(tipo, Counter.builder("simcii.anomalias.detectadas")
+                    .description("Anomalías detectadas en las lecturas")
+                    .tag("tipo", tipo.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Evalúa una lectura registrada y genera una alerta si es anómala.
+     *
+     * @param lectura Lectura ya guardada
+     */
+    public void evaluar(Lectura lectura) {
+        Dispositivo dispositivo = lectura.getDispositivo();
+        if (!habilitada || lectura.getValor() == null || dispositivo == null || dispositivo.getId() == null) {
+            return;
+        }
+        // get antes de computeIfAbsent: evita crear la lambda en el caso habitual
+        DetectorAnomalias detector = detectores.get(dispositivo.getId());
+        if (detector == null) {
+            detector = detectores.computeIfAbsent(dispositivo.getId(), id -> new DetectorAnomalias(parametros));
+        }
+
+        double valor = lectura.getValor();
+        TipoAnomalia anomalia;
+        double puntuacion;
+        double referencia;
+        synchronized (detector) {
+            anomalia = detector.evaluar(valor, System.currentTimeMillis());
+            puntuacion = detector.getUltimaPuntuacion();
+            referencia = detector.getUltimaReferencia();
+        }
+        if (anomalia != null) {
+            detecciones.get(anomalia).increment();
+            alertaService.generarAlertaAnomalia(dispositivo, valor, String.format(
+                    "Anomalía (%s): valor %.2f a %.1f desviaciones de la media móvil %.2f",
+                    anomalia, valor, puntuacion, referencia));
+        }
+    }
+
+    /**
+     * Elimina el detector de un dispositivo borrado.
+     */
+    public void descartar(Long dispositivoId) {
+        detectores.remove(dispositivoId);
+    }
+}
@@ -1,25 +1,61 @@
 package com.simcii.javaservice.services;
 
 import com.simcii.javaservice.models.*;
+import com.simcii.javaservice.persistencia.EstadoMemoria;
+import com.simcii.javaservice.persistencia.PersistenciaMemoria;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import jakarta.annotation.PostConstruct;  // Cambiado de javax.annotation
+import jakarta.annotation.PreDestroy;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @Service
+@Profile("memoria")
 public class DispositivoMemoryService {
     
+    private static final Logger logger = LoggerFactory.getLogger(DispositivoMemoryService.class);
+    
     private final Map<Long, Dispositivo> dispositivos = new ConcurrentHashMap<>();
     private final Map<Long, List<Lectura>> lecturas = new ConcurrentHashMap<>();
     private final Map<Long, List<Alerta>> alertas = new ConcurrentHashMap<>();
     private final Map<Long, Umbral> umbrales = new ConcurrentHashMap<>();
     
-    private Long nextId = 1L;
+    private final AtomicLong nextId = new AtomicLong(1L);
+    
+    // Las mutaciones toman el bloqueo de lectura; el snapshot toma el de escritura
+    // solo mientras copia los mapas y rota el WAL
+    private final ReentrantReadWriteLock bloqueoSnapshot = new ReentrantReadWriteLock();
+    
+    @Autowired
+    private PersistenciaMemoria persistencia;
     
     @PostConstruct
     public void inicializarDispositivos() {
-        System.out.println("🎯 INICIALIZANDO DISPOSITIVOS EN MEMORIA...");
+        if (persistencia.isHabilitada()) {
+            try {
+                EstadoMemoria estado = persistencia.recuperar();
+                if (!estado.isVacio()) {
+                    cargarEstado(estado);
+                    logger.info("{} dispositivos recuperados desde disco", dispositivos.size());
+                    return;
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("No se pudo recuperar el estado en memoria", e);
+            }
+        }
+        
+        logger.info("Inicializando dispositivos en memoria");
         
         List<String> zonas = Arrays.asList("A", "B", "C");
         
@@ -35,13 +71,63 @@ public class DispositivoMemoryService {
             crearActuadorIluminacion(zona);
         }
         
-        System.out.println("✅ " + dispositivos.size() + " dispositivos inicializados en memoria");
+        logger.info("{} dispositivos inicializados en memoria", dispositivos.size());
         listarDispositivos();
+        
+        if (persistencia.isHabilitada()) {
+            guardarSnapshot();
+        }
+    }
+    
+    private void cargarEstado(EstadoMemoria estado) {
+        dispositivos.putAll(estado.getDispositivos());
+        lecturas.putAll(estado.getLecturas());
+        alertas.putAll(estado.getAlertas());
+        umbrales.putAll(estado.getUmbrales());
+        nextId.set(estado.getSiguienteId());
+    }
+    
+    /**
+     * Guarda periódicamente un snapshot de los mapas y descarta el WAL ya cubierto.
+     * La copia se hace con las escrituras bloqueadas; la serialización, fuera del bloqueo.
+     */
+    @Scheduled(fixedDelayString = "${memoria.persistencia.snapshot-intervalo-ms:60000}",
+               initialDelayString = "${memoria.persistencia.snapshot-intervalo-ms:60000}")
+    public void guardarSnapshot() {
+        if (!persistencia.isHabilitada()) {
+            return;
+        }
+        
+        EstadoMemoria copia = new EstadoMemoria();
+        long segmentoWal;
+        bloqueoSnapshot.writeLock().lock();
+        try {
+            copia.getDispositivos().putAll(dispositivos);
+            copia.getUmbrales().putAll(umbrales);
+            lecturas.forEach((id, lista) -> copia.getLecturas().put(id, new ArrayList<>(lista)));
+            alertas.forEach((id, lista) -> copia.getAlertas().put(id, new ArrayList<>(lista)));
+            copia.setSiguienteId(nextId.get());
+            segmentoWal = persistencia.rotarWal();
+        } finally {
+            bloqueoSnapshot.writeLock().unlock();
+        }
+        
+        try {
+            persistencia.guardarSnapshot(copia, segmentoWal);
+        } catch (IOException e) {
+            // El WAL sigue intacto; el siguiente snapshot lo volverá a intentar
+            logger.error("Error guardando snapshot en memoria: {}", e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void detener() {
+        guardarSnapshot();
     }
     
     private void crearSensorTemperatura(String zona) {
         SensorTemperatura sensor = new SensorTemperatura();
-        sensor.setId(nextId++);
+        sensor.setId(nextId.getAndIncrement());
         sensor.setNombre("Temperatura Zona " + zona);
         sensor.setDescripcion("Sensor de temperatura para zona " + zona);
         sensor.setUbicacion("Zona " + zona);
@@ -56,7 +142,7 @@ public class DispositivoMemoryService {
         
         // Crear umbral por defecto
         Umbral umbral = new Umbral();
-        umbral.setId(nextId++);
+        umbral.setId(nextId.getAndIncrement());
         umbral.setDispositivo(sensor);
         umbral.setValorMin(18.0);
         umbral.setValorMax(28.0);
@@ -68,7 +154,7 @@ public class DispositivoMemoryService {
     
     private void crearSensorHumedad(String zona) {
         SensorHumedad sensor = new SensorHumedad();
-        sensor.setId(nextId++);
+        sensor.setId(nextId.getAndIncrement());
         sensor.setNombre("Humedad Zona " + zona);
         sensor.setDescripcion("Sensor de humedad para zona " + zona);
         sensor.setUbicacion("Zona " + zona);
@@ -81,7 +167,7 @@ public class DispositivoMemoryService {
         
         // Crear umbral por defecto
         Umbral umbral = new Umbral();
-        umbral.setId(nextId++);
+        umbral.setId(nextId.getAndIncrement());
         umbral.setDispositivo(sensor);
         umbral.setValorMin(40.0);
         umbral.setValorMax(70.0);
@@ -93,7 +179,7 @@ public class DispositivoMemoryService {
     
     private void crearSensorLuz(String zona) {
         SensorLuz sensor = new SensorLuz();
-        sensor.setId(nextId++);
+        sensor.setId(nextId.getAndIncrement());
         sensor.setNombre("Luz Zona " + zona);
         sensor.setDescripcion("Sensor de luz para zona " + zona);
         sensor.setUbicacion("Zona " + zona);
@@ -107,7 +193,7 @@ public class DispositivoMemoryService {
         
         // Crear umbral por defecto
         Umbral umbral = new Umbral();
-        umbral.setId(nextId++);
+        umbral.setId(nextId.getAndIncrement());
         umbral.setDispositivo(sensor);
         umbral.setValorMin(200.0);
         umbral.setValorMax(800.0);
@@ -119,7 +205,7 @@ public class DispositivoMemoryService {
     
     private void crearActuadorRiego(String zona) {
         Actuador actuador = new Actuador();
-        actuador.setId(nextId++);
+        actuador.setId(nextId.getAndIncrement());
         actuador.setNombre("Riego Zona " + zona);
         actuador.setDescripcion("Sistema de riego para zona " + zona);
         actuador.setUbicacion("Zona " + zona);
@@ -133,7 +219,7 @@ public class DispositivoMemoryService {
     
     private void crearActuadorVentilacion(String zona) {
         Actuador actuador = new Actuador();
-        actuador.setId(nextId++);
+        actuador.setId(nextId.getAndIncrement());
         actuador.setNombre("Ventilación Zona " + zona);
         actuador.setDescripcion("Sistema de ventilación para zona " + zona);
         actuador.setUbicacion("Zona " + zona);
@@ -147,7 +233,7 @@ public class DispositivoMemoryService {
     
     private void crearActuadorIluminacion(String zona) {
         Actuador actuador = new Actuador();
-        actuador.setId(nextId++);
+        actuador.setId(nextId.getAndIncrement());
         actuador.setNombre("Iluminación Zona " + zona);
         actuador.setDescripcion("Sistema de iluminación para zona " + zona);
         actuador.setUbicacion("Zona " + zona);
@@ -167,12 +253,82 @@ public class DispositivoMemoryService {
         return Optional.ofNullable(dispositivos.get(id));
     }
     
+    // Cada escritura va primero al WAL y solo modifica los mapas si el registro se escribió: un fallo
+    // de disco deja el estado como estaba (y el ID asignado, si era nuevo, se devuelve a null)
+    public Dispositivo guardarDispositivo(Dispositivo dispositivo) {
+        bloqueoSnapshot.readLock().lock();
+        try {
+            boolean nuevo = dispositivo.getId() == null;
+            if (nuevo) {
+                dispositivo.setId(nextId.getAndIncrement());
+            }
+            try {
+                persistencia.registrarDispositivo(dispositivo);
+            } catch (RuntimeException e) {
+                if (nuevo) {
+                    dispositivo.setId(null);
+                }
+                throw e;
+            }
+            dispositivos.put(dispositivo.getId(), dispositivo);
+            return dispositivo;
+        } finally {
+            bloqueoSnapshot.readLock().unlock();
+        }
+    }
+    
+    public void eliminarDispositivo(Long id) {
+        bloqueoSnapshot.readLock().lock();
+        try {
+            persistencia.registrarEliminacion(id);
+            dispositivos.remove(id);
+            lecturas.remove(id);
+            alertas.remove(id);
+            umbrales.remove(id);
+        } finally {
+            bloqueoSnapshot.readLock().unlock();
+        }
+    }
+    
+    // Las listas se modifican bajo su propio monitor; los lectores reciben una copia
     public List<Lectura> obtenerLecturasPorDispositivo(Long dispositivoId) {
-        return lecturas.getOrDefault(dispositivoId, new ArrayList<>());
+        List<Lectura> lista = lecturas.get(dispositivoId);
+        if (lista == null) {
+            return new ArrayList<>();
+        }
+        synchronized (lista) {
+            return new ArrayList<>(lista);
+        }
+    }
+    
+    // El WAL guarda los parámetros del borrado, no las lecturas borradas: al reproducirlo sobre la
+    // misma lista elimina las mismas. El límite se trunca a microsegundos, la precisión con la que
+    // el WAL guarda las fechas, y el registro se escribe dentro del monitor de la lista, antes de
+    // borrar y solo si hay algo que borrar, para que quede ordenado respecto a las lecturas que se añaden
+    public int eliminarLecturasAnteriores(Long dispositivoId, LocalDateTime limite, int maximo) {
+        List<Lectura> lista = lecturas.get(dispositivoId);
+        if (lista == null) {
+            return 0;
+        }
+        LocalDateTime limiteWal = limite.truncatedTo(ChronoUnit.MICROS);
+        bloqueoSnapshot.readLock().lock();
+        try {
+            synchronized (lista) {
+                boolean hayAnteriores = lista.stream()
+                        .anyMatch(l -> l.getFechaHora() != null && l.getFechaHora().isBefore(limiteWal));
+                if (maximo <= 0 || !hayAnteriores) {
+                    return 0;
+                }
+                persistencia.registrarPurga(dispositivoId, limiteWal, maximo);
+                return PersistenciaMemoria.purgarLecturas(lista, limiteWal, maximo);
+            }
+        } finally {
+            bloqueoSnapshot.readLock().unlock();
+        }
     }
     
     public List<Lectura> obtenerUltimasLecturas(Long dispositivoId, int cantidad) {
-        List<Lectura> lecturasDispositivo = lecturas.getOrDefault(dispositivoId, new ArrayList<>());
+        List<Lectura> lecturasDispositivo = obtenerLecturasPorDispositivo(dispositivoId);
         return lecturasDispositivo.stream()
                 .sorted((l1, l2) -> l2.getFechaHora().compareTo(l1.getFechaHora()))
                 .limit(cantidad)
@@ -181,36 +337,151 @@ public class DispositivoMemoryService {
     
     public void agregarLectura(Lectura lectura) {
         Long dispositivoId = lectura.getDispositivo().getId();
-        lecturas.computeIfAbsent(dispositivoId, k -> new ArrayList<>()).add(lectura);
+        bloqueoSnapshot.readLock().lock();
+        try {
+            boolean nueva = lectura.getId() == null;
+            if (nueva) {
+                lectura.setId(nextId.getAndIncrement());
+            }
+            List<Lectura> lista = lecturas.computeIfAbsent(dispositivoId, k -> new ArrayList<>());
+            synchronized (lista) {
+                try {
+                    persistencia.registrarLectura(lectura);
+                } catch (RuntimeException e) {
+                    if (nueva) {
+                        lectura.setId(null);
+                    }
+                    throw e;
+                }
+                lista.add(lectura);
+            }
+        } finally {
+            bloqueoSnapshot.readLock().unlock();
+        }
     }
     
     public List<Alerta> obtenerAlertasActivas() {
-        return alertas.values().stream()
-                .flatMap(List::stream)
-                .filter(Alerta::getActiva)
-                .toList();
+        List<Alerta> activas = new ArrayList<>();
+        for (List<Alerta> lista : alertas.values()) {
+            synchronized (lista) {
+                lista.stream().filter(Alerta::getActiva).forEach(activas::add);
+            }
+        }
+        return activas;
     }
     
     public List<Alerta> obtenerAlertasPorDispositivo(Long dispositivoId) {
-        return alertas.getOrDefault(dispositivoId, new ArrayList<>()).stream()
-                .filter(Alerta::getActiva)
-                .toList();
+        List<Alerta> lista = alertas.get(dispositivoId);
+        if (lista == null) {
+            return new ArrayList<>();
+        }
+        synchronized (lista) {
+            return lista.stream()
+                    .filter(Alerta::getActiva)
+                    .toList();
+        }
     }
     
     public void agregarAlerta(Alerta alerta) {
         Long dispositivoId = alerta.getDispositivo().getId();
-        alertas.computeIfAbsent(dispositivoId, k -> new ArrayList<>()).add(alerta);
+        bloqueoSnapshot.readLock().lock();
+        try {
+            boolean nueva = alerta.getId() == null;
+            if (nueva) {
+                alerta.setId(nextId.getAndIncrement());
+            }
+            List<Alerta> lista = alertas.computeIfAbsent(dispositivoId, k -> new ArrayList<>());
+            synchronized (lista) {
+                try {
+                    persistencia.registrarAlerta(alerta);
+                } catch (RuntimeException e) {
+                    if (nueva) {
+                        alerta.setId(null);
+                    }
+                    throw e;
+                }
+                lista.add(alerta);
+            }
+        } finally {
+            bloqueoSnapshot.readLock().unlock();
+        }
     }
     
     public Optional<Umbral> obtenerUmbralPorDispositivo(Long dispositivoId) {
         return Optional.ofNullable(umbrales.get(dispositivoId));
     }
     
+    public Optional<Umbral> obtenerUmbralPorId(Long id) {
+        return umbrales.values().stream()
+                .filter(umbral -> id.equals(umbral.getId()))
+                .findFirst();
+    }
+    
+    // En memoria cada dispositivo tiene un único umbral: guardar sustituye al anterior
+    public Umbral guardarUmbral(Umbral umbral) {
+        Long dispositivoId = umbral.getDispositivo().getId();
+        bloqueoSnapshot.readLock().lock();
+        try {
+            boolean nuevo = umbral.getId() == null;
+            if (nuevo) {
+                umbral.setId(nextId.getAndIncrement());
+            }
+            try {
+                persistencia.registrarUmbral(dispositivoId, umbral);
+            } catch (RuntimeException e) {
+                if (nuevo) {
+                    umbral.setId(null);
+                }
+                throw e;
+            }
+            umbrales.put(dispositivoId, umbral);
+            return umbral;
+        } finally {
+            bloqueoSnapshot.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Alta de un lote de dispositivos nuevos con sus umbrales. El lote se valida completo antes de
+     * modificar nada, va al WAL en un único registro y se aplica bajo el bloqueo exclusivo, de modo
+     * que ninguna otra escritura ni snapshot se intercala. Si el WAL falla no se aplica nada. Las
+     * lecturas concurrentes, que no toman el bloqueo, sí pueden ver el lote a medio insertar.
+     *
+     * @throws IllegalArgumentException si algún dispositivo ya tiene ID o algún umbral no
+     *                                  referencia a un dispositivo del lote
+     */
+    public void provisionarLote(List<Dispositivo> nuevos, List<Umbral> nuevosUmbrales) {
+        Set<Dispositivo> delLote = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Dispositivo dispositivo : nuevos) {
+            if (dispositivo.getId() != null) {
+                throw new IllegalArgumentException("El lote solo admite dispositivos nuevos (ID " + dispositivo.getId() + ")");
+            }
+            delLote.add(dispositivo);
+        }
+        for (Umbral umbral : nuevosUmbrales) {
+            if (umbral.getId() != null || !delLote.contains(umbral.getDispositivo())) {
+                throw new IllegalArgumentException("Cada umbral del lote debe ser nuevo y referenciar un dispositivo del lote");
+            }
+        }
+        bloqueoSnapshot.writeLock().lock();
+        try {
+            nuevos.forEach(dispositivo -> dispositivo.setId(nextId.getAndIncrement()));
+            nuevosUmbrales.forEach(umbral -> umbral.setId(nextId.getAndIncrement()));
+            try {
+                persistencia.registrarLote(nuevos, nuevosUmbrales);
+            } catch (RuntimeException e) {
+                nuevos.forEach(dispositivo -> dispositivo.setId(null));
+                nuevosUmbrales.forEach(umbral -> umbral.setId(null));
+                throw e;
+            }
+            nuevos.forEach(dispositivo -> dispositivos.put(dispositivo.getId(), dispositivo));
+            nuevosUmbrales.forEach(umbral -> umbrales.put(umbral.getDispositivo().getId(), umbral));
+        } finally {
+            bloqueoSnapshot.writeLock().unlock();
+        }
+    }
+    
     private void listarDispositivos() {
-        System.out.println("\n📋 LISTA DE DISPOSITIVOS CREADOS:");
-        dispositivos.values().forEach(disp -> {
-            System.out.println(" - " + disp.getNombre() + " (ID: " + disp.getId() + ")");
-        });
-        System.out.println("🎯 Total: " + dispositivos.size() + " dispositivos\n");
+        dispositivos.values().forEach(disp -> logger.debug(" - {} (ID: {})", disp.getNombre(), disp.getId()));
     }
 }
\ No newline at end of file
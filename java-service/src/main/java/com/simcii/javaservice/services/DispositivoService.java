@@ -1,9 +1,10 @@
 package com.simcii.javaservice.services;
 
 import com.simcii.javaservice.models.Dispositivo;
-import com.simcii.javaservice.repositories.DispositivoRepository;
+import com.simcii.javaservice.almacenamiento.AlmacenamientoDispositivos;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,38 +20,75 @@ import java.util.Optional;
  * @since 2025
  * @Service
  * @see Dispositivo
- * @see DispositivoRepository
+ * @see AlmacenamientoDispositivos
  */
 @Service
 public class DispositivoService {
     
     /**
-     * Repositorio para acceso a datos de dispositivos.
+     * Backend de almacenamiento de dispositivos (JPA o memoria según el perfil).
      * Inyectado automáticamente por Spring Framework.
      */
     @Autowired
-    private DispositivoRepository dispositivoRepository;
+    private AlmacenamientoDispositivos almacenamiento;
+    
+    /**
+     * Servicio de estadísticas deslizantes.
+     * Utilizado para descartar el estado de los dispositivos eliminados.
+     */
+    @Autowired
+    private EstadisticasLecturasService estadisticasService;
+    
+    /**
+     * Servicio de detección de anomalías.
+     * Utilizado para descartar el detector de los dispositivos eliminados.
+     */
+    @Autowired
+    private DeteccionAnomaliasService deteccionAnomaliasService;
+    
+    /**
+     * Deduplicación de lecturas recibidas.
+     * Utilizado para descartar la ventana de secuencias de los dispositivos eliminados.
+     */
+    @Autowired
+    private DeduplicacionLecturasService deduplicacionService;
+    
+    /**
+     * Contadores de versión para GET condicionales.
+     * Utilizado para invalidar los ETag del catálogo en cada escritura.
+     */
+    @Autowired
+    private VersionesRecursosService versionesRecursos;
+    
+    /**
+     * Índice de búsqueda del catálogo.
+     * Utilizado para reflejar al momento las altas, modificaciones y bajas en los listados.
+     */
+    @Autowired
+    private BusquedaDispositivosService busquedaDispositivos;
     
     /**
      * Obtiene todos los dispositivos registrados en el sistema.
      * Incluye tanto sensores como actuadores de todas las zonas del invernadero.
      * 
      * @return List<Dispositivo> con todos los dispositivos disponibles
-     * @see DispositivoRepository#findAll()
+     * @see AlmacenamientoDispositivos#buscarDispositivos()
      */
+    @Transactional(readOnly = true)
     public List<Dispositivo> findAll() {
-        return dispositivoRepository.findAll();
+        return almacenamiento.buscarDispositivos();
     }
     
     /**
      * Busca un dispositivo específico por su identificador único.
+     * Se lee siempre de la primaria: el resultado suele modificarse y guardarse a continuación.
      * 
      * @param id Identificador único del dispositivo a buscar
      * @return Optional<Dispositivo> con el dispositivo encontrado o vacío si no existe
-     * @see DispositivoRepository#findById(Long)
+     * @see AlmacenamientoDispositivos#buscarDispositivo(Long)
      */
     public Optional<Dispositivo> findById(Long id) {
-        return dispositivoRepository.findById(id);
+        return almacenamiento.buscarDispositivo(id);
     }
     
     /**
@@ -60,11 +98,14 @@ public class DispositivoService {
      * @param dispositivo Dispositivo a guardar en el sistema
      * @return Dispositivo el dispositivo guardado con su ID asignado
      * @throws IllegalArgumentException si el dispositivo es nulo
-     * @see DispositivoRepository#save(Object)
+     * @see AlmacenamientoDispositivos#guardarDispositivo(Dispositivo)
      */
     public Dispositivo save(Dispositivo dispositivo) {
         dispositivo.setFechaCreacion(LocalDateTime.now());
-        return dispositivoRepository.save(dispositivo);
+        Dispositivo guardado = almacenamiento.guardarDispositivo(dispositivo);
+        versionesRecursos.catalogoModificado();
+        busquedaDispositivos.indexar(guardado);
+        return guardado;
     }
     
     /**
@@ -76,17 +117,20 @@ public class DispositivoService {
      * @param dispositivoDetails Objeto con los nuevos datos del dispositivo
      * @return Dispositivo el dispositivo actualizado
      * @throws RuntimeException si no se encuentra el dispositivo con el ID especificado
-     * @see DispositivoRepository#save(Object)
+     * @see AlmacenamientoDispositivos#guardarDispositivo(Dispositivo)
      */
     public Dispositivo update(Long id, Dispositivo dispositivoDetails) {
-        return dispositivoRepository.findById(id)
+        return almacenamiento.buscarDispositivo(id)
             .map(dispositivo -> {
                 dispositivo.setNombre(dispositivoDetails.getNombre());
                 dispositivo.setDescripcion(dispositivoDetails.getDescripcion());
                 dispositivo.setUbicacion(dispositivoDetails.getUbicacion());
                 dispositivo.setActivo(dispositivoDetails.getActivo());
                 dispositivo.setFechaActualizacion(LocalDateTime.now());
-                return dispositivoRepository.save(dispositivo);
+                Dispositivo guardado = almacenamiento.guardarDispositivo(dispositivo);
+                versionesRecursos.catalogoModificado();
+                busquedaDispositivos.indexar(guardado);
+                return guardado;
             })
             .orElseThrow(() -> new RuntimeException("Dispositivo no encontrado"));
     }
@@ -96,10 +140,16 @@ public class DispositivoService {
      * Remove el dispositivo y todas sus asociaciones según la configuración de cascada.
      * 
      * @param id Identificador único del dispositivo a eliminar
-     * @see DispositivoRepository#deleteById(Long)
+     * @see AlmacenamientoDispositivos#eliminarDispositivo(Long)
      */
     public void deleteById(Long id) {
-        dispositivoRepository.deleteById(id);
+        almacenamiento.eliminarDispositivo(id);
+        estadisticasService.descartar(id);
+        deteccionAnomaliasService.descartar(id);
+        deduplicacionService.descartar(id);
+        versionesRecursos.catalogoModificado();
+        versionesRecursos.lecturasModificadas(id);
+        busquedaDispositivos.eliminar(id);
     }
     
     /**
@@ -108,9 +158,21 @@ public class DispositivoService {
      * en el monitoreo o control del invernadero.
      * 
      * @return List<Dispositivo> con todos los dispositivos activos
-     * @see DispositivoRepository#findByActivoTrue()
+     * @see AlmacenamientoDispositivos#buscarDispositivosActivos()
      */
+    @Transactional(readOnly = true)
     public List<Dispositivo> findActivos() {
-        return dispositivoRepository.findByActivoTrue();
+        return almacenamiento.buscarDispositivosActivos();
+    }
+    
+    /**
+     * Obtiene todos los sensores activos (temperatura, humedad y luz).
+     * 
+     * @return List<Dispositivo> con los sensores activos
+     * @see AlmacenamientoDispositivos#buscarSensoresActivos()
+     */
+    @Transactional(readOnly = true)
+    public List<Dispositivo> findSensoresActivos() {
+        return almacenamiento.buscarSensoresActivos();
     }
 }
\ No newline at end of file
@@ -0,0 +1,248 @@
+package com.simcii.javaservice.services;
+
+import com.simcii.javaservice.almacenamiento.AlmacenamientoDispositivos;
+import com.simcii.javaservice.dto.EstadisticasDispositivo;
+import com.simcii.javaservice.dto.EstadisticasVentana;
+import com.simcii.javaservice.estadisticas.AcumuladorEstadisticas;
+import com.simcii.javaservice.estadisticas.VentanaDeslizante;
+import com.simcii.javaservice.models.Dispositivo;
+import com.simcii.javaservice.models.Lectura;
+import com.simcii.javaservice.models.Sensor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio de estadísticas deslizantes de lecturas por dispositivo.
+ * Mantiene por dispositivo dos anillos de intervalos (5 s para la ventana de 1 minuto y 1 min para
+ * las de 15 minutos y 1 hora) que se actualizan en O(1) con cada lectura registrada, de modo que
+ * las consultas del dashboard no necesitan recuperar el historial completo.
+ * El estado de un dispositivo se crea con su primera consulta a partir de la última hora de lecturas
+ * almacenadas; desde entonces se alimenta desde {@link LecturaService#registrarLectura(Dispositivo)}.
+ * Con varias réplicas las lecturas guardadas por otras no pasan por registrar: cada consulta, como
+ * mucho una vez por periodo, recupera del almacenamiento las lecturas posteriores a la última
+ * cargada ({@code ultimoIdCargado}). Los estados que nadie consulta se descartan.
+ *
+ * @see VentanaDeslizante
+ */
+@Service
+public class EstadisticasLecturasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstadisticasLecturasService.class);
+    private static final ZoneId ZONA = ZoneId.systemDefault();
+
+    @Autowired
+    private AlmacenamientoDispositivos almacenamiento;
+
+    @Value("${estadisticas.precision-cuantiles:0.01}")
+    private double precisionCuantiles;
+
+    @Value("${estadisticas.max-bins:1024}")
+    private int maxBins;
+
+    @Value("${estadisticas.reconciliacion-ms:5000}")
+    private long reconciliacionMs;
+
+    // Solape de la reconciliación: cubre lecturas con fecha anterior a su inserción
+    @Value("${estadisticas.solape-reconciliacion-ms:60000}")
+    private long solapeMs;
+
+    @Value("${estadisticas.inactividad-ms:3600000}")
+    private long inactividadMs;
+
+    private final ConcurrentHashMap<Long, EstadoDispositivo> estados = new ConcurrentHashMap<>();
+
+    /**
+     * Acumula una lectura ya guardada en las ventanas de su dispositivo.
+     * Si el dispositivo todavía no se ha consultado no hay estado que actualizar: la lectura
+     * se incluirá al cargar la última hora desde el almacenamiento.
+     *
+     * @param lectura Lectura persistida (con ID)
+     */
+    public void registrar(Lectura lectura) {
+        if (lectura.getValor() == null || lectura.getDispositivo() == null) {
+            return;
+        }
+        estados.computeIfPresent(lectura.getDispositivo().getId(), (id, estado) -> {
+            estado.registrar(lectura);
+            return estado;
+        });
+    }
+
+    /**
+     * Obtiene las estadísticas de 1 minuto, 15 minutos y 1 hora de un dispositivo.
+     *
+     * @param dispositivoId Identificador del dispositivo
+     * @return Optional vacío si el dispositivo no existe
+     */
+    public Optional<EstadisticasDispositivo> obtenerEstadisticas(Long dispositivoId) {
+        EstadoDispositivo estado = estados.get(dispositivoId);
+        if (estado == null) {
+            // La carga consulta el almacenamiento fuera del mapa: dentro de computeIfAbsent
+            // bloquearía las lecturas de otros dispositivos que caen en el mismo nodo
+            estado = cargar(dispositivoId);
+            if (estado == null) {
+                return Optional.empty();
+            }
+            EstadoDispositivo existente = estados.putIfAbsent(dispositivoId, estado);
+            if (existente != null) {
+                estado = existente;
+            }
+        }
+        long ahora = System.currentTimeMillis();
+        estado.ultimaConsulta = ahora;
+        if (estado.reconciliarAntesDe <= ahora) {
+            ponerAlDia(estado, ahora);
+        }
+        return Optional.of(estado.resumir(ahora));
+    }
+
+    /**
+     * Descarta los estados sin consultas recientes: registrar seguiría acumulando en ellos (y
+     * recordando sus IDs hasta la siguiente reconciliación) sin que nadie los lea.
+     */
+    @Scheduled(fixedDelayString = "${estadisticas.limpieza-ms:60000}")
+    public void descartarInactivos() {
+        long limite = System.currentTimeMillis() - inactividadMs;
+        estados.values().removeIf(estado -> estado.ultimaConsulta < limite);
+    }
+
+    /**
+     * Elimina el estado de un dispositivo borrado.
+     */
+    public void descartar(Long dispositivoId) {
+        estados.remove(dispositivoId);
+    }
+
+    private EstadoDispositivo cargar(Long dispositivoId) {
+        Optional<Dispositivo> dispositivo = almacenamiento.buscarDispositivo(dispositivoId);
+        if (dispositivo.isEmpty()) {
+            return null;
+        }
+        String unidad = dispositivo.get() instanceof Sensor sensor ? sensor.getUnidadMedida() : null;
+        LocalDateTime ahora = LocalDateTime.now();
+        EstadoDispositivo estado = new EstadoDispositivo(dispositivoId, unidad, ahora.minusHours(1), ahora.plusMinutes(1));
+
+        List<Lectura> lecturas = almacenamiento.buscarLecturasEntre(dispositivoId, estado.desde, estado.hasta);
+        long ultimoId = Long.MIN_VALUE;
+        for (Lectura lectura : lecturas) {
+            if (lectura.getValor() != null) {
+                estado.acumular(lectura);
+            }
+            if (lectura.getId() != null) {
+                ultimoId = Math.max(ultimoId, lectura.getId());
+            }
+        }
+        estado.ultimoIdCargado = ultimoId;
+        logger.debug("Estadísticas del dispositivo {} inicializadas con {} lecturas", dispositivoId, lecturas.size());
+        return estado;
+    }
+
+    // Recupera por ID las lecturas que no pasaron por registrar: las guardadas entre la carga y la
+    // publicación del estado (no había estado que actualizar) y las guardadas por otras réplicas
+    private void ponerAlDia(EstadoDispositivo estado, long ahora) {
+        LocalDateTime fecha = LocalDateTime.now();
+        LocalDateTime desde = estado.reconciliadoHasta.minusNanos(solapeMs * 1_000_000);
+        List<Lectura> lecturas = almacenamiento.buscarLecturasEntre(estado.dispositivoId, desde, fecha.plusMinutes(1));
+        int recuperadas = estado.reconciliar(lecturas, fecha, ahora + reconciliacionMs);
+        if (recuperadas > 0) {
+            logger.debug("Estadísticas del dispositivo {}: {} lecturas recuperadas del almacenamiento", estado.dispositivoId, recuperadas);
+        }
+    }
+
+    private final class EstadoDispositivo {
+
+        private final Long dispositivoId;
+        private final String unidad;
+        // Rango de fechas de la carga inicial
+        private final LocalDateTime desde;
+        private final LocalDateTime hasta;
+        // Momento de la última consulta al almacenamiento
+        private LocalDateTime reconciliadoHasta;
+        // Instantes (epoch ms) de la próxima reconciliación y de la última consulta
+        private volatile long reconciliarAntesDe;
+        private volatile long ultimaConsulta;
+        private final VentanaDeslizante fina = new VentanaDeslizante(5_000, 12, precisionCuantiles, maxBins);
+        private final VentanaDeslizante gruesa = new VentanaDeslizante(60_000, 60, precisionCuantiles, maxBins);
+        // Las lecturas hasta este ID ya se cargaron desde el almacenamiento
+        private long ultimoIdCargado = Long.MIN_VALUE;
+        // IDs posteriores a ultimoIdCargado ya acumulados por registrar
+        private final Set<Long> registradasSinCargar = new HashSet<>();
+
+        EstadoDispositivo(Long dispositivoId, String unidad, LocalDateTime desde, LocalDateTime hasta) {
+            this.dispositivoId = dispositivoId;
+            this.unidad = unidad;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.reconciliadoHasta = desde;
+        }
+
+        synchronized void registrar(Lectura lectura) {
+            if (lectura.getId() != null && lectura.getId() <= ultimoIdCargado) {
+                return;
+            }
+            if (lectura.getId() != null) {
+                registradasSinCargar.add(lectura.getId());
+            }
+            acumular(lectura);
+        }
+
+        // Acumula las lecturas posteriores a ultimoIdCargado que registrar no haya recibido ya. El
+        // nuevo ultimoIdCargado cubre las recuperadas, que aún pueden llegar por registrar. Una
+        // lectura de otra réplica confirmada después con un ID inferior al último visto se pierde
+        synchronized int reconciliar(List<Lectura> lecturas, LocalDateTime fecha, long proxima) {
+            int recuperadas = 0;
+            long ultimoId = ultimoIdCargado;
+            for (Lectura lectura : lecturas) {
+                Long id = lectura.getId();
+                if (id == null || id <= ultimoIdCargado) {
+                    continue;
+                }
+                ultimoId = Math.max(ultimoId, id);
+                if (lectura.getValor() != null && !registradasSinCargar.contains(id)) {
+                    acumular(lectura);
+                    recuperadas++;
+                }
+            }
+            ultimoIdCargado = ultimoId;
+            long cargado = ultimoId;
+            registradasSinCargar.removeIf(id -> id <= cargado);
+            if (fecha.isAfter(reconciliadoHasta)) {
+                reconciliadoHasta = fecha;
+            }
+            reconciliarAntesDe = proxima;
+            return recuperadas;
+        }
+
+        void acumular(Lectura lectura) {
+            LocalDateTime fecha = lectura.getFechaHora() != null ? lectura.getFechaHora() : LocalDateTime.now();
+            long instante = fecha.atZone(ZONA).toInstant().toEpochMilli();
+            fina.anadir(instante, lectura.getValor());
+            gruesa.anadir(instante, lectura.getValor());
+        }
+
+        synchronized EstadisticasDispositivo resumir(long ahora) {
+            return new EstadisticasDispositivo(dispositivoId, unidad, LocalDateTime.now(), List.of(
+                    ventana("1m", fina, 12, ahora),
+                    ventana("15m", gruesa, 15, ahora),
+                    ventana("1h", gruesa, 60, ahora)));
+        }
+
+        private EstadisticasVentana ventana(String nombre, VentanaDeslizante anillo, int intervalos, long ahora) {
+            AcumuladorEstadisticas acumulador = new AcumuladorEstadisticas(precisionCuantiles, maxBins);
+            anillo.resumir(ahora, intervalos, acumulador);
+            return EstadisticasVentana.de(nombre, anillo.getDuracionIntervaloMs() * intervalos / 1000, acumulador);
+        }
+    }
+}
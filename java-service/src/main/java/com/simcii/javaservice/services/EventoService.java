@@ -1,5 +1,7 @@
 package com.simcii.javaservice.services;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
@@ -15,6 +17,8 @@ import java.util.UUID;
 @Service
 public class EventoService {
 
+    private static final Logger logger = LoggerFactory.getLogger(EventoService.class);
+
     @Value("${python.service.url:http://python-service:8000}")
     private String pythonServiceUrl;
 
@@ -38,11 +42,10 @@ public class EventoService {
             
             ResponseEntity<String> response = restTemplate.postForEntity(url, request, String.class);
             
-            System.out.println("✅ Evento enviado a Python Service: " + tipoEvento + 
-                             " | Status: " + response.getStatusCode());
+            logger.debug("Evento enviado a Python Service: {} | Status: {}", tipoEvento, response.getStatusCode());
             
         } catch (Exception e) {
-            System.err.println("❌ Error enviando evento a Python Service: " + e.getMessage());
+            logger.warn("Error enviando evento a Python Service: {}", e.getMessage());
             // En desarrollo, logueamos el error sin interrumpir el flujo principal
         }
     }
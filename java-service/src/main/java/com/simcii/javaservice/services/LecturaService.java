@@ -1,28 +1,36 @@
 package com.simcii.javaservice.services;
 
+import com.simcii.javaservice.dto.EstadisticasDispositivo;
+import com.simcii.javaservice.dto.LecturaCompacta;
+import com.simcii.javaservice.dto.LecturaRequest;
+import com.simcii.javaservice.ingesta.VentanaDeduplicacion;
 import com.simcii.javaservice.models.Lectura;
 import com.simcii.javaservice.models.Dispositivo;
 import com.simcii.javaservice.models.Sensor;
 import com.simcii.javaservice.models.SensorHumedad;
 import com.simcii.javaservice.models.SensorLuz;
 import com.simcii.javaservice.models.SensorTemperatura;
-import com.simcii.javaservice.repositories.LecturaRepository;
-import com.simcii.javaservice.repositories.DispositivoRepository;
+import com.simcii.javaservice.almacenamiento.AlmacenamientoDispositivos;
+import com.simcii.javaservice.registro.MuestreoRegistro;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 /**
  * Servicio para la gestión de lecturas de sensores en el sistema SIMCII.
  * Proporciona funcionalidades para registro automático periódico de lecturas,
  * consulta de historial y gestión del ciclo de vida de datos de sensores.
- * Incluye un scheduler que ejecuta lecturas cada 10 segundos para simulación
- * en tiempo real del monitoreo del invernadero.
+ * La simulación periódica se reparte por particiones de sensores que ejecuta
+ * {@link PlanificadorLecturasService} sobre un pool de hilos dimensionado.
  * 
  * @author Jonathan Vega
  * @version 1.0
@@ -30,24 +38,19 @@ import java.util.stream.Collectors;
  * @Service
  * @see Lectura
  * @see Sensor
- * @see Scheduled
+ * @see PlanificadorLecturasService
  */
 @Service
 public class LecturaService {
     
-    /**
-     * Repositorio para acceso a datos de lecturas.
-     * Inyectado automáticamente por Spring Framework.
-     */
-    @Autowired
-    private LecturaRepository lecturaRepository;
+    private static final Logger logger = LoggerFactory.getLogger(LecturaService.class);
     
     /**
-     * Repositorio para acceso a datos de dispositivos.
-     * Utilizado para obtener la lista de sensores activos.
+     * Backend de almacenamiento de lecturas y dispositivos (JPA o memoria según el perfil).
+     * Inyectado automáticamente por Spring Framework.
      */
     @Autowired
-    private DispositivoRepository dispositivoRepository;
+    private AlmacenamientoDispositivos almacenamiento;
     
     /**
      * Servicio para gestión de alertas.
@@ -64,53 +67,210 @@ public class LecturaService {
     private UmbralService umbralService;
     
     /**
-     * Generador de números aleatorios para simulación de lecturas.
+     * Reparto de sensores en particiones.
+     * Utilizado para procesar únicamente los sensores de una partición.
+     */
+    @Autowired
+    private ParticionadorSensores particionadorSensores;
+    
+    /**
+     * Servicio de estadísticas deslizantes.
+     * Utilizado para acumular cada lectura registrada en las ventanas de su dispositivo.
+     */
+    @Autowired
+    private EstadisticasLecturasService estadisticasService;
+    
+    /**
+     * Servicio de detección de anomalías.
+     * Utilizado para evaluar cada lectura registrada en busca de saltos y derivas.
+     */
+    @Autowired
+    private DeteccionAnomaliasService deteccionAnomaliasService;
+    
+    /**
+     * Motor de control en lazo cerrado.
+     * Utilizado para accionar los actuadores automáticos de la zona según cada lectura.
+     */
+    @Autowired
+    private MotorControlService motorControlService;
+    
+    /**
+     * Resumen en vivo por zona.
+     * Utilizado para publicar cada lectura registrada en el resumen de su zona.
      */
-    private Random random = new Random();
+    @Autowired
+    private ResumenZonasService resumenZonasService;
     
     /**
-     * Ejecuta el registro automático de lecturas cada 10 segundos.
-     * Obtiene todos los sensores activos del sistema, genera lecturas realistas
-     * basadas en los umbrales configurados y las persiste en la base de datos.
-     * Incluye logging detallado para monitoreo del proceso.
+     * Deduplicación de lecturas recibidas.
+     * Utilizado para descartar reintentos de lecturas ya guardadas sin consultar el almacenamiento.
+     */
+    @Autowired
+    private DeduplicacionLecturasService deduplicacionService;
+    
+    /**
+     * Contadores de versión para GET condicionales.
+     * Utilizado para invalidar los ETag de las lecturas del dispositivo en cada lectura nueva.
+     */
+    @Autowired
+    private VersionesRecursosService versionesRecursos;
+    
+    /**
+     * Trazas por segundo de las lecturas registradas; el resto se cuentan como omitidas.
+     */
+    @Value("${registro.muestreo.por-segundo:5}")
+    private int trazasPorSegundo;
+    
+    private MuestreoRegistro muestreoLecturas;
+    
+    @PostConstruct
+    public void inicializar() {
+        muestreoLecturas = new MuestreoRegistro(trazasPorSegundo);
+    }
+    
+    /**
+     * Ejecuta una pasada completa de lecturas sobre todos los sensores activos.
+     * La ejecución periódica la realiza {@link PlanificadorLecturasService} por particiones;
+     * este método se conserva para forzar lecturas manualmente.
      * 
-     * @Scheduled(fixedRate = 10000) Ejecución cada 10 segundos (10000 ms)
      * @see UmbralService#generarValorSegunUmbral(Dispositivo)
      */
-    @Scheduled(fixedRate = 10000)
-public void registrarLecturasAutomaticas() {
-    System.out.println("=== INICIANDO LECTURAS AUTOMÁTICAS ===");
-    
-    try {
-        List<Dispositivo> todos = dispositivoRepository.findAll();
-        List<Dispositivo> sensores = todos.stream()
-            .filter(d -> d.getClass().getSimpleName().contains("Sensor"))
-            .filter(Dispositivo::getActivo)
-            .collect(Collectors.toList());
-            
-        System.out.println("Sensores activos encontrados: " + sensores.size());
-        
-        for (Dispositivo sensor : sensores) {
-            
-            Double valor = umbralService.generarValorSegunUmbral(sensor);
-            System.out.println("Generando lectura: " + valor + " para " + sensor.getNombre() + " (ID: " + sensor.getId() + ")");
+    public void registrarLecturasAutomaticas() {
+        try {
+            List<Dispositivo> sensores = almacenamiento.buscarSensoresActivos();
+            logger.info("Lecturas automáticas: {} sensores activos", sensores.size());
             
-            Lectura lectura = new Lectura();
-            lectura.setDispositivo(sensor);
-            lectura.setValor(valor);
-            lectura.setUnidad(obtenerUnidad(sensor));
+            for (Dispositivo sensor : sensores) {
+                registrarLectura(sensor);
+            }
             
-            Lectura saved = lecturaRepository.save(lectura);
-            System.out.println("Lectura guardada ID: " + saved.getId());
+            logger.info("Lecturas automáticas completadas");
+        } catch (Exception e) {
+            logger.error("Error en lecturas automáticas", e);
         }
+    }
+    
+    /**
+     * Registra las lecturas de los sensores de una única partición.
+     * Invocado por el planificador desde su pool de hilos, una tarea por partición.
+     * 
+     * @param particion Índice de la partición a procesar
+     * @return int número de lecturas registradas
+     * @see ParticionadorSensores#sensoresDeParticion(int)
+     */
+    public int registrarLecturasParticion(int particion) {
+        List<Dispositivo> sensores = particionadorSensores.sensoresDeParticion(particion);
+        for (Dispositivo sensor : sensores) {
+            registrarLectura(sensor);
+        }
+        return sensores.size();
+    }
+    
+    /**
+     * Genera y persiste una lectura simulada para un sensor.
+     * 
+     * @param sensor Sensor para el cual registrar la lectura
+     * @return Lectura la lectura guardada
+     */
+    public Lectura registrarLectura(Dispositivo sensor) {
+        Double valor = umbralService.generarValorSegunUmbral(sensor);
         
-        System.out.println("=== LECTURAS COMPLETADAS ===");
+        Lectura lectura = new Lectura();
+        lectura.setDispositivo(sensor);
+        lectura.setValor(valor);
+        lectura.setUnidad(obtenerUnidad(sensor));
         
-    } catch (Exception e) {
-        System.err.println("ERROR en lecturas automáticas: " + e.getMessage());
-        e.printStackTrace();
+        Lectura saved = almacenamiento.guardarLectura(lectura);
+        if (logger.isDebugEnabled() && muestreoLecturas.permitir()) {
+            logger.debug("Lectura {} guardada: {} para {} (ID: {}) (+{} omitidas)", saved.getId(), valor,
+                    sensor.getNombre(), sensor.getId(), muestreoLecturas.tomarOmitidas());
+        }
+        publicarLectura(saved);
+        return saved;
+    }
+    
+    /**
+     * Persiste una lectura recibida de un gateway o dispositivo externo.
+     * Si trae secuencia, los reintentos se descartan como duplicados: primero con la ventana
+     * en memoria del dispositivo y, si no basta, con el índice único del almacenamiento.
+     * Un reintento de una lectura que otra petición aún está guardando se rechaza como
+     * {@link LecturaRecibida#EN_CURSO}: no se puede afirmar todavía que quedará guardada.
+     * 
+     * @param request Lectura recibida
+     * @return LecturaRecibida con la lectura guardada, o el motivo por el que no se guardó
+     * @see DeduplicacionLecturasService
+     */
+    public LecturaRecibida registrarLecturaRecibida(LecturaRequest request) {
+        Long secuencia = request.getSecuencia();
+        Optional<Dispositivo> dispositivo = almacenamiento.buscarDispositivo(request.getDispositivoId());
+        if (dispositivo.isEmpty() || !(dispositivo.get() instanceof Sensor sensor) || !Boolean.TRUE.equals(sensor.getActivo())) {
+            return LecturaRecibida.NO_ENCONTRADO;
+        }
+        // La ventana se crea solo para sensores existentes: ids arbitrarios no reservan memoria
+        if (secuencia != null) {
+            int estado = deduplicacionService.registrar(sensor.getId(), secuencia);
+            if (estado == VentanaDeduplicacion.DUPLICADA) {
+                return LecturaRecibida.DUPLICADA;
+            }
+            if (estado == VentanaDeduplicacion.EN_CURSO) {
+                return LecturaRecibida.EN_CURSO;
+            }
+        }
+        
+        boolean guardada = false;
+        try {
+            String unidad = request.getUnidad() != null ? request.getUnidad() : obtenerUnidad(sensor);
+            LocalDateTime fechaHora = request.getFechaHora() != null ? request.getFechaHora() : LocalDateTime.now();
+            Lectura lectura = new Lectura(sensor, request.getValor(), fechaHora, unidad);
+            lectura.setSecuencia(secuencia);
+            
+            Lectura saved;
+            try {
+                saved = almacenamiento.guardarLectura(lectura);
+            } catch (DuplicateKeyException e) {
+                // Ya guardada antes de un reinicio, en otra réplica o fuera de la ventana
+                guardada = true;
+                deduplicacionService.registrarDuplicadaPorIndice();
+                return LecturaRecibida.DUPLICADA;
+            }
+            guardada = true;
+            publicarLectura(saved);
+            return new LecturaRecibida(saved);
+        } finally {
+            if (secuencia != null) {
+                if (guardada) {
+                    deduplicacionService.confirmar(sensor.getId(), secuencia);
+                } else {
+                    deduplicacionService.olvidar(sensor.getId(), secuencia);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Resultado de {@link #registrarLecturaRecibida(LecturaRequest)}: la lectura guardada,
+     * o {@link #DUPLICADA} / {@link #EN_CURSO} / {@link #NO_ENCONTRADO} sin lectura.
+     */
+    public record LecturaRecibida(Lectura lectura, String error) {
+        public static final LecturaRecibida DUPLICADA = new LecturaRecibida(null, "duplicada");
+        public static final LecturaRecibida EN_CURSO = new LecturaRecibida(null, "en_curso");
+        public static final LecturaRecibida NO_ENCONTRADO = new LecturaRecibida(null, "no_encontrado");
+        
+        public LecturaRecibida(Lectura lectura) {
+            this(lectura, null);
+        }
+    }
+    
+    /**
+     * Propaga una lectura ya guardada a estadísticas, anomalías, control, resumen por zona y ETags.
+     */
+    private void publicarLectura(Lectura saved) {
+        estadisticasService.registrar(saved);
+        deteccionAnomaliasService.evaluar(saved);
+        motorControlService.evaluar(saved);
+        resumenZonasService.registrarLectura(saved);
+        versionesRecursos.lecturasModificadas(saved.getDispositivo().getId());
     }
-}
 
     /**
      * Obtiene la unidad de medida apropiada para un dispositivo sensor.
@@ -132,22 +292,62 @@ public void registrarLecturasAutomaticas() {
      * 
      * @param dispositivoId Identificador único del dispositivo a consultar
      * @return List<Lectura> con el historial completo de lecturas ordenado
-     * @see LecturaRepository#findByDispositivoIdOrderByFechaHoraDesc(Long)
+     * @see AlmacenamientoDispositivos#buscarLecturas(Long)
      */
+    @Transactional(readOnly = true)
     public List<Lectura> obtenerHistorialPorDispositivo(Long dispositivoId) {
-        return lecturaRepository.findByDispositivoIdOrderByFechaHoraDesc(dispositivoId);
+        return almacenamiento.buscarLecturas(dispositivoId);
     }
     
     /**
      * Obtiene las lecturas más recientes de un dispositivo específico.
-     * Utiliza una consulta nativa optimizada con LIMIT para mejor rendimiento.
+     * Con el backend JPA utiliza una consulta nativa optimizada con LIMIT.
      * 
      * @param dispositivoId Identificador único del dispositivo a consultar
      * @param cantidad Número de lecturas recientes a retornar
      * @return List<Lectura> con las lecturas más recientes del dispositivo
-     * @see LecturaRepository#findUltimasLecturas(Long, int)
+     * @see AlmacenamientoDispositivos#buscarUltimasLecturas(Long, int)
      */
+    @Transactional(readOnly = true)
     public List<Lectura> obtenerUltimasLecturas(Long dispositivoId, int cantidad) {
-        return lecturaRepository.findUltimasLecturas(dispositivoId, cantidad);
+        return almacenamiento.buscarUltimasLecturas(dispositivoId, cantidad);
+    }
+    
+    /**
+     * Obtiene el historial de un dispositivo como lecturas compactas (solo el ID del dispositivo),
+     * más recientes primero. Con el backend JPA es una proyección que no carga entidades.
+     * 
+     * @param dispositivoId Identificador único del dispositivo a consultar
+     * @return List<LecturaCompacta> con el historial completo ordenado
+     * @see AlmacenamientoDispositivos#buscarLecturasCompactas(Long)
+     */
+    @Transactional(readOnly = true)
+    public List<LecturaCompacta> obtenerHistorialCompacto(Long dispositivoId) {
+        return almacenamiento.buscarLecturasCompactas(dispositivoId);
+    }
+    
+    /**
+     * Obtiene las lecturas más recientes de un dispositivo como lecturas compactas.
+     * 
+     * @param dispositivoId Identificador único del dispositivo a consultar
+     * @param cantidad Número de lecturas recientes a retornar
+     * @return List<LecturaCompacta> con las lecturas más recientes del dispositivo
+     * @see AlmacenamientoDispositivos#buscarUltimasLecturasCompactas(Long, int)
+     */
+    @Transactional(readOnly = true)
+    public List<LecturaCompacta> obtenerUltimasCompactas(Long dispositivoId, int cantidad) {
+        return almacenamiento.buscarUltimasLecturasCompactas(dispositivoId, cantidad);
+    }
+    
+    /**
+     * Obtiene las estadísticas deslizantes (1 min, 15 min y 1 h) de un dispositivo
+     * sin recuperar su historial de lecturas.
+     * 
+     * @param dispositivoId Identificador único del dispositivo a consultar
+     * @return Optional con las estadísticas, vacío si el dispositivo no existe
+     * @see EstadisticasLecturasService#obtenerEstadisticas(Long)
+     */
+    public Optional<EstadisticasDispositivo> obtenerEstadisticas(Long dispositivoId) {
+        return estadisticasService.obtenerEstadisticas(dispositivoId);
     }
 }
\ No newline at end of file
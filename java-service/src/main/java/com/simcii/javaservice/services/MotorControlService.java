@@ -0,0 +1,197 @@
+package com.simcii.javaservice.services;
+
+import com.simcii.javaservice.almacenamiento.AlmacenamientoDispositivos;
+import com.simcii.javaservice.control.EstadoControl;
+import com.simcii.javaservice.control.PropiedadesControl;
+import com.simcii.javaservice.control.ReglaControl;
+import com.simcii.javaservice.models.Actuador;
+import com.simcii.javaservice.models.Dispositivo;
+import com.simcii.javaservice.models.Lectura;
+import com.simcii.javaservice.models.Sensor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Motor de control en lazo cerrado: enlaza las lecturas de los sensores con los actuadores en
+ * modo AUTOMATICO de la misma zona (ubicación) según las reglas de la sección "control".
+ *
+ * Las reglas se compilan al arrancar y periódicamente se resuelven contra los dispositivos activos
+ * en un índice sensor -> (estado de regla por zona, actuadores). Evaluar una lectura es una búsqueda
+ * en ese índice y una comparación por regla, sin acceso al almacenamiento; solo las transiciones
+ * resultantes, ya filtradas por antirrebote y tiempos mínimos, se escriben mediante {@link ActuadorService}.
+ *
+ * El estado de cada regla y zona vive en memoria, así que solo debe evaluarlo una réplica: con
+ * sharding, la propietaria de la partición de la zona. Por eso el control con sharding exige la
+ * estrategia ZONA, con la que esa réplica es además la que lee todos los sensores de la zona; al
+ * cambiar de propietario, el estado se reconstruye desde los actuadores en la siguiente recompilación.
+ *
+ * @see ReglaControl
+ * @see EstadoControl
+ */
+@Service
+public class MotorControlService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MotorControlService.class);
+    private static final String MODO_AUTOMATICO = "AUTOMATICO";
+
+    private record Vinculo(EstadoControl estado, Long[] actuadores, int particion) {
+    }
+
+    @Autowired
+    private PropiedadesControl propiedades;
+
+    @Autowired
+    private AlmacenamientoDispositivos almacenamiento;
+
+    @Autowired
+    private ActuadorService actuadorService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CoordinadorParticiones coordinador;
+
+    @Autowired
+    private ParticionadorSensores particionador;
+
+    private List<ReglaControl> reglas = List.of();
+    private volatile Map<Long, Vinculo[]> indice = Map.of();
+    // Estado por regla y zona; se conserva entre recompilaciones del índice
+    private final Map<String, EstadoControl> estados = new ConcurrentHashMap<>();
+    private Counter transiciones;
+
+    @PostConstruct
+    public void inicializar() {
+        if (propiedades.isHabilitado() && coordinador.isHabilitado()
+                && !ParticionadorSensores.ESTRATEGIA_ZONA.equalsIgnoreCase(particionador.getEstrategia())) {
+            throw new IllegalStateException("control.habilitado con sharding requiere lecturas.planificador.estrategia=ZONA: "
+                    + "con otra estrategia las lecturas de una zona llegan a varias réplicas");
+        }
+        List<ReglaControl> compiladas = new ArrayList<>();
+        for (PropiedadesControl.DefinicionRegla definicion : propiedades.getReglas()) {
+            compiladas.add(ReglaControl.compilar(definicion));
+        }
+        reglas = List.copyOf(compiladas);
+        transiciones = Counter.builder("simcii.control.transiciones")
+                .description("Cambios de estado de actuadores ordenados por el motor de control")
+                .register(meterRegistry);
+        logger.info("Motor de control: {} reglas, {}", reglas.size(), propiedades.isHabilitado() ? "habilitado" : "deshabilitado");
+    }
+
+    /**
+     * Resuelve las reglas contra los dispositivos activos y publica un índice nuevo.
+     * Recoge sensores y actuadores nuevos, cambios de zona o de modo y cambios manuales de estado.
+     */
+    @Scheduled(fixedDelayString = "${control.recarga-ms:30000}")
+    public void compilarIndice() {
+        if (!propiedades.isHabilitado() || reglas.isEmpty()) {
+            return;
+        }
+        List<Dispositivo> dispositivos = almacenamiento.buscarDispositivosActivos();
+        Map<String, List<Actuador>> actuadoresPorZona = new HashMap<>();
+        for (Dispositivo dispositivo : dispositivos) {
+            if (dispositivo instanceof Actuador actuador && MODO_AUTOMATICO.equalsIgnoreCase(actuador.getModoOperacion())) {
+                actuadoresPorZona.computeIfAbsent(actuador.getUbicacion(), z -> new ArrayList<>()).add(actuador);
+            }
+        }
+
+        Map<String, Vinculo> vinculos = new HashMap<>();
+        Map<Long, List<Vinculo>> porSensor = new HashMap<>();
+        for (Dispositivo dispositivo : dispositivos) {
+            if (!(dispositivo instanceof Sensor sensor)) {
+                continue;
+            }
+            String zona = sensor.getUbicacion();
+            for (int i = 0; i < reglas.size(); i++) {
+                ReglaControl regla = reglas.get(i);
+                if (!regla.aplica(sensor.getTipoSensor(), zona)) {
+                    continue;
+                }
+                String clave = i + "|" + zona;
+                Vinculo vinculo = vinculos.computeIfAbsent(clave,
+                        k -> vincular(k, regla, zona, particionador.particionDe(sensor), actuadoresPorZona));
+                if (vinculo != null) {
+                    porSensor.computeIfAbsent(sensor.getId(), id -> new ArrayList<>()).add(vinculo);
+                }
+            }
+        }
+
+        Map<Long, Vinculo[]> nuevo = new HashMap<>();
+        porSensor.forEach((id, lista) -> nuevo.put(id, lista.toArray(new Vinculo[0])));
+        indice = nuevo;
+        estados.keySet().retainAll(vinculos.keySet());
+    }
+
+    private Vinculo vincular(String clave, ReglaControl regla, String zona, int particion,
+                             Map<String, List<Actuador>> actuadoresPorZona) {
+        List<Actuador> actuadores = actuadoresPorZona.getOrDefault(zona, List.of()).stream()
+                .filter(a -> regla.getTipoActuador().equalsIgnoreCase(a.getTipoActuador()))
+                .toList();
+        if (actuadores.isEmpty()) {
+            return null;
+        }
+        boolean encendido = actuadores.stream().anyMatch(a -> Boolean.TRUE.equals(a.getEstado()));
+        EstadoControl estado = estados.computeIfAbsent(clave, k -> new EstadoControl(regla, zona, encendido));
+        estado.sincronizar(encendido);
+        return new Vinculo(estado, actuadores.stream().map(Actuador::getId).toArray(Long[]::new), particion);
+    }
+
+    /**
+     * Evalúa una lectura registrada contra las reglas de la zona de su sensor, si esta réplica es
+     * la propietaria de la zona.
+     *
+     * @param lectura Lectura ya guardada
+     */
+    public void evaluar(Lectura lectura) {
+        if (!propiedades.isHabilitado() || lectura.getValor() == null || lectura.getDispositivo() == null) {
+            return;
+        }
+        Vinculo[] vinculos = indice.get(lectura.getDispositivo().getId());
+        if (vinculos == null) {
+            return;
+        }
+        double valor = lectura.getValor();
+        long ahora = System.currentTimeMillis();
+        for (Vinculo vinculo : vinculos) {
+            if (!coordinador.esPropietario(vinculo.particion())) {
+                continue;
+            }
+            int accion = vinculo.estado().evaluar(valor, ahora);
+            if (accion != EstadoControl.SIN_CAMBIO) {
+                aplicar(vinculo, accion == EstadoControl.ENCENDER, valor);
+            }
+        }
+    }
+
+    private void aplicar(Vinculo vinculo, boolean encender, double valor) {
+        EstadoControl estado = vinculo.estado();
+        logger.info("Control '{}' en {}: valor {} -> {} {}", estado.getRegla().getNombre(), estado.getZona(),
+                valor, estado.getRegla().getTipoActuador(), encender ? "ENCENDIDO" : "APAGADO");
+        for (Long actuadorId : vinculo.actuadores()) {
+            try {
+                if (actuadorService.aplicarEstadoAutomatico(actuadorId, encender)) {
+                    transiciones.increment();
+                }
+            } catch (Exception e) {
+                logger.warn("No se pudo cambiar el estado del actuador {}: {}", actuadorId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Estado actual de cada regla por zona.
+     */
+    public List<EstadoControl> obtenerEstados() {
+        return new ArrayList<>(estados.values());
+    }
+}
@@ -0,0 +1,79 @@
+package com.simcii.javaservice.services;
+
+import com.simcii.javaservice.dto.NotificacionAlerta;
+import com.simcii.javaservice.models.Alerta;
+import com.simcii.javaservice.notificaciones.CanalNotificacion;
+import com.simcii.javaservice.notificaciones.DespachadorCanal;
+import com.simcii.javaservice.notificaciones.PropiedadesNotificaciones;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Notificación asíncrona de alertas a los canales habilitados (webhook, archivo, servicio Python...).
+ * Cada canal tiene su {@link DespachadorCanal} con cola acotada e hilo propio: generar una alerta
+ * solo encola, nunca espera a la entrega, y un canal lento o caído no retrasa a los demás.
+ *
+ * @see CanalNotificacion
+ */
+@Service
+public class NotificacionesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificacionesService.class);
+
+    @Autowired
+    private PropiedadesNotificaciones propiedades;
+
+    @Autowired
+    private List<CanalNotificacion> canales;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<DespachadorCanal> despachadores = new ArrayList<>();
+
+    @PostConstruct
+    public void iniciar() {
+        if (!propiedades.isHabilitadas()) {
+            return;
+        }
+        List<String> activos = new ArrayList<>();
+        for (CanalNotificacion canal : canales) {
+            PropiedadesNotificaciones.DefinicionCanal definicion = propiedades.getCanales().get(canal.getNombre());
+            if (definicion == null || !definicion.isHabilitado()) {
+                continue;
+            }
+            canal.configurar(definicion);
+            DespachadorCanal despachador = new DespachadorCanal(canal, definicion, meterRegistry);
+            despachador.iniciar();
+            despachadores.add(despachador);
+            activos.add(canal.getNombre());
+        }
+        logger.info("Notificaciones de alertas: canales {}", activos);
+    }
+
+    @PreDestroy
+    public void detener() {
+        despachadores.forEach(DespachadorCanal::detener);
+    }
+
+    /**
+     * Encola una alerta ya guardada en todos los canales habilitados. No bloquea.
+     */
+    public void notificar(Alerta alerta) {
+        if (despachadores.isEmpty()) {
+            return;
+        }
+        NotificacionAlerta notificacion = NotificacionAlerta.de(alerta);
+        for (DespachadorCanal despachador : despachadores) {
+            despachador.encolar(notificacion);
+        }
+    }
+}
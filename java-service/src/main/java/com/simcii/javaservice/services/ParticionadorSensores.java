@@ -0,0 +1,104 @@
+package com.simcii.javaservice.services;
+
+import com.simcii.javaservice.almacenamiento.AlmacenamientoDispositivos;
+import com.simcii.javaservice.models.Dispositivo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reparte los sensores activos en un número fijo de particiones lógicas.
+ * La estrategia HASH asigna cada sensor según su ID (resuelto por el backend de almacenamiento),
+ * mientras que ZONA agrupa todos los sensores de una misma ubicación en la misma partición.
+ * El hash de la ubicación no se puede expresar en la consulta, así que con ZONA la flota se carga y
+ * se reparte una vez por periodo del planificador, y cada partición toma su parte de ese reparto.
+ *
+ * @see PlanificadorLecturasService
+ */
+@Component
+public class ParticionadorSensores {
+
+    public static final String ESTRATEGIA_HASH = "HASH";
+    public static final String ESTRATEGIA_ZONA = "ZONA";
+
+    @Autowired
+    private AlmacenamientoDispositivos almacenamiento;
+
+    @Value("${lecturas.planificador.particiones:8}")
+    private int particiones;
+
+    @Value("${lecturas.planificador.estrategia:HASH}")
+    private String estrategia;
+
+    @Value("${lecturas.planificador.periodo-ms:10000}")
+    private long periodoMs;
+
+    private record RepartoZonas(long calculadoEnNanos, List<List<Dispositivo>> porParticion) {
+    }
+
+    private volatile RepartoZonas repartoZonas;
+
+    public int getParticiones() {
+        return particiones;
+    }
+
+    public String getEstrategia() {
+        return estrategia;
+    }
+
+    /**
+     * Calcula la partición a la que pertenece un dispositivo según la estrategia configurada.
+     *
+     * @param dispositivo Dispositivo a ubicar
+     * @return int índice de partición en el rango [0, particiones)
+     */
+    public int particionDe(Dispositivo dispositivo) {
+        if (ESTRATEGIA_ZONA.equalsIgnoreCase(estrategia)) {
+            String ubicacion = dispositivo.getUbicacion() != null ? dispositivo.getUbicacion() : "";
+            return Math.floorMod(ubicacion.hashCode(), particiones);
+        }
+        return (int) Math.floorMod(dispositivo.getId(), (long) particiones);
+    }
+
+    /**
+     * Obtiene los sensores activos asignados a una partición.
+     * Con la estrategia HASH el filtrado lo hace el almacenamiento (MOD sobre el ID en JPA); con ZONA
+     * se usa el reparto del periodo en curso, que como mucho tiene un periodo de antigüedad.
+     *
+     * @param particion Índice de la partición
+     * @return List<Dispositivo> con los sensores activos de la partición
+     */
+    public List<Dispositivo> sensoresDeParticion(int particion) {
+        if (ESTRATEGIA_ZONA.equalsIgnoreCase(estrategia)) {
+            return repartoZonasVigente().porParticion().get(particion);
+        }
+        return almacenamiento.buscarSensoresActivosPorParticion(particiones, particion);
+    }
+
+    // Las tareas de las particiones se escalonan dentro del periodo: la primera que encuentra el
+    // reparto caducado lo recalcula y las demás del mismo periodo lo reutilizan
+    private RepartoZonas repartoZonasVigente() {
+        RepartoZonas reparto = repartoZonas;
+        if (reparto == null || System.nanoTime() - reparto.calculadoEnNanos() >= periodoMs * 1_000_000) {
+            synchronized (this) {
+                reparto = repartoZonas;
+                if (reparto == null || System.nanoTime() - reparto.calculadoEnNanos() >= periodoMs * 1_000_000) {
+                    long inicio = System.nanoTime();
+                    List<List<Dispositivo>> porParticion = new ArrayList<>(particiones);
+                    for (int p = 0; p < particiones; p++) {
+                        porParticion.add(new ArrayList<>());
+                    }
+                    for (Dispositivo sensor : almacenamiento.buscarSensoresActivos()) {
+                        porParticion.get(particionDe(sensor)).add(sensor);
+                    }
+                    reparto = new RepartoZonas(inicio, porParticion.stream().map(List::copyOf).toList());
+                    repartoZonas = reparto;
+                }
+            }
+        }
+        return reparto;
+    }
+}
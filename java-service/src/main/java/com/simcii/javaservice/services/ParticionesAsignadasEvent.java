@@ -0,0 +1,12 @@
+package com.simcii.javaservice.services;
+
+import java.util.Set;
+
+/**
+ * Evento publicado cuando esta instancia adquiere nuevas particiones de sensores.
+ *
+ * @param particiones Particiones recién adquiridas
+ * @see CoordinadorParticiones
+ */
+public record ParticionesAsignadasEvent(Set<Integer> particiones) {
+}
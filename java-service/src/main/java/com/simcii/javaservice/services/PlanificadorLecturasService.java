@@ -0,0 +1,174 @@
+package com.simcii.javaservice.services;
+
+import com.simcii.javaservice.trazas.Trazador;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Planificador de lecturas automáticas por particiones.
+ * Cada partición de sensores tiene su propia tarea periódica sobre un pool de hilos
+ * dimensionado, de modo que la duración de un ciclo depende de los núcleos disponibles
+ * y no del tamaño total de la flota. Cada partición detecta sus propias sobrecargas
+ * (ciclos que superan el periodo o que se solapan con el anterior).
+ *
+ * @see ParticionadorSensores
+ * @see CoordinadorParticiones
+ * @see LecturaService#registrarLecturasParticion(int)
+ */
+@Service
+public class PlanificadorLecturasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlanificadorLecturasService.class);
+
+    @Autowired
+    private LecturaService lecturaService;
+
+    @Autowired
+    private ParticionadorSensores particionadorSensores;
+
+    @Autowired
+    private CoordinadorParticiones coordinadorParticiones;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Trazador trazador;
+
+    @Value("${lecturas.planificador.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${lecturas.planificador.periodo-ms:10000}")
+    private long periodoMs;
+
+    @Value("${lecturas.planificador.hilos:0}")
+    private int hilos;
+
+    private ThreadPoolTaskScheduler scheduler;
+
+    private final List<EstadoParticion> estados = new ArrayList<>();
+
+    @PostConstruct
+    public void iniciar() {
+        int particiones = particionadorSensores.getParticiones();
+        int tamanoPool = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Math.min(tamanoPool, particiones));
+        scheduler.setThreadNamePrefix("lecturas-particion-");
+        scheduler.initialize();
+
+        for (int p = 0; p < particiones; p++) {
+            estados.add(new EstadoParticion(p));
+        }
+
+        if (!habilitado) {
+            logger.info("Planificador de lecturas deshabilitado");
+            return;
+        }
+
+        for (EstadoParticion estado : estados) {
+            // Escalonar el arranque para repartir la carga dentro del periodo
+            long desfaseMs = periodoMs * estado.particion / particiones;
+            scheduler.scheduleAtFixedRate(() -> ejecutarParticion(estado),
+                    Instant.now().plusMillis(desfaseMs), Duration.ofMillis(periodoMs));
+        }
+
+        logger.info("Planificador de lecturas iniciado: {} particiones ({}), {} hilos, periodo {} ms",
+                particiones, particionadorSensores.getEstrategia(), scheduler.getPoolSize(), periodoMs);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * Ejecuta inmediatamente todas las particiones en paralelo y espera a que terminen.
+     * Las particiones que ya estén en ejecución se omiten y cuentan como sobrecarga.
+     *
+     * @return long número total de lecturas registradas
+     */
+    public long ejecutarTodasLasParticiones() {
+        List<CompletableFuture<Integer>> futuros = estados.stream()
+                .map(estado -> CompletableFuture.supplyAsync(() -> ejecutarParticion(estado),
+                        scheduler.getScheduledExecutor()))
+                .toList();
+        return futuros.stream().mapToLong(CompletableFuture::join).sum();
+    }
+
+    private int ejecutarParticion(EstadoParticion estado) {
+        // Con varias réplicas, cada partición la procesa solo la instancia que tiene su lease
+        if (!coordinadorParticiones.esPropietario(estado.particion)) {
+            return 0;
+        }
+        if (!estado.enEjecucion.compareAndSet(false, true)) {
+            estado.registrarSobrecarga();
+            logger.warn("Partición {} sigue en ejecución; se omite este ciclo", estado.particion);
+            return 0;
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            return trazador.tarea(estado.nombreTraza,
+                    () -> lecturaService.registrarLecturasParticion(estado.particion));
+        } catch (Exception e) {
+            logger.error("Error en lecturas de la partición {}: {}", estado.particion, e.getMessage(), e);
+            return 0;
+        } finally {
+            long duracionNs = System.nanoTime() - inicio;
+            estado.duracion.record(Duration.ofNanos(duracionNs));
+            if (duracionNs / 1_000_000 > periodoMs) {
+                estado.registrarSobrecarga();
+                logger.warn("Partición {} tardó {} ms, supera el periodo de {} ms",
+                        estado.particion, duracionNs / 1_000_000, periodoMs);
+            }
+            estado.enEjecucion.set(false);
+        }
+    }
+
+    /**
+     * Estado y métricas de una partición del planificador.
+     */
+    private class EstadoParticion {
+        private final int particion;
+        private final String nombreTraza;
+        private final AtomicBoolean enEjecucion = new AtomicBoolean(false);
+        private final Timer duracion;
+        private final Counter sobrecargas;
+
+        EstadoParticion(int particion) {
+            this.particion = particion;
+            this.nombreTraza = "lecturas particion " + particion;
+            String etiqueta = String.valueOf(particion);
+            this.duracion = Timer.builder("simcii.lecturas.particion.duracion")
+                    .tag("particion", etiqueta)
+                    .register(meterRegistry);
+            this.sobrecargas = Counter.builder("simcii.lecturas.particion.sobrecargas")
+                    .tag("particion", etiqueta)
+                    .register(meterRegistry);
+        }
+
+        void registrarSobrecarga() {
+            sobrecargas.increment();
+        }
+    }
+}
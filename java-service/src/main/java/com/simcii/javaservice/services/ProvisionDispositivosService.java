@@ -0,0 +1,163 @@
+package com.simcii.javaservice.services;
+
+import com.simcii.javaservice.almacenamiento.AlmacenamientoDispositivos;
+import com.simcii.javaservice.dto.ProvisionDispositivoRequest;
+import com.simcii.javaservice.dto.ResultadoLoteProvision;
+import com.simcii.javaservice.dto.ResultadoProvision;
+import com.simcii.javaservice.models.Dispositivo;
+import com.simcii.javaservice.models.Sensor;
+import com.simcii.javaservice.models.Umbral;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Servicio de aprovisionamiento masivo de dispositivos para el alta de invernaderos completos.
+ * Valida cada elemento, completa los umbrales por defecto de los sensores y guarda los
+ * dispositivos válidos en bloques, cada uno en su propia transacción. Si un bloque falla
+ * se reintentan sus elementos uno a uno para informar el error de cada elemento.
+ *
+ * @see AlmacenamientoDispositivos#provisionarLote(List, List)
+ */
+@Service
+public class ProvisionDispositivosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProvisionDispositivosService.class);
+
+    @Autowired
+    private AlmacenamientoDispositivos almacenamiento;
+
+    @Autowired
+    private UmbralService umbralService;
+
+    @Autowired
+    private VersionesRecursosService versionesRecursos;
+
+    @Autowired
+    private BusquedaDispositivosService busquedaDispositivos;
+
+    @Value("${provision.tamano-bloque:500}")
+    private int tamanoBloque;
+
+    @Value("${provision.max-elementos:10000}")
+    private int maxElementos;
+
+    public int getMaxElementos() {
+        return maxElementos;
+    }
+
+    /**
+     * Aprovisiona un lote de dispositivos con sus umbrales.
+     *
+     * @param elementos Dispositivos a crear, en el orden de la petición
+     * @return ResultadoLoteProvision con el resultado de cada elemento
+     */
+    public ResultadoLoteProvision provisionar(List<ProvisionDispositivoRequest> elementos) {
+        ResultadoProvision[] resultados = new ResultadoProvision[elementos.size()];
+        List<Integer> validos = new ArrayList<>();
+
+        for (int i = 0; i < elementos.size(); i++) {
+            String error = validar(elementos.get(i));
+            if (error != null) {
+                resultados[i] = ResultadoProvision.error(i, error);
+            } else {
+                prepararElemento(elementos.get(i));
+                validos.add(i);
+            }
+        }
+
+        for (int desde = 0; desde < validos.size(); desde += tamanoBloque) {
+            List<Integer> bloque = validos.subList(desde, Math.min(desde + tamanoBloque, validos.size()));
+            try {
+                guardarBloque(elementos, bloque);
+                bloque.forEach(i -> resultados[i] = ResultadoProvision.exito(i, elementos.get(i).getDispositivo().getId()));
+            } catch (Exception e) {
+                logger.warn("Falló un bloque de {} dispositivos, reintentando uno a uno: {}",
+                        bloque.size(), mensaje(e));
+                for (Integer i : bloque) {
+                    try {
+                        elementos.get(i).getDispositivo().setId(null);
+                        guardarBloque(elementos, List.of(i));
+                        resultados[i] = ResultadoProvision.exito(i, elementos.get(i).getDispositivo().getId());
+                    } catch (Exception individual) {
+                        elementos.get(i).getDispositivo().setId(null);
+                        resultados[i] = ResultadoProvision.error(i, mensaje(individual));
+                    }
+                }
+            }
+        }
+
+        ResultadoLoteProvision resultado = new ResultadoLoteProvision(Arrays.asList(resultados));
+        logger.info("Aprovisionamiento masivo: {} creados, {} errores de {}",
+                resultado.getCreados(), resultado.getErrores(), resultado.getTotal());
+        return resultado;
+    }
+
+    private void guardarBloque(List<ProvisionDispositivoRequest> elementos, List<Integer> indices) {
+        List<Dispositivo> dispositivos = new ArrayList<>(indices.size());
+        List<Umbral> umbrales = new ArrayList<>();
+        for (Integer i : indices) {
+            dispositivos.add(elementos.get(i).getDispositivo());
+            umbrales.addAll(elementos.get(i).getUmbrales());
+        }
+        almacenamiento.provisionarLote(dispositivos, umbrales);
+        versionesRecursos.catalogoModificado();
+        busquedaDispositivos.indexarLote(dispositivos);
+    }
+
+    // Mismas reglas que el alta individual en DispositivoController
+    private String validar(ProvisionDispositivoRequest elemento) {
+        Dispositivo dispositivo = elemento.getDispositivo();
+        if (dispositivo == null) {
+            return "El dispositivo es requerido";
+        }
+        if (dispositivo.getNombre() == null || dispositivo.getNombre().trim().isEmpty()) {
+            return "El nombre es requerido";
+        }
+        if (dispositivo.getUbicacion() == null || dispositivo.getUbicacion().trim().isEmpty()) {
+            return "La ubicación es requerida";
+        }
+        for (Umbral umbral : elemento.getUmbrales()) {
+            if (umbral.getValorMin() == null || umbral.getValorMax() == null) {
+                return "Los umbrales requieren valorMin y valorMax";
+            }
+            if (umbral.getValorMin() > umbral.getValorMax()) {
+                return "Umbral con valorMin mayor que valorMax";
+            }
+        }
+        return null;
+    }
+
+    private void prepararElemento(ProvisionDispositivoRequest elemento) {
+        Dispositivo dispositivo = elemento.getDispositivo();
+        dispositivo.setId(null);
+        if (dispositivo.getActivo() == null) {
+            dispositivo.setActivo(true);
+        }
+        dispositivo.setFechaCreacion(LocalDateTime.now());
+
+        if (elemento.getUmbrales().isEmpty() && dispositivo instanceof Sensor) {
+            elemento.getUmbrales().add(umbralService.crearUmbralPorDefecto(dispositivo));
+        }
+        for (Umbral umbral : elemento.getUmbrales()) {
+            umbral.setId(null);
+            umbral.setDispositivo(dispositivo);
+            if (umbral.getActivo() == null) {
+                umbral.setActivo(true);
+            }
+        }
+    }
+
+    private static String mensaje(Exception e) {
+        Throwable causa = NestedExceptionUtils.getMostSpecificCause(e);
+        return causa.getMessage() != null ? causa.getMessage() : causa.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,216 @@
+package com.simcii.javaservice.services;
+
+import com.simcii.javaservice.almacenamiento.AlmacenamientoDispositivos;
+import com.simcii.javaservice.dto.EstadoActuadorZona;
+import com.simcii.javaservice.dto.LecturaCompacta;
+import com.simcii.javaservice.dto.ResumenZona;
+import com.simcii.javaservice.dto.UltimaLecturaZona;
+import com.simcii.javaservice.models.Actuador;
+import com.simcii.javaservice.models.Dispositivo;
+import com.simcii.javaservice.models.Lectura;
+import com.simcii.javaservice.models.Sensor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Resumen en vivo por zona (ubicación) para el panel.
+ *
+ * El resumen se publica como un mapa concurrente ordenado de {@link ResumenZona} inmutables:
+ * leerlo no bloquea. Las lecturas, los cambios de actuadores y las alertas nuevas lo actualizan de
+ * forma incremental sustituyendo solo la zona afectada por una copia (escritores serializados, sin
+ * acceso al almacenamiento ni copia del resto de zonas). Periódicamente se reconstruye desde el
+ * almacenamiento en un mapa nuevo para recoger altas, bajas y cambios de zona y reconciliar las
+ * alertas abiertas y las últimas lecturas (también las ingeridas por otras réplicas).
+ */
+@Service
+public class ResumenZonasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumenZonasService.class);
+
+    @Autowired
+    private AlmacenamientoDispositivos almacenamiento;
+
+    private volatile ConcurrentNavigableMap<String, ResumenZona> resumenes = new ConcurrentSkipListMap<>();
+    private volatile Map<Long, String> zonaPorDispositivo = Map.of();
+
+    /**
+     * Resumen de todas las zonas, ordenado por nombre de zona.
+     */
+    public Collection<ResumenZona> obtenerResumenes() {
+        return Collections.unmodifiableCollection(resumenes.values());
+    }
+
+    public Optional<ResumenZona> obtenerResumen(String zona) {
+        return Optional.ofNullable(resumenes.get(zona));
+    }
+
+    /**
+     * Actualiza la última lectura del tipo de sensor en la zona del dispositivo.
+     *
+     * @param lectura Lectura ya guardada
+     */
+    public void registrarLectura(Lectura lectura) {
+        if (!(lectura.getDispositivo() instanceof Sensor sensor) || lectura.getValor() == null) {
+            return;
+        }
+        String zona = zonaPorDispositivo.get(sensor.getId());
+        if (zona == null || sensor.getTipoSensor() == null) {
+            return;
+        }
+        UltimaLecturaZona nueva = new UltimaLecturaZona(sensor.getId(), sensor.getNombre(), lectura.getValor(),
+                lectura.getUnidad(), lectura.getFechaHora());
+        publicar(zona, resumen -> {
+            UltimaLecturaZona actual = resumen.getUltimasLecturas().get(sensor.getTipoSensor());
+            return esMasReciente(actual, nueva) ? resumen.conLectura(sensor.getTipoSensor(), nueva) : resumen;
+        });
+    }
+
+    /**
+     * Refleja un cambio de estado o modo de un actuador; los valores nulos no se modifican.
+     */
+    public void registrarActuador(Long actuadorId, Boolean estado, String modoOperacion) {
+        String zona = zonaPorDispositivo.get(actuadorId);
+        if (zona != null) {
+            publicar(zona, resumen -> resumen.conActuador(actuadorId, estado, modoOperacion));
+        }
+    }
+
+    /**
+     * Cuenta una alerta nueva en la zona del dispositivo.
+     */
+    public void registrarAlerta(Dispositivo dispositivo) {
+        String zona = zonaPorDispositivo.get(dispositivo.getId());
+        if (zona != null) {
+            publicar(zona, resumen -> resumen.conAlertasAbiertas(resumen.getAlertasAbiertas() + 1));
+        }
+    }
+
+    private synchronized void publicar(String zona, UnaryOperator<ResumenZona> cambio) {
+        ResumenZona actual = resumenes.get(zona);
+        if (actual == null) {
+            return;
+        }
+        ResumenZona nuevo = cambio.apply(actual);
+        if (nuevo != actual) {
+            resumenes.put(zona, nuevo);
+        }
+    }
+
+    /**
+     * Reconstruye el resumen desde los dispositivos activos y el recuento de alertas abiertas.
+     * La última lectura de cada (zona, tipo de sensor) se vuelve a consultar en cada reconstrucción,
+     * con una sola consulta para todas las zonas: recoge las lecturas ingeridas por otras réplicas.
+     */
+    @Scheduled(fixedDelayString = "${zonas.resumen.recarga-ms:60000}")
+    public void reconstruir() {
+        List<Dispositivo> dispositivos = almacenamiento.buscarDispositivosActivos();
+        Map<String, Long> alertas = almacenamiento.contarAlertasActivasPorUbicacion();
+
+        Map<String, List<Sensor>> sensoresPorZona = new TreeMap<>();
+        Map<String, List<EstadoActuadorZona>> actuadoresPorZona = new TreeMap<>();
+        Map<Long, String> zonas = new HashMap<>();
+        for (Dispositivo dispositivo : dispositivos) {
+            String zona = dispositivo.getUbicacion();
+            if (zona == null) {
+                continue;
+            }
+            zonas.put(dispositivo.getId(), zona);
+            sensoresPorZona.computeIfAbsent(zona, z -> new ArrayList<>());
+            actuadoresPorZona.computeIfAbsent(zona, z -> new ArrayList<>());
+            if (dispositivo instanceof Sensor sensor) {
+                sensoresPorZona.get(zona).add(sensor);
+            } else if (dispositivo instanceof Actuador actuador) {
+                actuadoresPorZona.get(zona).add(new EstadoActuadorZona(actuador.getId(), actuador.getNombre(),
+                        actuador.getTipoActuador(), actuador.getEstado(), actuador.getModoOperacion()));
+            }
+        }
+
+        Map<String, Map<String, UltimaLecturaZona>> lecturasPorZona = new HashMap<>();
+        Map<String, Map<String, List<Sensor>>> sensoresPorTipo = new HashMap<>();
+        for (Map.Entry<String, List<Sensor>> entrada : sensoresPorZona.entrySet()) {
+            lecturasPorZona.put(entrada.getKey(), new HashMap<>());
+            for (Sensor sensor : entrada.getValue()) {
+                if (sensor.getTipoSensor() != null) {
+                    sensoresPorTipo.computeIfAbsent(entrada.getKey(), z -> new HashMap<>())
+                            .computeIfAbsent(sensor.getTipoSensor(), t -> new ArrayList<>()).add(sensor);
+                }
+            }
+        }
+        cargarUltimasLecturas(sensoresPorTipo, lecturasPorZona);
+
+        synchronized (this) {
+            // Una lectura registrada aquí durante la reconstrucción puede ser posterior a la consulta:
+            // se conserva la más reciente si su sensor sigue en la zona con ese tipo
+            Map<String, ResumenZona> actuales = resumenes;
+            ConcurrentNavigableMap<String, ResumenZona> nuevos = new ConcurrentSkipListMap<>();
+            LocalDateTime ahora = LocalDateTime.now();
+            for (String zona : sensoresPorZona.keySet()) {
+                Map<String, UltimaLecturaZona> lecturas = lecturasPorZona.get(zona);
+                ResumenZona actual = actuales.get(zona);
+                if (actual != null) {
+                    Map<String, List<Sensor>> porTipo = sensoresPorTipo.getOrDefault(zona, Map.of());
+                    actual.getUltimasLecturas().forEach((tipo, lectura) -> {
+                        if (incluye(porTipo.get(tipo), lectura.getDispositivoId()) && esMasReciente(lecturas.get(tipo), lectura)) {
+                            lecturas.put(tipo, lectura);
+                        }
+                    });
+                }
+                nuevos.put(zona, new ResumenZona(zona, sensoresPorZona.get(zona).size(), lecturas,
+                        actuadoresPorZona.get(zona), alertas.getOrDefault(zona, 0L), ahora));
+            }
+            resumenes = nuevos;
+            zonaPorDispositivo = zonas;
+        }
+        logger.debug("Resumen de zonas reconstruido: {} zonas, {} dispositivos", sensoresPorZona.size(), zonas.size());
+    }
+
+    /**
+     * Completa la última lectura de cada (zona, tipo de sensor) con la más reciente de sus sensores,
+     * obtenidas todas con una sola consulta.
+     */
+    private void cargarUltimasLecturas(Map<String, Map<String, List<Sensor>>> sensoresPorTipo,
+                                       Map<String, Map<String, UltimaLecturaZona>> lecturasPorZona) {
+        if (sensoresPorTipo.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        sensoresPorTipo.values().forEach(porTipo -> porTipo.values().forEach(sensores -> sensores.forEach(s -> ids.add(s.getId()))));
+        Map<Long, LecturaCompacta> ultimasPorSensor = almacenamiento.buscarUltimaLecturaPorDispositivo(ids);
+
+        sensoresPorTipo.forEach((zona, porTipo) -> porTipo.forEach((tipo, sensores) -> {
+            UltimaLecturaZona ultima = null;
+            for (Sensor sensor : sensores) {
+                LecturaCompacta lectura = ultimasPorSensor.get(sensor.getId());
+                if (lectura == null) {
+                    continue;
+                }
+                UltimaLecturaZona candidata = new UltimaLecturaZona(sensor.getId(), sensor.getNombre(),
+                        lectura.getValor(), lectura.getUnidad(), lectura.getFechaHora());
+                if (esMasReciente(ultima, candidata)) {
+                    ultima = candidata;
+                }
+            }
+            if (ultima != null) {
+                lecturasPorZona.get(zona).put(tipo, ultima);
+            }
+        }));
+    }
+
+    private static boolean incluye(List<Sensor> sensores, Long sensorId) {
+        return sensores != null && sensores.stream().anyMatch(sensor -> sensor.getId().equals(sensorId));
+    }
+
+    private static boolean esMasReciente(UltimaLecturaZona actual, UltimaLecturaZona candidata) {
+        return actual == null || actual.getFechaHora() == null
+                || (candidata.getFechaHora() != null && !candidata.getFechaHora().isBefore(actual.getFechaHora()));
+    }
+}
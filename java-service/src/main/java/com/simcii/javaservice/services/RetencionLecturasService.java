@@ -0,0 +1,159 @@
+package com.simcii.javaservice.services;
+
+import com.simcii.javaservice.almacenamiento.AlmacenamientoDispositivos;
+import com.simcii.javaservice.retencion.PropiedadesRetencion;
+import com.simcii.javaservice.trazas.Trazador;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purga continua de lecturas antiguas según la política de retención de cada tipo de sensor.
+ *
+ * Cada ciclo recorre los sensores de cada política en orden de ID y borra sus lecturas vencidas
+ * en lotes pequeños, con una pausa entre lotes para no competir con la ingesta. Tras cada página
+ * de sensores se guarda un punto de control; si el ciclo agota su tiempo máximo, el siguiente
+ * continúa desde ahí, de modo que un histórico grande se purga en varios ciclos sin bloqueos largos.
+ * Corre en su propio hilo para no retrasar las tareas {@code @Scheduled} (latidos de sharding, etc.).
+ *
+ * @see PropiedadesRetencion
+ */
+@Service
+public class RetencionLecturasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetencionLecturasService.class);
+    private static final int SENSORES_POR_PAGINA = 100;
+
+    @Autowired
+    private PropiedadesRetencion propiedades;
+
+    @Autowired
+    private AlmacenamientoDispositivos almacenamiento;
+
+    @Autowired
+    private CoordinadorParticiones coordinadorParticiones;
+
+    @Autowired
+    private VersionesRecursosService versionesRecursosService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Trazador trazador;
+
+    private ThreadPoolTaskScheduler scheduler;
+
+    @PostConstruct
+    public void iniciar() {
+        if (!propiedades.isHabilitada() || propiedades.getDias().isEmpty()) {
+            logger.info("Retención de lecturas deshabilitada");
+            return;
+        }
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("retencion-lecturas-");
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(() -> trazador.tarea("retencion ciclo", this::ejecutarCiclo),
+                Instant.now().plusMillis(propiedades.getRetardoInicialMs()), Duration.ofMillis(propiedades.getIntervaloMs()));
+        logger.info("Retención de lecturas: {} días por tipo, lotes de {}, pausa {} ms",
+                propiedades.getDias(), propiedades.getTamanoLote(), propiedades.getPausaMs());
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    public void ejecutarCiclo() {
+        // Con varias réplicas purga solo la propietaria de la partición 0
+        if (!coordinadorParticiones.esPropietario(0)) {
+            return;
+        }
+        long fin = System.currentTimeMillis() + propiedades.getDuracionMaximaMs();
+        Map<String, Long> puntosControl = almacenamiento.cargarPuntosControlRetencion();
+        try {
+            for (Map.Entry<String, Integer> politica : propiedades.getDias().entrySet()) {
+                if (!purgarPolitica(politica.getKey(), politica.getValue(),
+                        puntosControl.getOrDefault(politica.getKey(), 0L), fin)) {
+                    logger.debug("Retención: tiempo de ciclo agotado, se continúa en el siguiente");
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Error en la purga de lecturas: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Purga las lecturas de un tipo de sensor desde el punto de control.
+     *
+     * @return boolean true si se completó la política; false si se agotó el tiempo del ciclo
+     */
+    private boolean purgarPolitica(String tipoSensor, int dias, long desde, long fin) throws InterruptedException {
+        LocalDateTime limite = LocalDateTime.now().minusDays(dias);
+        Counter eliminadas = Counter.builder("simcii.retencion.lecturas.eliminadas")
+                .description("Lecturas borradas por la política de retención")
+                .tag("tipo", tipoSensor)
+                .register(meterRegistry);
+        Timer duracionLote = Timer.builder("simcii.retencion.lote.duracion")
+                .description("Duración de cada lote de borrado de lecturas")
+                .tag("tipo", tipoSensor)
+                .register(meterRegistry);
+
+        long total = 0;
+        Long ultimoId = desde;
+        List<Long> sensores;
+        do {
+            sensores = almacenamiento.buscarIdsSensoresPorTipo(tipoSensor, ultimoId, SENSORES_POR_PAGINA);
+            for (Long dispositivoId : sensores) {
+                int borradas;
+                do {
+                    if (System.currentTimeMillis() >= fin) {
+                        almacenamiento.guardarPuntoControlRetencion(tipoSensor, ultimoId);
+                        logger.info("Retención {}: {} lecturas borradas, pendiente desde el sensor {}", tipoSensor, total, dispositivoId);
+                        return false;
+                    }
+                    long inicio = System.nanoTime();
+                    borradas = almacenamiento.eliminarLecturasAnteriores(dispositivoId, limite, propiedades.getTamanoLote());
+                    duracionLote.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                    if (borradas > 0) {
+                        eliminadas.increment(borradas);
+                        total += borradas;
+                        versionesRecursosService.lecturasModificadas(dispositivoId);
+                        Thread.sleep(propiedades.getPausaMs());
+                    }
+                } while (borradas == propiedades.getTamanoLote());
+                ultimoId = dispositivoId;
+            }
+            if (!sensores.isEmpty()) {
+                almacenamiento.guardarPuntoControlRetencion(tipoSensor, ultimoId);
+            }
+        } while (sensores.size() == SENSORES_POR_PAGINA);
+
+        // Ciclo completo: el siguiente vuelve a empezar por el primer sensor
+        almacenamiento.guardarPuntoControlRetencion(tipoSensor, 0L);
+        if (total > 0) {
+            logger.info("Retención {}: {} lecturas anteriores a {} borradas", tipoSensor, total, limite);
+        }
+        return true;
+    }
+}
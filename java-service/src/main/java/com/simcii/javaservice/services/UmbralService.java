@@ -5,57 +5,161 @@ import com.simcii.javaservice.models.Umbral;
 import com.simcii.javaservice.models.SensorTemperatura;
 import com.simcii.javaservice.models.SensorHumedad;
 import com.simcii.javaservice.models.SensorLuz;
-import com.simcii.javaservice.repositories.UmbralRepository;
-import com.simcii.javaservice.repositories.DispositivoRepository;
+import com.simcii.javaservice.almacenamiento.AlmacenamientoDispositivos;
+import com.simcii.javaservice.registro.MuestreoRegistro;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 @Service
 public class UmbralService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UmbralService.class);
     
     @Autowired
-    private UmbralRepository umbralRepository;
+    private AlmacenamientoDispositivos almacenamiento;
     
     @Autowired
-    private DispositivoRepository dispositivoRepository;
-    
-    private Random random = new Random();
+    private ParticionadorSensores particionadorSensores;
     
+    @Autowired
+    private CoordinadorParticiones coordinadorParticiones;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${umbrales.inicializacion.habilitada:true}")
+    private boolean inicializacionHabilitada;
+
+    @Value("${umbrales.inicializacion.lote:1000}")
+    private int tamanoLote;
+
+    @Value("${registro.muestreo.por-segundo:5}")
+    private int trazasPorSegundo;
+
+    // Un único hilo: las inicializaciones (arranque y particiones adquiridas) no se solapan
+    private ThreadPoolTaskExecutor ejecutorInicializacion;
+    private final AtomicInteger inicializacionEnCurso = new AtomicInteger();
+    private Counter sensoresRevisados;
+    private Counter umbralesCreados;
+    private Timer duracionInicializacion;
+    private MuestreoRegistro muestreoValores;
+
     @PostConstruct
+    public void inicializar() {
+        muestreoValores = new MuestreoRegistro(trazasPorSegundo);
+        ejecutorInicializacion = new ThreadPoolTaskExecutor();
+        ejecutorInicializacion.setCorePoolSize(1);
+        ejecutorInicializacion.setMaxPoolSize(1);
+        ejecutorInicializacion.setThreadNamePrefix("umbrales-inicializacion-");
+        ejecutorInicializacion.initialize();
+
+        sensoresRevisados = Counter.builder("simcii.umbrales.inicializacion.revisados")
+                .description("Sensores sin umbral revisados por la inicialización de umbrales por defecto")
+                .register(meterRegistry);
+        umbralesCreados = Counter.builder("simcii.umbrales.inicializacion.creados")
+                .description("Umbrales por defecto creados")
+                .register(meterRegistry);
+        duracionInicializacion = Timer.builder("simcii.umbrales.inicializacion.duracion")
+                .description("Duración de cada inicialización de umbrales por defecto")
+                .register(meterRegistry);
+        Gauge.builder("simcii.umbrales.inicializacion.en_curso", inicializacionEnCurso, AtomicInteger::get)
+                .description("1 mientras hay una inicialización de umbrales en curso")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutorInicializacion.shutdown();
+    }
+
+    /**
+     * Crea los umbrales por defecto de los sensores que no tienen ninguno. Se ejecuta en segundo
+     * plano cuando la aplicación ya está lista, para no retrasar el arranque con flotas grandes;
+     * mientras tanto los sensores sin umbral generan valores con los rangos por defecto.
+     */
+    @EventListener(ApplicationReadyEvent.class)
     public void inicializarUmbralesPorDefecto() {
-        System.out.println("=== INICIALIZANDO UMBRALES POR DEFECTO ===");
-        
+        if (!inicializacionHabilitada) {
+            return;
+        }
+        // Con sharding activo solo se inicializan los sensores de particiones propias
+        ejecutorInicializacion.execute(() -> inicializarUmbrales("arranque",
+                d -> coordinadorParticiones.esPropietario(particionadorSensores.particionDe(d))));
+    }
+    
+    @EventListener
+    public void onParticionesAsignadas(ParticionesAsignadasEvent event) {
+        if (!inicializacionHabilitada) {
+            return;
+        }
+        ejecutorInicializacion.execute(() -> inicializarUmbrales("particiones " + event.particiones(),
+                d -> event.particiones().contains(particionadorSensores.particionDe(d))));
+    }
+    
+    /**
+     * Recorre los sensores sin umbral por lotes (paginación por ID) y guarda los umbrales
+     * por defecto de cada lote con una sola escritura.
+     */
+    private void inicializarUmbrales(String origen, Predicate<Dispositivo> filtro) {
+        inicializacionEnCurso.set(1);
+        long inicio = System.nanoTime();
+        long creados = 0;
         try {
-            List<Dispositivo> sensores = dispositivoRepository.findAll().stream()
-                .filter(d -> d.getClass().getSimpleName().contains("Sensor"))
-                .filter(Dispositivo::getActivo)
-                .toList();
-            
-            System.out.println("Sensores encontrados para umbrales: " + sensores.size());
-            
-            for (Dispositivo sensor : sensores) {
-                // Verificar si ya existe umbral para este sensor
-                if (umbralRepository.findByDispositivo(sensor).isEmpty()) {
-                    Umbral umbral = crearUmbralPorDefecto(sensor);
-                    umbralRepository.save(umbral);
-                    System.out.println("Umbral creado para: " + sensor.getNombre() + " | Rango: " + 
-                                     umbral.getValorMin() + " - " + umbral.getValorMax());
+            Long ultimoId = 0L;
+            List<Dispositivo> sensores;
+            do {
+                sensores = almacenamiento.buscarSensoresActivosSinUmbral(ultimoId, tamanoLote);
+                if (sensores.isEmpty()) {
+                    break;
                 }
-            }
-            
-            System.out.println("=== INICIALIZACIÓN DE UMBRALES COMPLETADA ===");
-            
+                ultimoId = sensores.get(sensores.size() - 1).getId();
+                sensoresRevisados.increment(sensores.size());
+
+                List<Umbral> umbrales = new ArrayList<>(sensores.size());
+                for (Dispositivo sensor : sensores) {
+                    if (filtro.test(sensor)) {
+                        umbrales.add(crearUmbralPorDefecto(sensor));
+                    }
+                }
+                if (!umbrales.isEmpty()) {
+                    almacenamiento.guardarUmbrales(umbrales);
+                    umbralesCreados.increment(umbrales.size());
+                    creados += umbrales.size();
+                }
+                logger.debug("Umbrales por defecto ({}): {} creados, último sensor {}", origen, creados, ultimoId);
+            } while (sensores.size() == tamanoLote);
+
+            logger.info("Inicialización de umbrales por defecto ({}) completada: {} creados en {} ms",
+                    origen, creados, (System.nanoTime() - inicio) / 1_000_000);
         } catch (Exception e) {
-            System.err.println("Error inicializando umbrales: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error inicializando umbrales por defecto ({}): {}", origen, e.getMessage(), e);
+        } finally {
+            duracionInicializacion.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            inicializacionEnCurso.set(0);
         }
     }
     
-    private Umbral crearUmbralPorDefecto(Dispositivo sensor) {
+    public Umbral crearUmbralPorDefecto(Dispositivo sensor) {
         Umbral umbral = new Umbral();
         umbral.setDispositivo(sensor);
         umbral.setActivo(true);
@@ -84,21 +188,23 @@ public class UmbralService {
     
     public Double generarValorSegunUmbral(Dispositivo dispositivo) {
         try {
-            List<Umbral> umbrales = umbralRepository.findByDispositivo(dispositivo);
+            List<Umbral> umbrales = almacenamiento.buscarUmbrales(dispositivo.getId());
             
             if (!umbrales.isEmpty()) {
                 Umbral umbral = umbrales.get(0); // Tomar el primer umbral activo
                 double rango = umbral.getValorMax() - umbral.getValorMin();
-                double valor = umbral.getValorMin() + (random.nextDouble() * rango);
+                double valor = umbral.getValorMin() + (ThreadLocalRandom.current().nextDouble() * rango);
                 
-                System.out.println("Valor generado desde umbral: " + valor + 
-                                 " | Rango: " + umbral.getValorMin() + "-" + umbral.getValorMax() +
-                                 " | Sensor: " + dispositivo.getNombre());
+                if (logger.isTraceEnabled() && muestreoValores.permitir()) {
+                    logger.trace("Valor generado desde umbral: {} | Rango: {}-{} | Sensor: {} (+{} omitidas)", valor,
+                            umbral.getValorMin(), umbral.getValorMax(), dispositivo.getNombre(),
+                            muestreoValores.tomarOmitidas());
+                }
                 
                 return valor;
             }
         } catch (Exception e) {
-            System.err.println("Error generando valor desde umbral: " + e.getMessage());
+            logger.warn("Error generando valor desde umbral para el dispositivo {}: {}", dispositivo.getId(), e.getMessage());
         }
         
         // Fallback a valores por defecto
@@ -106,6 +212,8 @@ public class UmbralService {
     }
     
     private Double generarValorPorDefecto(Dispositivo dispositivo) {
+        // Invocado en paralelo desde las particiones del planificador
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         if (dispositivo instanceof SensorTemperatura) {
             return 15 + (random.nextDouble() * 20);
         } else if (dispositivo instanceof SensorHumedad) {
@@ -118,22 +226,23 @@ public class UmbralService {
 
     // Revisar esto
     public Umbral guardarUmbral(Umbral umbral) {
-        return umbralRepository.save(umbral);
+        return almacenamiento.guardarUmbral(umbral);
     }
     
     public Umbral obtenerUmbralPorId(Long id) {
-        return umbralRepository.findById(id).orElse(null);
+        return almacenamiento.buscarUmbral(id).orElse(null);
     }
     
     public void desactivarUmbral(Long id) {
-        Umbral umbral = umbralRepository.findById(id).orElse(null);
+        Umbral umbral = almacenamiento.buscarUmbral(id).orElse(null);
         if (umbral != null) {
             umbral.setActivo(false);
-            umbralRepository.save(umbral);
+            almacenamiento.guardarUmbral(umbral);
         }
     }
     
+    @Transactional(readOnly = true)
     public List<Umbral> obtenerUmbralesPorDispositivo(Long dispositivoId) {
-        return umbralRepository.findByDispositivoId(dispositivoId);
+        return almacenamiento.buscarUmbrales(dispositivoId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.simcii.javaservice.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Validadores HTTP (ETag y Last-Modified) para las peticiones GET condicionales del catálogo de
+ * dispositivos y de las lecturas de cada dispositivo. Se basan en contadores de versión que los
+ * servicios incrementan en cada escritura, de modo que una petición con validadores vigentes se
+ * responde con 304 Not Modified sin consultar el almacenamiento ni serializar la respuesta.
+ *
+ * El ETag incluye el instante de arranque, así que los validadores de una ejecución anterior
+ * nunca coinciden. Los contadores son locales a la instancia: con sharding habilitado otras
+ * réplicas escriben lecturas que esta no ve, por lo que los validadores caducan además cada
+ * {@code condicional.validez-replicas-ms} y un 304 nunca es más antiguo que ese intervalo.
+ */
+@Service
+public class VersionesRecursosService {
+
+    private static final class Version {
+        final AtomicLong valor = new AtomicLong();
+        volatile long modificadoMs;
+
+        Version(long modificadoMs) {
+            this.modificadoMs = modificadoMs;
+        }
+
+        void incrementar() {
+            valor.incrementAndGet();
+            modificadoMs = System.currentTimeMillis();
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sharding.habilitado:false}")
+    private boolean sharding;
+
+    @Value("${condicional.validez-replicas-ms:5000}")
+    private long validezReplicasMs;
+
+    private final long arranqueMs = System.currentTimeMillis();
+    private final String prefijo = Long.toHexString(arranqueMs);
+    private final Version catalogo = new Version(arranqueMs);
+    private final ConcurrentHashMap<Long, Version> lecturas = new ConcurrentHashMap<>();
+
+    private Counter noModificadas;
+    private Counter modificadas;
+    private Counter incondicionales;
+
+    @PostConstruct
+    public void inicializar() {
+        noModificadas = contador("no_modificado");
+        modificadas = contador("modificado");
+        incondicionales = contador("sin_validador");
+        Gauge.builder("simcii.http.condicional.ratio", this, VersionesRecursosService::ratioAciertos)
+                .description("Fracción de GET de catálogo y lecturas respondidos con 304 Not Modified")
+                .register(meterRegistry);
+    }
+
+    private Counter contador(String resultado) {
+        return Counter.builder("simcii.http.condicional")
+                .description("GET de catálogo y lecturas según su resultado de validación condicional")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    private double ratioAciertos() {
+        double total = noModificadas.count() + modificadas.count() + incondicionales.count();
+        return total > 0 ? noModificadas.count() / total : 0.0;
+    }
+
+    /**
+     * Registra una escritura en dispositivos (alta, modificación, baja, estado o modo de actuadores).
+     */
+    public void catalogoModificado() {
+        catalogo.incrementar();
+    }
+
+    /**
+     * Registra una lectura nueva (o la baja) de un dispositivo.
+     */
+    public void lecturasModificadas(Long dispositivoId) {
+        Version version = lecturas.get(dispositivoId);
+        if (version == null) {
+            version = lecturas.computeIfAbsent(dispositivoId, id -> new Version(arranqueMs));
+        }
+        version.incrementar();
+    }
+
+    /**
+     * Comprueba los validadores de la petición contra la versión del catálogo. Si siguen vigentes,
+     * la respuesta queda como 304 y el controlador debe devolver null; en otro caso añade ETag y
+     * Last-Modified a la respuesta.
+     */
+    public boolean catalogoNoModificado(WebRequest request) {
+        return comprobar(request, "c", catalogo);
+    }
+
+    /**
+     * Como {@link #catalogoNoModificado(WebRequest)} para las lecturas de un dispositivo.
+     */
+    public boolean lecturasNoModificadas(Long dispositivoId, WebRequest request) {
+        Version version = lecturas.get(dispositivoId);
+        return comprobar(request, "l" + dispositivoId, version != null ? version : new Version(arranqueMs));
+    }
+
+    private boolean comprobar(WebRequest request, String recurso, Version version) {
+        long valor = version.valor.get();
+        long modificadoMs = version.modificadoMs;
+        String etag = "\"" + prefijo + "-" + recurso + "-" + valor;
+        if (sharding) {
+            long intervalo = System.currentTimeMillis() / validezReplicasMs;
+            etag += "-" + Long.toHexString(intervalo);
+            modificadoMs = Math.max(modificadoMs, intervalo * validezReplicasMs);
+        }
+        etag += "\"";
+
+        boolean condicional = request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+        boolean noModificado = request.checkNotModified(etag, modificadoMs);
+        (noModificado ? noModificadas : condicional ? modificadas : incondicionales).increment();
+        return noModificado;
+    }
+}
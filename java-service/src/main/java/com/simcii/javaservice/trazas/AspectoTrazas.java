@@ -0,0 +1,47 @@
+package com.simcii.javaservice.trazas;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spans alrededor de las tareas {@code @Scheduled}, de las operaciones de almacenamiento y de las
+ * consultas de los repositorios de Spring Data. Los controladores y las llamadas salientes con
+ * {@code RestTemplate} los instrumenta Spring Boot (observaciones HTTP), con propagación W3C.
+ */
+@Aspect
+@Component
+public class AspectoTrazas {
+
+    @Autowired
+    private Trazador trazador;
+
+    @Around("@annotation(org.springframework.scheduling.annotation.Scheduled)")
+    public Object trazarTareaProgramada(ProceedingJoinPoint punto) throws Throwable {
+        return trazador.trazar("tarea " + punto.getSignature().getDeclaringType().getSimpleName() + "."
+                + punto.getSignature().getName(), punto);
+    }
+
+    @Around("execution(* com.simcii.javaservice.almacenamiento.AlmacenamientoDispositivos.*(..))")
+    public Object trazarAlmacenamiento(ProceedingJoinPoint punto) throws Throwable {
+        if (!trazador.enTrazaMuestreada()) {
+            return punto.proceed();
+        }
+        return trazador.trazar("almacenamiento " + punto.getSignature().getName(), punto);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object trazarRepositorio(ProceedingJoinPoint punto) throws Throwable {
+        if (!trazador.enTrazaMuestreada()) {
+            return punto.proceed();
+        }
+        // Los métodos heredados (save, findById...) se declaran en CrudRepository; se nombra el repositorio
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(punto.getTarget());
+        String repositorio = interfaces.length > 0 ? interfaces[0].getSimpleName()
+                : punto.getSignature().getDeclaringType().getSimpleName();
+        return trazador.trazar("repositorio " + repositorio + "." + punto.getSignature().getName(), punto);
+    }
+}
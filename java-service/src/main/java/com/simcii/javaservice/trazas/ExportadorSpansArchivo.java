@@ -0,0 +1,86 @@
+package com.simcii.javaservice.trazas;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Escribe los spans terminados como líneas JSON en un archivo local, para analizar trazas sin
+ * colector (p. ej. agrupando por traceId con jq). Lo invoca el procesador por lotes de
+ * OpenTelemetry desde su propio hilo, nunca el hilo que atiende la petición.
+ */
+public class ExportadorSpansArchivo implements SpanExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportadorSpansArchivo.class);
+
+    private final Path ruta;
+    private final ObjectMapper objectMapper;
+
+    public ExportadorSpansArchivo(Path ruta, ObjectMapper objectMapper) {
+        this.ruta = ruta;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            if (ruta.getParent() != null) {
+                Files.createDirectories(ruta.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(ruta, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (SpanData span : spans) {
+                    writer.write(objectMapper.writeValueAsString(aMapa(span)));
+                    writer.newLine();
+                }
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            logger.warn("No se pudieron escribir {} spans en {}: {}", spans.size(), ruta, e.getMessage());
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    private Map<String, Object> aMapa(SpanData span) {
+        Map<String, Object> linea = new LinkedHashMap<>();
+        linea.put("traceId", span.getTraceId());
+        linea.put("spanId", span.getSpanId());
+        if (span.getParentSpanContext().isValid()) {
+            linea.put("parentSpanId", span.getParentSpanId());
+        }
+        linea.put("nombre", span.getName());
+        linea.put("tipo", span.getKind().name());
+        linea.put("inicioUs", span.getStartEpochNanos() / 1000);
+        linea.put("duracionUs", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1000);
+        linea.put("estado", span.getStatus().getStatusCode().name());
+        Map<String, Object> atributos = new LinkedHashMap<>();
+        span.getAttributes().forEach((clave, valor) -> atributos.put(clave.getKey(), valor));
+        if (!atributos.isEmpty()) {
+            linea.put("atributos", atributos);
+        }
+        return linea;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
@@ -0,0 +1,92 @@
+package com.simcii.javaservice.trazas;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.annotation.PostConstruct;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Spans de las tareas en segundo plano y de las operaciones que intercepta {@link AspectoTrazas}.
+ * Una tarea abre una traza nueva, sujeta al muestreo; una operación solo crea span si hay una
+ * traza en curso y está muestreada, así que fuera de ella cuesta una consulta al contexto.
+ * Las tareas masivas (una partición de lecturas, un ciclo de retención) se trazan sin detalle:
+ * miles de operaciones por tick harían trazas enormes y encarecerían la exportación.
+ */
+@Component
+public class Trazador {
+
+    @Autowired
+    private ObjectProvider<Tracer> tracerProvider;
+
+    private Tracer tracer;
+    private final ThreadLocal<Boolean> sinDetalle = new ThreadLocal<>();
+
+    @PostConstruct
+    public void inicializar() {
+        tracer = tracerProvider.getIfAvailable(() -> Tracer.NOOP);
+    }
+
+    /**
+     * Ejecuta una tarea masiva en segundo plano en su propia traza, sin spans de sus operaciones.
+     */
+    public <T> T tarea(String nombre, Supplier<T> tarea) {
+        Span span = tracer.nextSpan().name(nombre).start();
+        sinDetalle.set(Boolean.TRUE);
+        try (Tracer.SpanInScope ignorado = tracer.withSpan(span)) {
+            return tarea.get();
+        } catch (RuntimeException | Error e) {
+            span.error(e);
+            throw e;
+        } finally {
+            sinDetalle.remove();
+            span.end();
+        }
+    }
+
+    public void tarea(String nombre, Runnable tarea) {
+        tarea(nombre, () -> {
+            tarea.run();
+            return null;
+        });
+    }
+
+    /**
+     * Envuelve una tarea que se ejecutará en otro hilo para que continúe la traza actual.
+     */
+    public <T> Supplier<T> enContexto(Supplier<T> tarea) {
+        Span actual = tracer.currentSpan();
+        if (actual == null) {
+            return tarea;
+        }
+        return () -> {
+            try (Tracer.SpanInScope ignorado = tracer.withSpan(actual)) {
+                return tarea.get();
+            }
+        };
+    }
+
+    boolean enTrazaMuestreada() {
+        if (sinDetalle.get() != null) {
+            return false;
+        }
+        Span actual = tracer.currentSpan();
+        return actual != null && !actual.isNoop();
+    }
+
+    Object trazar(String nombre, ProceedingJoinPoint punto) throws Throwable {
+        Span span = tracer.nextSpan().name(nombre).start();
+        try (Tracer.SpanInScope ignorado = tracer.withSpan(span)) {
+            return punto.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
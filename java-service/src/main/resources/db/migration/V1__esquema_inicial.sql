@@ -0,0 +1,80 @@
+-- Esquema inicial, equivalente al que generaba Hibernate con ddl-auto: update.
+-- IF NOT EXISTS permite aplicarlo sobre bases de datos ya creadas por Hibernate
+-- (spring.flyway.baseline-on-migrate con baseline-version 0).
+
+CREATE TABLE IF NOT EXISTS dispositivos (
+    id                  BIGSERIAL PRIMARY KEY,
+    nombre              VARCHAR(255),
+    descripcion         VARCHAR(255),
+    ubicacion           VARCHAR(255),
+    activo              BOOLEAN,
+    fecha_creacion      TIMESTAMP(6),
+    fecha_actualizacion TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS sensores (
+    id            BIGINT PRIMARY KEY REFERENCES dispositivos (id),
+    tipo_sensor   VARCHAR(255),
+    unidad_medida VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS sensores_temperatura (
+    id        BIGINT PRIMARY KEY REFERENCES sensores (id),
+    rango_min FLOAT(53),
+    rango_max FLOAT(53)
+);
+
+CREATE TABLE IF NOT EXISTS sensores_humedad (
+    id BIGINT PRIMARY KEY REFERENCES sensores (id)
+);
+
+CREATE TABLE IF NOT EXISTS sensores_luz (
+    id       BIGINT PRIMARY KEY REFERENCES sensores (id),
+    tipo_luz VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS actuadores (
+    id             BIGINT PRIMARY KEY REFERENCES dispositivos (id),
+    tipo_actuador  VARCHAR(255),
+    estado         BOOLEAN,
+    modo_operacion VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS lecturas (
+    id             BIGSERIAL PRIMARY KEY,
+    dispositivo_id BIGINT REFERENCES dispositivos (id),
+    valor          FLOAT(53),
+    fecha_hora     TIMESTAMP(6),
+    unidad         VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS umbrales (
+    id             BIGSERIAL PRIMARY KEY,
+    dispositivo_id BIGINT REFERENCES dispositivos (id),
+    valor_min      FLOAT(53),
+    valor_max      FLOAT(53),
+    tipo_alerta    VARCHAR(255),
+    activo         BOOLEAN,
+    fecha_creacion TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS alertas (
+    id             BIGSERIAL PRIMARY KEY,
+    dispositivo_id BIGINT REFERENCES dispositivos (id),
+    umbral_id      BIGINT REFERENCES umbrales (id),
+    mensaje        VARCHAR(255),
+    valor_actual   FLOAT(53),
+    fecha_creacion TIMESTAMP(6),
+    activa         BOOLEAN
+);
+
+CREATE TABLE IF NOT EXISTS instancias_servicio (
+    id            VARCHAR(255) PRIMARY KEY,
+    ultimo_latido TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS leases_particion (
+    particion   INTEGER PRIMARY KEY,
+    propietario VARCHAR(255),
+    expira_en   TIMESTAMP(6)
+);
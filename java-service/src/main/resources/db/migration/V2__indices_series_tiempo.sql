@@ -0,0 +1,19 @@
+-- Índices para las consultas de los repositorios.
+-- CONCURRENTLY evita bloquear las escrituras sobre lecturas mientras se construyen;
+-- Flyway ejecuta este script fuera de transacción.
+
+-- LecturaRepository: findUltimasLecturas, findByDispositivoIdOrderByFechaHoraDesc y
+-- findByDispositivoIdAndFechaHoraBetween. Orden descendente como el de las consultas
+-- y columnas incluidas para resolverlas con un index-only scan.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_lecturas_dispositivo_fecha
+    ON lecturas (dispositivo_id, fecha_hora DESC) INCLUDE (id, valor, unidad);
+
+-- UmbralRepository: findByDispositivo(Id)AndActivoTrue y findByDispositivo(Id)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_umbrales_dispositivo_activo
+    ON umbrales (dispositivo_id, activo);
+
+-- AlertaRepository: findByActivaTrue y findByDispositivoIdAndActivaTrue.
+-- Parcial porque las alertas activas son una fracción pequeña del histórico.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_alertas_activas_dispositivo
+    ON alertas (dispositivo_id) WHERE activa;
+
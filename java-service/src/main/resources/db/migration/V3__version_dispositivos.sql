@@ -0,0 +1,4 @@
+-- Columna de versión para el bloqueo optimista de dispositivos (@Version en Dispositivo).
+-- Las filas existentes parten de la versión 0.
+
+ALTER TABLE dispositivos ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
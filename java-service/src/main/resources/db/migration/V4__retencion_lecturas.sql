@@ -0,0 +1,8 @@
+-- Punto de control de la purga de lecturas por política de retención (RetencionLecturasService).
+-- Guarda el último dispositivo terminado en el ciclo en curso para continuar tras un reinicio.
+
+CREATE TABLE IF NOT EXISTS retencion_progreso (
+    politica              VARCHAR(255) PRIMARY KEY,
+    ultimo_dispositivo_id BIGINT NOT NULL,
+    actualizado_en        TIMESTAMP(6)
+);
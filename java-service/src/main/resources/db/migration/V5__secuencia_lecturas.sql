@@ -0,0 +1,4 @@
+-- Número de secuencia asignado por el gateway a cada lectura (POST /api/lecturas).
+-- Nulo en las lecturas simuladas y en las enviadas sin secuencia.
+
+ALTER TABLE lecturas ADD COLUMN IF NOT EXISTS secuencia BIGINT;
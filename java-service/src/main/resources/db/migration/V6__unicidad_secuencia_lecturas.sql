@@ -0,0 +1,7 @@
+-- Respaldo de la deduplicación en memoria (DeduplicacionLecturasService): un reintento que
+-- ya no está en la ventana del dispositivo, o que llega tras un reinicio o a otra réplica,
+-- choca con este índice en lugar de duplicar la lectura.
+-- Parcial: las lecturas sin secuencia no se deduplican. CONCURRENTLY para no bloquear la
+-- ingesta; Flyway ejecuta este script fuera de transacción.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS ux_lecturas_dispositivo_secuencia
+    ON lecturas (dispositivo_id, secuencia) WHERE secuencia IS NOT NULL;
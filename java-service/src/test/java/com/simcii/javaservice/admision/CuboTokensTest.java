@@ -0,0 +1,80 @@
+package com.simcii.javaservice.admision;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CuboTokensTest {
+
+    private static final long T0 = 5_000_000_000L;
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void admiteLaRafagaYDespuesIndicaCuantoEsperar() {
+        CuboTokens cubo = new CuboTokens(3, T0);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, cubo.consumir(2, 3, T0));
+        }
+        // A 2 tokens/s falta medio segundo para el siguiente
+        assertEquals(500 * MS, cubo.consumir(2, 3, T0));
+    }
+
+    @Test
+    void recargaSegunElTiempoTranscurrido() {
+        CuboTokens cubo = new CuboTokens(1, T0);
+        assertEquals(0, cubo.consumir(2, 1, T0));
+        assertEquals(250 * MS, cubo.consumir(2, 1, T0 + 250 * MS));
+        assertEquals(0, cubo.consumir(2, 1, T0 + 500 * MS));
+        assertTrue(cubo.consumir(2, 1, T0 + 500 * MS) > 0);
+    }
+
+    @Test
+    void laRecargaNoSuperaLaCapacidad() {
+        CuboTokens cubo = new CuboTokens(2, T0);
+        assertEquals(0, cubo.consumir(2, 2, T0));
+        assertEquals(0, cubo.consumir(2, 2, T0));
+        long despues = T0 + 60_000 * MS;
+        assertEquals(0, cubo.consumir(2, 2, despues));
+        assertEquals(0, cubo.consumir(2, 2, despues));
+        assertTrue(cubo.consumir(2, 2, despues) > 0);
+    }
+
+    @Test
+    void devolverRestituyeElTokenSinSuperarLaCapacidad() {
+        CuboTokens cubo = new CuboTokens(1, T0);
+        assertEquals(0, cubo.consumir(0, 1, T0));
+        cubo.devolver(1);
+        assertEquals(0, cubo.consumir(0, 1, T0));
+
+        cubo.devolver(1);
+        cubo.devolver(1);
+        assertEquals(0, cubo.consumir(0, 1, T0));
+        assertTrue(cubo.consumir(0, 1, T0) > 0);
+    }
+
+    @Test
+    void conTasaCeroNoSeRecargaNunca() {
+        CuboTokens cubo = new CuboTokens(1, T0);
+        assertEquals(0, cubo.consumir(0, 1, T0));
+        assertEquals(Long.MAX_VALUE, cubo.consumir(0, 1, T0 + 3_600_000 * MS));
+    }
+
+    @Test
+    void llenoCuandoRecuperaLaCapacidad() {
+        CuboTokens cubo = new CuboTokens(2, T0);
+        assertTrue(cubo.lleno(1, 2, T0));
+        cubo.consumir(1, 2, T0);
+        assertFalse(cubo.lleno(1, 2, T0 + 999 * MS));
+        assertTrue(cubo.lleno(1, 2, T0 + 1000 * MS));
+    }
+
+    @Test
+    void retryAfterRedondeaHaciaArribaEntreUnSegundoYUnaHora() {
+        assertEquals(1, PermisoAdmision.rechazado(PermisoAdmision.MOTIVO_CLIENTE, 1).getReintentarEnSegundos());
+        assertEquals(1, PermisoAdmision.rechazado(PermisoAdmision.MOTIVO_CLIENTE, 1_000 * MS).getReintentarEnSegundos());
+        assertEquals(2, PermisoAdmision.rechazado(PermisoAdmision.MOTIVO_CLIENTE, 1_001 * MS).getReintentarEnSegundos());
+        assertEquals(3600, PermisoAdmision.rechazado(PermisoAdmision.MOTIVO_CLIENTE, Long.MAX_VALUE).getReintentarEnSegundos());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,208 @@
+package com.simcii.javaservice.busqueda;
+
+import com.simcii.javaservice.busqueda.IndiceDispositivos.Consulta;
+import com.simcii.javaservice.busqueda.IndiceDispositivos.Orden;
+import com.simcii.javaservice.dto.PaginaDispositivos;
+import com.simcii.javaservice.dto.ResumenDispositivo;
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndiceDispositivosTest {
+
+    private static final String[] TIPOS = {"SENSOR_TEMPERATURA", "SENSOR_HUMEDAD", "SENSOR_LUZ", "ACTUADOR"};
+    private static final String[] PALABRAS = {"Alfa", "beta", "gamma", "Delta", "Ñandú", "árbol", "Válvula"};
+    private static final String[] ZONAS = {"Zona A", "Zona B", "Almacén", "almacen", "Cámara 2"};
+    private static final String[] TEXTOS = {"al", "ALF", "nandu", "arbol 1", "b", "delta 4", "valv", "zz", "á-1"};
+
+    /**
+     * Dispositivo de referencia con sus textos ya normalizados.
+     */
+    private record Referencia(ResumenDispositivo resumen, String nombre, String ubicacion, String tipo,
+                              List<String> palabras) {
+
+        static Referencia de(ResumenDispositivo resumen) {
+            List<String> palabras = new ArrayList<>(terminos(resumen.getNombre()));
+            palabras.addAll(terminos(resumen.getDescripcion()));
+            return new Referencia(resumen, normalizar(resumen.getNombre()), normalizar(resumen.getUbicacion()),
+                    normalizar(resumen.getTipo()), palabras);
+        }
+    }
+
+    /**
+     * Estado de referencia: filtra y ordena todo el catálogo en cada consulta.
+     */
+    private final Map<Long, Referencia> referencia = new HashMap<>();
+
+    @Test
+    void coincideConUnFiltradoIngenuoConLosOrdenesPrecalculados() {
+        for (long semilla = 1; semilla <= 3; semilla++) {
+            comprobarSecuencia(semilla, true);
+        }
+    }
+
+    @Test
+    void coincideConUnFiltradoIngenuoCalculandoLosOrdenesAlConsultar() {
+        for (long semilla = 11; semilla <= 13; semilla++) {
+            comprobarSecuencia(semilla, false);
+        }
+    }
+
+    @Test
+    void ignoraMayusculasYAcentosYTrataLosTerminosComoPrefijos() {
+        IndiceDispositivos indice = new IndiceDispositivos();
+        indice.indexar(new ResumenDispositivo(1L, "SENSOR_LUZ", "Luz Almacén Norte", "Pasillo", "Almacén", true));
+        indice.indexar(new ResumenDispositivo(2L, "ACTUADOR", "Válvula riego", null, "Invernadero", false));
+
+        assertEquals(List.of(1L), ids(indice.buscar(consulta("ALMACEN nor", null, null, null))));
+        assertEquals(List.of(1L), ids(indice.buscar(consulta(null, "almacen", "sensor_luz", null))));
+        assertEquals(List.of(2L), ids(indice.buscar(consulta("valv", null, null, false))));
+        assertEquals(List.of(), ids(indice.buscar(consulta("almacen", null, "ACTUADOR", null))));
+    }
+
+    private void comprobarSecuencia(long semilla, boolean prepararOrdenes) {
+        Random random = new Random(semilla);
+        IndiceDispositivos indice = new IndiceDispositivos();
+        referencia.clear();
+
+        List<ResumenDispositivo> lote = new ArrayList<>();
+        for (long id = 0; id < 1000; id++) {
+            lote.add(aleatorio(random, id));
+        }
+        indexarLote(indice, lote);
+        if (prepararOrdenes) {
+            indice.prepararOrdenes();
+        }
+
+        for (int paso = 0; paso < 3000; paso++) {
+            int operacion = random.nextInt(20);
+            long id = random.nextInt(1250);
+            if (operacion < 5) {
+                indice.eliminar(id);
+                referencia.remove(id);
+            } else if (operacion < 11) {
+                ResumenDispositivo resumen = aleatorio(random, id);
+                indice.indexar(resumen);
+                referencia.put(id, Referencia.de(resumen));
+            } else if (operacion == 11) {
+                // Lotes pequeños recolocan uno a uno; los grandes descartan los órdenes calculados
+                List<ResumenDispositivo> otroLote = new ArrayList<>();
+                int tamano = random.nextBoolean() ? 1 + random.nextInt(20) : 300;
+                for (int i = 0; i < tamano; i++) {
+                    otroLote.add(aleatorio(random, random.nextInt(1250)));
+                }
+                indexarLote(indice, otroLote);
+            } else {
+                Consulta consulta = consultaAleatoria(random);
+                PaginaDispositivos pagina = indice.buscar(consulta);
+                List<ResumenDispositivo> esperados = filtrarYOrdenar(consulta);
+                String contexto = "semilla " + semilla + ", paso " + paso + ", " + consulta;
+                assertEquals(esperados.size(), pagina.getTotal(), contexto);
+                int desde = Math.min(esperados.size(), consulta.pagina() * consulta.tamano());
+                int hasta = Math.min(esperados.size(), desde + consulta.tamano());
+                assertEquals(ids(esperados.subList(desde, hasta)), ids(pagina), contexto);
+            }
+        }
+        assertEquals(referencia.size(), indice.tamano());
+    }
+
+    private void indexarLote(IndiceDispositivos indice, List<ResumenDispositivo> lote) {
+        indice.indexarLote(lote);
+        lote.forEach(resumen -> referencia.put(resumen.getId(), Referencia.de(resumen)));
+    }
+
+    private static ResumenDispositivo aleatorio(Random random, long id) {
+        String nombre = PALABRAS[random.nextInt(PALABRAS.length)] + " " + random.nextInt(40);
+        String descripcion = random.nextInt(4) == 0 ? null : PALABRAS[random.nextInt(PALABRAS.length)];
+        return new ResumenDispositivo(id, TIPOS[random.nextInt(TIPOS.length)], nombre, descripcion,
+                ZONAS[random.nextInt(ZONAS.length)], random.nextBoolean());
+    }
+
+    private static Consulta consultaAleatoria(Random random) {
+        String texto = random.nextInt(3) == 0 ? null : TEXTOS[random.nextInt(TEXTOS.length)];
+        String ubicacion = random.nextInt(3) == 0 ? ZONAS[random.nextInt(ZONAS.length)].toUpperCase(Locale.ROOT) : null;
+        String tipo = random.nextInt(3) == 0 ? TIPOS[random.nextInt(TIPOS.length)].toLowerCase(Locale.ROOT) : null;
+        Boolean activo = random.nextInt(3) == 0 ? random.nextBoolean() : null;
+        Orden orden = Orden.values()[random.nextInt(Orden.values().length)];
+        return new Consulta(texto, ubicacion, tipo, activo, orden, random.nextBoolean(),
+                random.nextInt(4), 1 + random.nextInt(50));
+    }
+
+    private static Consulta consulta(String texto, String ubicacion, String tipo, Boolean activo) {
+        return new Consulta(texto, ubicacion, tipo, activo, Orden.ID, false, 0, 20);
+    }
+
+    private List<ResumenDispositivo> filtrarYOrdenar(Consulta consulta) {
+        String ubicacion = consulta.ubicacion() != null ? normalizar(consulta.ubicacion()) : null;
+        String tipo = consulta.tipo() != null ? normalizar(consulta.tipo()) : null;
+        List<String> texto = consulta.texto() != null ? terminos(consulta.texto()) : List.of();
+        List<Referencia> resultado = new ArrayList<>();
+        for (Referencia dispositivo : referencia.values()) {
+            if (cumple(dispositivo, ubicacion, tipo, consulta.activo(), texto)) {
+                resultado.add(dispositivo);
+            }
+        }
+        Comparator<Referencia> porId = Comparator.comparing(r -> r.resumen().getId());
+        Comparator<Referencia> porNombre = Comparator.comparing(Referencia::nombre).thenComparing(porId);
+        Comparator<Referencia> comparador = switch (consulta.orden()) {
+            case ID -> porId;
+            case NOMBRE -> porNombre;
+            case UBICACION -> Comparator.comparing(Referencia::ubicacion).thenComparing(porNombre);
+            case TIPO -> Comparator.comparing(Referencia::tipo).thenComparing(porNombre);
+        };
+        resultado.sort(consulta.descendente() ? comparador.reversed() : comparador);
+        return resultado.stream().map(Referencia::resumen).toList();
+    }
+
+    private static boolean cumple(Referencia dispositivo, String ubicacion, String tipo, Boolean activo, List<String> texto) {
+        if (ubicacion != null && !dispositivo.ubicacion().equals(ubicacion)) {
+            return false;
+        }
+        if (tipo != null && !dispositivo.tipo().equals(tipo)) {
+            return false;
+        }
+        if (activo != null && !activo.equals(dispositivo.resumen().getActivo())) {
+            return false;
+        }
+        for (String termino : texto) {
+            if (dispositivo.palabras().stream().noneMatch(palabra -> palabra.startsWith(termino))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> terminos(String texto) {
+        List<String> resultado = new ArrayList<>();
+        for (String termino : normalizar(texto).split("[^\\p{Alnum}]+")) {
+            if (!termino.isEmpty()) {
+                resultado.add(termino);
+            }
+        }
+        return resultado;
+    }
+
+    private static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        return Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}+", "").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<Long> ids(PaginaDispositivos pagina) {
+        return ids(pagina.getDispositivos());
+    }
+
+    private static List<Long> ids(List<ResumenDispositivo> resumenes) {
+        return resumenes.stream().map(ResumenDispositivo::getId).toList();
+    }
+}
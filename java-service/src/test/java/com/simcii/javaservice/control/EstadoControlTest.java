@@ -0,0 +1,88 @@
+package com.simcii.javaservice.control;
+
+import org.junit.jupiter.api.Test;
+
+import static com.simcii.javaservice.control.EstadoControl.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EstadoControlTest {
+
+    private static final long T0 = 1_000_000;
+    private static final long SEGUNDO = 1000;
+
+    // Enciende por encima de 28 y apaga por debajo de 26; 20 s de antirrebote, 60 s mínimo encendido, 30 s apagado
+    private static EstadoControl estado(boolean encendido) {
+        PropiedadesControl.DefinicionRegla definicion = new PropiedadesControl.DefinicionRegla();
+        definicion.setNombre("ventilacion");
+        definicion.setSensor("TEMPERATURA");
+        definicion.setEncenderSi("> 28");
+        definicion.setApagarSi("< 26");
+        definicion.setActuador("VENTILADOR");
+        definicion.setRetardoMs(20 * SEGUNDO);
+        definicion.setMinimoEncendidoMs(60 * SEGUNDO);
+        definicion.setMinimoApagadoMs(30 * SEGUNDO);
+        return new EstadoControl(ReglaControl.compilar(definicion), "Z1", encendido);
+    }
+
+    @Test
+    void cambiaSoloSiLaCondicionSeMantieneDuranteElRetardo() {
+        EstadoControl estado = estado(false);
+        assertEquals(SIN_CAMBIO, estado.evaluar(30, T0));
+        assertEquals(SIN_CAMBIO, estado.evaluar(30, T0 + 19 * SEGUNDO));
+        assertEquals(ENCENDER, estado.evaluar(30, T0 + 20 * SEGUNDO));
+        assertTrue(estado.isEncendido());
+    }
+
+    @Test
+    void unaLecturaQueNoCumpleLaCondicionReiniciaElAntirrebote() {
+        EstadoControl estado = estado(false);
+        assertEquals(SIN_CAMBIO, estado.evaluar(30, T0));
+        assertEquals(SIN_CAMBIO, estado.evaluar(27, T0 + 10 * SEGUNDO));
+        assertEquals(SIN_CAMBIO, estado.evaluar(30, T0 + 20 * SEGUNDO));
+        assertEquals(SIN_CAMBIO, estado.evaluar(30, T0 + 39 * SEGUNDO));
+        assertEquals(ENCENDER, estado.evaluar(30, T0 + 40 * SEGUNDO));
+    }
+
+    @Test
+    void laHisteresisMantieneElEstadoEntreUmbrales() {
+        EstadoControl estado = estado(true);
+        assertEquals(SIN_CAMBIO, estado.evaluar(27, T0));
+        assertEquals(SIN_CAMBIO, estado.evaluar(26, T0 + 30 * SEGUNDO));
+        assertTrue(estado.isEncendido());
+    }
+
+    @Test
+    void respetaLosTiemposMinimosDeEncendidoYApagado() {
+        EstadoControl estado = estado(false);
+        estado.evaluar(30, T0);
+        assertEquals(ENCENDER, estado.evaluar(30, T0 + 20 * SEGUNDO));
+        long encendidoEn = T0 + 20 * SEGUNDO;
+
+        // Antirrebote cumplido a los 21 s, pero no se apaga hasta 60 s después de encender
+        assertEquals(SIN_CAMBIO, estado.evaluar(20, encendidoEn + SEGUNDO));
+        assertEquals(SIN_CAMBIO, estado.evaluar(20, encendidoEn + 30 * SEGUNDO));
+        assertEquals(SIN_CAMBIO, estado.evaluar(20, encendidoEn + 59 * SEGUNDO));
+        assertEquals(APAGAR, estado.evaluar(20, encendidoEn + 60 * SEGUNDO));
+        long apagadoEn = encendidoEn + 60 * SEGUNDO;
+
+        assertEquals(SIN_CAMBIO, estado.evaluar(30, apagadoEn + SEGUNDO));
+        assertEquals(SIN_CAMBIO, estado.evaluar(30, apagadoEn + 29 * SEGUNDO));
+        assertEquals(ENCENDER, estado.evaluar(30, apagadoEn + 30 * SEGUNDO));
+    }
+
+    @Test
+    void sincronizarNoPisaUnCambioPendiente() {
+        EstadoControl estado = estado(false);
+        estado.sincronizar(true);
+        assertTrue(estado.isEncendido());
+
+        // Apagado pendiente de confirmar: el estado almacenado no se adopta hasta resolverlo
+        assertEquals(SIN_CAMBIO, estado.evaluar(20, T0));
+        estado.sincronizar(false);
+        assertTrue(estado.isEncendido());
+        assertEquals(APAGAR, estado.evaluar(20, T0 + 20 * SEGUNDO));
+        assertFalse(estado.isEncendido());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.simcii.javaservice.estadisticas;
+
+import com.simcii.javaservice.estadisticas.DetectorAnomalias.TipoAnomalia;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DetectorAnomaliasTest {
+
+    // Los valores por defecto de application.yml
+    private static final DetectorAnomalias.Parametros PARAMETROS =
+            new DetectorAnomalias.Parametros(0.01, 4.0, 0.5, 10.0, 30, 300_000);
+    private static final long PERIODO_MS = 10_000;
+    private static final double MEDIA = 20.0;
+    private static final double SIGMA = 0.5;
+
+    private final Random aleatorio = new Random(42);
+    private final DetectorAnomalias detector = new DetectorAnomalias(PARAMETROS);
+    private long instante = 1_000_000;
+
+    private TipoAnomalia evaluar(double valor) {
+        instante += PERIODO_MS;
+        return detector.evaluar(valor, instante);
+    }
+
+    // Uniforme con desviación SIGMA: acotado a ±1.73 desviaciones, nunca es un salto
+    private double ruido() {
+        return (aleatorio.nextDouble() * 2 - 1) * Math.sqrt(3) * SIGMA;
+    }
+
+    // Lecturas estacionarias: ninguna debe marcarse
+    private void estabilizar(int lecturas) {
+        for (int i = 0; i < lecturas; i++) {
+            assertNull(evaluar(MEDIA + ruido()), "falso positivo en la lectura " + i);
+        }
+    }
+
+    @Test
+    void unaSerieEstacionariaNoGeneraAnomalias() {
+        estabilizar(2000);
+        assertEquals(MEDIA, detector.getMedia(), SIGMA / 2);
+        assertEquals(SIGMA, detector.getDesviacion(), SIGMA / 2);
+    }
+
+    @Test
+    void conRuidoGaussianoLosFalsosPositivosSonRaros() {
+        int anomalias = 0;
+        // Sin silencio, para contar cada detección
+        DetectorAnomalias sinSilencio = new DetectorAnomalias(new DetectorAnomalias.Parametros(
+                PARAMETROS.alfa(), PARAMETROS.umbralSalto(), PARAMETROS.holguraDeriva(), PARAMETROS.umbralDeriva(),
+                PARAMETROS.calentamiento(), 0));
+        for (int i = 0; i < 20_000; i++) {
+            instante += PERIODO_MS;
+            if (sinSilencio.evaluar(MEDIA + aleatorio.nextGaussian() * SIGMA, instante) != null) {
+                anomalias++;
+            }
+        }
+        assertTrue(anomalias <= 10, anomalias + " falsos positivos en 20000 lecturas");
+    }
+
+    @Test
+    void noPuntuaDuranteElCalentamiento() {
+        for (int i = 0; i < 20; i++) {
+            assertNull(evaluar(MEDIA + ruido()));
+        }
+        assertNull(evaluar(MEDIA + 100));
+        assertEquals(0, detector.getUltimaPuntuacion());
+    }
+
+    @Test
+    void detectaUnSaltoAislado() {
+        estabilizar(300);
+        assertEquals(TipoAnomalia.SALTO, evaluar(MEDIA + 10 * SIGMA));
+        assertTrue(detector.getUltimaPuntuacion() > PARAMETROS.umbralSalto());
+        assertEquals(MEDIA, detector.getUltimaReferencia(), SIGMA / 2);
+        // El salto aislado no infla la desviación: la serie vuelve a ser normal
+        assertTrue(detector.getDesviacion() < 2 * SIGMA);
+        estabilizar(100);
+    }
+
+    @Test
+    void detectaUnaDerivaLentaQueNoLlegaASalto() {
+        estabilizar(300);
+        TipoAnomalia anomalia = null;
+        int lectura = 0;
+        // 0.01 desviaciones por lectura: la EWMA se queda atrás ~1 desviación, lejos del umbral de salto
+        while (anomalia == null && lectura < 500) {
+            lectura++;
+            anomalia = evaluar(MEDIA + lectura * SIGMA * 0.01 + ruido());
+        }
+        assertEquals(TipoAnomalia.DERIVA, anomalia);
+        assertTrue(Math.abs(detector.getUltimaPuntuacion()) < PARAMETROS.umbralSalto());
+    }
+
+    @Test
+    void silenciaLasDeteccionesDuranteElSilencio() {
+        estabilizar(300);
+        assertEquals(TipoAnomalia.SALTO, evaluar(MEDIA + 10 * SIGMA));
+        // Las lecturas 1..29 posteriores caen dentro de los 300 s de silencio; la 30 ya no
+        int silenciadas = (int) (PARAMETROS.silencioMs() / PERIODO_MS) - 1;
+        assertNull(evaluar(MEDIA - 10 * SIGMA));
+        for (int i = 2; i < silenciadas; i++) {
+            evaluar(MEDIA + ruido());
+        }
+        assertNull(evaluar(MEDIA + 10 * SIGMA));
+        assertEquals(TipoAnomalia.SALTO, evaluar(MEDIA + 10 * SIGMA));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.simcii.javaservice.estadisticas;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SketchCuantilesTest {
+
+    private static final double PRECISION = 0.01;
+    private static final double[] CUANTILES = {0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1};
+
+    @Test
+    void estimaCadaCuantilDentroDeLaPrecisionRelativa() {
+        Random random = new Random(3);
+        double[] valores = new double[20000];
+        for (int i = 0; i < valores.length; i++) {
+            // Magnitudes de varios órdenes, con ceros y negativos
+            double magnitud = Math.exp(random.nextGaussian() * 3);
+            valores[i] = switch (random.nextInt(10)) {
+                case 0 -> 0;
+                case 1, 2, 3 -> -magnitud;
+                default -> magnitud;
+            };
+        }
+        SketchCuantiles sketch = new SketchCuantiles(PRECISION, 4096);
+        for (double valor : valores) {
+            sketch.anadir(valor);
+        }
+        comprobarCuantiles(sketch, valores);
+    }
+
+    @Test
+    void combinarEquivaleAAnadirTodosLosValoresAlMismoSketch() {
+        Random random = new Random(5);
+        double[] valores = new double[6000];
+        SketchCuantiles primero = new SketchCuantiles(PRECISION, 4096);
+        SketchCuantiles segundo = new SketchCuantiles(PRECISION, 4096);
+        for (int i = 0; i < valores.length; i++) {
+            // Rangos distintos para que la combinación tenga que ampliar los bins
+            valores[i] = i % 2 == 0 ? 1 + random.nextDouble() * 10 : 500 + random.nextDouble() * 5000;
+            (i % 2 == 0 ? primero : segundo).anadir(valores[i]);
+        }
+        primero.combinar(segundo);
+        assertEquals(valores.length, primero.getTotal());
+        comprobarCuantiles(primero, valores);
+    }
+
+    @Test
+    void unSketchVacioOReiniciadoNoTieneCuantiles() {
+        SketchCuantiles sketch = new SketchCuantiles(PRECISION, 64);
+        assertTrue(Double.isNaN(sketch.cuantil(0.5)));
+        sketch.anadir(42);
+        sketch.reiniciar();
+        assertEquals(0, sketch.getTotal());
+        assertTrue(Double.isNaN(sketch.cuantil(0.5)));
+    }
+
+    private static void comprobarCuantiles(SketchCuantiles sketch, double[] valores) {
+        double[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        for (double q : CUANTILES) {
+            double exacto = ordenados[(int) (q * (ordenados.length - 1))];
+            double estimado = sketch.cuantil(q);
+            assertEquals(exacto, estimado, PRECISION * Math.abs(exacto) * (1 + 1e-9) + 1e-12, "cuantil " + q);
+        }
+    }
+}
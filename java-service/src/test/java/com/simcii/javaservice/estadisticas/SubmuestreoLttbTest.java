@@ -0,0 +1,76 @@
+package com.simcii.javaservice.estadisticas;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubmuestreoLttbTest {
+
+    @Test
+    void conservaLosExtremosYUnPuntoPorCuboEnOrdenCreciente() {
+        Random random = new Random(9);
+        for (int prueba = 0; prueba < 200; prueba++) {
+            int n = 3 + random.nextInt(2000);
+            int maxPuntos = 3 + random.nextInt(Math.max(1, n - 3));
+            long[] x = new long[n];
+            double[] y = new double[n];
+            for (int i = 0; i < n; i++) {
+                x[i] = (i == 0 ? 0 : x[i - 1]) + 1 + random.nextInt(1000);
+                y[i] = random.nextGaussian();
+            }
+
+            int[] indices = SubmuestreoLttb.seleccionar(x, y, n, maxPuntos);
+            assertEquals(Math.min(n, maxPuntos), indices.length);
+            assertEquals(0, indices[0]);
+            assertEquals(n - 1, indices[indices.length - 1]);
+            if (indices.length < n) {
+                double ancho = (double) (n - 2) / (maxPuntos - 2);
+                for (int cubo = 0; cubo < maxPuntos - 2; cubo++) {
+                    int indice = indices[cubo + 1];
+                    assertTrue(indice >= (int) (cubo * ancho) + 1 && indice < (int) ((cubo + 1) * ancho) + 1,
+                            "el punto " + indice + " no pertenece al cubo " + cubo);
+                }
+            }
+            for (int i = 1; i < indices.length; i++) {
+                assertTrue(indices[i - 1] < indices[i]);
+            }
+        }
+    }
+
+    @Test
+    void conservaUnPicoAisladoDeUnaSerieLlana() {
+        int n = 1000;
+        long[] x = new long[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i * 1000L;
+        }
+        y[437] = 50;
+        y[812] = -30;
+
+        int[] indices = SubmuestreoLttb.seleccionar(x, y, n, 20);
+        assertTrue(contiene(indices, 437));
+        assertTrue(contiene(indices, 812));
+    }
+
+    @Test
+    void sinReduccionDevuelveTodosLosPuntos() {
+        long[] x = {1, 2, 3, 4};
+        double[] y = {4, 3, 2, 1};
+        assertArrayEquals(new int[]{0, 1, 2, 3}, SubmuestreoLttb.seleccionar(x, y, 4, 10));
+        assertArrayEquals(new int[]{0, 1, 2}, SubmuestreoLttb.seleccionar(x, y, 3, 3));
+    }
+
+    private static boolean contiene(int[] indices, int indice) {
+        for (int i : indices) {
+            if (i == indice) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,88 @@
+package com.simcii.javaservice.ingesta;
+
+import org.junit.jupiter.api.Test;
+
+import static com.simcii.javaservice.ingesta.VentanaDeduplicacion.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VentanaDeduplicacionTest {
+
+    private static VentanaDeduplicacion ventanaCon(long... guardadas) {
+        VentanaDeduplicacion ventana = new VentanaDeduplicacion(64);
+        for (long secuencia : guardadas) {
+            assertEquals(NUEVA, ventana.registrar(secuencia));
+            ventana.confirmar(secuencia);
+        }
+        return ventana;
+    }
+
+    @Test
+    void rechazaTamanosQueNoSonMultiplosDe64() {
+        assertThrows(IllegalArgumentException.class, () -> new VentanaDeduplicacion(0));
+        assertThrows(IllegalArgumentException.class, () -> new VentanaDeduplicacion(100));
+    }
+
+    @Test
+    void detectaDuplicadosConfirmadosYAdmiteDesordenDentroDeLaVentana() {
+        VentanaDeduplicacion ventana = ventanaCon(10, 5);
+        assertEquals(DUPLICADA, ventana.registrar(10));
+        assertEquals(DUPLICADA, ventana.registrar(5));
+        assertEquals(NUEVA, ventana.registrar(7));
+    }
+
+    @Test
+    void unaSecuenciaEnCursoNoCuentaComoGuardada() {
+        VentanaDeduplicacion ventana = new VentanaDeduplicacion(64);
+        assertEquals(NUEVA, ventana.registrar(3));
+        assertEquals(EN_CURSO, ventana.registrar(3));
+        ventana.confirmar(3);
+        assertEquals(DUPLICADA, ventana.registrar(3));
+    }
+
+    @Test
+    void olvidarPermiteReintentarUnaSecuenciaNoGuardada() {
+        VentanaDeduplicacion ventana = ventanaCon(1, 2);
+        assertEquals(NUEVA, ventana.registrar(3));
+        ventana.olvidar(3);
+        assertEquals(NUEVA, ventana.registrar(3));
+        // Olvidar una secuencia ya confirmada no la borra
+        ventana.olvidar(2);
+        assertEquals(DUPLICADA, ventana.registrar(2));
+    }
+
+    @Test
+    void avanceIgualAlTamanoVaciaLaVentana() {
+        VentanaDeduplicacion ventana = ventanaCon(0, 1, 63);
+        assertEquals(NUEVA, ventana.registrar(127));
+        ventana.confirmar(127);
+        // 63 queda justo fuera; 64 comparte posición con 0 pero no se ha visto
+        assertEquals(FUERA_DE_VENTANA, ventana.registrar(63));
+        assertEquals(NUEVA, ventana.registrar(64));
+        assertEquals(DUPLICADA, ventana.registrar(127));
+    }
+
+    @Test
+    void avanceMenorQueElTamanoLimpiaSoloLasPosicionesQueEntran() {
+        VentanaDeduplicacion ventana = ventanaCon(0, 10, 20);
+        assertEquals(NUEVA, ventana.registrar(70));
+        ventana.confirmar(70);
+        // 10 y 20 siguen dentro; 64..69 reutilizan las posiciones de 0..5 y son nuevas
+        assertEquals(DUPLICADA, ventana.registrar(10));
+        assertEquals(DUPLICADA, ventana.registrar(20));
+        assertEquals(FUERA_DE_VENTANA, ventana.registrar(0));
+        assertEquals(NUEVA, ventana.registrar(64));
+    }
+
+    @Test
+    void confirmarUnaSecuenciaQueSalioDeLaVentanaNoMarcaOtra() {
+        VentanaDeduplicacion ventana = new VentanaDeduplicacion(64);
+        assertEquals(NUEVA, ventana.registrar(0));
+        assertEquals(NUEVA, ventana.registrar(64));
+        // 0 terminó tarde: ya está fuera y no debe marcar 64, que comparte posición
+        ventana.confirmar(0);
+        assertEquals(EN_CURSO, ventana.registrar(64));
+        ventana.olvidar(0);
+        assertEquals(EN_CURSO, ventana.registrar(64));
+    }
+}
@@ -0,0 +1,174 @@
+package com.simcii.javaservice.persistencia;
+
+import com.simcii.javaservice.models.Lectura;
+import com.simcii.javaservice.models.SensorTemperatura;
+import com.simcii.javaservice.models.Umbral;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WalMemoriaTest {
+
+    @TempDir
+    Path directorio;
+
+    private SensorTemperatura escribirSensorConLecturas(int lecturas) throws IOException {
+        SensorTemperatura sensor = new SensorTemperatura();
+        sensor.setId(1L);
+        sensor.setNombre("Temperatura Zona A");
+        sensor.setUbicacion("Zona A");
+        sensor.setRangoMin(-10.0);
+        sensor.setRangoMax(50.0);
+        try (WalMemoria wal = new WalMemoria(directorio, false)) {
+            wal.abrir();
+            wal.registrarDispositivo(sensor);
+            for (int i = 0; i < lecturas; i++) {
+                Lectura lectura = new Lectura(sensor, 20.0 + i, LocalDateTime.of(2025, 1, 1, 0, i), "C");
+                lectura.setId(100L + i);
+                wal.registrarLectura(lectura);
+            }
+        }
+        return sensor;
+    }
+
+    private Path segmento() {
+        return directorio.resolve("wal-00000001.log");
+    }
+
+    private void anadir(int... enteros) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(segmento().toFile(), true))) {
+            for (int entero : enteros) {
+                out.writeInt(entero);
+            }
+        }
+    }
+
+    private EstadoMemoria reproducir() throws IOException {
+        EstadoMemoria estado = new EstadoMemoria();
+        new WalMemoria(directorio, false).reproducir(estado, 0);
+        return estado;
+    }
+
+    @Test
+    void reproduceDispositivosYLecturas() throws IOException {
+        escribirSensorConLecturas(3);
+
+        EstadoMemoria estado = reproducir();
+
+        SensorTemperatura sensor = (SensorTemperatura) estado.getDispositivos().get(1L);
+        assertEquals("Temperatura Zona A", sensor.getNombre());
+        assertEquals(50.0, sensor.getRangoMax());
+        assertEquals(3, estado.getLecturas().get(1L).size());
+        assertEquals(22.0, estado.getLecturas().get(1L).get(2).getValor());
+        assertEquals(103L, estado.getSiguienteId());
+    }
+
+    @Test
+    void reproduceLaPurgaPorRetencionConSuMaximo() throws IOException {
+        SensorTemperatura sensor = escribirSensorConLecturas(5);
+        try (WalMemoria wal = new WalMemoria(directorio, false)) {
+            wal.abrir();
+            wal.registrarPurga(sensor.getId(), LocalDateTime.of(2025, 1, 1, 0, 3), 2);
+        }
+
+        List<Lectura> lecturas = reproducir().getLecturas().get(1L);
+
+        assertEquals(List.of(102L, 103L, 104L), lecturas.stream().map(Lectura::getId).toList());
+    }
+
+    @Test
+    void laPurgaConservaElOrdenDeLasLecturasQueQuedan() {
+        SensorTemperatura sensor = new SensorTemperatura();
+        List<Lectura> lecturas = new ArrayList<>();
+        int[] minutos = {5, 0, 6, 1, 2, 7};
+        for (int i = 0; i < minutos.length; i++) {
+            Lectura lectura = new Lectura(sensor, 20.0, LocalDateTime.of(2025, 1, 1, 0, minutos[i]), "C");
+            lectura.setId(100L + i);
+            lecturas.add(lectura);
+        }
+
+        int eliminadas = PersistenciaMemoria.purgarLecturas(lecturas, LocalDateTime.of(2025, 1, 1, 0, 3), 2);
+
+        assertEquals(2, eliminadas);
+        assertEquals(List.of(100L, 102L, 104L, 105L), lecturas.stream().map(Lectura::getId).toList());
+    }
+
+    @Test
+    void unLoteSeReproduceEnteroONada() throws IOException {
+        SensorTemperatura sensor = escribirSensorConLecturas(0);
+        SensorTemperatura otro = new SensorTemperatura();
+        otro.setId(2L);
+        otro.setNombre("Temperatura Zona B");
+        Umbral umbral = new Umbral();
+        umbral.setId(3L);
+        umbral.setDispositivo(otro);
+        umbral.setValorMax(30.0);
+        try (WalMemoria wal = new WalMemoria(directorio, false)) {
+            wal.abrir();
+            wal.registrarLote(List.of(otro), List.of(umbral));
+        }
+
+        EstadoMemoria estado = reproducir();
+        assertEquals(2, estado.getDispositivos().size());
+        assertEquals(30.0, estado.getUmbrales().get(2L).getValorMax());
+        assertEquals(4L, estado.getSiguienteId());
+
+        // El lote truncado se descarta completo; lo anterior se conserva
+        Path ultimo = directorio.resolve("wal-00000002.log");
+        byte[] bytes = Files.readAllBytes(ultimo);
+        Files.write(ultimo, Arrays.copyOf(bytes, bytes.length - 10));
+        estado = reproducir();
+        assertEquals(List.of(sensor.getId()), List.copyOf(estado.getDispositivos().keySet()));
+        assertTrue(estado.getUmbrales().isEmpty());
+    }
+
+    @Test
+    void unaLongitudNegativaTerminaElSegmento() throws IOException {
+        escribirSensorConLecturas(2);
+        anadir(-5, 0);
+
+        assertEquals(2, reproducir().getLecturas().get(1L).size());
+    }
+
+    @Test
+    void unaLongitudEnormeTerminaElSegmentoSinReservarla() throws IOException {
+        escribirSensorConLecturas(2);
+        anadir(Integer.MAX_VALUE, 0, 0);
+
+        assertEquals(2, reproducir().getLecturas().get(1L).size());
+    }
+
+    @Test
+    void unaLongitudMayorQueLoQueQuedaTerminaElSegmento() throws IOException {
+        escribirSensorConLecturas(2);
+        anadir(64, 1, 2, 3);
+
+        assertEquals(2, reproducir().getLecturas().get(1L).size());
+    }
+
+    @Test
+    void unRegistroTruncadoOCorruptoTerminaElSegmento() throws IOException {
+        escribirSensorConLecturas(2);
+        byte[] bytes = Files.readAllBytes(segmento());
+        // Último registro truncado: se pierde solo esa lectura
+        Files.write(segmento(), Arrays.copyOf(bytes, bytes.length - 3));
+        assertEquals(1, reproducir().getLecturas().get(1L).size());
+
+        // CRC alterado en la última lectura
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(segmento(), bytes);
+        assertEquals(1, reproducir().getLecturas().get(1L).size());
+    }
+}
@@ -0,0 +1,150 @@
+package com.simcii.javaservice.services;
+
+import com.simcii.javaservice.admision.PermisoAdmision;
+import com.simcii.javaservice.admision.PropiedadesAdmision;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ControlAdmisionServiceTest {
+
+    private static ControlAdmisionService servicio(PropiedadesAdmision propiedades, String... proxies) {
+        ControlAdmisionService servicio = new ControlAdmisionService();
+        ReflectionTestUtils.setField(servicio, "propiedades", propiedades);
+        ReflectionTestUtils.setField(servicio, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(servicio, "proxiesConfiablesConfigurados", List.of(proxies));
+        servicio.inicializar();
+        return servicio;
+    }
+
+    // Sin recarga apreciable durante el test
+    private static PropiedadesAdmision limites(int maxEnCurso, double rafagaCliente, double rafagaDispositivo) {
+        PropiedadesAdmision propiedades = new PropiedadesAdmision();
+        propiedades.setMaxEnCurso(maxEnCurso);
+        propiedades.setTasaCliente(0);
+        propiedades.setRafagaCliente(rafagaCliente);
+        propiedades.setTasaDispositivo(0);
+        propiedades.setRafagaDispositivo(rafagaDispositivo);
+        return propiedades;
+    }
+
+    private static boolean contiene(String red, String direccion) throws UnknownHostException {
+        return ControlAdmisionService.RedConfiable.de(red).contiene(InetAddress.getByName(direccion).getAddress());
+    }
+
+    @Test
+    void unRechazoPorDispositivoNoConsumeElCupoDelCliente() {
+        ControlAdmisionService servicio = servicio(limites(10, 2, 1));
+
+        try (PermisoAdmision permiso = servicio.admitir("gw", 1L)) {
+            assertTrue(permiso.isConcedido());
+        }
+        PermisoAdmision rechazado = servicio.admitir("gw", 1L);
+        assertEquals(PermisoAdmision.MOTIVO_DISPOSITIVO, rechazado.getMotivo());
+        // El token del cliente se devolvió: queda uno para otro dispositivo
+        try (PermisoAdmision permiso = servicio.admitir("gw", 2L)) {
+            assertTrue(permiso.isConcedido());
+        }
+        assertEquals(PermisoAdmision.MOTIVO_CLIENTE, servicio.admitir("gw", 3L).getMotivo());
+        assertTrue(servicio.admitir("otro", 3L).isConcedido());
+    }
+
+    @Test
+    void retryAfterSegunLaTasaDelDispositivo() {
+        PropiedadesAdmision propiedades = limites(10, 100, 1);
+        propiedades.setTasaDispositivo(0.5);
+        ControlAdmisionService servicio = servicio(propiedades);
+
+        servicio.admitir("gw", 1L).close();
+        PermisoAdmision rechazado = servicio.admitir("gw", 1L);
+
+        assertFalse(rechazado.isConcedido());
+        assertEquals(2, rechazado.getReintentarEnSegundos());
+    }
+
+    @Test
+    void limitaLasPeticionesEnCurso() {
+        ControlAdmisionService servicio = servicio(limites(2, 100, 100));
+
+        PermisoAdmision primero = servicio.admitir("gw", 1L);
+        PermisoAdmision segundo = servicio.admitir("gw", 2L);
+        PermisoAdmision tercero = servicio.admitir("gw", 3L);
+        assertTrue(primero.isConcedido() && segundo.isConcedido());
+        assertEquals(PermisoAdmision.MOTIVO_CONCURRENCIA, tercero.getMotivo());
+        assertEquals(1, tercero.getReintentarEnSegundos());
+
+        // Cerrar dos veces no libera dos plazas
+        primero.close();
+        primero.close();
+        PermisoAdmision cuarto = servicio.admitir("gw", 4L);
+        assertTrue(cuarto.isConcedido());
+        assertEquals(PermisoAdmision.MOTIVO_CONCURRENCIA, servicio.admitir("gw", 5L).getMotivo());
+        segundo.close();
+        cuarto.close();
+    }
+
+    @Test
+    void deshabilitadaAdmiteTodo() {
+        PropiedadesAdmision propiedades = limites(1, 1, 1);
+        propiedades.setHabilitada(false);
+        ControlAdmisionService servicio = servicio(propiedades);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(servicio.admitir("gw", 1L).isConcedido());
+        }
+    }
+
+    @Test
+    void redesIpv4ConPrefijosNoMultiplosDe8() throws UnknownHostException {
+        assertTrue(contiene("10.16.0.0/12", "10.16.0.1"));
+        assertTrue(contiene("10.16.0.0/12", "10.31.255.255"));
+        assertFalse(contiene("10.16.0.0/12", "10.32.0.0"));
+        assertFalse(contiene("10.16.0.0/12", "10.15.255.255"));
+        assertTrue(contiene("192.168.1.128/25", "192.168.1.200"));
+        assertFalse(contiene("192.168.1.128/25", "192.168.1.127"));
+        assertTrue(contiene("0.0.0.0/0", "203.0.113.9"));
+        // Sin prefijo, la dirección exacta
+        assertTrue(contiene("172.17.0.1", "172.17.0.1"));
+        assertFalse(contiene("172.17.0.1", "172.17.0.2"));
+    }
+
+    @Test
+    void redesIpv6ConPrefijosNoMultiplosDe8() throws UnknownHostException {
+        assertTrue(contiene("2001:db8:ab00::/41", "2001:db8:ab7f:ffff::1"));
+        assertFalse(contiene("2001:db8:ab00::/41", "2001:db8:ab80::1"));
+        assertTrue(contiene("fd00::/7", "fcff::1"));
+        assertFalse(contiene("fd00::/7", "fe80::1"));
+        // Una red IPv4 no contiene direcciones IPv6 ni al revés
+        assertFalse(contiene("0.0.0.0/0", "::1"));
+        assertFalse(contiene("::/0", "127.0.0.1"));
+    }
+
+    @Test
+    void rechazaPrefijosFueraDeRango() {
+        assertThrows(IllegalArgumentException.class, () -> ControlAdmisionService.RedConfiable.de("10.0.0.0/33"));
+        assertThrows(IllegalArgumentException.class, () -> ControlAdmisionService.RedConfiable.de("::/129"));
+        assertThrows(IllegalArgumentException.class, () -> ControlAdmisionService.RedConfiable.de("10.0.0.0/x"));
+    }
+
+    @Test
+    void soloAceptaLaCabeceraDeClienteDesdeUnProxyConfiable() {
+        ControlAdmisionService servicio = servicio(limites(10, 10, 10), "10.16.0.0/12");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Client-Id", "gateway-7");
+
+        request.setRemoteAddr("10.20.1.1");
+        assertEquals("gateway-7", servicio.identificarCliente(request));
+        request.setRemoteAddr("10.32.1.1");
+        assertEquals("10.32.1.1", servicio.identificarCliente(request));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.simcii.javaservice.verificacion;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StatementInspector de {@link PlanesConsultaIT}: recoge el SQL que Hibernate genera para las
+ * llamadas a repositorios hechas dentro de {@link #capturar(Runnable)}, de modo que el EXPLAIN se
+ * hace sobre la sentencia real y no sobre una copia escrita a mano. Hibernate crea la instancia a
+ * partir de hibernate.session_factory.statement_inspector, por eso la captura es estática.
+ */
+public class CapturaSql implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> capturadas = new ThreadLocal<>();
+
+    /**
+     * Ejecuta la llamada y devuelve la primera sentencia que generó (las siguientes, si las hay,
+     * son cargas de asociaciones de las entidades leídas).
+     *
+     * @throws IllegalStateException si la llamada no llegó a ejecutar SQL
+     */
+    static String capturar(Runnable llamada) {
+        List<String> sentencias = new ArrayList<>();
+        capturadas.set(sentencias);
+        try {
+            llamada.run();
+        } finally {
+            capturadas.remove();
+        }
+        if (sentencias.isEmpty()) {
+            throw new IllegalStateException("La llamada no ejecutó ninguna sentencia SQL");
+        }
+        return sentencias.get(0);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> sentencias = capturadas.get();
+        if (sentencias != null) {
+            sentencias.add(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,229 @@
+package com.simcii.javaservice.verificacion;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simcii.javaservice.almacenamiento.RetencionJdbc;
+import com.simcii.javaservice.repositories.AlertaRepository;
+import com.simcii.javaservice.repositories.DispositivoRepository;
+import com.simcii.javaservice.repositories.LecturaRepository;
+import com.simcii.javaservice.repositories.UmbralRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verificación de planes de ejecución de las consultas de los repositorios: prueba de integración
+ * contra una base de datos local que ejecuta failsafe con {@code mvn -Pverificar-planes verify}.
+ *
+ * Siembra un volumen representativo de dispositivos, lecturas, umbrales y alertas dentro de la
+ * transacción de la prueba, que se revierte al terminar, actualiza las estadísticas con ANALYZE y ejecuta
+ * EXPLAIN sobre el SQL que Hibernate genera al llamar a cada método de repositorio (capturado con
+ * {@link CapturaSql}), con los mismos parámetros en el orden en que aparecen en la sentencia. La
+ * prueba falla si algún plan recorre una tabla completa (Seq Scan).
+ *
+ * No se verifican los listados completos (findAll, findByActivoTrue, findAllActuadores, sensores por
+ * partición), las búsquedas por clave primaria ni las tablas de coordinación de pocas filas
+ * (instancias_servicio, leases_particion): el planificador puede elegir con razón un recorrido
+ * secuencial de las tablas pequeñas de la jerarquía o de coordinación.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("verificar-planes")
+class PlanesConsultaIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlanesConsultaIT.class);
+    private static final String PREFIJO = "verificacion-planes-";
+
+    // Recorridos secuenciales correctos con el volumen sembrado: el recuento agrupa todas las alertas
+    // activas con su dispositivo, y leer dispositivos entero para un hash join cuesta menos que una
+    // búsqueda por clave por alerta mientras la tabla tenga unos pocos miles de filas
+    private static final Map<String, Set<String>> SECUENCIALES_ADMITIDOS = Map.of(
+            "AlertaRepository.contarActivasPorUbicacion", Set.of("dispositivos"));
+
+    private record Consulta(String nombre, String sql, Object... parametros) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LecturaRepository lecturaRepository;
+
+    @Autowired
+    private UmbralRepository umbralRepository;
+
+    @Autowired
+    private AlertaRepository alertaRepository;
+
+    @Autowired
+    private DispositivoRepository dispositivoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${verificacion.planes.dispositivos:2000}")
+    private int dispositivos;
+
+    @Value("${verificacion.planes.lecturas-por-dispositivo:200}")
+    private int lecturasPorDispositivo;
+
+    @Value("${verificacion.planes.alertas-por-dispositivo:20}")
+    private int alertasPorDispositivo;
+
+    @Test
+    @Transactional
+    void ningunaConsultaRecorreTablasCompletasFueraDeLasAdmitidas() {
+        long sensorId = sembrar();
+        List<String> fallos = verificar(consultas(sensorId));
+        assertTrue(fallos.isEmpty(), "Planes con recorrido secuencial:\n" + String.join("\n", fallos));
+    }
+
+    // Los parámetros de cada consulta son los de la llamada en el orden en que Hibernate los coloca
+    // en la sentencia (la paginación va al final: OFFSET ? ROWS FETCH FIRST ? ROWS ONLY)
+    private List<Consulta> consultas(long sensorId) {
+        LocalDateTime fin = LocalDateTime.now();
+        LocalDateTime inicio = fin.minusHours(1);
+        Timestamp finSql = Timestamp.valueOf(fin);
+        Timestamp inicioSql = Timestamp.valueOf(inicio);
+        return List.of(
+                new Consulta("LecturaRepository.findUltimasLecturas",
+                        CapturaSql.capturar(() -> lecturaRepository.findUltimasLecturas(sensorId, 10)), sensorId, 10),
+                new Consulta("LecturaRepository.findByDispositivoIdOrderByFechaHoraDesc",
+                        CapturaSql.capturar(() -> lecturaRepository.findByDispositivoIdOrderByFechaHoraDesc(sensorId)),
+                        sensorId),
+                new Consulta("LecturaRepository.findByDispositivoIdAndFechaHoraBetween",
+                        CapturaSql.capturar(() -> lecturaRepository.findByDispositivoIdAndFechaHoraBetween(sensorId, inicio, fin)),
+                        sensorId, inicioSql, finSql),
+                new Consulta("LecturaRepository.findCompactasByDispositivoId",
+                        CapturaSql.capturar(() -> lecturaRepository.findCompactasByDispositivoId(sensorId)), sensorId),
+                new Consulta("LecturaRepository.findUltimasCompactas",
+                        CapturaSql.capturar(() -> lecturaRepository.findUltimasCompactas(sensorId, PageRequest.of(0, 10))),
+                        sensorId, 0, 10),
+                new Consulta("LecturaRepository.findCompactasEntre",
+                        CapturaSql.capturar(() -> lecturaRepository.findCompactasEntre(sensorId, inicio, fin)),
+                        sensorId, inicioSql, finSql),
+                new Consulta("LecturaRepository.findUltimaLecturaPorDispositivo",
+                        CapturaSql.capturar(() -> lecturaRepository.findUltimaLecturaPorDispositivo(List.of(sensorId, sensorId + 1))),
+                        sensorId, sensorId + 1),
+                new Consulta("UmbralRepository.findByDispositivoIdAndActivoTrue",
+                        CapturaSql.capturar(() -> umbralRepository.findByDispositivoIdAndActivoTrue(sensorId)), sensorId),
+                new Consulta("UmbralRepository.findByDispositivoId",
+                        CapturaSql.capturar(() -> umbralRepository.findByDispositivoId(sensorId)), sensorId),
+                new Consulta("AlertaRepository.findByActivaTrue",
+                        CapturaSql.capturar(() -> alertaRepository.findByActivaTrue())),
+                new Consulta("AlertaRepository.findByDispositivoIdAndActivaTrue",
+                        CapturaSql.capturar(() -> alertaRepository.findByDispositivoIdAndActivaTrue(sensorId)), sensorId),
+                new Consulta("AlertaRepository.contarActivasPorUbicacion",
+                        CapturaSql.capturar(() -> alertaRepository.contarActivasPorUbicacion())),
+                new Consulta("DispositivoRepository.findSensoresActivosSinUmbral",
+                        CapturaSql.capturar(() -> dispositivoRepository.findSensoresActivosSinUmbral(0L, PageRequest.of(0, 100))),
+                        0L, 0, 100),
+                // Sentencia JDBC, fuera de Hibernate: se verifica la constante que ejecuta RetencionJdbc
+                new Consulta("RetencionJdbc.eliminarLecturasAnteriores",
+                        RetencionJdbc.ELIMINAR_LECTURAS_ANTERIORES, sensorId, inicioSql, 1000));
+    }
+
+    /**
+     * Inserta los datos de prueba con generate_series (uno de cada cinco dispositivos es un actuador
+     * y uno de cada siete sensores queda sin umbrales, como los recién dados de alta)
+     * y devuelve el ID de un sensor sembrado para parametrizar las consultas.
+     */
+    private long sembrar() {
+        long inicio = System.currentTimeMillis();
+        jdbcTemplate.update("INSERT INTO dispositivos (nombre, ubicacion, activo, fecha_creacion) " +
+                "SELECT ?::text || g, 'Zona ' || (g % 4), g % 10 <> 0, now() FROM generate_series(1, ?) g",
+                PREFIJO, dispositivos);
+        String sembrados = "SELECT id FROM dispositivos WHERE nombre LIKE '" + PREFIJO + "%'";
+
+        jdbcTemplate.update("INSERT INTO actuadores (id, tipo_actuador, estado, modo_operacion) " +
+                "SELECT id, 'RIEGO', false, 'AUTOMATICO' FROM (" + sembrados + ") d WHERE id % 5 = 0");
+        jdbcTemplate.update("INSERT INTO sensores (id, tipo_sensor, unidad_medida) " +
+                "SELECT id, 'TEMPERATURA', '°C' FROM (" + sembrados + ") d WHERE id % 5 <> 0");
+        String sensores = "SELECT id FROM (" + sembrados + ") d WHERE id % 5 <> 0";
+        jdbcTemplate.update("INSERT INTO sensores_temperatura (id, rango_min, rango_max) " +
+                "SELECT id, -10, 50 FROM (" + sensores + ") s");
+
+        jdbcTemplate.update("INSERT INTO lecturas (dispositivo_id, valor, fecha_hora, unidad) " +
+                "SELECT s.id, random() * 40, now() - make_interval(secs => g * 10), '°C' " +
+                "FROM (" + sensores + ") s CROSS JOIN generate_series(1, ?) g", lecturasPorDispositivo);
+        jdbcTemplate.update("INSERT INTO umbrales (dispositivo_id, valor_min, valor_max, tipo_alerta, activo, fecha_creacion) " +
+                "SELECT s.id, 10, 30, 'TEMPERATURA_FUERA_RANGO', g = 1, now() " +
+                "FROM (" + sensores + ") s CROSS JOIN generate_series(1, 2) g WHERE s.id % 7 <> 0");
+        jdbcTemplate.update("INSERT INTO alertas (dispositivo_id, mensaje, valor_actual, fecha_creacion, activa) " +
+                "SELECT s.id, 'Valor fuera de rango', 35, now() - make_interval(mins => g), g = 1 " +
+                "FROM (" + sensores + ") s CROSS JOIN generate_series(1, ?) g", alertasPorDispositivo);
+
+        jdbcTemplate.execute("ANALYZE dispositivos, sensores, sensores_temperatura, actuadores, lecturas, umbrales, alertas");
+        logger.info("Datos de verificación sembrados en {} ms: {} dispositivos, {} lecturas por sensor",
+                System.currentTimeMillis() - inicio, dispositivos, lecturasPorDispositivo);
+        return jdbcTemplate.queryForObject("SELECT min(id) FROM (" + sensores + ") s", Long.class);
+    }
+
+    private List<String> verificar(List<Consulta> consultas) {
+        List<String> fallos = new ArrayList<>();
+        for (Consulta consulta : consultas) {
+            long marcadores = consulta.sql().chars().filter(c -> c == '?').count();
+            if (marcadores != consulta.parametros().length) {
+                fallos.add(consulta.nombre() + " (la sentencia tiene " + marcadores + " parámetros y se indicaron "
+                        + consulta.parametros().length + "): " + consulta.sql());
+                continue;
+            }
+            String json = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + consulta.sql(), String.class,
+                    consulta.parametros());
+            try {
+                JsonNode plan = objectMapper.readTree(json).get(0).get("Plan");
+                List<String> recorridos = new ArrayList<>();
+                buscarRecorridosSecuenciales(plan, recorridos);
+                recorridos.removeAll(SECUENCIALES_ADMITIDOS.getOrDefault(consulta.nombre(), Set.of()));
+                if (recorridos.isEmpty()) {
+                    logger.info("{}: {}", consulta.nombre(), resumen(plan));
+                } else {
+                    fallos.add(consulta.nombre() + " sobre " + String.join(", ", recorridos) + ": " + resumen(plan));
+                }
+            } catch (Exception e) {
+                fallos.add(consulta.nombre() + " (plan ilegible: " + e.getMessage() + ")");
+            }
+        }
+        return fallos;
+    }
+
+    private static void buscarRecorridosSecuenciales(JsonNode nodo, List<String> recorridos) {
+        if ("Seq Scan".equals(nodo.path("Node Type").asText())) {
+            recorridos.add(nodo.path("Relation Name").asText());
+        }
+        for (JsonNode hijo : nodo.path("Plans")) {
+            buscarRecorridosSecuenciales(hijo, recorridos);
+        }
+    }
+
+    private static String resumen(JsonNode nodo) {
+        StringBuilder texto = new StringBuilder(nodo.path("Node Type").asText());
+        if (nodo.has("Index Name")) {
+            texto.append(" (").append(nodo.get("Index Name").asText()).append(')');
+        }
+        JsonNode hijos = nodo.path("Plans");
+        if (hijos.size() > 0) {
+            texto.append(" -> [");
+            for (int i = 0; i < hijos.size(); i++) {
+                texto.append(i > 0 ? ", " : "").append(resumen(hijos.get(i)));
+            }
+            texto.append(']');
+        }
+        return texto.toString();
+    }
+}
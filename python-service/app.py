@@ -13,6 +13,7 @@ import sys
 import os
 import csv
 import io
+from collections import OrderedDict
 from datetime import datetime, timedelta
 import random
 
@@ -42,11 +43,16 @@ os.makedirs('logs', exist_ok=True)
 
 # Simulación de data_store para alertas
 class MockDataStore:
+    # Ids de eventos recordados para descartar reintentos del servicio Java
+    MAX_EVENTOS_RECORDADOS = 10000
+
     def __init__(self):
         self.simulacion_activa = True
         self.dispositivos_simulados = []
         self.alertas = self._generar_alertas_iniciales()
         self.estadisticas = {}
+        self.eventos_recibidos = OrderedDict()
+        self._lock_eventos = threading.Lock()
     
     def _generar_alertas_iniciales(self):
         """Genera alertas iniciales para pruebas."""
@@ -97,6 +103,16 @@ class MockDataStore:
     def agregar_alerta(self, alerta):
         """Agrega una nueva alerta."""
         self.alertas.append(alerta)
+    
+    def registrar_evento(self, evento_id):
+        """Registra el id de un evento; devuelve False si ya se había recibido."""
+        with self._lock_eventos:
+            if evento_id in self.eventos_recibidos:
+                return False
+            self.eventos_recibidos[evento_id] = True
+            if len(self.eventos_recibidos) > self.MAX_EVENTOS_RECORDADOS:
+                self.eventos_recibidos.popitem(last=False)
+            return True
 
 # Crear data_store global
 data_store = MockDataStore()
@@ -122,7 +138,8 @@ def root():
             "alertas_csv": "/api/alertas/csv",
             "alertas_json": "/api/alertas",
             "test": "/api/alertas/test",
-            "simular_alerta": "/api/alertas/simular (POST)"
+            "simular_alerta": "/api/alertas/simular (POST)",
+            "eventos": "/api/v1/eventos (POST)"
         }
     })
 
@@ -346,6 +363,50 @@ def limpiar_alertas():
         logger.error(f"Error al limpiar alertas: {e}")
         return jsonify({'error': str(e)}), 500
 
+@app.route('/api/v1/eventos', methods=['POST'])
+def recibir_evento():
+    """
+    Recibe los eventos del servicio Java ({"id", "tipo", "datos"}), p. ej. las alertas del canal
+    de notificaciones "python". Los eventos NUEVA_ALERTA se agregan a las alertas; un evento con
+    un id ya recibido es un reintento y se confirma sin volver a agregarlo.
+    """
+    evento = request.get_json(silent=True)
+    if not isinstance(evento, dict) or not evento.get('id') or not evento.get('tipo'):
+        return jsonify({'error': 'Se requiere un evento JSON con id y tipo'}), 400
+    
+    if not data_store.registrar_evento(evento['id']):
+        return jsonify({'status': 'ok', 'message': 'Evento duplicado, ya registrado'})
+    
+    try:
+        if evento['tipo'] == 'NUEVA_ALERTA':
+            datos = evento.get('datos') or {}
+            nueva_alerta = type('Alerta', (), {
+                'id': max([getattr(a, 'id', 0) for a in data_store.alertas] or [0]) + 1,
+                'dispositivo_id': datos.get('dispositivoId'),
+                'dispositivo_nombre': datos.get('dispositivo', ''),
+                'zona': datos.get('ubicacion', ''),
+                'tipo_alerta': datos.get('tipo', ''),
+                'valor': datos.get('valor', ''),
+                'umbral_min': None,
+                'umbral_max': None,
+                'mensaje': datos.get('mensaje', ''),
+                'fecha_creacion': datos.get('fechaHora') or datetime.now().isoformat(),
+                'activa': True,
+                'nivel_criticidad': 1
+            })()
+            data_store.agregar_alerta(nueva_alerta)
+            logger.info(f"Alerta recibida del servicio Java: {evento['id']} ({nueva_alerta.dispositivo_nombre})")
+        else:
+            logger.info(f"Evento {evento['tipo']} recibido del servicio Java: {evento['id']}")
+        
+        return jsonify({'status': 'ok', 'message': 'Evento registrado'}), 201
+    
+    except Exception as e:
+        # Se olvida el id para que el reintento vuelva a procesarlo
+        data_store.eventos_recibidos.pop(evento['id'], None)
+        logger.error(f"Error al registrar evento: {e}")
+        return jsonify({'error': str(e)}), 500
+
 # =============================================
 # FUNCIONES DE FONDO
 # =============================================
@@ -429,6 +490,7 @@ def init_app():
     logger.info(f"  • http://{app.config['HOST']}:{app.config['PORT']}/api/alertas/test")
     logger.info(f"  • http://{app.config['HOST']}:{app.config['PORT']}/api/alertas/simular (POST)")
     logger.info(f"  • http://{app.config['HOST']}:{app.config['PORT']}/api/alertas/limpiar (POST)")
+    logger.info(f"  • http://{app.config['HOST']}:{app.config['PORT']}/api/v1/eventos (POST)")
     logger.info("=" * 60)
 
 # Inicializar la aplicación